@@ -65,10 +65,11 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/auth/**", "/oauth2/**", "/login/oauth2/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/analytics/sales/trending").permitAll()
                         .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         // Customer endpoints
-                        .requestMatchers(HttpMethod.POST, "/api/orders", "/api/payments/process").hasRole("CUSTOMER")
+                        .requestMatchers(HttpMethod.POST, "/api/orders", "/api/orders/submissions", "/api/payments/process").hasRole("CUSTOMER")
                         .requestMatchers(HttpMethod.GET, "/api/orders/customer/**").hasRole("CUSTOMER")
                         // Admin endpoints
                         .requestMatchers("/api/orders/admin/**", "/api/customers/admin/**").hasRole("ADMIN")
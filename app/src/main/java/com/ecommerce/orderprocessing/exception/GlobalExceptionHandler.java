@@ -2,6 +2,8 @@ package com.ecommerce.orderprocessing.exception;
 
 import com.ecommerce.orderprocessing.common.exception. ErrorResponse;
 import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
 import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
@@ -64,6 +66,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(BulkheadFullException ex) {
+        ErrorResponse errorResponse = new ErrorResponse.Builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(CircuitBreakerOpenException.class)
+    public ResponseEntity<ErrorResponse> handleCircuitBreakerOpenException(CircuitBreakerOpenException ex) {
+        ErrorResponse errorResponse = new ErrorResponse.Builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse.Builder()
@@ -6,6 +6,8 @@ import com.ecommerce.orderprocessing.user.repository.UserRepository;
 import com.ecommerce.orderprocessing.user.security.JwtTokenProvider;
 import com.ecommerce.orderprocessing.user.service.AuthenticationService;
 import com.ecommerce.orderprocessing.user.service.CustomUserDetailsService;
+import com.ecommerce.orderprocessing.order.service.IdempotencyService;
+import com.ecommerce.orderprocessing.order.service.OrderExportService;
 import com.ecommerce.orderprocessing.order.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +47,12 @@ class SecurityConfigTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
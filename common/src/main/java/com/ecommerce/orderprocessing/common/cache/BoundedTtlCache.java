@@ -0,0 +1,237 @@
+package com.ecommerce.orderprocessing.common.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small in-process cache bounded by entry count and time-to-live.
+ * <p>
+ * Entries are kept in access order so the least recently used entry is dropped once {@code maxSize}
+ * is exceeded; expired entries are dropped lazily when read. Every invalidation bumps a generation
+ * counter, and {@link #putIfCurrent} refuses values loaded before the latest invalidation, so a slow
+ * read-through cannot re-insert data that an update has just evicted.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public BoundedTtlCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value, or {@code null} when the key is absent or expired.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            V value = lookup(key, now());
+            if (value == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached values for the given keys; keys that are absent or expired are left out.
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> found = new HashMap<>();
+        lock.lock();
+        try {
+            long now = now();
+            for (K key : keys) {
+                V value = lookup(key, now);
+                if (value == null) {
+                    misses.increment();
+                } else {
+                    hits.increment();
+                    found.put(key, value);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return found;
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            store(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the value unless the key already holds a live one, as a single step.
+     *
+     * @return the value already stored, or {@code null} if {@code value} was stored
+     */
+    public V putIfAbsent(K key, V value) {
+        lock.lock();
+        try {
+            V existing = lookup(key, now());
+            if (existing != null) {
+                hits.increment();
+                return existing;
+            }
+            misses.increment();
+            store(key, value);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the value only if nothing has been invalidated since {@code loadedAtGeneration}
+     * was read from {@link #generation()} before loading it.
+     *
+     * @return {@code true} if the value was stored
+     */
+    public boolean putIfCurrent(K key, V value, long loadedAtGeneration) {
+        lock.lock();
+        try {
+            if (generation.get() != loadedAtGeneration) {
+                return false;
+            }
+            store(key, value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry only if it still holds {@code value}, so a caller cannot drop a value that
+     * has since replaced its own.
+     *
+     * @return {@code true} if the entry was removed
+     */
+    public boolean invalidate(K key, V value) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || !Objects.equals(entry.value(), value)) {
+                return false;
+            }
+            generation.incrementAndGet();
+            entries.remove(key);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private V lookup(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new Entry<>(value, now() + ttlMillis));
+        if (entries.size() > maxSize) {
+            Iterator<K> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private long now() {
+        return clock.millis();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
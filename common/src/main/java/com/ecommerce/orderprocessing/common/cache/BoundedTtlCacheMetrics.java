@@ -0,0 +1,42 @@
+package com.ecommerce.orderprocessing.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes a {@link BoundedTtlCache}'s hits, misses, evictions and size under the {@code cache.*}
+ * meter names Micrometer uses for other caches, tagged with the cache's name.
+ */
+public class BoundedTtlCacheMetrics implements MeterBinder {
+
+    private final BoundedTtlCache<?, ?> cache;
+    private final String cacheName;
+
+    public BoundedTtlCacheMetrics(BoundedTtlCache<?, ?> cache, String cacheName) {
+        this.cache = cache;
+        this.cacheName = cacheName;
+    }
+
+    public static <C extends BoundedTtlCache<?, ?>> C monitor(MeterRegistry meterRegistry, C cache, String cacheName) {
+        new BoundedTtlCacheMetrics(cache, cacheName).bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::hitCount)
+                .tags("cache", cacheName, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::missCount)
+                .tags("cache", cacheName, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::evictionCount)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A concurrency cap that finds its own level, for a resource whose real capacity is unknown and
+ * changes under load.
+ * <p>
+ * The limit follows additive-increase/multiplicative-decrease, as TCP congestion control does: each
+ * successful call that started while at least half the limit was in use raises it by
+ * {@code 1 / limit}, so a full window of successes adds one; a call that fails with an overload
+ * signal ({@code isOverload}, typically a timeout) multiplies it by {@code backoffRatio}. Only one
+ * decrease is taken per round of calls: drops from calls started before the last decrease are
+ * counted but do not shrink the limit again, so one slow burst does not collapse it to the minimum.
+ * <p>
+ * Calls beyond the current limit are rejected at once with {@link BulkheadFullException}; waiting
+ * would only add to the latency the limit is trying to shed.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Predicate<Throwable> isOverload;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+    private volatile long decreaseEpoch;
+
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    /**
+     * @param initialLimit limit to start from, before any call has been measured
+     * @param minLimit     floor the limit never decreases below
+     * @param maxLimit     ceiling the limit never grows past
+     * @param backoffRatio factor, between 0 and 1, the limit is multiplied by on an overload
+     * @param isOverload   which exceptions signal that the resource is overloaded
+     */
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                    Predicate<Throwable> isOverload) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("minLimit must be positive and no greater than maxLimit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.isOverload = isOverload;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Starts an asynchronous call if the limit allows it and adjusts the limit by its outcome when
+     * its future completes. A rejected call yields a future failed with {@link BulkheadFullException}.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> task) {
+        long epoch = decreaseEpoch;
+        int inFlightAtStart = tryAcquire();
+        if (inFlightAtStart < 0) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(new BulkheadFullException(name, getLimit()));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException ex) {
+            inFlight.decrementAndGet();
+            return CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> {
+            inFlight.decrementAndGet();
+            onSample(epoch, inFlightAtStart, ex);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The current limit, rounded down to whole calls.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Number of calls that failed with an overload signal.
+     */
+    public long getDropCount() {
+        return drops.sum();
+    }
+
+    /**
+     * Returns the number of calls in flight including this one, or -1 if the limit is reached.
+     */
+    private int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private void onSample(long epoch, int inFlightAtStart, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        boolean overloaded = cause != null && isOverload.test(cause);
+        if (overloaded) {
+            drops.increment();
+        } else if (cause != null || inFlightAtStart * 2 < limit) {
+            // Other failures say nothing about capacity; nor does success while the limit was not in use
+            return;
+        }
+        lock.lock();
+        try {
+            if (overloaded) {
+                if (epoch == decreaseEpoch) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    decreaseEpoch++;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
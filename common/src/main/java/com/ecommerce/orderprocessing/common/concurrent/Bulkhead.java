@@ -0,0 +1,116 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent calls into one downstream resource.
+ * <p>
+ * Virtual threads make the executor itself unbounded, so the real limit has to sit in front of the
+ * resource that runs out first (database connections, gateway connections). Callers beyond
+ * {@code maxConcurrentCalls} wait up to {@code maxWait} for a permit and are then rejected with
+ * {@link BulkheadFullException}, instead of piling up on the resource's own pool.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejections = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Runs a blocking call while holding a permit.
+     */
+    public <T> T call(Supplier<T> task) {
+        acquire();
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Starts an asynchronous call while holding a permit; the permit is returned when the call's
+     * future completes. A rejected call yields a future failed with {@link BulkheadFullException}.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> task) {
+        try {
+            acquire();
+        } catch (BulkheadFullException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException ex) {
+            permits.release();
+            return CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> permits.release());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Number of callers currently waiting for a permit.
+     */
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw new BulkheadFullException(name, maxConcurrentCalls);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejections.increment();
+            throw new BulkheadFullException(name, maxConcurrentCalls);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
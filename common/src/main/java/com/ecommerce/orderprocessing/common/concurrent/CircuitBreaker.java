@@ -0,0 +1,246 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Fails calls fast while a downstream resource is failing, instead of letting every caller wait out
+ * its own timeout.
+ * <p>
+ * The breaker keeps the outcomes of the last {@code windowSize} calls. Once at least
+ * {@code minimumCalls} of them are recorded and the share of failures reaches
+ * {@code failureRateThreshold}, it opens: calls are rejected with {@link CircuitBreakerOpenException}
+ * without being started. After {@code openDuration} it lets {@code halfOpenCalls} trial calls
+ * through; if they all succeed it closes with an empty window, and the first failure opens it again.
+ * <p>
+ * Only failures matching {@code recordAsFailure} count against the resource; other exceptions (a
+ * rejection by a limiter further in, say) neither count for nor against it. Outcomes of calls
+ * started before the last state change are discarded, so a slow call from before an outage cannot
+ * close or reopen the breaker on its way out.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Predicate<Throwable> recordAsFailure;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long stateEpoch;
+    private long openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder notPermitted = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Predicate<Throwable> recordAsFailure) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, recordAsFailure,
+                Clock.systemUTC());
+    }
+
+    /**
+     * @param windowSize           number of most recent outcomes the failure rate is taken over
+     * @param minimumCalls         outcomes needed in the window before the breaker may open
+     * @param failureRateThreshold share of failures, between 0 and 1, that opens the breaker
+     * @param openDuration         how long the breaker stays open before letting trial calls through
+     * @param halfOpenCalls        trial calls that must all succeed to close the breaker again
+     * @param recordAsFailure      which exceptions count as failures of the resource
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Predicate<Throwable> recordAsFailure,
+                          Clock clock) {
+        if (windowSize <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("windowSize and halfOpenCalls must be positive");
+        }
+        if (minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("openDuration must not be negative");
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+        this.recordAsFailure = recordAsFailure;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts an asynchronous call if the breaker permits it and records its outcome when its future
+     * completes. A rejected call yields a future failed with {@link CircuitBreakerOpenException}.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> task) {
+        long epoch = acquirePermission();
+        if (epoch < 0) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException(name));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException ex) {
+            onComplete(epoch, ex);
+            return CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> onComplete(epoch, ex));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            // Report an expired open period as half-open even before the next call moves it there
+            return state == State.OPEN && openPeriodOver() ? State.HALF_OPEN : state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Share of failures among the outcomes in the window, or 0 while the window is empty.
+     */
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Number of calls rejected without being started because the breaker was open.
+     */
+    public long getNotPermittedCount() {
+        return notPermitted.sum();
+    }
+
+    /**
+     * Returns the epoch the call was permitted in, or -1 if it is not permitted.
+     */
+    private long acquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (!openPeriodOver()) {
+                    notPermitted.increment();
+                    return -1;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenStarted >= halfOpenCalls) {
+                    notPermitted.increment();
+                    return -1;
+                }
+                halfOpenStarted++;
+            }
+            return stateEpoch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onComplete(long epoch, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        boolean ignored = cause != null && !recordAsFailure.test(cause);
+        boolean failed = cause != null && !ignored;
+        if (!ignored) {
+            (failed ? failures : successes).increment();
+        }
+        lock.lock();
+        try {
+            if (epoch != stateEpoch) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (ignored) {
+                    halfOpenStarted--;
+                } else if (failed) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED && !ignored) {
+                record(failed);
+                if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private boolean openPeriodOver() {
+        return clock.millis() - openedAt >= openMillis;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        stateEpoch++;
+        halfOpenStarted = 0;
+        halfOpenSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.millis();
+        } else if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
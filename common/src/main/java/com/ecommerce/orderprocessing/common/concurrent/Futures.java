@@ -0,0 +1,83 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Composition helpers for service methods that chain calls into other services.
+ * <p>
+ * Services should compose the futures they get from each other instead of calling {@code join()}
+ * inside {@code supplyAsync}: a joined future parks one thread per hop, while a composed chain only
+ * occupies a thread while a stage is actually running. Unlike the plain {@link CompletableFuture}
+ * combinators, these also carry cancellation back upstream, so a caller that gives up (a timed-out
+ * request) stops the stages that have not started yet.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Like {@link CompletableFuture#thenCompose}, except that cancelling the returned future also
+     * cancels {@code source} and the future produced by {@code next}.
+     */
+    public static <T, U> CompletableFuture<U> compose(CompletableFuture<T> source,
+                                                      Function<? super T, ? extends CompletableFuture<U>> next) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<U>> inner = new AtomicReference<>();
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled()) {
+                source.cancel(true);
+                CompletableFuture<U> current = inner.get();
+                if (current != null) {
+                    current.cancel(true);
+                }
+            }
+        });
+        source.whenComplete((value, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            CompletableFuture<U> stage;
+            try {
+                stage = next.apply(value);
+            } catch (Throwable applyEx) {
+                result.completeExceptionally(applyEx);
+                return;
+            }
+            inner.set(stage);
+            if (result.isCancelled()) {
+                stage.cancel(true);
+                return;
+            }
+            stage.whenComplete((nextValue, nextEx) -> {
+                if (nextEx != null) {
+                    result.completeExceptionally(nextEx);
+                } else {
+                    result.complete(nextValue);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Like {@link CompletableFuture#thenCombine}, except that cancelling the returned future also
+     * cancels both inputs. {@code combiner} runs on whichever thread completes the second input, so it
+     * should not block.
+     */
+    public static <A, B, R> CompletableFuture<R> combine(CompletableFuture<A> first, CompletableFuture<B> second,
+                                                         BiFunction<? super A, ? super B, ? extends R> combiner) {
+        CompletableFuture<R> result = first.thenCombine(second, combiner);
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled()) {
+                first.cancel(true);
+                second.cancel(true);
+            }
+        });
+        return result;
+    }
+}
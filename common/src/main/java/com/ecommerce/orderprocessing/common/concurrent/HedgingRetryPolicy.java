@@ -0,0 +1,229 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Hedges and retries idempotent calls, so one slow or failed response does not stall its caller.
+ * <p>
+ * Each attempt that has not answered within the hedge delay gets a backup attempt, and the first
+ * success wins. The hedge delay is the 95th percentile of recent successful latencies, clamped to
+ * {@code [minHedgeDelay, maxHedgeDelay]}, so only the slowest few percent of calls are hedged; until
+ * enough latencies have been seen it is {@code maxHedgeDelay}. When every attempt of a round has failed
+ * with a {@code retryable} error, the call is retried after a random delay of up to
+ * {@code baseBackoff * 2^(round - 1)}, capped at {@code maxBackoff} ("full jitter"), for up to
+ * {@code maxAttempts} rounds.
+ * <p>
+ * Hedges and retries both draw on a {@link RetryBudget}; once it is spent, calls get one attempt
+ * each. Only use this for calls that are safe to repeat.
+ */
+public class HedgingRetryPolicy {
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int SAMPLES_PER_UPDATE = 64;
+
+    private final String name;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long minHedgeDelayMillis;
+    private final long maxHedgeDelayMillis;
+    private final RetryBudget budget;
+    private final Predicate<Throwable> retryable;
+    private final Executor executor;
+
+    private final ReentrantLock latencyLock = new ReentrantLock();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyIndex;
+    private int samplesSinceUpdate;
+    private volatile long hedgeDelayMillis;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * @param maxAttempts rounds of attempts per call, the first included; hedges do not count
+     * @param retryable   which errors are worth retrying
+     * @param executor    runs delayed hedges and retries
+     */
+    public HedgingRetryPolicy(String name, int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+                              Duration minHedgeDelay, Duration maxHedgeDelay, RetryBudget budget,
+                              Predicate<Throwable> retryable, Executor executor) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        if (minHedgeDelay.compareTo(maxHedgeDelay) > 0) {
+            throw new IllegalArgumentException("minHedgeDelay must not exceed maxHedgeDelay");
+        }
+        this.name = name;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.minHedgeDelayMillis = minHedgeDelay.toMillis();
+        this.maxHedgeDelayMillis = maxHedgeDelay.toMillis();
+        this.budget = budget;
+        this.retryable = retryable;
+        this.executor = executor;
+        this.hedgeDelayMillis = maxHedgeDelay.toMillis();
+    }
+
+    /**
+     * Runs {@code attempt}, hedging and retrying it as needed. The returned future completes with the
+     * first successful result, or fails with the last error once no attempt is left.
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> attempt) {
+        budget.deposit();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        new Round<>(attempt, 1, result).start();
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getHedgeDelay() {
+        return Duration.ofMillis(hedgeDelayMillis);
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Number of hedges and retries skipped because the retry budget was spent.
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    public double getBudgetTokens() {
+        return budget.getTokens();
+    }
+
+    private void recordLatency(long millis) {
+        latencyLock.lock();
+        try {
+            latencies[latencyIndex] = millis;
+            latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+            // Sorting a copy of the window every few samples keeps most calls to a store and an add
+            if (++samplesSinceUpdate == SAMPLES_PER_UPDATE) {
+                samplesSinceUpdate = 0;
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                long percentile = sorted[(int) Math.ceil(HEDGE_PERCENTILE * latencyCount) - 1];
+                hedgeDelayMillis = Math.max(minHedgeDelayMillis, Math.min(maxHedgeDelayMillis, percentile));
+            }
+        } finally {
+            latencyLock.unlock();
+        }
+    }
+
+    private long backoffMillis(int round) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(round - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * One attempt plus, if it is slow, its hedge. The round fails only once all of its attempts have.
+     */
+    private final class Round<T> {
+
+        private final Supplier<CompletableFuture<T>> attempt;
+        private final int number;
+        private final CompletableFuture<T> result;
+        private int inFlight;
+        private boolean over;
+
+        private Round(Supplier<CompletableFuture<T>> attempt, int number, CompletableFuture<T> result) {
+            this.attempt = attempt;
+            this.number = number;
+            this.result = result;
+        }
+
+        private void start() {
+            synchronized (this) {
+                inFlight++;
+            }
+            launch();
+            CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+                if (tryHedge()) {
+                    hedges.increment();
+                    launch();
+                }
+            });
+        }
+
+        private synchronized boolean tryHedge() {
+            if (over) {
+                return false;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        private void launch() {
+            long started = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = attempt.get();
+            } catch (RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            future.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                    synchronized (this) {
+                        over = true;
+                    }
+                    result.complete(value);
+                    return;
+                }
+                boolean lastAttempt;
+                synchronized (this) {
+                    lastAttempt = --inFlight == 0 && !over;
+                    over |= lastAttempt;
+                }
+                if (lastAttempt) {
+                    retryOrFail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                }
+            });
+        }
+
+        private void retryOrFail(Throwable failure) {
+            if (number >= maxAttempts || !retryable.test(failure)) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                result.completeExceptionally(failure);
+                return;
+            }
+            retries.increment();
+            CompletableFuture.delayedExecutor(backoffMillis(number), TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> new Round<>(attempt, number + 1, result).start());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps extra attempts (retries and hedges) at a share of ordinary traffic, so that they cannot
+ * multiply the load on a service that is already failing.
+ * <p>
+ * Every original call deposits {@code ratio} tokens, up to {@code maxTokens}; every extra attempt
+ * withdraws one, and is refused when there is none left. While the service is healthy the budget
+ * sits full; during an outage it drains after {@code maxTokens} extra attempts, and from then on
+ * extra attempts are at most {@code ratio} of calls. The budget starts full, so a cold start can
+ * still retry.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio <= 0 || ratio > 1) {
+            throw new IllegalArgumentException("ratio must be in (0, 1]");
+        }
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Records an original call, earning {@code ratio} of an extra attempt.
+     */
+    public void deposit() {
+        lock.lock();
+        try {
+            tokens = Math.min(maxTokens, tokens + ratio);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes one extra attempt from the budget, if there is one.
+     */
+    public boolean tryWithdraw() {
+        lock.lock();
+        try {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getTokens() {
+        lock.lock();
+        try {
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,32 +1,21 @@
 package com.ecommerce.orderprocessing.common.config;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AsyncConfig {
 
-    @Value("${app.virtual-threads.executor.core-pool-size:10}")
-    private int corePoolSize;
-
-    @Value("${app.virtual-threads.executor.max-pool-size:100}")
-    private int maxPoolSize;
-
+    /**
+     * One virtual thread per task. Concurrency is not capped here: a pool in front of virtual threads
+     * only queues work behind its core size. Limits belong on the scarce downstream resources
+     * instead, see {@link BulkheadConfig}.
+     */
     @Bean
     public ExecutorService virtualThreadExecutor() {
-        return new ThreadPoolExecutor(
-                corePoolSize,
-                maxPoolSize,
-                0L,
-                TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
-                Thread.ofVirtual().factory()
-        );
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("app-vt-", 0).factory());
     }
 }
@@ -0,0 +1,63 @@
+package com.ecommerce.orderprocessing.common.config;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Named bulkheads for the downstream resources that bound our real concurrency. Each one publishes
+ * {@code bulkhead.active.calls}, {@code bulkhead.queue.depth} and {@code bulkhead.rejections},
+ * tagged with the bulkhead name.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead databaseBulkhead(@Value("${app.bulkheads.database.max-concurrent-calls:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrentCalls,
+                                     @Value("${app.bulkheads.database.max-wait:2s}") Duration maxWait,
+                                     MeterRegistry meterRegistry) {
+        return register(new Bulkhead("database", maxConcurrentCalls, maxWait), meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead paymentGatewayBulkhead(@Value("${app.bulkheads.payment-gateway.max-concurrent-calls:20}") int maxConcurrentCalls,
+                                           @Value("${app.bulkheads.payment-gateway.max-wait:500ms}") Duration maxWait,
+                                           MeterRegistry meterRegistry) {
+        return register(new Bulkhead("payment-gateway", maxConcurrentCalls, maxWait), meterRegistry);
+    }
+
+    /**
+     * Each export holds a database connection for as long as the client takes to download it, outside
+     * {@code databaseBulkhead}, so keep this well below the pool size.
+     */
+    @Bean
+    public Bulkhead orderExportBulkhead(@Value("${app.bulkheads.order-export.max-concurrent-calls:2}") int maxConcurrentCalls,
+                                        @Value("${app.bulkheads.order-export.max-wait:0s}") Duration maxWait,
+                                        MeterRegistry meterRegistry) {
+        return register(new Bulkhead("order-export", maxConcurrentCalls, maxWait), meterRegistry);
+    }
+
+    private Bulkhead register(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        Gauge.builder("bulkhead.max.concurrent.calls", bulkhead, Bulkhead::getMaxConcurrentCalls)
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.active.calls", bulkhead, Bulkhead::getActiveCalls)
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.queue.depth", bulkhead, Bulkhead::getQueueDepth)
+                .tag("name", bulkhead.getName())
+                .description("Callers waiting for a permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("bulkhead.rejections", bulkhead, Bulkhead::getRejectionCount)
+                .tag("name", bulkhead.getName())
+                .description("Calls rejected after waiting max-wait for a permit")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.orderprocessing.common.config;
+
+import com.ecommerce.orderprocessing.common.concurrent.AdaptiveConcurrencyLimit;
+import com.ecommerce.orderprocessing.common.concurrent.CircuitBreaker;
+import com.ecommerce.orderprocessing.common.concurrent.HedgingRetryPolicy;
+import com.ecommerce.orderprocessing.common.concurrent.RetryBudget;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breakers, adaptive concurrency limits and hedging retry policies for the downstream
+ * services that can slow down or fail under us. Each breaker publishes {@code circuit.breaker.state} (1 for its current state),
+ * {@code circuit.breaker.failure.rate}, {@code circuit.breaker.calls} and
+ * {@code circuit.breaker.not.permitted}; each limit publishes {@code concurrency.limit},
+ * {@code concurrency.limit.in.flight}, {@code concurrency.limit.rejections} and
+ * {@code concurrency.limit.drops}; each hedging retry policy publishes {@code retry.policy.hedges},
+ * {@code retry.policy.retries}, {@code retry.policy.budget.exhausted}, {@code retry.policy.budget.tokens}
+ * and {@code retry.policy.hedge.delay}; all tagged with the name.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Counts every gateway error except a rejection by the concurrency limit, which is our own
+     * back-pressure rather than a sign the gateway is failing.
+     */
+    @Bean
+    public CircuitBreaker paymentGatewayCircuitBreaker(@Value("${app.payment.gateway.circuit-breaker.window-size:50}") int windowSize,
+                                                       @Value("${app.payment.gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                                                       @Value("${app.payment.gateway.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                                       @Value("${app.payment.gateway.circuit-breaker.open-duration:30s}") Duration openDuration,
+                                                       @Value("${app.payment.gateway.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+                                                       MeterRegistry meterRegistry) {
+        return register(new CircuitBreaker("payment-gateway", windowSize, minimumCalls, failureRateThreshold,
+                openDuration, halfOpenCalls, ex -> !(ex instanceof BulkheadFullException)), meterRegistry);
+    }
+
+    /**
+     * Backs off on timeouts only; the fixed {@code paymentGatewayBulkhead} stays in place as the hard
+     * ceiling, so keep {@code max-limit} at or below its size.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimit paymentGatewayConcurrencyLimit(@Value("${app.payment.gateway.concurrency-limit.initial-limit:10}") int initialLimit,
+                                                                   @Value("${app.payment.gateway.concurrency-limit.min-limit:2}") int minLimit,
+                                                                   @Value("${app.payment.gateway.concurrency-limit.max-limit:${app.bulkheads.payment-gateway.max-concurrent-calls:20}}") int maxLimit,
+                                                                   @Value("${app.payment.gateway.concurrency-limit.backoff-ratio:0.7}") double backoffRatio,
+                                                                   MeterRegistry meterRegistry) {
+        return register(new AdaptiveConcurrencyLimit("payment-gateway", initialLimit, minLimit, maxLimit, backoffRatio,
+                ex -> ex instanceof TimeoutException), meterRegistry);
+    }
+
+    /**
+     * For idempotent gateway reads only. Retries gateway errors and timeouts, not an open breaker or
+     * a full limit, which already say the gateway needs less traffic.
+     */
+    @Bean
+    public HedgingRetryPolicy paymentGatewayReadPolicy(@Value("${app.payment.gateway.reads.max-attempts:3}") int maxAttempts,
+                                                       @Value("${app.payment.gateway.reads.base-backoff:50ms}") Duration baseBackoff,
+                                                       @Value("${app.payment.gateway.reads.max-backoff:1s}") Duration maxBackoff,
+                                                       @Value("${app.payment.gateway.reads.min-hedge-delay:10ms}") Duration minHedgeDelay,
+                                                       @Value("${app.payment.gateway.reads.max-hedge-delay:500ms}") Duration maxHedgeDelay,
+                                                       @Value("${app.payment.gateway.reads.retry-budget.ratio:0.2}") double budgetRatio,
+                                                       @Value("${app.payment.gateway.reads.retry-budget.max-tokens:20}") int budgetMaxTokens,
+                                                       ExecutorService virtualThreadExecutor,
+                                                       MeterRegistry meterRegistry) {
+        return register(new HedgingRetryPolicy("payment-gateway-reads", maxAttempts, baseBackoff, maxBackoff,
+                minHedgeDelay, maxHedgeDelay, new RetryBudget(budgetRatio, budgetMaxTokens),
+                ex -> ex instanceof ExternalServiceException, virtualThreadExecutor), meterRegistry);
+    }
+
+    private CircuitBreaker register(CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("circuit.breaker.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("name", circuitBreaker.getName())
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("circuit.breaker.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+                .tag("name", circuitBreaker.getName())
+                .description("Share of failed calls in the sliding window")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.calls", circuitBreaker, CircuitBreaker::getSuccessCount)
+                .tag("name", circuitBreaker.getName())
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.calls", circuitBreaker, CircuitBreaker::getFailureCount)
+                .tag("name", circuitBreaker.getName())
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.not.permitted", circuitBreaker, CircuitBreaker::getNotPermittedCount)
+                .tag("name", circuitBreaker.getName())
+                .description("Calls rejected without being started because the breaker was open")
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    private AdaptiveConcurrencyLimit register(AdaptiveConcurrencyLimit concurrencyLimit, MeterRegistry meterRegistry) {
+        Gauge.builder("concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("name", concurrencyLimit.getName())
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("name", concurrencyLimit.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.rejections", concurrencyLimit, AdaptiveConcurrencyLimit::getRejectionCount)
+                .tag("name", concurrencyLimit.getName())
+                .description("Calls rejected because the limit was reached")
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.drops", concurrencyLimit, AdaptiveConcurrencyLimit::getDropCount)
+                .tag("name", concurrencyLimit.getName())
+                .description("Calls that timed out, each a signal to lower the limit")
+                .register(meterRegistry);
+        return concurrencyLimit;
+    }
+
+    private HedgingRetryPolicy register(HedgingRetryPolicy policy, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("retry.policy.hedges", policy, HedgingRetryPolicy::getHedgeCount)
+                .tag("name", policy.getName())
+                .description("Backup attempts sent because the first was slower than the hedge delay")
+                .register(meterRegistry);
+        FunctionCounter.builder("retry.policy.retries", policy, HedgingRetryPolicy::getRetryCount)
+                .tag("name", policy.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("retry.policy.budget.exhausted", policy, HedgingRetryPolicy::getBudgetExhaustedCount)
+                .tag("name", policy.getName())
+                .description("Hedges and retries skipped because the retry budget was spent")
+                .register(meterRegistry);
+        Gauge.builder("retry.policy.budget.tokens", policy, HedgingRetryPolicy::getBudgetTokens)
+                .tag("name", policy.getName())
+                .register(meterRegistry);
+        Gauge.builder("retry.policy.hedge.delay", policy, p -> p.getHedgeDelay().toMillis())
+                .tag("name", policy.getName())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return policy;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderprocessing.common.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Record for keyset-paginated responses. {@code nextCursor} is passed back to fetch the following
+ * page and is {@code null} on the last page; {@code totalElements} is only filled in when the caller
+ * asked for it, since counting is the expensive part of deep listings.
+ */
+public record CursorPagedResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext,
+        Long totalElements
+) {
+    public <R> CursorPagedResponse<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPagedResponse<>(mapped, size, nextCursor, hasNext, totalElements);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.orderprocessing.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String bulkheadName, int maxConcurrentCalls) {
+        super(String.format("Bulkhead '%s' is full: all %d permits are in use", bulkheadName, maxConcurrentCalls));
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.orderprocessing.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String circuitBreakerName) {
+        super(String.format("Circuit breaker '%s' is open: calls are rejected until the service recovers", circuitBreakerName));
+    }
+}
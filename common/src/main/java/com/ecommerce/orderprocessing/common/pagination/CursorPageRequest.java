@@ -0,0 +1,25 @@
+package com.ecommerce.orderprocessing.common.pagination;
+
+/**
+ * A keyset page request: the page size, the position to continue after ({@code null} for the first
+ * page) and whether the caller wants the total row count.
+ */
+public record CursorPageRequest(KeysetCursor after, int size, boolean includeTotal) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Builds a request from raw query parameters, decoding the cursor and clamping the size to
+     * {@code [1, MAX_SIZE]}.
+     */
+    public static CursorPageRequest of(String cursor, Integer size, boolean includeTotal) {
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        int pageSize = size == null ? DEFAULT_SIZE : Math.max(1, Math.min(size, MAX_SIZE));
+        return new CursorPageRequest(after, pageSize, includeTotal);
+    }
+
+    public boolean isFirstPage() {
+        return after == null;
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.orderprocessing.common.sketch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Approximate top-K counter over a sliding time window, with memory fixed at construction.
+ * <p>
+ * The window is split into a ring of time buckets. Each bucket holds a Count-Min sketch of the
+ * counts added during its slice of time and a small table of candidate keys: the heaviest keys seen
+ * in that bucket, each replacing a lighter one when its probe range is full. A query sums the
+ * sketch estimates of every candidate over the buckets still inside the window and keeps the top
+ * {@code limit} in a heap. Buckets that fall out of the window are replaced wholesale, so memory is
+ * {@code bucketCount * (depth * width + candidateCapacity)} longs however many distinct keys arrive.
+ * <p>
+ * Updates are lock-free: counters are atomic adds, candidate slots and expired buckets are swapped
+ * with compare-and-set. Estimates never undercount a key within the window, may overcount by
+ * roughly {@code windowTotal * e / width}, and the window boundary moves in whole buckets.
+ */
+public class SlidingWindowHeavyHitters {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int CANDIDATE_PROBES = 8;
+
+    private final long bucketMillis;
+    private final int depth;
+    private final int width;
+    private final int candidateCapacity;
+    private final Clock clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param window            length of the sliding window
+     * @param bucketCount       number of buckets the window is split into; its resolution
+     * @param depth             Count-Min rows; more rows lower the chance of a bad overestimate
+     * @param width             Count-Min columns, rounded up to a power of two; wider rows overestimate less
+     * @param candidateCapacity candidate keys tracked per bucket, rounded up to a power of two
+     */
+    public SlidingWindowHeavyHitters(Duration window, int bucketCount, int depth, int width, int candidateCapacity,
+                                     Clock clock) {
+        if (bucketCount <= 0 || depth <= 0 || width <= 0 || candidateCapacity <= 0) {
+            throw new IllegalArgumentException("bucketCount, depth, width and candidateCapacity must be positive");
+        }
+        if (window.toMillis() < bucketCount) {
+            throw new IllegalArgumentException("window must be at least one millisecond per bucket");
+        }
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.depth = depth;
+        this.width = powerOfTwoAtLeast(width);
+        this.candidateCapacity = powerOfTwoAtLeast(Math.max(candidateCapacity, CANDIDATE_PROBES));
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code key} to the current bucket.
+     */
+    public void add(long key, long count) {
+        if (count <= 0 || key == EMPTY) {
+            return;
+        }
+        Bucket bucket = currentBucket(clock.millis() / bucketMillis);
+        if (bucket != null) {
+            long estimate = bucket.add(key, count);
+            bucket.offerCandidate(key, estimate);
+        }
+    }
+
+    /**
+     * The {@code limit} keys with the highest estimated counts in the window, heaviest first.
+     */
+    public List<HeavyHitter> topK(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<Bucket> live = liveBuckets(clock.millis() / bucketMillis);
+        Set<Long> candidates = new HashSet<>();
+        for (Bucket bucket : live) {
+            bucket.collectCandidates(candidates);
+        }
+        PriorityQueue<HeavyHitter> heaviest = new PriorityQueue<>(limit + 1, Comparator.comparingLong(HeavyHitter::count));
+        for (long key : candidates) {
+            long count = 0;
+            for (Bucket bucket : live) {
+                count += bucket.estimate(key);
+            }
+            heaviest.offer(new HeavyHitter(key, count));
+            if (heaviest.size() > limit) {
+                heaviest.poll();
+            }
+        }
+        List<HeavyHitter> result = new ArrayList<>(heaviest);
+        result.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return result;
+    }
+
+    /**
+     * Estimated count of {@code key} in the window.
+     */
+    public long estimate(long key) {
+        long count = 0;
+        for (Bucket bucket : liveBuckets(clock.millis() / bucketMillis)) {
+            count += bucket.estimate(key);
+        }
+        return count;
+    }
+
+    private Bucket currentBucket(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch >= epoch) {
+                // A newer bucket already took the slot: this caller's clock read is stale, drop the update
+                return bucket.epoch == epoch ? bucket : null;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private List<Bucket> liveBuckets(long currentEpoch) {
+        List<Bucket> live = new ArrayList<>(buckets.length());
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > currentEpoch - buckets.length() && bucket.epoch <= currentEpoch) {
+                live.add(bucket);
+            }
+        }
+        return live;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static long mix(long key) {
+        // SplitMix64 finalizer: spreads sequential ids over the whole hash range
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A key and its estimated count in the window.
+     */
+    public record HeavyHitter(long key, long count) {}
+
+    private final class Bucket {
+
+        private final long epoch;
+        private final AtomicLongArray counters = new AtomicLongArray(depth * width);
+        private final AtomicLongArray candidates = new AtomicLongArray(candidateCapacity);
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+            for (int i = 0; i < candidateCapacity; i++) {
+                candidates.set(i, EMPTY);
+            }
+        }
+
+        /**
+         * Adds to every row and returns the new estimate, the smallest of the row counters.
+         */
+        private long add(long key, long count) {
+            long hash = mix(key);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counters.addAndGet(index(hash, row), count));
+            }
+            return estimate;
+        }
+
+        private long estimate(long key) {
+            long hash = mix(key);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counters.get(index(hash, row)));
+            }
+            return estimate;
+        }
+
+        private int index(long hash, int row) {
+            // Double hashing: row i uses h1 + i * h2, so one 64-bit hash serves every row
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return row * width + ((h1 + row * h2) & (width - 1));
+        }
+
+        /**
+         * Tracks {@code key} if it has a free slot in its probe range, or if it is now heavier than
+         * the lightest key there. A lost race only means one candidate fewer for this bucket.
+         */
+        private void offerCandidate(long key, long estimate) {
+            int start = (int) mix(key ^ 0x5DEECE66DL) & (candidateCapacity - 1);
+            int victimSlot = -1;
+            long victimKey = EMPTY;
+            long victimEstimate = Long.MAX_VALUE;
+            for (int probe = 0; probe < CANDIDATE_PROBES; probe++) {
+                int slot = (start + probe) & (candidateCapacity - 1);
+                long current = candidates.get(slot);
+                if (current == EMPTY) {
+                    if (candidates.compareAndSet(slot, EMPTY, key)) {
+                        return;
+                    }
+                    current = candidates.get(slot);
+                }
+                if (current == key) {
+                    return;
+                }
+                long currentEstimate = estimate(current);
+                if (currentEstimate < victimEstimate) {
+                    victimSlot = slot;
+                    victimKey = current;
+                    victimEstimate = currentEstimate;
+                }
+            }
+            if (estimate > victimEstimate) {
+                candidates.compareAndSet(victimSlot, victimKey, key);
+            }
+        }
+
+        private void collectCandidates(Set<Long> keys) {
+            for (int i = 0; i < candidateCapacity; i++) {
+                long key = candidates.get(i);
+                if (key != EMPTY) {
+                    keys.add(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.orderprocessing.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheMetricsTest {
+
+    @Test
+    void monitor_shouldPublishTheCacheStatisticsUnderItsName() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedTtlCache<Long, String> cache = BoundedTtlCacheMetrics.monitor(meterRegistry,
+                new BoundedTtlCache<>(1, Duration.ofMinutes(1)), "things");
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        cache.get(2L);
+        cache.get(1L);
+
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "things", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "things", "result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.evictions").tag("cache", "things").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.size").tag("cache", "things").gauge().value());
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.orderprocessing.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void get_shouldReturnStoredValueAndCountHitsAndMisses() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put(1L, "one");
+
+        assertEquals("one", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+
+        cache.put(3L, "three");
+
+        assertEquals(Map.of(1L, "one", 3L, "three"), cache.getAll(List.of(1L, 2L, 3L)));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void get_shouldDropExpiredEntries() {
+        MutableClock clock = new MutableClock();
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+        cache.put(1L, "one");
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putIfCurrent_shouldRejectValuesLoadedBeforeInvalidation() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        long loadedAt = cache.generation();
+
+        cache.invalidate(1L);
+
+        assertFalse(cache.putIfCurrent(1L, "stale", loadedAt));
+        assertNull(cache.get(1L));
+        assertTrue(cache.putIfCurrent(1L, "fresh", cache.generation()));
+        assertEquals("fresh", cache.get(1L));
+    }
+
+    @Test
+    void putIfAbsent_shouldKeepTheLiveValueAndReplaceAnExpiredOne() {
+        MutableClock clock = new MutableClock();
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+
+        assertNull(cache.putIfAbsent(1L, "first"));
+        assertEquals("first", cache.putIfAbsent(1L, "second"));
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertNull(cache.putIfAbsent(1L, "third"));
+        assertEquals("third", cache.get(1L));
+    }
+
+    @Test
+    void invalidate_withValue_shouldOnlyRemoveThatValue() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put(1L, "current");
+
+        assertFalse(cache.invalidate(1L, "replaced"));
+        assertEquals("current", cache.get(1L));
+        assertTrue(cache.invalidate(1L, "current"));
+        assertNull(cache.get(1L));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
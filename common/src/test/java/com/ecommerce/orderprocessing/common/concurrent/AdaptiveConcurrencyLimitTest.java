@@ -0,0 +1,96 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void callAsync_shouldRejectAtOnceBeyondTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 2, 1, 10, 0.5, ex -> ex instanceof TimeoutException);
+        List<CompletableFuture<String>> running = start(limit, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> rejected = limit.callAsync(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(BulkheadFullException.class, ex.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(1, limit.getRejectionCount());
+        assertEquals(2, limit.getInFlight());
+
+        running.forEach(future -> future.complete("ok"));
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void callAsync_shouldGrowTheLimitWhileItIsFullyUsedUpToTheMaximum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 4, 1, 10, 0.5, ex -> ex instanceof TimeoutException);
+
+        for (int round = 0; round < 50; round++) {
+            start(limit, limit.getLimit()).forEach(future -> future.complete("ok"));
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void callAsync_shouldNotGrowTheLimitWhileMostOfItIsUnused() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 4, 1, 10, 0.5, ex -> ex instanceof TimeoutException);
+
+        for (int i = 0; i < 100; i++) {
+            limit.callAsync(() -> CompletableFuture.completedFuture("ok"));
+        }
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void callAsync_shouldBackOffOncePerRoundOfTimedOutCalls() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 10, 2, 10, 0.5, ex -> ex instanceof TimeoutException);
+
+        start(limit, 10).forEach(future -> future.completeExceptionally(new TimeoutException()));
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(10, limit.getDropCount());
+
+        start(limit, 1).forEach(future -> future.completeExceptionally(new TimeoutException()));
+        assertEquals(2, limit.getLimit());
+
+        start(limit, 1).forEach(future -> future.completeExceptionally(new TimeoutException()));
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void callAsync_shouldLeaveTheLimitAloneOnFailuresThatAreNotOverload() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 4, 1, 10, 0.5, ex -> ex instanceof TimeoutException);
+
+        start(limit, 4).forEach(future -> future.completeExceptionally(new IllegalStateException("declined")));
+
+        assertEquals(4, limit.getLimit());
+        assertEquals(0, limit.getDropCount());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    private static List<CompletableFuture<String>> start(AdaptiveConcurrencyLimit limit, int calls) {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            limit.callAsync(() -> future);
+            futures.add(future);
+        }
+        return futures;
+    }
+}
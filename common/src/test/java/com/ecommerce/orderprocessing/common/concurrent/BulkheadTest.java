@@ -0,0 +1,139 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void call_shouldNeverRunMoreThanMaxConcurrentCalls() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 5, Duration.ofSeconds(10));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> bulkhead.call(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(2);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+        }
+
+        assertEquals(5, peak.get());
+        assertEquals(0, bulkhead.getActiveCalls());
+        assertEquals(0, bulkhead.getRejectionCount());
+    }
+
+    @Test
+    void call_shouldRejectAfterMaxWaitAndCountRejection() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofMillis(50));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> bulkhead.call(() -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "rejected"));
+            assertEquals(1, bulkhead.getRejectionCount());
+            assertEquals(1, bulkhead.getActiveCalls());
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals("accepted", bulkhead.call(() -> "accepted"));
+    }
+
+    @Test
+    void call_shouldReportWaitingCallersAsQueueDepth() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofSeconds(10));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> bulkhead.call(() -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                executor.submit(() -> bulkhead.call(() -> null));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.getQueueDepth() < 3 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(3, bulkhead.getQueueDepth());
+
+            release.countDown();
+        }
+
+        assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    void callAsync_shouldHoldPermitUntilFutureCompletes() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = bulkhead.callAsync(() -> pending);
+        CompletableFuture<String> second = bulkhead.callAsync(() -> CompletableFuture.completedFuture("second"));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(BulkheadFullException.class, rejected.getCause());
+
+        pending.complete("first");
+        assertEquals("first", first.get());
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    @Test
+    void callAsync_shouldReleasePermitWhenTaskThrows() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO);
+
+        CompletableFuture<String> future = bulkhead.callAsync(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
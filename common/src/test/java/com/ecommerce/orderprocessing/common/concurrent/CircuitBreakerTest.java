@@ -0,0 +1,187 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void callAsync_shouldOpenOnceFailureRateReachesThresholdAndRejectWithoutCalling() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 5; i++) {
+            succeed(breaker);
+        }
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0.5, breaker.getFailureRate());
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> rejected = breaker.callAsync(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(CircuitBreakerOpenException.class, ex.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(1, breaker.getNotPermittedCount());
+    }
+
+    @Test
+    void callAsync_shouldNotOpenBeforeMinimumCalls() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void callAsync_shouldForgetOutcomesThatSlideOutOfTheWindow() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 6; i++) {
+            succeed(breaker);
+        }
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertEquals(0.4, breaker.getFailureRate());
+
+        for (int i = 0; i < 10; i++) {
+            succeed(breaker);
+        }
+        fail(breaker);
+
+        assertEquals(0.1, breaker.getFailureRate());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void callAsync_shouldCloseAfterOpenDurationWhenTrialCallsSucceed() {
+        CircuitBreaker breaker = openBreaker();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        breaker.callAsync(() -> first);
+        breaker.callAsync(() -> second);
+        assertThrows(ExecutionException.class, () -> breaker.callAsync(() -> CompletableFuture.completedFuture("third")).get());
+
+        first.complete("ok");
+        second.complete("ok");
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void callAsync_shouldReopenWhenATrialCallFails() {
+        CircuitBreaker breaker = openBreaker();
+        clock.advance(Duration.ofSeconds(30));
+
+        fail(breaker);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void callAsync_shouldIgnoreExceptionsNotRecordedAsFailures() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 10; i++) {
+            breaker.callAsync(() -> CompletableFuture.failedFuture(new BulkheadFullException("limit", 1)));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureCount());
+    }
+
+    @Test
+    void callAsync_shouldDiscardOutcomesOfCallsStartedBeforeTheBreakerOpened() {
+        CircuitBreaker breaker = breaker();
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        breaker.callAsync(() -> slow);
+        for (int i = 0; i < 5; i++) {
+            fail(breaker);
+        }
+        clock.advance(Duration.ofSeconds(30));
+        CompletableFuture<String> trial = new CompletableFuture<>();
+        breaker.callAsync(() -> trial);
+
+        slow.complete("late");
+        succeed(breaker);
+
+        // Only one of the two trial calls has succeeded
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker("test", 10, 5, 0.5, Duration.ofSeconds(30), 2,
+                ex -> !(ex instanceof BulkheadFullException), clock);
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 5; i++) {
+            fail(breaker);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.callAsync(() -> CompletableFuture.completedFuture("ok"));
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.callAsync(() -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuturesTest {
+
+    @Test
+    void compose_shouldChainValues() throws Exception {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+
+        CompletableFuture<String> result = Futures.compose(source, value -> CompletableFuture.completedFuture("v" + value));
+        source.complete(42);
+
+        assertEquals("v42", result.get());
+    }
+
+    @Test
+    void compose_shouldPropagateFailuresFromEitherStage() {
+        CompletableFuture<String> failedSource = Futures.compose(
+                CompletableFuture.<Integer>failedFuture(new IllegalStateException("source")),
+                value -> CompletableFuture.completedFuture("unreachable"));
+        CompletableFuture<String> failedNext = Futures.compose(
+                CompletableFuture.completedFuture(1),
+                value -> {
+                    throw new IllegalArgumentException("next");
+                });
+
+        ExecutionException sourceEx = assertThrows(ExecutionException.class, failedSource::get);
+        assertInstanceOf(IllegalStateException.class, sourceEx.getCause());
+        ExecutionException nextEx = assertThrows(ExecutionException.class, failedNext::get);
+        assertInstanceOf(IllegalArgumentException.class, nextEx.getCause());
+    }
+
+    @Test
+    void compose_whenCancelledBeforeSourceCompletes_shouldCancelSourceAndSkipNextStage() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        AtomicBoolean nextRan = new AtomicBoolean();
+
+        CompletableFuture<String> result = Futures.compose(source, value -> {
+            nextRan.set(true);
+            return CompletableFuture.completedFuture("unreachable");
+        });
+        result.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertFalse(nextRan.get());
+    }
+
+    @Test
+    void compose_whenCancelledDuringNextStage_shouldCancelThatStage() {
+        CompletableFuture<String> inner = new CompletableFuture<>();
+
+        CompletableFuture<String> result = Futures.compose(CompletableFuture.completedFuture(1), value -> inner);
+        result.cancel(true);
+
+        assertTrue(inner.isCancelled());
+    }
+
+    @Test
+    void combine_whenCancelled_shouldCancelBothInputs() {
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        CompletableFuture<Integer> second = new CompletableFuture<>();
+
+        CompletableFuture<Integer> result = Futures.combine(first, second, Integer::sum);
+        result.cancel(true);
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    void combine_shouldCombineBothValues() throws Exception {
+        CompletableFuture<Integer> result = Futures.combine(
+                CompletableFuture.completedFuture(2), CompletableFuture.completedFuture(3), Integer::sum);
+
+        assertEquals(5, result.get());
+    }
+}
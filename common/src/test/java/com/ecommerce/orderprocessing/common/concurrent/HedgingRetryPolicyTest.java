@@ -0,0 +1,107 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingRetryPolicyTest {
+
+    @Test
+    void call_whenTheFirstAttemptIsSlow_shouldHedgeAndTakeTheFirstSuccess() throws Exception {
+        HedgingRetryPolicy policy = policy(3, new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.call(() -> attempts.incrementAndGet() == 1
+                ? new CompletableFuture<>()
+                : CompletableFuture.completedFuture("backup"));
+
+        assertEquals("backup", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(1, policy.getHedgeCount());
+    }
+
+    @Test
+    void call_whenTheFirstAttemptIsFast_shouldNotHedge() throws Exception {
+        HedgingRetryPolicy policy = policy(3, new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.call(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getHedgeCount());
+    }
+
+    @Test
+    void call_whenAttemptsKeepFailing_shouldRetryUpToMaxAttemptsThenFailWithTheLastError() {
+        HedgingRetryPolicy policy = policy(3, new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.call(() -> CompletableFuture.failedFuture(
+                new IllegalStateException("attempt " + attempts.incrementAndGet())));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("attempt 3", ex.getCause().getMessage());
+        assertEquals(2, policy.getRetryCount());
+    }
+
+    @Test
+    void call_whenTheErrorIsNotRetryable_shouldFailAtOnce() {
+        HedgingRetryPolicy policy = policy(3, new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.call(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("bad request"));
+        });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getRetryCount());
+    }
+
+    @Test
+    void call_whenTheBudgetIsSpent_shouldStopRetrying() {
+        HedgingRetryPolicy policy = policy(5, new RetryBudget(0.1, 2));
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = policy.call(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("down"));
+        });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        assertEquals(2, policy.getRetryCount());
+        assertEquals(1, policy.getBudgetExhaustedCount());
+    }
+
+    @Test
+    void call_shouldMoveTheHedgeDelayToThe95thPercentileOfRecentLatencies() {
+        HedgingRetryPolicy policy = new HedgingRetryPolicy("test", 1, Duration.ofMillis(1), Duration.ofMillis(1),
+                Duration.ofMillis(10), Duration.ofSeconds(1), new RetryBudget(0.1, 10), ex -> true, Runnable::run);
+        assertEquals(Duration.ofSeconds(1), policy.getHedgeDelay());
+
+        for (int i = 0; i < 64; i++) {
+            policy.call(() -> CompletableFuture.completedFuture("fast")).join();
+        }
+
+        assertEquals(Duration.ofMillis(10), policy.getHedgeDelay());
+    }
+
+    private static HedgingRetryPolicy policy(int maxAttempts, RetryBudget budget) {
+        return new HedgingRetryPolicy("test", maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5),
+                Duration.ofMillis(20), Duration.ofMillis(20), budget, ex -> ex instanceof IllegalStateException,
+                Runnable::run);
+    }
+}
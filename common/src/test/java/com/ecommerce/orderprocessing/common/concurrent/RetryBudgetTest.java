@@ -0,0 +1,38 @@
+package com.ecommerce.orderprocessing.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void tryWithdraw_shouldAllowMaxTokensThenOnlyRatioOfCalls() {
+        RetryBudget budget = new RetryBudget(0.1, 3);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        int withdrawn = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw()) {
+                withdrawn++;
+            }
+        }
+        assertTrue(withdrawn >= 9 && withdrawn <= 10, "withdrew " + withdrawn);
+    }
+
+    @Test
+    void deposit_shouldNotFillPastMaxTokens() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertEquals(2.0, budget.getTokens());
+    }
+}
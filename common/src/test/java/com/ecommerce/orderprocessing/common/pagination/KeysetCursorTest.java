@@ -0,0 +1,51 @@
+package com.ecommerce.orderprocessing.common.pagination;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_shouldRoundTripThroughDecode() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000), 42L);
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("|"));
+        assertEquals(cursor, KeysetCursor.decode(token));
+    }
+
+    @Test
+    void decode_shouldRejectTokensItDidNotProduce() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not a cursor!"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("MjAyNC0wNS0wMXx4"));
+    }
+
+    @Test
+    void pageRequest_shouldTreatMissingCursorAsFirstPageAndClampSize() {
+        CursorPageRequest defaults = CursorPageRequest.of(null, null, false);
+        CursorPageRequest blank = CursorPageRequest.of(" ", 1000, true);
+        CursorPageRequest tooSmall = CursorPageRequest.of(null, 0, false);
+
+        assertTrue(defaults.isFirstPage());
+        assertEquals(CursorPageRequest.DEFAULT_SIZE, defaults.size());
+        assertTrue(blank.isFirstPage());
+        assertEquals(CursorPageRequest.MAX_SIZE, blank.size());
+        assertEquals(1, tooSmall.size());
+    }
+
+    @Test
+    void pageRequest_shouldDecodeCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 0), 7L);
+
+        CursorPageRequest pageRequest = CursorPageRequest.of(cursor.encode(), 10, false);
+
+        assertFalse(pageRequest.isFirstPage());
+        assertEquals(cursor, pageRequest.after());
+    }
+}
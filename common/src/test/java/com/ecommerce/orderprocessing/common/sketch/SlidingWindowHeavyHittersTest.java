@@ -0,0 +1,110 @@
+package com.ecommerce.orderprocessing.common.sketch;
+
+import com.ecommerce.orderprocessing.common.sketch.SlidingWindowHeavyHitters.HeavyHitter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowHeavyHittersTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void topK_shouldReturnHeaviestKeysFirst() {
+        SlidingWindowHeavyHitters sketch = new SlidingWindowHeavyHitters(Duration.ofMinutes(5), 5, 4, 1024, 64, clock);
+        sketch.add(1L, 5);
+        sketch.add(2L, 20);
+        sketch.add(3L, 10);
+        sketch.add(1L, 1);
+
+        List<HeavyHitter> top = sketch.topK(2);
+
+        assertEquals(List.of(new HeavyHitter(2L, 20), new HeavyHitter(3L, 10)), top);
+        assertEquals(6, sketch.estimate(1L));
+    }
+
+    @Test
+    void topK_shouldForgetCountsOnceTheirBucketLeavesTheWindow() {
+        SlidingWindowHeavyHitters sketch = new SlidingWindowHeavyHitters(Duration.ofMinutes(5), 5, 4, 1024, 64, clock);
+        sketch.add(1L, 100);
+        clock.advance(Duration.ofMinutes(3));
+        sketch.add(2L, 10);
+
+        assertEquals(1L, sketch.topK(1).get(0).key());
+
+        clock.advance(Duration.ofMinutes(3));
+
+        assertEquals(List.of(new HeavyHitter(2L, 10)), sketch.topK(5));
+        assertEquals(0, sketch.estimate(1L));
+    }
+
+    @Test
+    void topK_shouldFindHeavyKeysAmongFarMoreDistinctKeysThanItTracks() {
+        SlidingWindowHeavyHitters sketch = new SlidingWindowHeavyHitters(Duration.ofMinutes(5), 5, 4, 2048, 64, clock);
+        for (long key = 1_000; key < 101_000; key++) {
+            sketch.add(key, 1);
+            if (key % 1_000 == 0) {
+                sketch.add(7L, 50);
+                sketch.add(8L, 40);
+                sketch.add(9L, 30);
+            }
+        }
+
+        List<HeavyHitter> top = sketch.topK(3);
+
+        assertEquals(List.of(7L, 8L, 9L), top.stream().map(HeavyHitter::key).toList());
+        assertTrue(top.get(0).count() >= 5_000);
+    }
+
+    @Test
+    void add_fromConcurrentThreads_shouldNotLoseUpdates() {
+        SlidingWindowHeavyHitters sketch = new SlidingWindowHeavyHitters(Duration.ofMinutes(5), 5, 4, 1024, 64, clock);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < 50; thread++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        sketch.add(1L + (i % 3), 1);
+                    }
+                });
+            }
+        }
+
+        assertEquals(3, sketch.topK(10).size());
+        assertEquals(16_700, sketch.estimate(1L));
+        assertEquals(16_650, sketch.estimate(3L));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
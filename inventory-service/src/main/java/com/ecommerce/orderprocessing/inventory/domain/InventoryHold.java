@@ -0,0 +1,80 @@
+package com.ecommerce.orderprocessing.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Stock taken for a pending order. While {@link InventoryHoldStatus#HELD} the units are already
+ * deducted from {@link Inventory}; the hold either becomes permanent when the order is paid, or the
+ * units are returned when the order is cancelled or the hold expires.
+ */
+@Entity
+@Table(name = "inventory_holds", indexes = {
+        @Index(name = "idx_inventory_holds_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "idx_inventory_holds_order_id", columnList = "order_id")
+})
+@Getter
+@Setter
+public class InventoryHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InventoryHoldStatus status = InventoryHoldStatus.HELD;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public InventoryHold() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public InventoryHold(Long orderId, Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this();
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventoryHold hold = (InventoryHold) o;
+        return Objects.equals(id, hold.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.orderprocessing.inventory.domain;
+
+public enum InventoryHoldStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.orderprocessing.inventory.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-product outcome of a multi-product reservation or release. The batch is all-or-nothing: when
+ * {@link #isSuccessful()} is false, no stock change from the batch has been kept, including those
+ * reported as {@link Outcome#APPLIED}.
+ */
+public record InventoryBatchResult(Map<Long, Outcome> outcomes) {
+
+    public enum Outcome {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND
+    }
+
+    public boolean isSuccessful() {
+        return outcomes.values().stream().allMatch(outcome -> outcome == Outcome.APPLIED);
+    }
+
+    public List<Long> failedProductIds() {
+        return outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() != Outcome.APPLIED)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+}
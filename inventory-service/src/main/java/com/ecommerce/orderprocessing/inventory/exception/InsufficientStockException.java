@@ -10,4 +10,9 @@ public class InsufficientStockException extends RuntimeException {
         super(String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d",
                 productName, requestedQuantity, availableQuantity));
     }
+
+    public InsufficientStockException(String productName, int requestedQuantity) {
+        super(String.format("Insufficient stock for product '%s'. Requested: %d",
+                productName, requestedQuantity));
+    }
 }
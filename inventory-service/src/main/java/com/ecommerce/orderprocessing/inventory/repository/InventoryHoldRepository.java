@@ -0,0 +1,59 @@
+package com.ecommerce.orderprocessing.inventory.repository;
+
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHold;
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryHoldRepository extends JpaRepository<InventoryHold, Long> {
+
+    boolean existsByOrderId(Long orderId);
+
+    boolean existsByOrderIdAndStatus(Long orderId, InventoryHoldStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM InventoryHold h WHERE h.orderId = :orderId AND h.status = :status ORDER BY h.productId")
+    List<InventoryHold> lockByOrderIdAndStatus(@Param("orderId") Long orderId, @Param("status") InventoryHoldStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM InventoryHold h WHERE h.orderId = :orderId AND h.status IN :statuses ORDER BY h.productId, h.id")
+    List<InventoryHold> lockByOrderIdAndStatusIn(@Param("orderId") Long orderId,
+                                                 @Param("statuses") Collection<InventoryHoldStatus> statuses);
+
+    /**
+     * Claims up to {@code limit} expired holds. Rows locked by another sweeper, or by an order being
+     * paid or cancelled, are skipped rather than waited on.
+     */
+    @Query(value = """
+        SELECT * FROM inventory_holds
+        WHERE status = 'HELD' AND expires_at < :now
+        ORDER BY expires_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<InventoryHold> lockExpiredHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE InventoryHold h SET h.status = :status, h.updatedAt = CURRENT_TIMESTAMP WHERE h.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") InventoryHoldStatus status);
+
+    @Modifying
+    @Query("""
+        UPDATE InventoryHold h
+        SET h.status = com.ecommerce.orderprocessing.inventory.domain.InventoryHoldStatus.HELD,
+            h.expiresAt = :expiresAt, h.updatedAt = CURRENT_TIMESTAMP
+        WHERE h.id IN :ids
+          AND h.status = com.ecommerce.orderprocessing.inventory.domain.InventoryHoldStatus.COMMITTED
+    """)
+    int reinstateCommittedHolds(@Param("ids") Collection<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+}
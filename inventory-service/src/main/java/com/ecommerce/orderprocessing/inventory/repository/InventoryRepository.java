@@ -2,11 +2,61 @@ package com.ecommerce.orderprocessing.inventory.repository;
 
 import com.ecommerce.orderprocessing.inventory.domain.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductId(Long productId);
-}
\ No newline at end of file
+
+    /**
+     * Takes {@code quantity} units in a single statement, guarded by the stock check so concurrent
+     * callers can never drive the row negative.
+     *
+     * @return 1 if the stock was taken, 0 if the product has no inventory row or too little stock
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Inventory i
+        SET i.stockQuantity = i.stockQuantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP
+        WHERE i.productId = :productId AND i.stockQuantity >= :quantity
+    """)
+    int decrementStockIfAvailable(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    /**
+     * @return 1 if the stock was added, 0 if the product has no inventory row
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Inventory i
+        SET i.stockQuantity = i.stockQuantity + :quantity, i.updatedAt = CURRENT_TIMESTAMP
+        WHERE i.productId = :productId
+    """)
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    /**
+     * Applies a net stock change without a guard; used to persist deltas whose bounds were already
+     * enforced elsewhere.
+     *
+     * @return 1 if the row was updated, 0 if the product has no inventory row
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Inventory i
+        SET i.stockQuantity = i.stockQuantity + :delta, i.updatedAt = CURRENT_TIMESTAMP
+        WHERE i.productId = :productId
+    """)
+    int applyStockDelta(@Param("productId") Long productId, @Param("delta") int delta);
+
+    List<Inventory> findByProductIdIn(Collection<Long> productIds);
+}
@@ -0,0 +1,359 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.inventory.domain.Inventory;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryResponse;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Inventory engine for flash-sale products that keeps available stock in memory.
+ * <p>
+ * Each product has an {@link AtomicInteger} of available units, changed with a compare-and-set loop,
+ * and a second counter with the net change not yet written to the {@code inventory} table. A scheduled
+ * flush drains those deltas and applies them in one transaction; if the flush fails the deltas are
+ * added back and retried on the next run. A product whose inventory row has been deleted has nowhere
+ * to write its delta, so its counter is dropped and the lost delta logged. Counters are loaded from the table on first use or by
+ * {@link #rehydrate}.
+ * <p>
+ * The counters are authoritative for the products they hold, so only one application instance may
+ * route a given product to this engine, and nothing else may write its inventory row.
+ */
+@Slf4j
+@Service
+public class InMemoryInventoryService implements InventoryService {
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public InMemoryInventoryService(InventoryRepository inventoryRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ExecutorService virtualThreadExecutor) {
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    /**
+     * Loads the current stock of the given products, replacing counters that have nothing pending.
+     */
+    public void rehydrate(Collection<Long> productIds) {
+        load(() -> inventoryRepository.findByProductIdIn(productIds));
+    }
+
+    public void rehydrateAll() {
+        load(inventoryRepository::findAll);
+    }
+
+    /**
+     * Holds the flush lock across the read and the swap: a flush zeroes the pending deltas before its
+     * transaction commits, and a row read in between would replace the counter with pre-flush stock.
+     */
+    private void load(Supplier<List<Inventory>> reader) {
+        flushLock.lock();
+        try {
+            List<Inventory> rows = reader.get();
+            for (Inventory inventory : rows) {
+                counters.compute(inventory.getProductId(), (productId, existing) ->
+                        existing != null && existing.pending.get() != 0 ? existing : new StockCounter(inventory.getStockQuantity()));
+            }
+            log.info("Loaded in-memory stock for {} products", rows.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkInventory(Long productId, Integer quantity) {
+        return withCounter(productId, counter -> counter.available.get() >= quantity);
+    }
+
+    @Override
+    public CompletableFuture<Void> reserveInventory(Long productId, Integer quantity) {
+        return withCounter(productId, counter -> {
+            take(productId, counter, quantity);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseInventory(Long productId, Integer quantity) {
+        return withCounter(productId, counter -> {
+            give(counter, quantity);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> commitInventory(Long productId, Integer quantity) {
+        return withCounter(productId, counter -> {
+            take(productId, counter, quantity);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<InventoryResponse> getInventoryByProductId(Long productId) {
+        return withCounter(productId, counter -> new InventoryResponse(productId, counter.available.get()));
+    }
+
+    @Override
+    public CompletableFuture<Void> restockInventory(Long productId, Integer quantity) {
+        return withCounter(productId, counter -> {
+            give(counter, quantity);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<InventoryBatchResult> reserveAll(Map<Long, Integer> quantities) {
+        return withCounters(quantities.keySet()).thenApply(batch -> takeAll(batch, quantities));
+    }
+
+    /**
+     * The counters cannot roll back, so the stock is taken straight away and given back if the
+     * caller's transaction does not commit.
+     */
+    @Override
+    public InventoryBatchResult reserveAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Long, StockCounter> batch = resolveCounters(quantities.keySet());
+        InventoryBatchResult result = takeAll(batch, quantities);
+        if (result.isSuccessful() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        quantities.forEach((productId, quantity) -> give(batch.get(productId), quantity));
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Takes every product's quantity, or none of them.
+     */
+    private InventoryBatchResult takeAll(Map<Long, StockCounter> batch, Map<Long, Integer> quantities) {
+        Map<Long, Outcome> outcomes = new TreeMap<>();
+        Map<Long, Integer> taken = new TreeMap<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            StockCounter counter = batch.get(productId);
+            if (counter == null) {
+                outcomes.put(productId, Outcome.NOT_FOUND);
+            } else if (tryTake(counter, quantity)) {
+                outcomes.put(productId, Outcome.APPLIED);
+                taken.put(productId, quantity);
+            } else {
+                outcomes.put(productId, Outcome.INSUFFICIENT_STOCK);
+            }
+        });
+        InventoryBatchResult result = new InventoryBatchResult(outcomes);
+        if (!result.isSuccessful()) {
+            taken.forEach((productId, quantity) -> give(batch.get(productId), quantity));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<InventoryBatchResult> releaseAll(Map<Long, Integer> quantities) {
+        return withCounters(quantities.keySet()).thenApply(batch -> {
+            Map<Long, Outcome> outcomes = new TreeMap<>();
+            quantities.keySet().forEach(productId ->
+                    outcomes.put(productId, batch.containsKey(productId) ? Outcome.APPLIED : Outcome.NOT_FOUND));
+            InventoryBatchResult result = new InventoryBatchResult(outcomes);
+            if (result.isSuccessful()) {
+                quantities.forEach((productId, quantity) -> give(batch.get(productId), quantity));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * The counters cannot roll back, so inside a transaction the stock is returned once it commits.
+     */
+    @Override
+    public InventoryBatchResult releaseAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Long, StockCounter> batch = resolveCounters(quantities.keySet());
+        Map<Long, Outcome> outcomes = new TreeMap<>();
+        quantities.keySet().forEach(productId ->
+                outcomes.put(productId, batch.containsKey(productId) ? Outcome.APPLIED : Outcome.NOT_FOUND));
+        Runnable release = () -> batch.forEach((productId, counter) -> give(counter, quantities.get(productId)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+        return new InventoryBatchResult(outcomes);
+    }
+
+    /**
+     * Writes all pending deltas to the database in a single transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.in-memory.flush-interval-ms:200}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<PendingDelta> drained = new ArrayList<>();
+            counters.forEach((productId, counter) -> {
+                int delta = counter.pending.getAndSet(0);
+                if (delta != 0) {
+                    drained.add(new PendingDelta(productId, counter, delta));
+                }
+            });
+            if (drained.isEmpty()) {
+                return;
+            }
+            List<PendingDelta> orphaned;
+            try {
+                orphaned = transactionTemplate.execute(status -> {
+                    List<PendingDelta> withoutRow = new ArrayList<>();
+                    for (PendingDelta pending : drained) {
+                        if (inventoryRepository.applyStockDelta(pending.productId(), pending.delta()) == 0) {
+                            withoutRow.add(pending);
+                        }
+                    }
+                    return withoutRow;
+                });
+                log.debug("Flushed stock deltas for {} products", drained.size() - orphaned.size());
+            } catch (RuntimeException ex) {
+                drained.forEach(pending -> pending.counter().pending.addAndGet(pending.delta()));
+                log.error("Failed to flush stock deltas for {} products; will retry", drained.size(), ex);
+                return;
+            }
+            for (PendingDelta pending : orphaned) {
+                // Retrying cannot succeed; the next use of the product reloads it and finds no inventory
+                counters.remove(pending.productId(), pending.counter());
+                log.error("Dropped stock delta {} of product {}: its inventory row no longer exists",
+                        pending.delta(), pending.productId());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private <T> CompletableFuture<T> withCounter(Long productId, Function<StockCounter, T> operation) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            try {
+                return CompletableFuture.completedFuture(operation.apply(counter));
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        // First touch of this product: load it off the caller's thread
+        return CompletableFuture.supplyAsync(() -> operation.apply(counters.computeIfAbsent(productId, this::loadCounter)),
+                virtualThreadExecutor);
+    }
+
+    private CompletableFuture<Map<Long, StockCounter>> withCounters(Collection<Long> productIds) {
+        if (counters.keySet().containsAll(productIds)) {
+            return CompletableFuture.completedFuture(resolveCounters(productIds));
+        }
+        // Some products are touched for the first time: load them off the caller's thread
+        return CompletableFuture.supplyAsync(() -> resolveCounters(productIds), virtualThreadExecutor);
+    }
+
+    /**
+     * Resolves the counters for a batch, loading the missing ones; products without an inventory row
+     * are left out.
+     */
+    private Map<Long, StockCounter> resolveCounters(Collection<Long> productIds) {
+        Map<Long, StockCounter> batch = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            StockCounter counter = counters.get(productId);
+            if (counter != null) {
+                batch.put(productId, counter);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Inventory inventory : inventoryRepository.findByProductIdIn(missing)) {
+                batch.put(inventory.getProductId(), counters.computeIfAbsent(inventory.getProductId(),
+                        productId -> new StockCounter(inventory.getStockQuantity())));
+            }
+        }
+        return batch;
+    }
+
+    private StockCounter loadCounter(Long productId) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
+        return new StockCounter(inventory.getStockQuantity());
+    }
+
+    private void take(Long productId, StockCounter counter, int quantity) {
+        if (!tryTake(counter, quantity)) {
+            throw new InsufficientStockException("Product " + productId, quantity, counter.available.get());
+        }
+    }
+
+    private boolean tryTake(StockCounter counter, int quantity) {
+        int current;
+        do {
+            current = counter.available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.available.compareAndSet(current, current - quantity));
+        counter.pending.addAndGet(-quantity);
+        return true;
+    }
+
+    private void give(StockCounter counter, int quantity) {
+        counter.available.addAndGet(quantity);
+        counter.pending.addAndGet(quantity);
+    }
+
+    private static final class StockCounter {
+        private final AtomicInteger available;
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private StockCounter(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+
+    private record PendingDelta(Long productId, StockCounter counter, int delta) {}
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+/**
+ * Which {@link InventoryService} implementation owns a product's stock.
+ */
+public enum InventoryEngine {
+    /**
+     * Every change goes straight to the {@code inventory} table through {@link InventoryServiceImpl}.
+     */
+    JPA,
+    /**
+     * Stock is held in memory by {@link InMemoryInventoryService} and written back periodically.
+     */
+    IN_MEMORY
+}
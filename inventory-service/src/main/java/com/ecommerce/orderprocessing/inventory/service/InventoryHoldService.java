@@ -0,0 +1,250 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHold;
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHoldStatus;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.repository.InventoryHoldRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Time-bounded stock reservations for pending orders.
+ * <p>
+ * {@link #placeHolds} deducts stock through {@link InventoryService#reserveAll} and records a
+ * {@link InventoryHold} per product that expires after {@code app.inventory.holds.ttl}. Paying the
+ * order commits the holds, cancelling it releases them, and a scheduled sweeper returns the stock of
+ * holds that expired first. Every transition locks the order's holds, and the sweeper skips locked
+ * rows, so a hold is settled exactly once.
+ */
+@Slf4j
+@Service
+public class InventoryHoldService {
+
+    private final InventoryHoldRepository inventoryHoldRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+
+    public InventoryHoldService(InventoryHoldRepository inventoryHoldRepository,
+                                InventoryService inventoryService,
+                                PlatformTransactionManager transactionManager,
+                                ExecutorService virtualThreadExecutor,
+                                @Value("${app.inventory.holds.ttl:15m}") Duration ttl,
+                                @Value("${app.inventory.holds.sweep-batch-size:500}") int sweepBatchSize) {
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.ttl = ttl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Reserves the basket and records the holds. If the holds cannot be recorded the stock is
+     * returned before the failure propagates.
+     */
+    public CompletableFuture<InventoryBatchResult> placeHolds(Long orderId, Map<Long, Integer> quantities) {
+        return inventoryService.reserveAll(quantities).thenApplyAsync(result -> {
+            if (!result.isSuccessful()) {
+                return result;
+            }
+            LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+            try {
+                inventoryHoldRepository.saveAll(quantities.entrySet().stream()
+                        .map(entry -> new InventoryHold(orderId, entry.getKey(), entry.getValue(), expiresAt))
+                        .toList());
+            } catch (RuntimeException ex) {
+                try {
+                    InventoryBatchResult released = inventoryService.releaseAll(quantities).join();
+                    if (!released.isSuccessful()) {
+                        log.error("Could not return stock of products {} for order {} after its holds failed to save",
+                                released.failedProductIds(), orderId);
+                    }
+                } catch (RuntimeException releaseEx) {
+                    log.error("Could not return stock {} for order {} after its holds failed to save", quantities, orderId,
+                            releaseEx);
+                    ex.addSuppressed(releaseEx);
+                }
+                throw ex;
+            }
+            return result;
+        }, virtualThreadExecutor);
+    }
+
+    /**
+     * Makes the order's stock deduction permanent. Any product whose live holds do not cover its
+     * quantity, because its holds already expired or were released, is taken again; the call fails
+     * with {@link InsufficientStockException} when that is no longer possible. The sweeper can expire
+     * some of an order's holds and not others, so this is decided per product. Orders placed before
+     * holds existed have nothing to commit.
+     *
+     * @return the ids of the holds this call committed, to hand to {@link #reinstateHolds} if payment fails
+     * @throws BadRequestException if the holds are already committed, i.e. another payment of the
+     * order is in progress or done
+     */
+    public CompletableFuture<List<Long>> commitHolds(Long orderId, Map<Long, Integer> quantities) {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            // Locked before the check below, so a concurrent sweep, release or re-reservation is seen once it commits
+            List<InventoryHold> holds = inventoryHoldRepository.lockByOrderIdAndStatusIn(orderId,
+                    List.of(InventoryHoldStatus.HELD, InventoryHoldStatus.EXPIRED, InventoryHoldStatus.RELEASED));
+            if (inventoryHoldRepository.existsByOrderIdAndStatus(orderId, InventoryHoldStatus.COMMITTED)) {
+                throw new BadRequestException("Payment for order " + orderId + " is already in progress");
+            }
+            if (holds.isEmpty()) {
+                return List.<Long>of();
+            }
+            List<InventoryHold> held = holds.stream()
+                    .filter(hold -> hold.getStatus() == InventoryHoldStatus.HELD)
+                    .toList();
+            Map<Long, Integer> uncovered = uncovered(quantities, held);
+
+            List<Long> committed = new ArrayList<>(ids(held));
+            if (!held.isEmpty()) {
+                inventoryHoldRepository.updateStatus(ids(held), InventoryHoldStatus.COMMITTED);
+            }
+            if (!uncovered.isEmpty()) {
+                committed.addAll(reserveAgain(orderId, uncovered));
+            }
+            return committed;
+        }), virtualThreadExecutor);
+    }
+
+    /**
+     * Turns the given committed holds back into live holds with a fresh expiry, e.g. when payment fails
+     * after {@link #commitHolds} returned them. Holds settled since then are left alone.
+     */
+    public CompletableFuture<Void> reinstateHolds(Collection<Long> holdIds) {
+        if (holdIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                inventoryHoldRepository.reinstateCommittedHolds(holdIds, LocalDateTime.now().plus(ttl))), virtualThreadExecutor);
+    }
+
+    /**
+     * Returns the stock of the order's live holds.
+     *
+     * @return {@code true} if the order's stock is tracked by holds, in which case nothing else needs
+     * releasing; {@code false} for orders placed before holds existed
+     */
+    public CompletableFuture<Boolean> releaseHolds(Long orderId) {
+        return release(orderId, InventoryHoldStatus.HELD);
+    }
+
+    /**
+     * Returns the stock of the order's committed holds, e.g. when a paid order is cancelled. Holds
+     * are marked released in the same transaction, so repeating the call returns nothing twice.
+     *
+     * @return {@code true} if the order's stock is tracked by holds; {@code false} for orders placed
+     * before holds existed
+     */
+    public CompletableFuture<Boolean> releaseCommittedHolds(Long orderId) {
+        return release(orderId, InventoryHoldStatus.COMMITTED);
+    }
+
+    /**
+     * Returns the stock of expired holds, one batch per transaction, until none are left.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.holds.sweep-interval-ms:30000}")
+    public void sweepExpiredHolds() {
+        int total = 0;
+        Integer swept;
+        do {
+            swept = transactionTemplate.execute(status -> {
+                List<InventoryHold> expired = inventoryHoldRepository.lockExpiredHolds(LocalDateTime.now(), sweepBatchSize);
+                if (expired.isEmpty()) {
+                    return 0;
+                }
+                returnStock(expired);
+                inventoryHoldRepository.updateStatus(ids(expired), InventoryHoldStatus.EXPIRED);
+                return expired.size();
+            });
+            total += swept;
+        } while (swept == sweepBatchSize);
+        if (total > 0) {
+            log.info("Released {} expired inventory holds", total);
+        }
+    }
+
+    private CompletableFuture<Boolean> release(Long orderId, InventoryHoldStatus from) {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<InventoryHold> holds = inventoryHoldRepository.lockByOrderIdAndStatus(orderId, from);
+            if (holds.isEmpty()) {
+                return inventoryHoldRepository.existsByOrderId(orderId);
+            }
+            returnStock(holds);
+            inventoryHoldRepository.updateStatus(ids(holds), InventoryHoldStatus.RELEASED);
+            return true;
+        }), virtualThreadExecutor);
+    }
+
+    /**
+     * Returns the holds' stock in the caller's transaction, so it commits together with the holds'
+     * new status or not at all.
+     */
+    private void returnStock(List<InventoryHold> holds) {
+        Map<Long, Integer> quantities = holds.stream()
+                .collect(Collectors.toMap(InventoryHold::getProductId, InventoryHold::getQuantity, Integer::sum));
+        InventoryBatchResult result = inventoryService.releaseAllInCurrentTransaction(quantities);
+        if (!result.isSuccessful()) {
+            log.warn("No inventory rows for products {}; their held stock was dropped", result.failedProductIds());
+        }
+    }
+
+    /**
+     * The part of {@code quantities} the order's live holds do not cover.
+     */
+    private static Map<Long, Integer> uncovered(Map<Long, Integer> quantities, List<InventoryHold> held) {
+        Map<Long, Integer> uncovered = new TreeMap<>(quantities);
+        for (InventoryHold hold : held) {
+            uncovered.computeIfPresent(hold.getProductId(), (productId, quantity) ->
+                    quantity > hold.getQuantity() ? quantity - hold.getQuantity() : null);
+        }
+        return uncovered;
+    }
+
+    /**
+     * Takes the stock again in the caller's transaction, so it is only taken if the new holds are
+     * saved too, and records it as committed holds.
+     */
+    private List<Long> reserveAgain(Long orderId, Map<Long, Integer> quantities) {
+        InventoryBatchResult result = inventoryService.reserveAllInCurrentTransaction(quantities);
+        if (!result.isSuccessful()) {
+            throw new InsufficientStockException("Order " + orderId + " products " + result.failedProductIds(),
+                    quantities.values().stream().mapToInt(Integer::intValue).sum());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryHold> committed = inventoryHoldRepository.saveAll(quantities.entrySet().stream()
+                .map(entry -> {
+                    InventoryHold hold = new InventoryHold(orderId, entry.getKey(), entry.getValue(), now);
+                    hold.setStatus(InventoryHoldStatus.COMMITTED);
+                    return hold;
+                })
+                .toList());
+        log.info("Re-reserved stock of products {} for order {} after their holds expired", quantities.keySet(), orderId);
+        return ids(committed);
+    }
+
+    private List<Long> ids(List<InventoryHold> holds) {
+        return holds.stream().map(InventoryHold::getId).toList();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+/**
+ * How {@link InventoryServiceImpl} applies stock changes.
+ */
+public enum InventoryReservationMode {
+    /**
+     * One guarded {@code UPDATE} per change; the database serializes concurrent writers on the row.
+     */
+    CONDITIONAL_UPDATE,
+    /**
+     * Load the entity, mutate it and save it back. Unsafe under concurrent writers to the same product.
+     */
+    READ_MODIFY_WRITE
+}
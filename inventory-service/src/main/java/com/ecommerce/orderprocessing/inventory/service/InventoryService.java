@@ -1,7 +1,9 @@
 package com.ecommerce.orderprocessing.inventory.service;
 
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
 import com.ecommerce.orderprocessing.inventory.dto.InventoryResponse;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface InventoryService {
@@ -11,4 +13,33 @@ public interface InventoryService {
     CompletableFuture<Void> commitInventory(Long productId, Integer quantity);
     CompletableFuture<InventoryResponse> getInventoryByProductId(Long productId);
     CompletableFuture<Void> restockInventory(Long productId, Integer quantity);
+
+    /**
+     * Reserves every product in {@code quantities} (product ID to units) as one unit of work, touching
+     * products in ascending ID order so overlapping baskets cannot deadlock. Either all reservations
+     * are kept or none are; the result reports the outcome for each product.
+     */
+    CompletableFuture<InventoryBatchResult> reserveAll(Map<Long, Integer> quantities);
+
+    /**
+     * Reserves every product in {@code quantities} on the calling thread, as part of the caller's
+     * transaction, so the stock is taken only if whatever the caller changes alongside it commits too.
+     * Products are touched in ascending ID order, as in {@link #reserveAll}. The caller must roll its
+     * transaction back unless the result is successful.
+     */
+    InventoryBatchResult reserveAllInCurrentTransaction(Map<Long, Integer> quantities);
+
+    /**
+     * Returns stock for every product in {@code quantities}, with the same ordering and all-or-nothing
+     * guarantees as {@link #reserveAll}.
+     */
+    CompletableFuture<InventoryBatchResult> releaseAll(Map<Long, Integer> quantities);
+
+    /**
+     * Returns stock for every product in {@code quantities} on the calling thread, as part of the
+     * caller's transaction, so the stock comes back only if whatever the caller changes alongside it
+     * commits too. Products without stock are reported as {@link InventoryBatchResult.Outcome#NOT_FOUND}
+     * and skipped; the others are returned regardless.
+     */
+    InventoryBatchResult releaseAllInCurrentTransaction(Map<Long, Integer> quantities);
 }
\ No newline at end of file
@@ -2,14 +2,23 @@ package com.ecommerce.orderprocessing.inventory.service;
 
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.inventory.domain.Inventory;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
 import com.ecommerce.orderprocessing.inventory.dto.InventoryResponse;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
 import com.ecommerce.orderprocessing.inventory.repository.InventoryRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
 
 @Slf4j
 @Service
@@ -17,11 +26,17 @@ import java.util.concurrent.ExecutorService;
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
     private final ExecutorService virtualThreadExecutor;
+    private final InventoryReservationMode reservationMode;
 
-    public InventoryServiceImpl(InventoryRepository inventoryRepository, ExecutorService virtualThreadExecutor) {
+    public InventoryServiceImpl(InventoryRepository inventoryRepository, PlatformTransactionManager transactionManager,
+                                ExecutorService virtualThreadExecutor,
+                                @Value("${app.inventory.reservation-mode:CONDITIONAL_UPDATE}") InventoryReservationMode reservationMode) {
         this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.virtualThreadExecutor = virtualThreadExecutor;
+        this.reservationMode = reservationMode;
     }
 
     @Override
@@ -39,9 +54,13 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public CompletableFuture<Void> reserveInventory(Long productId, Integer quantity) {
         return CompletableFuture.runAsync(() -> {
-            Inventory inventory = findInventoryByProductId(productId);
-            inventory.reduceStock(quantity);
-            inventoryRepository.save(inventory);
+            if (reservationMode == InventoryReservationMode.CONDITIONAL_UPDATE) {
+                decrementStock(productId, quantity);
+            } else {
+                Inventory inventory = findInventoryByProductId(productId);
+                inventory.reduceStock(quantity);
+                inventoryRepository.save(inventory);
+            }
             log.info("Reserved {} units of product {} (ID: {})", quantity, productId, productId);
         }, virtualThreadExecutor);
     }
@@ -49,9 +68,13 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public CompletableFuture<Void> releaseInventory(Long productId, Integer quantity) {
         return CompletableFuture.runAsync(() -> {
-            Inventory inventory = findInventoryByProductId(productId);
-            inventory.restoreStock(quantity);
-            inventoryRepository.save(inventory);
+            if (reservationMode == InventoryReservationMode.CONDITIONAL_UPDATE) {
+                incrementStock(productId, quantity);
+            } else {
+                Inventory inventory = findInventoryByProductId(productId);
+                inventory.restoreStock(quantity);
+                inventoryRepository.save(inventory);
+            }
             log.info("Restored {} units of product {} (ID: {})", quantity, productId, productId);
         }, virtualThreadExecutor);
     }
@@ -59,9 +82,13 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public CompletableFuture<Void> commitInventory(Long productId, Integer quantity) {
         return CompletableFuture.runAsync(() -> {
-            Inventory inventory = findInventoryByProductId(productId);
-            inventory.commitStock(quantity);
-            inventoryRepository.save(inventory);
+            if (reservationMode == InventoryReservationMode.CONDITIONAL_UPDATE) {
+                decrementStock(productId, quantity);
+            } else {
+                Inventory inventory = findInventoryByProductId(productId);
+                inventory.commitStock(quantity);
+                inventoryRepository.save(inventory);
+            }
             log.info("Committed {} units of product {} (ID: {})", quantity, productId, productId);
         }, virtualThreadExecutor);
     }
@@ -77,13 +104,87 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public CompletableFuture<Void> restockInventory(Long productId, Integer quantity) {
         return CompletableFuture.runAsync(() -> {
-            Inventory inventory = findInventoryByProductId(productId);
-            inventory.restock(quantity);
-            inventoryRepository.save(inventory);
+            if (reservationMode == InventoryReservationMode.CONDITIONAL_UPDATE) {
+                incrementStock(productId, quantity);
+            } else {
+                Inventory inventory = findInventoryByProductId(productId);
+                inventory.restock(quantity);
+                inventoryRepository.save(inventory);
+            }
             log.info("Restocked {} units of product {} (ID: {})", quantity, productId, productId);
         }, virtualThreadExecutor);
     }
 
+    /**
+     * Always uses guarded updates, whatever the reservation mode: each row stays locked until the
+     * batch commits, and the ascending product order makes that lock order the same for every batch.
+     */
+    @Override
+    public CompletableFuture<InventoryBatchResult> reserveAll(Map<Long, Integer> quantities) {
+        return CompletableFuture.supplyAsync(() -> applyAll(quantities, this::reserve), virtualThreadExecutor);
+    }
+
+    @Override
+    public InventoryBatchResult reserveAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Long, Outcome> outcomes = new TreeMap<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) -> outcomes.put(productId, reserve(productId, quantity)));
+        return new InventoryBatchResult(outcomes);
+    }
+
+    @Override
+    public CompletableFuture<InventoryBatchResult> releaseAll(Map<Long, Integer> quantities) {
+        return CompletableFuture.supplyAsync(() -> applyAll(quantities, (productId, quantity) ->
+                inventoryRepository.incrementStock(productId, quantity) == 1 ? Outcome.APPLIED : Outcome.NOT_FOUND
+        ), virtualThreadExecutor);
+    }
+
+    @Override
+    public InventoryBatchResult releaseAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Long, Outcome> outcomes = new TreeMap<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) -> outcomes.put(productId,
+                inventoryRepository.incrementStock(productId, quantity) == 1 ? Outcome.APPLIED : Outcome.NOT_FOUND));
+        return new InventoryBatchResult(outcomes);
+    }
+
+    private InventoryBatchResult applyAll(Map<Long, Integer> quantities, BiFunction<Long, Integer, Outcome> change) {
+        if (quantities.isEmpty()) {
+            return new InventoryBatchResult(Map.of());
+        }
+        return transactionTemplate.execute(status -> {
+            Map<Long, Outcome> outcomes = new TreeMap<>();
+            // Keep going after a failure so the caller learns about every short product, then roll back
+            new TreeMap<>(quantities).forEach((productId, quantity) -> outcomes.put(productId, change.apply(productId, quantity)));
+            InventoryBatchResult result = new InventoryBatchResult(outcomes);
+            if (!result.isSuccessful()) {
+                status.setRollbackOnly();
+                log.info("Batch of {} products rejected; failed products {}", outcomes.size(), result.failedProductIds());
+            }
+            return result;
+        });
+    }
+
+    private Outcome reserve(Long productId, int quantity) {
+        if (inventoryRepository.decrementStockIfAvailable(productId, quantity) == 1) {
+            return Outcome.APPLIED;
+        }
+        return inventoryRepository.findByProductId(productId).isPresent() ? Outcome.INSUFFICIENT_STOCK : Outcome.NOT_FOUND;
+    }
+
+    private void decrementStock(Long productId, int quantity) {
+        if (inventoryRepository.decrementStockIfAvailable(productId, quantity) == 0) {
+            // Nothing matched: either there is no row, or the guard rejected the change. A re-read
+            // stock level may already differ from the one the guard saw, so none is reported
+            findInventoryByProductId(productId);
+            throw new InsufficientStockException("Product " + productId, quantity);
+        }
+    }
+
+    private void incrementStock(Long productId, int quantity) {
+        if (inventoryRepository.incrementStock(productId, quantity) == 0) {
+            throw new ResourceNotFoundException("Inventory not found for product ID: " + productId);
+        }
+    }
+
     private Inventory findInventoryByProductId(Long productId) {
         return inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
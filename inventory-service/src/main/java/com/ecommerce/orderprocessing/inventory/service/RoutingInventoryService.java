@@ -0,0 +1,169 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link InventoryService} other modules see. Sends each product to the JPA engine unless
+ * {@code app.inventory.engine} is {@code IN_MEMORY} or the product is listed in
+ * {@code app.inventory.hot-product-ids}.
+ */
+@Slf4j
+@Primary
+@Service
+public class RoutingInventoryService implements InventoryService {
+
+    private final InventoryServiceImpl jpaInventoryService;
+    private final InMemoryInventoryService inMemoryInventoryService;
+    private final InventoryEngine engine;
+    private final Set<Long> hotProductIds;
+
+    public RoutingInventoryService(InventoryServiceImpl jpaInventoryService,
+                                   InMemoryInventoryService inMemoryInventoryService,
+                                   @Value("${app.inventory.engine:JPA}") InventoryEngine engine,
+                                   @Value("${app.inventory.hot-product-ids:}") Set<Long> hotProductIds) {
+        this.jpaInventoryService = jpaInventoryService;
+        this.inMemoryInventoryService = inMemoryInventoryService;
+        this.engine = engine;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrateInMemoryStock() {
+        if (engine == InventoryEngine.IN_MEMORY) {
+            inMemoryInventoryService.rehydrateAll();
+        } else if (!hotProductIds.isEmpty()) {
+            log.info("Routing products {} to the in-memory inventory engine", hotProductIds);
+            inMemoryInventoryService.rehydrate(hotProductIds);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkInventory(Long productId, Integer quantity) {
+        return engineFor(productId).checkInventory(productId, quantity);
+    }
+
+    @Override
+    public CompletableFuture<Void> reserveInventory(Long productId, Integer quantity) {
+        return engineFor(productId).reserveInventory(productId, quantity);
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseInventory(Long productId, Integer quantity) {
+        return engineFor(productId).releaseInventory(productId, quantity);
+    }
+
+    @Override
+    public CompletableFuture<Void> commitInventory(Long productId, Integer quantity) {
+        return engineFor(productId).commitInventory(productId, quantity);
+    }
+
+    @Override
+    public CompletableFuture<InventoryResponse> getInventoryByProductId(Long productId) {
+        return engineFor(productId).getInventoryByProductId(productId);
+    }
+
+    @Override
+    public CompletableFuture<Void> restockInventory(Long productId, Integer quantity) {
+        return engineFor(productId).restockInventory(productId, quantity);
+    }
+
+    @Override
+    public CompletableFuture<InventoryBatchResult> reserveAll(Map<Long, Integer> quantities) {
+        Map<Boolean, Map<Long, Integer>> split = splitByEngine(quantities);
+        Map<Long, Integer> inMemory = split.get(true);
+        Map<Long, Integer> jpa = split.get(false);
+        if (inMemory.isEmpty()) {
+            return jpaInventoryService.reserveAll(jpa);
+        }
+        if (jpa.isEmpty()) {
+            return inMemoryInventoryService.reserveAll(inMemory);
+        }
+        CompletableFuture<InventoryBatchResult> inMemoryReserved = inMemoryInventoryService.reserveAll(inMemory);
+        CompletableFuture<InventoryBatchResult> jpaReserved = jpaInventoryService.reserveAll(jpa);
+        return CompletableFuture.allOf(inMemoryReserved, jpaReserved)
+                .exceptionally(ex -> null)
+                .thenCompose(ignored -> {
+                    boolean inMemoryHeld = isSuccessful(inMemoryReserved);
+                    if (inMemoryHeld == isSuccessful(jpaReserved)) {
+                        return inMemoryReserved.thenCombine(jpaReserved, this::merge);
+                    }
+                    // Two engines cannot share a transaction: undo the half that succeeded before reporting the failure
+                    CompletableFuture<Void> undone = inMemoryHeld
+                            ? compensate(inMemoryInventoryService, inMemory)
+                            : compensate(jpaInventoryService, jpa);
+                    return undone.thenCompose(done -> inMemoryReserved.thenCombine(jpaReserved, this::merge));
+                });
+    }
+
+    @Override
+    public CompletableFuture<InventoryBatchResult> releaseAll(Map<Long, Integer> quantities) {
+        Map<Boolean, Map<Long, Integer>> split = splitByEngine(quantities);
+        return inMemoryInventoryService.releaseAll(split.get(true))
+                .thenCombine(jpaInventoryService.releaseAll(split.get(false)), this::merge);
+    }
+
+    /**
+     * A half that fails makes the caller roll back, which also gives back the in-memory half.
+     */
+    @Override
+    public InventoryBatchResult reserveAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Boolean, Map<Long, Integer>> split = splitByEngine(quantities);
+        return merge(inMemoryInventoryService.reserveAllInCurrentTransaction(split.get(true)),
+                jpaInventoryService.reserveAllInCurrentTransaction(split.get(false)));
+    }
+
+    @Override
+    public InventoryBatchResult releaseAllInCurrentTransaction(Map<Long, Integer> quantities) {
+        Map<Boolean, Map<Long, Integer>> split = splitByEngine(quantities);
+        return merge(inMemoryInventoryService.releaseAllInCurrentTransaction(split.get(true)),
+                jpaInventoryService.releaseAllInCurrentTransaction(split.get(false)));
+    }
+
+    private static boolean isSuccessful(CompletableFuture<InventoryBatchResult> reserved) {
+        return !reserved.isCompletedExceptionally() && reserved.join().isSuccessful();
+    }
+
+    private CompletableFuture<Void> compensate(InventoryService inventoryService, Map<Long, Integer> quantities) {
+        return inventoryService.releaseAll(quantities).handle((released, ex) -> {
+            if (ex != null) {
+                log.error("Could not return stock {} after the rest of the batch failed to reserve", quantities, ex);
+            } else if (!released.isSuccessful()) {
+                log.error("Could not return stock of products {} after the rest of the batch failed to reserve",
+                        released.failedProductIds());
+            }
+            return null;
+        });
+    }
+
+    private Map<Boolean, Map<Long, Integer>> splitByEngine(Map<Long, Integer> quantities) {
+        return quantities.entrySet().stream()
+                .collect(Collectors.partitioningBy(entry -> engineFor(entry.getKey()) == inMemoryInventoryService,
+                        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+
+    private InventoryBatchResult merge(InventoryBatchResult first, InventoryBatchResult second) {
+        Map<Long, InventoryBatchResult.Outcome> outcomes = new TreeMap<>(first.outcomes());
+        outcomes.putAll(second.outcomes());
+        return new InventoryBatchResult(outcomes);
+    }
+
+    private InventoryService engineFor(Long productId) {
+        if (engine == InventoryEngine.IN_MEMORY || hotProductIds.contains(productId)) {
+            return inMemoryInventoryService;
+        }
+        return jpaInventoryService;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.inventory.domain.Inventory;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryInventoryServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private InMemoryInventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InMemoryInventoryService(inventoryRepository, transactionManager, virtualThreadExecutor);
+    }
+
+    @Test
+    void reserveInventory_underConcurrentLoad_shouldNeverOversell() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 100)));
+        inventoryService.rehydrate(Set.of(1L));
+        AtomicInteger reserved = new AtomicInteger();
+
+        // When
+        CompletableFuture<?>[] buyers = IntStream.range(0, 1000)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> inventoryService.reserveInventory(1L, 1)
+                        .thenRun(reserved::incrementAndGet)
+                        .exceptionally(ex -> null)
+                        .join(), virtualThreadExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(buyers).join();
+
+        // Then
+        assertThat(reserved.get()).isEqualTo(100);
+        assertThat(inventoryService.getInventoryByProductId(1L).join().stockQuantity()).isZero();
+    }
+
+    @Test
+    void reserveInventory_whenInsufficientStock_shouldFailWithoutChangingStock() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 5)));
+        inventoryService.rehydrate(Set.of(1L));
+
+        // When
+        CompletableFuture<Void> future = inventoryService.reserveInventory(1L, 10);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InsufficientStockException.class);
+        assertThat(inventoryService.getInventoryByProductId(1L).join().stockQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void reserveInventory_whenProductNotLoaded_shouldLoadItFromRepository() throws Exception {
+        // Given
+        when(inventoryRepository.findByProductId(2L)).thenReturn(Optional.of(new Inventory(2L, 10)));
+
+        // When
+        inventoryService.reserveInventory(2L, 4).get();
+
+        // Then
+        assertThat(inventoryService.getInventoryByProductId(2L).get().stockQuantity()).isEqualTo(6);
+        verify(inventoryRepository, times(1)).findByProductId(2L);
+    }
+
+    @Test
+    void reserveInventory_whenInventoryMissing_shouldThrowNotFound() {
+        // Given
+        when(inventoryRepository.findByProductId(99L)).thenReturn(Optional.empty());
+
+        // When
+        CompletableFuture<Void> future = inventoryService.reserveInventory(99L, 1);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void releaseAllInCurrentTransaction_shouldReturnStockOnlyOnceTheTransactionCommits() throws Exception {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 10)));
+        inventoryService.rehydrate(Set.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            InventoryBatchResult result = inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 3));
+            int beforeCommit = inventoryService.getInventoryByProductId(1L).get().stockQuantity();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertThat(result.isSuccessful()).isTrue();
+            assertThat(beforeCommit).isEqualTo(10);
+            assertThat(inventoryService.getInventoryByProductId(1L).get().stockQuantity()).isEqualTo(13);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserveAllInCurrentTransaction_shouldGiveTheStockBackIfTheTransactionRollsBack() throws Exception {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 10)));
+        inventoryService.rehydrate(Set.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            InventoryBatchResult result = inventoryService.reserveAllInCurrentTransaction(Map.of(1L, 4));
+            int beforeRollback = inventoryService.getInventoryByProductId(1L).get().stockQuantity();
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            assertThat(result.isSuccessful()).isTrue();
+            assertThat(beforeRollback).isEqualTo(6);
+            assertThat(inventoryService.getInventoryByProductId(1L).get().stockQuantity()).isEqualTo(10);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flush_shouldPersistNetDeltaOnce() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 10)));
+        inventoryService.rehydrate(Set.of(1L));
+        inventoryService.reserveInventory(1L, 5).join();
+        inventoryService.releaseInventory(1L, 2).join();
+        when(inventoryRepository.applyStockDelta(1L, -3)).thenReturn(1);
+
+        // When
+        inventoryService.flush();
+        inventoryService.flush();
+
+        // Then
+        verify(inventoryRepository, times(1)).applyStockDelta(1L, -3);
+    }
+
+    @Test
+    void flush_whenDatabaseFails_shouldKeepDeltaForNextFlush() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 10)));
+        inventoryService.rehydrate(Set.of(1L));
+        inventoryService.reserveInventory(1L, 4).join();
+        when(inventoryRepository.applyStockDelta(1L, -4))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+
+        // When
+        inventoryService.flush();
+        inventoryService.flush();
+
+        // Then
+        verify(inventoryRepository, times(2)).applyStockDelta(1L, -4);
+    }
+
+    @Test
+    void flush_whenTheInventoryRowIsGone_shouldDropTheProduct() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L))).thenReturn(List.of(new Inventory(1L, 10)));
+        inventoryService.rehydrate(Set.of(1L));
+        inventoryService.reserveInventory(1L, 4).join();
+        when(inventoryRepository.applyStockDelta(1L, -4)).thenReturn(0);
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.empty());
+
+        // When
+        inventoryService.flush();
+        inventoryService.flush();
+
+        // Then
+        verify(inventoryRepository, times(1)).applyStockDelta(1L, -4);
+        assertThatThrownBy(() -> inventoryService.reserveInventory(1L, 1).join())
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void rehydrate_duringFlush_shouldWaitForTheFlushToCommit() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L)))
+                .thenReturn(List.of(new Inventory(1L, 10)))
+                .thenReturn(List.of(new Inventory(1L, 6)));
+        inventoryService.rehydrate(Set.of(1L));
+        inventoryService.reserveInventory(1L, 4).join();
+        AtomicReference<CompletableFuture<Void>> rehydration = new AtomicReference<>();
+        when(inventoryRepository.applyStockDelta(1L, -4)).thenAnswer(invocation -> {
+            rehydration.set(CompletableFuture.runAsync(() -> inventoryService.rehydrate(Set.of(1L)), virtualThreadExecutor));
+            Thread.sleep(100);
+            assertThat(rehydration.get()).isNotDone();
+            return 1;
+        });
+
+        // When
+        inventoryService.flush();
+        rehydration.get().join();
+
+        // Then
+        assertThat(inventoryService.getInventoryByProductId(1L).join().stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    void flush_withNothingPending_shouldNotTouchDatabase() {
+        // When
+        inventoryService.flush();
+
+        // Then
+        verify(inventoryRepository, never()).applyStockDelta(anyLong(), anyInt());
+    }
+
+    @Test
+    void reserveAll_whenOneProductIsShort_shouldGiveBackTheOthers() {
+        // Given
+        when(inventoryRepository.findByProductIdIn(Set.of(1L, 2L))).thenReturn(List.of(new Inventory(1L, 10), new Inventory(2L, 1)));
+        inventoryService.rehydrate(Set.of(1L, 2L));
+
+        // When
+        InventoryBatchResult result = inventoryService.reserveAll(Map.of(1L, 4, 2L, 3)).join();
+
+        // Then
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.failedProductIds()).containsExactly(2L);
+        assertThat(inventoryService.getInventoryByProductId(1L).join().stockQuantity()).isEqualTo(10);
+        assertThat(inventoryService.getInventoryByProductId(2L).join().stockQuantity()).isEqualTo(1);
+    }
+}
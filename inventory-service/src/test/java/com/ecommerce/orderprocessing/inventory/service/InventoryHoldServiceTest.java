@@ -0,0 +1,345 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHold;
+import com.ecommerce.orderprocessing.inventory.domain.InventoryHoldStatus;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.repository.InventoryHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryHoldServiceTest {
+
+    private static final List<InventoryHoldStatus> UNCOMMITTED =
+            List.of(InventoryHoldStatus.HELD, InventoryHoldStatus.EXPIRED, InventoryHoldStatus.RELEASED);
+
+    @Mock
+    private InventoryHoldRepository inventoryHoldRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private InventoryHoldService inventoryHoldService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryHoldService = new InventoryHoldService(inventoryHoldRepository, inventoryService, transactionManager,
+                virtualThreadExecutor, Duration.ofMinutes(15), 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeHolds_shouldReserveStockAndRecordExpiringHolds() throws Exception {
+        // Given
+        when(inventoryService.reserveAll(Map.of(1L, 2, 2L, 3))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED, 2L, Outcome.APPLIED))));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        InventoryBatchResult result = inventoryHoldService.placeHolds(10L, Map.of(1L, 2, 2L, 3)).get();
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        ArgumentCaptor<List<InventoryHold>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryHoldRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2).allSatisfy(hold -> {
+            assertThat(hold.getOrderId()).isEqualTo(10L);
+            assertThat(hold.getStatus()).isEqualTo(InventoryHoldStatus.HELD);
+            assertThat(hold.getExpiresAt()).isAfterOrEqualTo(before.plusMinutes(15));
+        });
+    }
+
+    @Test
+    void placeHolds_whenBasketRejected_shouldNotRecordHolds() throws Exception {
+        // Given
+        when(inventoryService.reserveAll(Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.INSUFFICIENT_STOCK))));
+
+        // When
+        InventoryBatchResult result = inventoryHoldService.placeHolds(10L, Map.of(1L, 2)).get();
+
+        // Then
+        assertThat(result.isSuccessful()).isFalse();
+        verify(inventoryHoldRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void placeHolds_whenHoldsCannotBeSaved_shouldReturnStock() {
+        // Given
+        when(inventoryService.reserveAll(Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED))));
+        when(inventoryHoldRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("constraint"));
+        when(inventoryService.releaseAll(Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED))));
+
+        // When
+        CompletableFuture<InventoryBatchResult> future = inventoryHoldService.placeHolds(10L, Map.of(1L, 2));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(inventoryService).releaseAll(Map.of(1L, 2));
+    }
+
+    @Test
+    void commitHolds_shouldMarkLiveHoldsCommitted() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2)));
+
+        // When
+        List<Long> committed = inventoryHoldService.commitHolds(10L, Map.of(1L, 2)).get();
+
+        // Then
+        assertThat(committed).containsExactly(100L);
+        verify(inventoryHoldRepository).updateStatus(List.of(100L), InventoryHoldStatus.COMMITTED);
+        verify(inventoryService, never()).reserveAllInCurrentTransaction(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void commitHolds_whenHoldsExpired_shouldReserveAgainAndCommitNewHolds() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2, InventoryHoldStatus.EXPIRED)));
+        when(inventoryService.reserveAllInCurrentTransaction(Map.of(1L, 2))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED)));
+        when(inventoryHoldRepository.saveAll(anyList())).thenReturn(List.of(hold(101L, 10L, 1L, 2)));
+
+        // When
+        List<Long> committed = inventoryHoldService.commitHolds(10L, Map.of(1L, 2)).get();
+
+        // Then
+        assertThat(committed).containsExactly(101L);
+        ArgumentCaptor<List<InventoryHold>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryHoldRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement()
+                .extracting(InventoryHold::getStatus)
+                .isEqualTo(InventoryHoldStatus.COMMITTED);
+        verify(inventoryHoldRepository, never()).updateStatus(anyList(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void commitHolds_whenOnlySomeHoldsExpired_shouldReserveTheExpiredProductsAgain() throws Exception {
+        // Given: the sweeper expired the hold on product 2 but not the one on product 1
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED)).thenReturn(List.of(
+                hold(100L, 10L, 1L, 2), hold(101L, 10L, 2L, 3, InventoryHoldStatus.EXPIRED)));
+        when(inventoryService.reserveAllInCurrentTransaction(Map.of(2L, 3))).thenReturn(
+                new InventoryBatchResult(Map.of(2L, Outcome.APPLIED)));
+        when(inventoryHoldRepository.saveAll(anyList())).thenReturn(List.of(hold(102L, 10L, 2L, 3)));
+
+        // When
+        List<Long> committed = inventoryHoldService.commitHolds(10L, Map.of(1L, 2, 2L, 3)).get();
+
+        // Then
+        assertThat(committed).containsExactly(100L, 102L);
+        verify(inventoryHoldRepository).updateStatus(List.of(100L), InventoryHoldStatus.COMMITTED);
+        ArgumentCaptor<List<InventoryHold>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryHoldRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement()
+                .extracting(InventoryHold::getProductId)
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void commitHolds_whenHoldsExpiredAndStockGone_shouldFail() {
+        // Given
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2, InventoryHoldStatus.EXPIRED)));
+        when(inventoryService.reserveAllInCurrentTransaction(Map.of(1L, 2))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.INSUFFICIENT_STOCK)));
+
+        // When
+        CompletableFuture<List<Long>> future = inventoryHoldService.commitHolds(10L, Map.of(1L, 2));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InsufficientStockException.class);
+        verify(inventoryHoldRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void commitHolds_whenHoldsAlreadyCommitted_shouldRejectWithoutReservingAgain() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2, InventoryHoldStatus.EXPIRED)));
+        when(inventoryHoldRepository.existsByOrderIdAndStatus(10L, InventoryHoldStatus.COMMITTED)).thenReturn(true);
+
+        // When
+        CompletableFuture<List<Long>> future = inventoryHoldService.commitHolds(10L, Map.of(1L, 2));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(BadRequestException.class);
+        verify(inventoryService, never()).reserveAllInCurrentTransaction(any());
+        verify(inventoryHoldRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void commitHolds_forOrderWithoutHolds_shouldDoNothing() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatusIn(10L, UNCOMMITTED)).thenReturn(List.of());
+
+        // When
+        List<Long> committed = inventoryHoldService.commitHolds(10L, Map.of(1L, 2)).get();
+
+        // Then
+        assertThat(committed).isEmpty();
+        verify(inventoryService, never()).reserveAllInCurrentTransaction(any());
+    }
+
+    @Test
+    void reinstateHolds_shouldOnlyReinstateTheGivenHolds() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        inventoryHoldService.reinstateHolds(List.of(100L, 101L)).get();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(inventoryHoldRepository).reinstateCommittedHolds(eq(List.of(100L, 101L)), expiresAt.capture());
+        assertThat(expiresAt.getValue()).isAfterOrEqualTo(before.plusMinutes(15));
+    }
+
+    @Test
+    void releaseHolds_shouldReturnStockAndMarkHoldsReleased() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatus(10L, InventoryHoldStatus.HELD))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2), hold(101L, 10L, 2L, 3)));
+        when(inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 2, 2L, 3))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED, 2L, Outcome.APPLIED)));
+
+        // When
+        Boolean tracked = inventoryHoldService.releaseHolds(10L).get();
+
+        // Then
+        assertThat(tracked).isTrue();
+        verify(inventoryHoldRepository).updateStatus(List.of(100L, 101L), InventoryHoldStatus.RELEASED);
+    }
+
+    @Test
+    void releaseHolds_forOrderWithoutHolds_shouldReportUntracked() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatus(10L, InventoryHoldStatus.HELD)).thenReturn(List.of());
+        when(inventoryHoldRepository.existsByOrderId(10L)).thenReturn(false);
+
+        // When
+        Boolean tracked = inventoryHoldService.releaseHolds(10L).get();
+
+        // Then
+        assertThat(tracked).isFalse();
+        verify(inventoryService, never()).releaseAllInCurrentTransaction(any());
+    }
+
+    @Test
+    void releaseCommittedHolds_shouldReturnStockOfCommittedHoldsOnly() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockByOrderIdAndStatus(10L, InventoryHoldStatus.COMMITTED))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2)));
+        when(inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 2))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED)));
+
+        // When
+        Boolean tracked = inventoryHoldService.releaseCommittedHolds(10L).get();
+
+        // Then
+        assertThat(tracked).isTrue();
+        verify(inventoryHoldRepository).updateStatus(List.of(100L), InventoryHoldStatus.RELEASED);
+        verify(inventoryHoldRepository, never()).lockByOrderIdAndStatus(10L, InventoryHoldStatus.HELD);
+    }
+
+    @Test
+    void sweepExpiredHolds_shouldReleaseBatchesUntilNoneRemain() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockExpiredHolds(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2), hold(101L, 11L, 1L, 1)))
+                .thenReturn(List.of(hold(102L, 12L, 2L, 4)));
+        when(inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 3))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED)));
+        when(inventoryService.releaseAllInCurrentTransaction(Map.of(2L, 4))).thenReturn(
+                new InventoryBatchResult(Map.of(2L, Outcome.APPLIED)));
+
+        // When
+        inventoryHoldService.sweepExpiredHolds();
+
+        // Then
+        verify(inventoryHoldRepository, times(2)).lockExpiredHolds(any(LocalDateTime.class), anyInt());
+        verify(inventoryHoldRepository).updateStatus(List.of(100L, 101L), InventoryHoldStatus.EXPIRED);
+        verify(inventoryHoldRepository).updateStatus(List.of(102L), InventoryHoldStatus.EXPIRED);
+    }
+
+    @Test
+    void sweepExpiredHolds_whenInventoryRowMissing_shouldStillExpireTheHolds() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(inventoryHoldRepository.lockExpiredHolds(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(hold(100L, 10L, 1L, 2), hold(101L, 10L, 2L, 1)))
+                .thenReturn(List.of());
+        when(inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 2, 2L, 1))).thenReturn(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED, 2L, Outcome.NOT_FOUND)));
+
+        // When
+        inventoryHoldService.sweepExpiredHolds();
+
+        // Then
+        verify(inventoryHoldRepository).updateStatus(List.of(100L, 101L), InventoryHoldStatus.EXPIRED);
+        verify(inventoryService, never()).releaseAll(any());
+    }
+
+    private InventoryHold hold(Long id, Long orderId, Long productId, int quantity) {
+        InventoryHold hold = new InventoryHold(orderId, productId, quantity, LocalDateTime.now().minusMinutes(1));
+        hold.setId(id);
+        return hold;
+    }
+
+    private InventoryHold hold(Long id, Long orderId, Long productId, int quantity, InventoryHoldStatus status) {
+        InventoryHold hold = hold(id, orderId, productId, quantity);
+        hold.setStatus(status);
+        return hold;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.inventory.domain.Inventory;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash-sale scenario: far more buyers than units, all hitting one product at once.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryReservationConcurrencyTest extends AbstractContainerBaseTest {
+
+    private static final int STOCK = 500;
+    private static final int BUYERS = 5000;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        virtualThreadExecutor.shutdown();
+    }
+
+    @Test
+    void reserveInventory_underFlashSaleLoad_shouldNeverOversell() {
+        // Given
+        Long productId = 42L;
+        inventoryRepository.saveAndFlush(new Inventory(productId, STOCK));
+        InventoryServiceImpl inventoryService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor,
+                InventoryReservationMode.CONDITIONAL_UPDATE);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<Void>> buyers = new ArrayList<>(BUYERS);
+
+        // When
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    inventoryService.reserveInventory(productId, 1).join();
+                    reserved.incrementAndGet();
+                } catch (CompletionException ex) {
+                    if (ex.getCause() instanceof InsufficientStockException) {
+                        rejected.incrementAndGet();
+                    } else {
+                        throw ex;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+            }, virtualThreadExecutor));
+        }
+        start.countDown();
+        CompletableFuture.allOf(buyers.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - STOCK);
+        assertThat(inventoryRepository.findByProductId(productId))
+                .get()
+                .extracting(Inventory::getStockQuantity)
+                .isEqualTo(0);
+    }
+
+    @Test
+    void reserveAll_withOverlappingBaskets_shouldNotDeadlockOrOversell() {
+        // Given
+        inventoryRepository.saveAndFlush(new Inventory(1L, STOCK));
+        inventoryRepository.saveAndFlush(new Inventory(2L, STOCK));
+        InventoryServiceImpl inventoryService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor,
+                InventoryReservationMode.CONDITIONAL_UPDATE);
+        AtomicInteger reserved = new AtomicInteger();
+
+        // When: half the baskets list product 2 first, half product 1 first
+        List<CompletableFuture<Void>> baskets = new ArrayList<>();
+        for (int i = 0; i < STOCK * 2; i++) {
+            Map<Long, Integer> basket = new LinkedHashMap<>();
+            if (i % 2 == 0) {
+                basket.put(2L, 1);
+                basket.put(1L, 1);
+            } else {
+                basket.put(1L, 1);
+                basket.put(2L, 1);
+            }
+            baskets.add(inventoryService.reserveAll(basket).thenAccept(result -> {
+                if (result.isSuccessful()) {
+                    reserved.incrementAndGet();
+                }
+            }));
+        }
+        CompletableFuture.allOf(baskets.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(inventoryRepository.findByProductId(1L)).get().extracting(Inventory::getStockQuantity).isEqualTo(0);
+        assertThat(inventoryRepository.findByProductId(2L)).get().extracting(Inventory::getStockQuantity).isEqualTo(0);
+    }
+}
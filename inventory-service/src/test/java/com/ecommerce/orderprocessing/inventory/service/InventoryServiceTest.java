@@ -1,15 +1,23 @@
 package com.ecommerce.orderprocessing.inventory.service;
 
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.inventory.domain.Inventory;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
 import com.ecommerce.orderprocessing.inventory.dto.InventoryResponse;
 import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
 import com.ecommerce.orderprocessing.inventory.repository.InventoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -18,6 +26,8 @@ import java.util.concurrent.Executors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -27,13 +37,16 @@ class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     private InventoryServiceImpl inventoryService; // Changed to InventoryServiceImpl
 
     @BeforeEach
     void setUp() {
-        inventoryService = new InventoryServiceImpl(inventoryRepository, virtualThreadExecutor); // Changed constructor
+        inventoryService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor, InventoryReservationMode.READ_MODIFY_WRITE);
     }
 
     @Test
@@ -108,4 +121,136 @@ class InventoryServiceTest {
         assertThat(inventoryResponse.productId()).isEqualTo(1L);
         assertThat(inventoryResponse.stockQuantity()).isEqualTo(10);
     }
+
+    @Test
+    void reserveInventory_withConditionalUpdate_shouldDecrementInOneStatement() throws Exception {
+        // Given
+        InventoryServiceImpl conditionalService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor, InventoryReservationMode.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementStockIfAvailable(1L, 5)).thenReturn(1);
+
+        // When
+        conditionalService.reserveInventory(1L, 5).get();
+
+        // Then
+        verify(inventoryRepository).decrementStockIfAvailable(1L, 5);
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+    }
+
+    @Test
+    void reserveInventory_withConditionalUpdate_whenNoRowUpdated_shouldThrowInsufficientStock() {
+        // Given
+        InventoryServiceImpl conditionalService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor, InventoryReservationMode.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementStockIfAvailable(1L, 10)).thenReturn(0);
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(new Inventory(1L, 5)));
+
+        // When
+        CompletableFuture<Void> future = conditionalService.reserveInventory(1L, 10);
+
+        // Then
+        assertThatThrownBy(future::get)
+                .hasCauseInstanceOf(InsufficientStockException.class)
+                .cause()
+                .hasMessage("Insufficient stock for product 'Product 1'. Requested: 10");
+    }
+
+    @Test
+    void reserveInventory_withConditionalUpdate_whenInventoryMissing_shouldThrowNotFound() {
+        // Given
+        InventoryServiceImpl conditionalService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor, InventoryReservationMode.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementStockIfAvailable(99L, 1)).thenReturn(0);
+        when(inventoryRepository.findByProductId(99L)).thenReturn(Optional.empty());
+
+        // When
+        CompletableFuture<Void> future = conditionalService.reserveInventory(99L, 1);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void releaseInventory_withConditionalUpdate_whenInventoryMissing_shouldThrowNotFound() {
+        // Given
+        InventoryServiceImpl conditionalService = new InventoryServiceImpl(inventoryRepository, transactionManager, virtualThreadExecutor, InventoryReservationMode.CONDITIONAL_UPDATE);
+        when(inventoryRepository.incrementStock(99L, 1)).thenReturn(0);
+
+        // When
+        CompletableFuture<Void> future = conditionalService.releaseInventory(99L, 1);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void reserveAll_shouldReserveEveryProductInAscendingOrder() throws Exception {
+        // Given
+        SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(inventoryRepository.decrementStockIfAvailable(1L, 2)).thenReturn(1);
+        when(inventoryRepository.decrementStockIfAvailable(3L, 1)).thenReturn(1);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(3L, 1);
+        quantities.put(1L, 2);
+
+        // When
+        InventoryBatchResult result = inventoryService.reserveAll(quantities).get();
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).decrementStockIfAvailable(1L, 2);
+        inOrder.verify(inventoryRepository).decrementStockIfAvailable(3L, 1);
+        assertThat(transaction.isRollbackOnly()).isFalse();
+    }
+
+    @Test
+    void reserveAll_whenOneProductIsShort_shouldReportItAndRollBack() throws Exception {
+        // Given
+        SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(inventoryRepository.decrementStockIfAvailable(1L, 2)).thenReturn(1);
+        when(inventoryRepository.decrementStockIfAvailable(2L, 5)).thenReturn(0);
+        when(inventoryRepository.findByProductId(2L)).thenReturn(Optional.of(new Inventory(2L, 1)));
+        when(inventoryRepository.decrementStockIfAvailable(3L, 1)).thenReturn(0);
+        when(inventoryRepository.findByProductId(3L)).thenReturn(Optional.empty());
+
+        // When
+        InventoryBatchResult result = inventoryService.reserveAll(Map.of(1L, 2, 2L, 5, 3L, 1)).get();
+
+        // Then
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.outcomes()).containsEntry(1L, Outcome.APPLIED)
+                .containsEntry(2L, Outcome.INSUFFICIENT_STOCK)
+                .containsEntry(3L, Outcome.NOT_FOUND);
+        assertThat(result.failedProductIds()).containsExactly(2L, 3L);
+        assertThat(transaction.isRollbackOnly()).isTrue();
+    }
+
+    @Test
+    void releaseAllInCurrentTransaction_shouldReturnTheRestWithoutOpeningATransaction() {
+        // Given
+        when(inventoryRepository.incrementStock(1L, 2)).thenReturn(1);
+        when(inventoryRepository.incrementStock(2L, 5)).thenReturn(0);
+
+        // When
+        InventoryBatchResult result = inventoryService.releaseAllInCurrentTransaction(Map.of(1L, 2, 2L, 5));
+
+        // Then
+        assertThat(result.outcomes()).containsEntry(1L, Outcome.APPLIED).containsEntry(2L, Outcome.NOT_FOUND);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void reserveAllInCurrentTransaction_shouldReportEachProductWithoutOpeningATransaction() {
+        // Given
+        when(inventoryRepository.decrementStockIfAvailable(1L, 2)).thenReturn(1);
+        when(inventoryRepository.decrementStockIfAvailable(2L, 5)).thenReturn(0);
+        when(inventoryRepository.findByProductId(2L)).thenReturn(Optional.of(new Inventory(2L, 3)));
+
+        // When
+        InventoryBatchResult result = inventoryService.reserveAllInCurrentTransaction(Map.of(1L, 2, 2L, 5));
+
+        // Then
+        assertThat(result.outcomes()).containsEntry(1L, Outcome.APPLIED).containsEntry(2L, Outcome.INSUFFICIENT_STOCK);
+        verify(transactionManager, never()).getTransaction(any());
+    }
 }
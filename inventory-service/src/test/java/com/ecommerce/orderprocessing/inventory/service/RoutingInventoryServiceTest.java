@@ -0,0 +1,93 @@
+package com.ecommerce.orderprocessing.inventory.service;
+
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingInventoryServiceTest {
+
+    @Mock
+    private InventoryServiceImpl jpaInventoryService;
+
+    @Mock
+    private InMemoryInventoryService inMemoryInventoryService;
+
+    private RoutingInventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new RoutingInventoryService(jpaInventoryService, inMemoryInventoryService, InventoryEngine.JPA, Set.of(7L));
+    }
+
+    @Test
+    void reserveInventory_shouldRouteHotProductsToInMemoryEngine() {
+        // Given
+        when(inMemoryInventoryService.reserveInventory(7L, 1)).thenReturn(CompletableFuture.completedFuture(null));
+        when(jpaInventoryService.reserveInventory(1L, 1)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        inventoryService.reserveInventory(7L, 1).join();
+        inventoryService.reserveInventory(1L, 1).join();
+
+        // Then
+        verify(inMemoryInventoryService).reserveInventory(7L, 1);
+        verify(jpaInventoryService).reserveInventory(1L, 1);
+    }
+
+    @Test
+    void reserveAll_whenOneEngineRejects_shouldReleaseTheOtherHalf() {
+        // Given
+        when(inMemoryInventoryService.reserveAll(Map.of(7L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(7L, Outcome.APPLIED))));
+        when(jpaInventoryService.reserveAll(Map.of(1L, 3))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.INSUFFICIENT_STOCK))));
+        when(inMemoryInventoryService.releaseAll(Map.of(7L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(7L, Outcome.APPLIED))));
+
+        // When
+        InventoryBatchResult result = inventoryService.reserveAll(Map.of(7L, 2, 1L, 3)).join();
+
+        // Then
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.outcomes()).containsEntry(7L, Outcome.APPLIED).containsEntry(1L, Outcome.INSUFFICIENT_STOCK);
+        verify(inMemoryInventoryService).releaseAll(Map.of(7L, 2));
+        verify(jpaInventoryService, never()).releaseAll(Map.of(1L, 3));
+    }
+
+    @Test
+    void reserveAll_whenOneEngineFails_shouldReleaseTheOtherHalfBeforeFailing() {
+        // Given
+        CompletableFuture<InventoryBatchResult> released = new CompletableFuture<>();
+        when(inMemoryInventoryService.reserveAll(Map.of(7L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(7L, Outcome.APPLIED))));
+        when(jpaInventoryService.reserveAll(Map.of(1L, 3))).thenReturn(CompletableFuture.failedFuture(
+                new IllegalStateException("database down")));
+        when(inMemoryInventoryService.releaseAll(Map.of(7L, 2))).thenReturn(released);
+
+        // When
+        CompletableFuture<InventoryBatchResult> result = inventoryService.reserveAll(Map.of(7L, 2, 1L, 3));
+
+        // Then: the failure is only reported once the reserved half is back
+        assertThat(result).isNotDone();
+        released.complete(new InventoryBatchResult(Map.of(7L, Outcome.APPLIED)));
+        assertThat(result).failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -1,22 +1,35 @@
 package com.ecommerce.orderprocessing.order.controller;
 
+import com.ecommerce.orderprocessing.order.service.IdempotencyService;
+import com.ecommerce.orderprocessing.order.service.OrderExportService;
 import com.ecommerce.orderprocessing.order.service.OrderService;
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateRequest;
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateResponse;
 import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderExportFormat;
 import com.ecommerce.orderprocessing.order.dto.OrderResponse;
 import com.ecommerce.orderprocessing.order.dto.UpdateOrderStatusRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -31,17 +44,25 @@ public class OrderController {
     private final OrderService orderService;
     private final OrderModelAssembler assembler;
     private final PaymentModelAssembler paymentAssembler;
+    private final OrderExportService orderExportService;
+    private final IdempotencyService idempotencyService;
 
-    public OrderController(OrderService orderService, OrderModelAssembler assembler, PaymentModelAssembler paymentAssembler) {
+    public OrderController(OrderService orderService, OrderModelAssembler assembler, PaymentModelAssembler paymentAssembler,
+                           OrderExportService orderExportService, IdempotencyService idempotencyService) {
         this.orderService = orderService;
         this.assembler = assembler;
         this.paymentAssembler = paymentAssembler;
+        this.orderExportService = orderExportService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
-    public CompletableFuture<ResponseEntity<EntityModel<OrderResponse>>> createOrder(@RequestBody CreateOrderRequest request) {
-        return orderService.createOrder(request)
+    public CompletableFuture<ResponseEntity<EntityModel<OrderResponse>>> createOrder(@RequestBody CreateOrderRequest request,
+                                                                                    @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                                    Authentication authentication) {
+        return idempotencyService.execute("create-order", callerOf(authentication), idempotencyKey, request,
+                        () -> orderService.createOrder(request))
                 .thenApply(assembler::toModel)
                 .thenApply(orderModel -> ResponseEntity
                         .created(orderModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
@@ -68,6 +89,21 @@ public class OrderController {
                 });
     }
 
+    /**
+     * Keyset-paginated variant of {@link #getCustomerOrders}: pass the returned {@code nextCursor}
+     * back as {@code cursor} to read the following page.
+     */
+    @GetMapping("/customer/{customerId}/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER', 'SUPPORT') or #customerId == authentication.principal.id")
+    public CompletableFuture<CursorPagedResponse<EntityModel<OrderResponse>>> getCustomerOrdersByCursor(@PathVariable Long customerId,
+                                                                                                       @RequestParam(required = false) String cursor,
+                                                                                                       @RequestParam(required = false) Integer size,
+                                                                                                       @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                                                                       Authentication authentication) {
+        return orderService.getCustomerOrders(customerId, CursorPageRequest.of(cursor, size, includeTotal))
+                .thenApply(page -> page.map(assembler::toModel));
+    }
+
     @PutMapping("/{orderId}/status")
     @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER')")
     public CompletableFuture<EntityModel<OrderResponse>> updateOrderStatus(@PathVariable Long orderId, @RequestBody UpdateOrderStatusRequest request) {
@@ -75,17 +111,33 @@ public class OrderController {
                 .thenApply(assembler::toModel);
     }
 
+    /**
+     * Moves up to 1000 orders to one status in a single update, e.g. a warehouse wave from PAID to
+     * PROCESSING. Returns the outcome per order instead of the orders themselves.
+     */
+    @PutMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER')")
+    public CompletableFuture<BulkStatusUpdateResponse> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return orderService.updateOrderStatuses(request);
+    }
+
     @PostMapping("/payment")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public CompletableFuture<EntityModel<PaymentResponse>> processOrderPayment(@RequestBody PaymentRequest paymentRequest) {
-        return orderService.processOrderPayment(paymentRequest)
+    public CompletableFuture<EntityModel<PaymentResponse>> processOrderPayment(@RequestBody PaymentRequest paymentRequest,
+                                                                               @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                               Authentication authentication) {
+        return idempotencyService.execute("pay-order", callerOf(authentication), idempotencyKey, paymentRequest,
+                        () -> orderService.processOrderPayment(paymentRequest))
                 .thenApply(paymentAssembler::toModel);
     }
 
     @PutMapping("/{orderId}/cancel")
     @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER') or @orderRepository.findById(#orderId).orElse(null)?.customer.id == authentication.principal.id")
-    public CompletableFuture<EntityModel<OrderResponse>> cancelOrder(@PathVariable Long orderId, @RequestParam String reason, Authentication authentication) {
-        return orderService.cancelOrder(orderId, reason)
+    public CompletableFuture<EntityModel<OrderResponse>> cancelOrder(@PathVariable Long orderId, @RequestParam String reason,
+                                                                     @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                     Authentication authentication) {
+        return idempotencyService.execute("cancel-order", callerOf(authentication), idempotencyKey, List.of(orderId, reason),
+                        () -> orderService.cancelOrder(orderId, reason))
                 .thenApply(assembler::toModel);
     }
 
@@ -101,4 +153,44 @@ public class OrderController {
                             linkTo(methodOn(OrderController.class).getAllOrders(pageable)).withSelfRel());
                 });
     }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllOrders}, for deep listings where offset paging and
+     * counting every row get slow.
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER', 'SUPPORT')")
+    public CompletableFuture<CursorPagedResponse<EntityModel<OrderResponse>>> getAllOrdersByCursor(@RequestParam(required = false) String cursor,
+                                                                                                  @RequestParam(required = false) Integer size,
+                                                                                                  @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return orderService.getAllOrders(CursorPageRequest.of(cursor, size, includeTotal))
+                .thenApply(page -> page.map(assembler::toModel));
+    }
+
+    /**
+     * Streams every order created in {@code [from, to)} with its items, as NDJSON (one order per
+     * line) or CSV (one item per line). The response is written while the rows are read, so the
+     * range is not limited by memory; this is a plain blocking write rather than an async result,
+     * so a long download is not cut off by the async request timeout.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER', 'SUPPORT')")
+    public void exportOrders(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                             @RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) {
+        OrderExportFormat exportFormat = OrderExportFormat.from(format);
+        // Headers are set only once streaming starts, so a rejected export gets a normal error response
+        orderExportService.export(from, to, exportFormat, () -> {
+            response.setContentType(exportFormat.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"orders." + exportFormat.getFileExtension() + "\"");
+            return response.getOutputStream();
+        });
+    }
+
+    private static String callerOf(Authentication authentication) {
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
 }
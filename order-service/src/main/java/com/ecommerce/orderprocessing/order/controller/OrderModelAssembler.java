@@ -23,10 +23,10 @@ public class OrderModelAssembler implements RepresentationModelAssembler<OrderRe
 
         // Conditional links based on order status
         if ("PENDING_PAYMENT".equals(order.status())) {
-            orderModel.add(linkTo(methodOn(OrderController.class).processOrderPayment(null)).withRel("payment"));
+            orderModel.add(linkTo(methodOn(OrderController.class).processOrderPayment(null, null, null)).withRel("payment"));
         }
         if (!"CANCELLED".equals(order.status()) && !"DELIVERED".equals(order.status())) {
-            orderModel.add(linkTo(methodOn(OrderController.class).cancelOrder(order.id(), null, null)).withRel("cancel"));
+            orderModel.add(linkTo(methodOn(OrderController.class).cancelOrder(order.id(), null, null, null)).withRel("cancel"));
         }
         // Assuming update status is an admin/manager action, always available for relevant roles
         orderModel.add(linkTo(methodOn(OrderController.class).updateOrderStatus(order.id(), null)).withRel("updateStatus"));
@@ -0,0 +1,63 @@
+package com.ecommerce.orderprocessing.order.controller;
+
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderSubmissionResponse;
+import com.ecommerce.orderprocessing.order.service.OrderSubmissionService;
+import jakarta.validation.Valid;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Asynchronous order intake: {@code POST} queues the order and answers {@code 202 Accepted} with a
+ * tracking id, {@code GET} polls it, optionally waiting up to {@code waitSeconds} for the outcome.
+ */
+@RestController
+@RequestMapping("/api/orders/submissions")
+public class OrderSubmissionController {
+
+    private final OrderSubmissionService orderSubmissionService;
+
+    public OrderSubmissionController(OrderSubmissionService orderSubmissionService) {
+        this.orderSubmissionService = orderSubmissionService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public CompletableFuture<ResponseEntity<EntityModel<OrderSubmissionResponse>>> submitOrder(@Valid @RequestBody CreateOrderRequest request) {
+        return orderSubmissionService.submit(request)
+                .thenApply(this::toModel)
+                .thenApply(submissionModel -> ResponseEntity
+                        .accepted()
+                        .location(submissionModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(submissionModel));
+    }
+
+    @GetMapping("/{trackingId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER', 'SUPPORT') or @orderSubmissionRepository.findById(#trackingId).orElse(null)?.customerId == authentication.principal.id")
+    public CompletableFuture<EntityModel<OrderSubmissionResponse>> getSubmission(@PathVariable UUID trackingId,
+                                                                                 @RequestParam(defaultValue = "0") long waitSeconds) {
+        return orderSubmissionService.getSubmission(trackingId, Duration.ofSeconds(waitSeconds))
+                .thenApply(this::toModel);
+    }
+
+    private EntityModel<OrderSubmissionResponse> toModel(OrderSubmissionResponse submission) {
+        EntityModel<OrderSubmissionResponse> submissionModel = EntityModel.of(submission,
+                linkTo(OrderSubmissionController.class).slash(submission.trackingId()).withSelfRel());
+        if (submission.orderId() != null) {
+            submissionModel.add(linkTo(methodOn(OrderController.class).getOrder(submission.orderId(), null)).withRel("order"));
+        }
+        return submissionModel;
+    }
+}
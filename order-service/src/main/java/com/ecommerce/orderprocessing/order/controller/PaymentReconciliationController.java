@@ -0,0 +1,52 @@
+package com.ecommerce.orderprocessing.order.controller;
+
+import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.order.dto.PaymentMismatchResponse;
+import com.ecommerce.orderprocessing.order.dto.ReconciliationRunResponse;
+import com.ecommerce.orderprocessing.order.service.PaymentReconciliationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Payment reconciliation runs: {@code POST} starts or resumes one in the background and answers
+ * {@code 202 Accepted}; {@code GET} reports its progress and the mismatches found so far.
+ */
+@RestController
+@RequestMapping("/api/orders/admin/reconciliation/runs")
+public class PaymentReconciliationController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    public PaymentReconciliationController(PaymentReconciliationService paymentReconciliationService) {
+        this.paymentReconciliationService = paymentReconciliationService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliationRunResponse> startRun() {
+        return ResponseEntity.accepted().body(paymentReconciliationService.start());
+    }
+
+    @PostMapping("/{runId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliationRunResponse> resumeRun(@PathVariable Long runId) {
+        return ResponseEntity.accepted().body(paymentReconciliationService.resume(runId));
+    }
+
+    @GetMapping("/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ReconciliationRunResponse getRun(@PathVariable Long runId) {
+        return paymentReconciliationService.getRun(runId);
+    }
+
+    @GetMapping("/{runId}/mismatches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PagedResponse<PaymentMismatchResponse> getMismatches(@PathVariable Long runId,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "50") int size) {
+        return paymentReconciliationService.getMismatches(runId, Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+}
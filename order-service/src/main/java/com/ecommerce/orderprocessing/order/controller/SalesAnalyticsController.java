@@ -0,0 +1,70 @@
+package com.ecommerce.orderprocessing.order.controller;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.order.dto.TrendingProduct;
+import com.ecommerce.orderprocessing.order.dto.TrendingWindow;
+import com.ecommerce.orderprocessing.order.repository.BestSellingProduct;
+import com.ecommerce.orderprocessing.order.service.SalesAggregateService;
+import com.ecommerce.orderprocessing.order.service.TrendingProductsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sales figures read from the maintained aggregates rather than from the order lines.
+ */
+@RestController
+@RequestMapping("/api/analytics/sales")
+public class SalesAnalyticsController {
+
+    private static final int MAX_BEST_SELLERS = 100;
+
+    private final SalesAggregateService salesAggregateService;
+    private final TrendingProductsService trendingProductsService;
+
+    public SalesAnalyticsController(SalesAggregateService salesAggregateService, TrendingProductsService trendingProductsService) {
+        this.salesAggregateService = salesAggregateService;
+        this.trendingProductsService = trendingProductsService;
+    }
+
+    @GetMapping("/best-sellers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER')")
+    public CompletableFuture<List<BestSellingProduct>> getBestSellingProducts(@RequestParam(defaultValue = "10") int limit) {
+        return salesAggregateService.getBestSellingProducts(Math.max(1, Math.min(limit, MAX_BEST_SELLERS)));
+    }
+
+    @GetMapping("/products/{productId}/revenue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER')")
+    public CompletableFuture<BigDecimal> getProductRevenue(@PathVariable Long productId) {
+        return salesAggregateService.getTotalRevenueForProduct(productId);
+    }
+
+    /**
+     * Revenue of the orders created in {@code [from, to)}, excluding cancelled orders.
+     */
+    @GetMapping("/revenue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_MANAGER')")
+    public CompletableFuture<BigDecimal> getRevenueForPeriod(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Period start must be before its end");
+        }
+        return salesAggregateService.getTotalRevenueForPeriod(from, to);
+    }
+
+    /**
+     * Storefront "trending now": approximate units ordered per product over the last {@code 5m},
+     * {@code 1h} or {@code 24h}, counted in memory on this instance.
+     */
+    @GetMapping("/trending")
+    public List<TrendingProduct> getTrendingProducts(@RequestParam(defaultValue = "1h") String window,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return trendingProductsService.getTrendingProducts(TrendingWindow.fromLabel(window),
+                Math.max(1, Math.min(limit, MAX_BEST_SELLERS)));
+    }
+}
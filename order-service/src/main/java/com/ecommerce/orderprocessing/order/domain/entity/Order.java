@@ -1,5 +1,6 @@
 package com.ecommerce.orderprocessing.order.domain.entity;
 
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
 import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Order entity representing a customer's order
@@ -47,6 +49,17 @@ public class Order {
     @Column(name = "payment_id")
     private String paymentId;
 
+    /**
+     * The gateway authorization held for the order when it is captured on shipment; its capture
+     * becomes {@code paymentId}.
+     */
+    @Column(name = "authorization_id")
+    private String authorizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "capture_status", length = 16)
+    private CaptureStatus captureStatus;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -56,6 +69,28 @@ public class Order {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    /**
+     * The {@code OrderSubmission} the order was created for, so a retried submission resumes this
+     * order instead of creating another one.
+     */
+    @Column(name = "submission_id", unique = true)
+    private UUID submissionId;
+
+    /**
+     * Set once the order's items are saved and its total is written; only then does the order count
+     * towards the sales totals. Orders from before the column existed were all complete.
+     */
+    @Column(name = "creation_complete", nullable = false, columnDefinition = "boolean default true")
+    private boolean creationComplete;
+
+    /**
+     * Numbers the order's payment attempts for their gateway idempotency keys. It only moves on once
+     * the gateway declines an attempt, so an attempt whose outcome is unknown is retried under the
+     * same key and cannot charge twice.
+     */
+    @Column(name = "payment_attempt", nullable = false, columnDefinition = "integer default 0")
+    private int paymentAttempt;
+
     // Constructors
     public Order() {
         this.createdAt = LocalDateTime.now();
@@ -93,13 +128,7 @@ public class Order {
     }
 
     public boolean canTransitionTo(OrderStatus newStatus) {
-        return switch (this.status) {
-            case PENDING -> newStatus == OrderStatus.PAID || newStatus == OrderStatus.CANCELLED;
-            case PAID -> newStatus == OrderStatus.PROCESSING || newStatus == OrderStatus.CANCELLED;
-            case PROCESSING -> newStatus == OrderStatus.SHIPPED || newStatus == OrderStatus.CANCELLED;
-            case SHIPPED -> newStatus == OrderStatus.DELIVERED;
-            case DELIVERED, CANCELLED -> false;
-        };
+        return this.status.canTransitionTo(newStatus);
     }
 
     public void updateStatus(OrderStatus newStatus) {
@@ -19,8 +19,11 @@ import java.util.Objects;
 @Setter
 public class OrderItem {
 
+    // Sequence ids (rather than IDENTITY) let Hibernate batch order item inserts;
+    // the allocation size matches hibernate.jdbc.batch_size
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 25)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,86 @@
+package com.ecommerce.orderprocessing.order.domain.entity;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * An order event waiting to be delivered to one consumer. Written in the same transaction as the
+ * order change it describes, so the event exists exactly when the change committed; the
+ * {@code OrderOutboxRelay} then delivers it at least once, retrying with backoff until the consumer
+ * succeeds or the attempts run out.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_status_available_at", columnList = "status, available_at"),
+        @Index(name = "idx_order_outbox_order_id", columnList = "order_id")
+})
+@Getter
+@Setter
+public class OrderOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 64)
+    private String consumer;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    public OrderOutboxEntry() {
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+
+    public OrderOutboxEntry(Long orderId, String consumer, String eventType, String payload) {
+        this();
+        this.orderId = orderId;
+        this.consumer = consumer;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderOutboxEntry entry = (OrderOutboxEntry) o;
+        return Objects.equals(id, entry.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.orderprocessing.order.domain.entity;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A {@code CreateOrderRequest} accepted for asynchronous creation. The request is stored as JSON
+ * when it is accepted, so it survives a restart; the {@code OrderSubmissionWorker} then claims it,
+ * runs the normal create pipeline and records the order id or the reason it failed.
+ */
+@Entity
+@Table(name = "order_submissions", indexes = {
+        @Index(name = "idx_order_submissions_status_created_at", columnList = "status, created_at")
+})
+@Getter
+@Setter
+public class OrderSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStatus status = SubmissionStatus.QUEUED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    /**
+     * Earliest time a queued submission may be claimed again after backing off; {@code null} when it
+     * may be claimed straight away.
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public OrderSubmission() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OrderSubmission(Long customerId, String payload) {
+        this();
+        this.customerId = customerId;
+        this.payload = payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderSubmission submission = (OrderSubmission) o;
+        return Objects.equals(id, submission.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.orderprocessing.order.domain.entity;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.MismatchType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * An order whose payment or authorization the gateway does not report as expected, found by a
+ * reconciliation run.
+ */
+@Entity
+@Table(name = "payment_mismatches", indexes = {
+        @Index(name = "idx_payment_mismatches_run_id", columnList = "run_id, id"),
+        @Index(name = "idx_payment_mismatches_order_id", columnList = "order_id")
+})
+@Getter
+@Setter
+public class PaymentMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // The authorization id for an order that was only authorized
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private MismatchType type;
+
+    @Column(name = "gateway_status", length = 64)
+    private String gatewayStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String detail;
+
+    @Column(name = "detected_at", nullable = false, updatable = false)
+    private LocalDateTime detectedAt;
+
+    public PaymentMismatch() {
+        this.detectedAt = LocalDateTime.now();
+    }
+
+    public PaymentMismatch(Long runId, Long orderId, String paymentId, MismatchType type, String gatewayStatus,
+                           String detail) {
+        this();
+        this.runId = runId;
+        this.orderId = orderId;
+        this.paymentId = paymentId;
+        this.type = type;
+        this.gatewayStatus = gatewayStatus;
+        this.detail = detail;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PaymentMismatch mismatch = (PaymentMismatch) o;
+        return Objects.equals(id, mismatch.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
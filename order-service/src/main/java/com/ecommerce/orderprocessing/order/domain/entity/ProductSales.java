@@ -0,0 +1,35 @@
+package com.ecommerce.orderprocessing.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running sales totals of one product over all orders that are not cancelled. Maintained by
+ * {@code SalesAggregateService} as orders are created and cancelled, and recomputed from
+ * {@code order_items} by its rebuild job.
+ */
+@Entity
+@Table(name = "product_sales", indexes = {
+        @Index(name = "idx_product_sales_quantity_sold", columnList = "quantity_sold")
+})
+@Getter
+@Setter
+public class ProductSales {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private long quantitySold;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.orderprocessing.order.domain.entity;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One pass of the {@code PaymentReconciliationService} over the paid orders. The checkpoint is the
+ * {@code (paymentId, orderId)} of the last order checked, saved with the mismatches of each page, so
+ * an interrupted run resumes after the last page it finished. {@code claimToken} identifies the
+ * worker running it; a run whose heartbeat has gone stale may be claimed by another.
+ */
+@Entity
+@Table(name = "reconciliation_runs", indexes = {
+        @Index(name = "idx_reconciliation_runs_status", columnList = "status")
+})
+@Getter
+@Setter
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReconciliationStatus status = ReconciliationStatus.RUNNING;
+
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    /**
+     * {@code true} while the run is RUNNING and null otherwise. The column is unique, so a second
+     * run started or resumed alongside a running one fails on the constraint rather than racing a check.
+     */
+    @Column(unique = true)
+    private Boolean active = Boolean.TRUE;
+
+    @Column(name = "last_payment_id")
+    private String lastPaymentId;
+
+    @Column(name = "last_order_id")
+    private Long lastOrderId;
+
+    @Column(name = "checked_orders", nullable = false)
+    private long checkedOrders;
+
+    @Column(nullable = false)
+    private long mismatches;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    public ReconciliationRun() {
+        this.startedAt = LocalDateTime.now();
+        this.heartbeatAt = this.startedAt;
+    }
+
+    public ReconciliationRun(UUID claimToken) {
+        this();
+        this.claimToken = claimToken;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReconciliationRun run = (ReconciliationRun) o;
+        return Objects.equals(id, run.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
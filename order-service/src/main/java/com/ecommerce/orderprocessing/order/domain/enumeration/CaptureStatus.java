@@ -0,0 +1,14 @@
+package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+/**
+ * Where an order's payment authorization stands. Null for orders charged in one step at checkout.
+ * The gateway declining a capture or a void is final; the order then needs manual attention and is
+ * reported by payment reconciliation.
+ */
+public enum CaptureStatus {
+    AUTHORIZED,
+    CAPTURED,
+    VOIDED,
+    CAPTURE_FAILED,
+    VOID_FAILED
+}
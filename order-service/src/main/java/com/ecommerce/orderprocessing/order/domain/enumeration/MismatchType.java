@@ -0,0 +1,17 @@
+package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+/**
+ * How an order disagrees with the payment gateway.
+ */
+public enum MismatchType {
+    /** The gateway reports the payment in a status other than settled. */
+    STATUS_MISMATCH,
+    /** The gateway does not know the payment. */
+    MISSING_AT_GATEWAY,
+    /** The gateway could not be asked, even after retries; the order needs checking again. */
+    LOOKUP_FAILED,
+    /** The gateway declined to capture the order's authorization; the order shipped unpaid. */
+    CAPTURE_FAILED,
+    /** The gateway declined to void a cancelled order's authorization; the amount is still held. */
+    VOID_FAILED
+}
@@ -1,6 +1,16 @@
 package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
- * Order status enumeration
+ * Order status enumeration.
+ * <p>
+ * The allowed transitions form an acyclic state machine, built once per status from the switch
+ * below; the switch is exhaustive, so a new status does not compile until its transitions are defined.
  */
 public enum OrderStatus {
     PENDING,
@@ -8,5 +18,34 @@ public enum OrderStatus {
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : values()) {
+            TRANSITIONS.put(status, Collections.unmodifiableSet(switch (status) {
+                case PENDING -> EnumSet.of(PAID, CANCELLED);
+                case PAID -> EnumSet.of(PROCESSING, CANCELLED);
+                case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+                case SHIPPED -> EnumSet.of(DELIVERED);
+                case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+            }));
+        }
+    }
+
+    public boolean canTransitionTo(OrderStatus newStatus) {
+        return TRANSITIONS.get(this).contains(newStatus);
+    }
+
+    /**
+     * The statuses an order in this status may move to next.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return TRANSITIONS.get(this);
+    }
+
+    public boolean isTerminal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
 }
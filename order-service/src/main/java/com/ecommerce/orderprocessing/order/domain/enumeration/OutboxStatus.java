@@ -0,0 +1,10 @@
+package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+/**
+ * Delivery state of an order outbox entry.
+ */
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
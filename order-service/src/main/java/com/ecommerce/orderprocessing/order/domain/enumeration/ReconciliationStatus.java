@@ -0,0 +1,10 @@
+package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+/**
+ * Progress of a payment reconciliation run. An interrupted run keeps its checkpoint and can be resumed.
+ */
+public enum ReconciliationStatus {
+    RUNNING,
+    INTERRUPTED,
+    COMPLETED
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderprocessing.order.domain.enumeration;
+
+/**
+ * Progress of an order submitted for asynchronous creation.
+ */
+public enum SubmissionStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Record for moving many orders to the same status at once.
+ */
+public record BulkStatusUpdateRequest(
+        @NotEmpty(message = "Order IDs cannot be empty")
+        @Size(max = 1000, message = "At most 1000 orders can be updated at once")
+        List<@NotNull Long> orderIds,
+
+        @NotBlank(message = "Status is required")
+        @Pattern(regexp = "PENDING|PAID|PROCESSING|SHIPPED|DELIVERED|CANCELLED",
+                message = "Status must be one of: PENDING, PAID, PROCESSING, SHIPPED, DELIVERED, CANCELLED")
+        String status,
+
+        @Size(max = 500, message = "Notes must not exceed 500 characters")
+        String notes
+) {}
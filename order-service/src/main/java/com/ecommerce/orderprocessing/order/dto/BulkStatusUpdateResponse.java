@@ -0,0 +1,25 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status update: one result per requested order, in request order.
+ */
+public record BulkStatusUpdateResponse(
+        String status,
+        int updated,
+        int failed,
+        List<Result> results
+) {
+
+    /**
+     * @param previousStatus the status the order moved from, when updated
+     * @param error          why the order was not updated, otherwise null
+     */
+    public record Result(
+            Long orderId,
+            boolean updated,
+            String previousStatus,
+            String error
+    ) {}
+}
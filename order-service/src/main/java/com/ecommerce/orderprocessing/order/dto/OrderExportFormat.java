@@ -0,0 +1,38 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the order export: NDJSON writes one order per line with its items nested,
+ * CSV writes one line per order item.
+ */
+public enum OrderExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    OrderExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static OrderExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Record for one line of the NDJSON order export.
+ */
+public record OrderExportLine(
+        Long orderId,
+        Long customerId,
+        String status,
+        BigDecimal totalAmount,
+        String paymentId,
+        @JsonFormat(shape = JsonFormat.Shape.STRING,
+                pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime createdAt,
+        List<Item> items
+) {
+
+    public record Item(
+            Long productId,
+            Integer quantity,
+            BigDecimal unitPrice,
+            BigDecimal subtotal
+    ) {}
+}
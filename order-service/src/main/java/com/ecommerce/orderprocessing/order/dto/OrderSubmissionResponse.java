@@ -0,0 +1,19 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Where an asynchronously submitted order has got to.
+ *
+ * @param orderId the created order, once {@code status} is COMPLETED
+ * @param error   why the order was not created, once {@code status} is FAILED
+ */
+public record OrderSubmissionResponse(
+        UUID trackingId,
+        String status,
+        Long orderId,
+        String error,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt
+) {}
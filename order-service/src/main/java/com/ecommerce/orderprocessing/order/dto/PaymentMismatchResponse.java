@@ -0,0 +1,12 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import java.time.LocalDateTime;
+
+public record PaymentMismatchResponse(
+        Long orderId,
+        String paymentId,
+        String type,
+        String gatewayStatus,
+        String detail,
+        LocalDateTime detectedAt
+) {}
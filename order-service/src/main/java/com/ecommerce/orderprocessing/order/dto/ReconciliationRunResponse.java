@@ -0,0 +1,21 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where a payment reconciliation run has got to.
+ *
+ * @param lastPaymentId the payment id of the last order checked; the run resumes after it
+ * @param error         why the run was interrupted, once {@code status} is INTERRUPTED
+ */
+public record ReconciliationRunResponse(
+        Long runId,
+        String status,
+        long checkedOrders,
+        long mismatches,
+        String lastPaymentId,
+        LocalDateTime startedAt,
+        LocalDateTime heartbeatAt,
+        LocalDateTime completedAt,
+        String error
+) {}
@@ -0,0 +1,9 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+/**
+ * Record for a trending product: units ordered within the window, estimated.
+ */
+public record TrendingProduct(
+        Long productId,
+        long unitsOrdered
+) {}
@@ -0,0 +1,46 @@
+package com.ecommerce.orderprocessing.order.dto;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+
+import java.time.Duration;
+
+/**
+ * Sliding windows of the trending products, each with the number of buckets that sets how
+ * smoothly it slides.
+ */
+public enum TrendingWindow {
+    FIVE_MINUTES("5m", Duration.ofMinutes(5), 10),
+    ONE_HOUR("1h", Duration.ofHours(1), 12),
+    ONE_DAY("24h", Duration.ofHours(24), 24);
+
+    private final String label;
+    private final Duration length;
+    private final int buckets;
+
+    TrendingWindow(String label, Duration length, int buckets) {
+        this.label = label;
+        this.length = length;
+        this.buckets = buckets;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public static TrendingWindow fromLabel(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new BadRequestException("Unsupported window: " + label + " (use 5m, 1h or 24h)");
+    }
+}
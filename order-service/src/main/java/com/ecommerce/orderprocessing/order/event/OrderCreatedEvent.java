@@ -0,0 +1,16 @@
+package com.ecommerce.orderprocessing.order.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Published once an order and its items are saved.
+ *
+ * @param quantities units ordered per product id
+ */
+public record OrderCreatedEvent(
+        Long orderId,
+        Long customerId,
+        Map<Long, Integer> quantities,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderprocessing.order.event;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Side effect of an order status change, run by the {@code OrderOutboxRelay} after the change
+ * committed.
+ * <p>
+ * Delivery is at least once: a handler may see the same event again after a timeout or a crash,
+ * so it must be idempotent. A failed future is retried later with backoff.
+ */
+public interface OrderEventConsumer {
+
+    /**
+     * Stable name stored with each outbox entry; renaming it orphans the entries still pending.
+     */
+    String name();
+
+    boolean accepts(OrderStatusChangedEvent event);
+
+    CompletableFuture<Void> handle(OrderStatusChangedEvent event);
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.orderprocessing.order.event;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * An order moved from {@code previousStatus} to {@code status}. Stored in the order outbox and
+ * delivered to every {@link OrderEventConsumer} that accepts it.
+ *
+ * @param authorizationId the gateway authorization to capture on shipment, or null if the order
+ *                        was charged at checkout
+ * @param quantities      units ordered per product id
+ * @param notes           the order's notes after the change, e.g. the cancellation reason
+ */
+public record OrderStatusChangedEvent(
+        Long orderId,
+        Long customerId,
+        OrderStatus previousStatus,
+        OrderStatus status,
+        String paymentId,
+        String authorizationId,
+        BigDecimal totalAmount,
+        Map<Long, Integer> quantities,
+        String notes,
+        LocalDateTime occurredAt
+) {
+
+    public static final String TYPE = "ORDER_STATUS_CHANGED";
+}
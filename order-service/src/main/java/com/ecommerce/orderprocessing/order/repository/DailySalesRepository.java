@@ -0,0 +1,73 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Repository for the per-day sales aggregate.
+ */
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    /**
+     * Adds (or, with negative values, subtracts) one order's sales to the totals of its day.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_sales (sales_date, order_count, quantity_sold, revenue, updated_at)
+        VALUES (:salesDate, :orders, :quantity, :revenue, now())
+        ON CONFLICT (sales_date) DO UPDATE
+        SET order_count = daily_sales.order_count + EXCLUDED.order_count,
+            quantity_sold = daily_sales.quantity_sold + EXCLUDED.quantity_sold,
+            revenue = daily_sales.revenue + EXCLUDED.revenue,
+            updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    void addSales(@Param("salesDate") LocalDate salesDate, @Param("orders") long orders,
+                  @Param("quantity") long quantity, @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Revenue of the days in {@code [fromDate, toDate)}: one primary key range scan over days.
+     */
+    @Query("""
+        SELECT COALESCE(SUM(ds.revenue), java.math.BigDecimal.ZERO)
+        FROM DailySales ds
+        WHERE ds.salesDate >= :fromDate AND ds.salesDate < :toDate
+    """)
+    BigDecimal getRevenueForDays(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_sales (sales_date, order_count, quantity_sold, revenue, updated_at)
+        SELECT CAST(o.created_at AS date), COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.subtotal), now()
+        FROM order_items oi JOIN orders o ON o.id = oi.order_id
+        WHERE o.status <> 'CANCELLED'
+        GROUP BY CAST(o.created_at AS date)
+        ON CONFLICT (sales_date) DO UPDATE
+        SET order_count = EXCLUDED.order_count,
+            quantity_sold = EXCLUDED.quantity_sold,
+            revenue = EXCLUDED.revenue,
+            updated_at = EXCLUDED.updated_at
+        WHERE daily_sales.order_count <> EXCLUDED.order_count
+           OR daily_sales.quantity_sold <> EXCLUDED.quantity_sold
+           OR daily_sales.revenue <> EXCLUDED.revenue
+    """, nativeQuery = true)
+    int rebuildFromOrderItems();
+
+    @Modifying
+    @Query(value = """
+        UPDATE daily_sales ds
+        SET order_count = 0, quantity_sold = 0, revenue = 0, updated_at = now()
+        WHERE (ds.order_count <> 0 OR ds.quantity_sold <> 0 OR ds.revenue <> 0)
+          AND ds.sales_date NOT IN (
+              SELECT CAST(o.created_at AS date) FROM order_items oi JOIN orders o ON o.id = oi.order_id
+              WHERE o.status <> 'CANCELLED')
+    """, nativeQuery = true)
+    int clearDaysWithoutSales();
+}
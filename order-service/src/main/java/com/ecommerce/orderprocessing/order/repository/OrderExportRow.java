@@ -0,0 +1,23 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order item line of an export, flattened with its order's columns. The item columns are
+ * {@code null} for an order without items.
+ */
+public record OrderExportRow(
+        Long orderId,
+        Long customerId,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        String paymentId,
+        LocalDateTime createdAt,
+        Long productId,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal subtotal
+) {}
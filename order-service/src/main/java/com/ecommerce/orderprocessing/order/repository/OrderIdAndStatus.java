@@ -0,0 +1,8 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+
+/**
+ * An order's current status, without loading the order.
+ */
+public record OrderIdAndStatus(Long id, OrderStatus status) {}
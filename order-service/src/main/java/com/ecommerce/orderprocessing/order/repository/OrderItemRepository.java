@@ -29,7 +29,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     Integer getTotalQuantitySoldForProduct(@Param("productId") Long productId);
 
     /**
-     * Get best-selling products using a type-safe record projection.
+     * Get best-selling products using a type-safe record projection. Groups every order line; use
+     * {@code SalesAggregateService} on request paths.
      */
     @Query("""
         SELECT new com.ecommerce.orderprocessing.order.repository.BestSellingProduct(oi.productId, SUM(oi.quantity))
@@ -48,6 +49,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Scans every line of the product; {@code SalesAggregateService} answers this from one row.
+     */
     @Query("SELECT COALESCE(SUM(oi.subtotal), java.math.BigDecimal.ZERO) FROM OrderItem oi WHERE oi.productId = :productId")
     BigDecimal getTotalRevenueForProduct(@Param("productId") Long productId);
 
@@ -60,4 +64,19 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
+
+    /**
+     * Revenue of the orders created in {@code [startDate, endDate)} that are not cancelled. Used for
+     * the partial days at the edges of a period; whole days come from the daily aggregate.
+     */
+    @Query("""
+        SELECT COALESCE(SUM(oi.subtotal), java.math.BigDecimal.ZERO)
+        FROM OrderItem oi
+        WHERE oi.order.createdAt >= :startDate AND oi.order.createdAt < :endDate
+          AND oi.order.status <> com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus.CANCELLED
+    """)
+    BigDecimal getRevenueOfLiveOrdersBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
 }
@@ -0,0 +1,46 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+
+    /**
+     * Claims up to {@code limit} pending entries that are due, oldest first. Entries claimed by
+     * another relay are skipped rather than waited on, so several instances can relay in parallel.
+     */
+    @Query(value = """
+        SELECT * FROM order_outbox
+        WHERE status = 'PENDING' AND available_at <= :now
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OrderOutboxEntry> lockDueEntries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+        UPDATE OrderOutboxEntry e
+        SET e.status = com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus.DONE,
+            e.processedAt = :processedAt, e.lastError = null
+        WHERE e.id IN :ids
+    """)
+    int markDone(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("""
+        DELETE FROM OrderOutboxEntry e
+        WHERE e.status = com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus.DONE
+          AND e.processedAt < :cutoff
+    """)
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+}
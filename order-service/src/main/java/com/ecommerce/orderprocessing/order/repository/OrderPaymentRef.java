@@ -0,0 +1,10 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+
+/**
+ * An order's payment and authorization, without loading the order.
+ */
+public record OrderPaymentRef(Long orderId, OrderStatus status, String paymentId, String authorizationId,
+                              CaptureStatus captureStatus) {}
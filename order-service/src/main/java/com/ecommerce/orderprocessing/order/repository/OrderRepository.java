@@ -1,17 +1,29 @@
 package com.ecommerce.orderprocessing.order.repository;
 
 import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
 import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for Order entity.
@@ -21,6 +33,207 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Page<Order> findByCustomerId(Long customerId, Pageable pageable);
 
+    /**
+     * First phase of a paged order listing: pages over order ids only, so the page limit is applied
+     * in SQL rather than in memory as it would be with a collection fetch join.
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.customerId = :customerId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId")
+    Page<Long> findIdsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(value = "SELECT o.id FROM Order o",
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findAllIds(Pageable pageable);
+
+    /**
+     * Second phase of a paged order listing: loads the orders of one id page together with their
+     * items in a single query. The result is in no particular order.
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsBySubmissionId(UUID submissionId);
+
+    /**
+     * Moves an order to {@code newStatus} only if it is still in {@code expectedStatus}: a
+     * compare-and-set on the status column. Of several concurrent transitions from the same status
+     * exactly one updates the row; the others see 0 and must re-read the order. {@code notes} and
+     * {@code paymentId} are left unchanged when null. Clears the persistence context so the re-read
+     * sees the committed status.
+     *
+     * @return 1 if the transition was applied, 0 if the order is no longer in {@code expectedStatus}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.status = :newStatus,
+            o.notes = COALESCE(:notes, o.notes),
+            o.paymentId = COALESCE(:paymentId, o.paymentId),
+            o.updatedAt = :updatedAt
+        WHERE o.id = :id AND o.status = :expectedStatus
+    """)
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expectedStatus") OrderStatus expectedStatus,
+                            @Param("newStatus") OrderStatus newStatus,
+                            @Param("notes") String notes,
+                            @Param("paymentId") String paymentId,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Sets a new order's total once its items are saved, unless the order has left PENDING in the
+     * meantime. Only the total is written, so a concurrent cancellation is never overwritten.
+     *
+     * @return 1 if the order was completed, 0 if it is no longer pending
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.totalAmount = :totalAmount, o.creationComplete = true, o.updatedAt = :updatedAt
+        WHERE o.id = :id AND o.status = com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus.PENDING
+    """)
+    int completeCreation(@Param("id") Long id,
+                         @Param("totalAmount") BigDecimal totalAmount,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Set-based {@link #compareAndSetStatus}: moves every listed order that is in one of
+     * {@code fromStatuses} to {@code newStatus} in one statement, and returns the orders it moved
+     * with the status each one left. Rows are locked in id order, so overlapping waves cannot
+     * deadlock, and a row changed by a concurrent transaction is re-checked against its new status.
+     */
+    @Transactional
+    @Query(value = """
+        WITH target AS (
+            SELECT id, status AS previous_status FROM orders
+            WHERE id IN (:ids) AND status IN (:fromStatuses)
+            ORDER BY id
+            FOR UPDATE
+        )
+        UPDATE orders o
+        SET status = :newStatus, notes = COALESCE(CAST(:notes AS TEXT), o.notes), updated_at = :updatedAt
+        FROM target t
+        WHERE o.id = t.id
+        RETURNING o.id AS id, t.previous_status AS "previousStatus"
+    """, nativeQuery = true)
+    List<OrderTransition> transitionAll(@Param("ids") Collection<Long> ids,
+                                        @Param("fromStatuses") Collection<String> fromStatuses,
+                                        @Param("newStatus") String newStatus,
+                                        @Param("notes") String notes,
+                                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT new com.ecommerce.orderprocessing.order.repository.OrderIdAndStatus(o.id, o.status) FROM Order o WHERE o.id IN :ids")
+    List<OrderIdAndStatus> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Keyset listing, newest first. Each page seeks past the (created_at, id) of the previous page's
+     * last row, so deep pages cost the same as the first one; the id tie-breaker keeps rows created
+     * in the same instant from being skipped or repeated.
+     */
+
+    @Query("SELECT o.id FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findIdsNewestFirst(Limit limit);
+
+    @Query("""
+        SELECT o.id FROM Order o
+        WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)
+        ORDER BY o.createdAt DESC, o.id DESC
+    """)
+    List<Long> findIdsNewestFirstBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.customerId = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findIdsByCustomerIdNewestFirst(@Param("customerId") Long customerId, Limit limit);
+
+    @Query("""
+        SELECT o.id FROM Order o
+        WHERE o.customerId = :customerId
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+    """)
+    List<Long> findIdsByCustomerIdNewestFirstBefore(@Param("customerId") Long customerId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id, Limit limit);
+
+    /**
+     * Moves the order past a declined payment attempt, so the next one gets a key of its own. A
+     * concurrent decline of the same attempt moves it once.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Order o
+        SET o.paymentAttempt = o.paymentAttempt + 1
+        WHERE o.id = :id AND o.paymentAttempt = :paymentAttempt
+    """)
+    int advancePaymentAttempt(@Param("id") Long id, @Param("paymentAttempt") int paymentAttempt);
+
+    /**
+     * Records the authorization held for an order that is captured on shipment. Call in the
+     * transaction that moves the order to PAID.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.authorizationId = :authorizationId,
+            o.captureStatus = com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus.AUTHORIZED
+        WHERE o.id = :id
+    """)
+    int recordAuthorization(@Param("id") Long id, @Param("authorizationId") String authorizationId);
+
+    /**
+     * Moves an order's authorization from AUTHORIZED to {@code captureStatus}, setting
+     * {@code paymentId} unless null. A redelivered capture or void finds it settled already and
+     * changes nothing.
+     *
+     * @return 1 if the authorization was settled, 0 if it was settled before
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Order o
+        SET o.captureStatus = :captureStatus,
+            o.paymentId = COALESCE(:paymentId, o.paymentId),
+            o.updatedAt = :updatedAt
+        WHERE o.id = :id AND o.authorizationId = :authorizationId
+          AND o.captureStatus = com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus.AUTHORIZED
+    """)
+    int settleAuthorization(@Param("id") Long id,
+                            @Param("authorizationId") String authorizationId,
+                            @Param("captureStatus") CaptureStatus captureStatus,
+                            @Param("paymentId") String paymentId,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Keyset page, in id order after {@code id}, of the orders the gateway holds money for: those in
+     * {@code statuses} with a charge or an authorization, and those whose void was declined. Seeks the
+     * primary key, so a reconciliation pass over millions of orders costs the same per page from start
+     * to end.
+     */
+    @Query("""
+        SELECT new com.ecommerce.orderprocessing.order.repository.OrderPaymentRef(
+            o.id, o.status, o.paymentId, o.authorizationId, o.captureStatus)
+        FROM Order o
+        WHERE o.id > :id
+          AND ((o.status IN :statuses AND (o.paymentId IS NOT NULL OR o.authorizationId IS NOT NULL))
+            OR o.captureStatus = com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus.VOID_FAILED)
+        ORDER BY o.id
+    """)
+    List<OrderPaymentRef> findPaymentRefsAfter(@Param("statuses") Collection<OrderStatus> statuses,
+                                               @Param("id") Long id, Limit limit);
+
+    @Query("""
+        SELECT new com.ecommerce.orderprocessing.order.repository.OrderPaymentRef(
+            o.id, o.status, o.paymentId, o.authorizationId, o.captureStatus)
+        FROM Order o
+        WHERE o.id IN :ids
+    """)
+    List<OrderPaymentRef> findPaymentRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByCustomerId(Long customerId);
+
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
     @Query("""
@@ -32,6 +245,24 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Streams the orders created in {@code [startDate, endDate)} as flat item rows, ordered so that
+     * the rows of one order are adjacent. Rows are DTOs rather than entities, so nothing accumulates
+     * in the persistence context, and the fetch size makes the driver read through a server-side
+     * cursor instead of loading the whole result. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.ecommerce.orderprocessing.order.repository.OrderExportRow(
+            o.id, o.customerId, o.status, o.totalAmount, o.paymentId, o.createdAt,
+            oi.productId, oi.quantity, oi.unitPrice, oi.subtotal)
+        FROM Order o LEFT JOIN o.orderItems oi
+        WHERE o.createdAt >= :startDate AND o.createdAt < :endDate
+        ORDER BY o.createdAt, o.id, oi.id
+    """)
+    Stream<OrderExportRow> streamExportRows(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
     List<Order> findByCustomerIdAndStatus(Long customerId, OrderStatus status);
 
     long countByStatus(OrderStatus status);
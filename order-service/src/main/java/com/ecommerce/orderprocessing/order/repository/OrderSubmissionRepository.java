@@ -0,0 +1,94 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, UUID> {
+
+    /**
+     * Claims up to {@code limit} queued submissions, oldest first, skipping those backing off until
+     * after {@code now}. Submissions claimed by another worker are skipped rather than waited on, so
+     * several instances can work the queue in parallel.
+     */
+    @Query(value = """
+        SELECT * FROM order_submissions
+        WHERE status = 'QUEUED' AND (next_attempt_at IS NULL OR next_attempt_at <= :now)
+        ORDER BY created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OrderSubmission> lockQueued(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    long countByStatusIn(Collection<SubmissionStatus> statuses);
+
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = :status, s.orderId = :orderId, s.error = :error, s.completedAt = :completedAt
+        WHERE s.id = :id
+          AND s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.PROCESSING
+    """)
+    int finish(@Param("id") UUID id,
+               @Param("status") SubmissionStatus status,
+               @Param("orderId") Long orderId,
+               @Param("error") String error,
+               @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Puts a submission the worker could not finish back in the queue, to be claimed again no
+     * earlier than {@code nextAttemptAt}.
+     */
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.QUEUED,
+            s.claimedAt = null, s.nextAttemptAt = :nextAttemptAt
+        WHERE s.id = :id
+          AND s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.PROCESSING
+    """)
+    int requeue(@Param("id") UUID id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Puts back submissions whose worker has held them since before {@code claimedBefore}, most
+     * likely because its instance stopped, as long as they have attempts left.
+     */
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.QUEUED, s.claimedAt = null
+        WHERE s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.PROCESSING
+          AND s.claimedAt < :claimedBefore AND s.attempts < :maxAttempts
+    """)
+    int requeueStale(@Param("claimedBefore") LocalDateTime claimedBefore, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.FAILED,
+            s.error = :error, s.completedAt = :completedAt
+        WHERE s.status = com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.PROCESSING
+          AND s.claimedAt < :claimedBefore AND s.attempts >= :maxAttempts
+    """)
+    int failStale(@Param("claimedBefore") LocalDateTime claimedBefore, @Param("maxAttempts") int maxAttempts,
+                  @Param("error") String error, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("""
+        DELETE FROM OrderSubmission s
+        WHERE s.status IN (com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.COMPLETED,
+                           com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus.FAILED)
+          AND s.completedAt < :cutoff
+    """)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
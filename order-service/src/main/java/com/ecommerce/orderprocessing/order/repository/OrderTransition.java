@@ -0,0 +1,11 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+/**
+ * An order moved by a set-based status update, and the status it moved from.
+ */
+public interface OrderTransition {
+
+    Long getId();
+
+    String getPreviousStatus();
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.PaymentMismatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentMismatchRepository extends JpaRepository<PaymentMismatch, Long> {
+
+    Page<PaymentMismatch> findByRunId(Long runId, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.ProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository for the per-product sales aggregate.
+ */
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+
+    /**
+     * Adds (or, with negative values, subtracts) sales to a product's totals, creating its row on
+     * first sale. A single statement, so concurrent orders for the same product never lose updates.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO product_sales (product_id, quantity_sold, revenue, updated_at)
+        VALUES (:productId, :quantity, :revenue, now())
+        ON CONFLICT (product_id) DO UPDATE
+        SET quantity_sold = product_sales.quantity_sold + EXCLUDED.quantity_sold,
+            revenue = product_sales.revenue + EXCLUDED.revenue,
+            updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    void addSales(@Param("productId") Long productId, @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Top sellers read from the quantity index: O(limit) instead of grouping every order line.
+     */
+    @Query("""
+        SELECT new com.ecommerce.orderprocessing.order.repository.BestSellingProduct(ps.productId, ps.quantitySold)
+        FROM ProductSales ps
+        WHERE ps.quantitySold > 0
+        ORDER BY ps.quantitySold DESC
+    """)
+    List<BestSellingProduct> findBestSelling(Pageable pageable);
+
+    /*
+     * Rebuild from order_items. Run both in one transaction; rows whose totals already match are
+     * left untouched.
+     */
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO product_sales (product_id, quantity_sold, revenue, updated_at)
+        SELECT oi.product_id, SUM(oi.quantity), SUM(oi.subtotal), now()
+        FROM order_items oi JOIN orders o ON o.id = oi.order_id
+        WHERE o.status <> 'CANCELLED'
+        GROUP BY oi.product_id
+        ON CONFLICT (product_id) DO UPDATE
+        SET quantity_sold = EXCLUDED.quantity_sold,
+            revenue = EXCLUDED.revenue,
+            updated_at = EXCLUDED.updated_at
+        WHERE product_sales.quantity_sold <> EXCLUDED.quantity_sold
+           OR product_sales.revenue <> EXCLUDED.revenue
+    """, nativeQuery = true)
+    int rebuildFromOrderItems();
+
+    @Modifying
+    @Query(value = """
+        UPDATE product_sales ps
+        SET quantity_sold = 0, revenue = 0, updated_at = now()
+        WHERE (ps.quantity_sold <> 0 OR ps.revenue <> 0)
+          AND ps.product_id NOT IN (
+              SELECT oi.product_id FROM order_items oi JOIN orders o ON o.id = oi.order_id
+              WHERE o.status <> 'CANCELLED')
+    """, nativeQuery = true)
+    int clearProductsWithoutSales();
+}
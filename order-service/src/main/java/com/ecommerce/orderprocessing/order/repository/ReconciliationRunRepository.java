@@ -0,0 +1,84 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.order.domain.entity.ReconciliationRun;
+import com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    Optional<ReconciliationRun> findFirstByOrderByIdDesc();
+
+    /**
+     * Marks running runs whose worker stopped sending heartbeats before {@code staleBefore} as
+     * interrupted, so they no longer hold the single running slot.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE ReconciliationRun r
+        SET r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.INTERRUPTED,
+            r.active = null, r.claimToken = null, r.error = 'Its worker stopped sending heartbeats'
+        WHERE r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.RUNNING
+          AND r.heartbeatAt < :staleBefore
+    """)
+    int interruptStale(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Hands an interrupted run, or a running one whose worker stopped sending heartbeats before
+     * {@code staleBefore}, to the worker holding {@code claimToken}. Of several workers claiming the
+     * same run, exactly one updates the row.
+     *
+     * @return 1 if the run was claimed, 0 if it is completed or still owned by a live worker
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE ReconciliationRun r
+        SET r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.RUNNING,
+            r.active = true, r.claimToken = :claimToken, r.heartbeatAt = :now, r.completedAt = null, r.error = null
+        WHERE r.id = :id
+          AND (r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.INTERRUPTED
+               OR (r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.RUNNING
+                   AND r.heartbeatAt < :staleBefore))
+    """)
+    int claim(@Param("id") Long id, @Param("claimToken") UUID claimToken, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Moves the checkpoint past a finished page and adds its counts, if {@code claimToken} still owns
+     * the run.
+     *
+     * @return 1 if the checkpoint was saved, 0 if the run has been claimed by another worker
+     */
+    @Modifying
+    @Query("""
+        UPDATE ReconciliationRun r
+        SET r.lastPaymentId = :lastPaymentId, r.lastOrderId = :lastOrderId,
+            r.checkedOrders = r.checkedOrders + :checked, r.mismatches = r.mismatches + :mismatches,
+            r.heartbeatAt = :now
+        WHERE r.id = :id AND r.claimToken = :claimToken
+          AND r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.RUNNING
+    """)
+    int checkpoint(@Param("id") Long id, @Param("claimToken") UUID claimToken,
+                   @Param("lastPaymentId") String lastPaymentId, @Param("lastOrderId") Long lastOrderId,
+                   @Param("checked") long checked, @Param("mismatches") long mismatches,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE ReconciliationRun r
+        SET r.status = :status, r.active = null, r.claimToken = null, r.error = :error, r.heartbeatAt = :now, r.completedAt = :completedAt
+        WHERE r.id = :id AND r.claimToken = :claimToken
+          AND r.status = com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus.RUNNING
+    """)
+    int finish(@Param("id") Long id, @Param("claimToken") UUID claimToken,
+               @Param("status") ReconciliationStatus status, @Param("error") String error,
+               @Param("now") LocalDateTime now, @Param("completedAt") LocalDateTime completedAt);
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.cache.BoundedTtlCache;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates client retries of order requests that carry an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key runs, and its future is stored under the key, scoped to the
+ * operation and the caller. A repeat that arrives while the first is still running gets the same
+ * future, so concurrent duplicates collapse onto one execution; a later repeat gets the stored
+ * outcome replayed. A failed execution is forgotten, so the client can retry it under the same key.
+ * Reusing a key for a different request is rejected; requests are told apart by the SHA-256 of
+ * their JSON form, with properties and map entries sorted so equal requests always hash the same.
+ * <p>
+ * The store is a {@link BoundedTtlCache}: entries live for {@code app.orders.idempotency.ttl} and
+ * the least recently used are dropped beyond {@code max-size}. It is per instance, so retries
+ * that reach another instance are not deduplicated here.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper canonicalMapper;
+    private final BoundedTtlCache<String, Execution> executions;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${app.orders.idempotency.max-size:10000}") int maxSize,
+                              @Value("${app.orders.idempotency.ttl:24h}") Duration ttl) {
+        this.canonicalMapper = objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.executions = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Runs {@code action} once per key, or returns the outcome of the run that already holds it.
+     *
+     * @param operation names the endpoint, so one key can be used once per operation
+     * @param caller    the authenticated user, so keys from different users never collide
+     * @param key       the client's key; without one {@code action} simply runs
+     * @param request   what the key was sent with; a repeat must carry an equal request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String operation, String caller, String key, Object request,
+                                            Supplier<CompletableFuture<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = operation + ':' + caller + ':' + key;
+        Execution execution = new Execution(fingerprint(request), new CompletableFuture<>());
+        Execution existing = executions.putIfAbsent(scopedKey, execution);
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), execution.fingerprint())) {
+                throw new BadRequestException(HEADER + " " + key + " was already used for a different request");
+            }
+            // A copy, so a caller that gives up cannot cancel the result for the others
+            return (CompletableFuture<T>) existing.result().copy();
+        }
+
+        CompletableFuture<T> started;
+        try {
+            started = action.get();
+        } catch (RuntimeException ex) {
+            started = CompletableFuture.failedFuture(ex);
+        }
+        CompletableFuture<Object> result = execution.result();
+        started.whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.complete(value);
+            } else {
+                executions.invalidate(scopedKey, execution);
+                result.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return (CompletableFuture<T>) result.copy();
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonicalMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize request of type " + request.getClass().getName(), ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * @param fingerprint SHA-256 of the request the key was first used with; requests are not kept,
+     *                    since a payment request carries card details
+     */
+    private record Execution(byte[] fingerprint, CompletableFuture<Object> result) {}
+}
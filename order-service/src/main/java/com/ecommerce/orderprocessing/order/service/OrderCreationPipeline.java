@@ -0,0 +1,121 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
+import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
+import com.ecommerce.orderprocessing.product.ProductResponse;
+import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the line items of a new order.
+ * <p>
+ * Products for all lines are loaded with one bulk lookup, and stock for the whole basket is held
+ * with a single {@link InventoryHoldService#placeHolds} call, so the order either gets every line or
+ * none, and an abandoned order gets its stock back when the holds expire. Items are persisted with
+ * one {@code saveAll} call so Hibernate can send the inserts as a JDBC batch; if that fails the
+ * holds are released again before the failure is reported, so a failed order never leaks stock.
+ */
+@Slf4j
+@Component
+public class OrderCreationPipeline {
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCatalogService productCatalogService;
+    private final InventoryHoldService inventoryHoldService;
+    private final ExecutorService virtualThreadExecutor;
+
+    public OrderCreationPipeline(OrderItemRepository orderItemRepository,
+                                 ProductCatalogService productCatalogService,
+                                 InventoryHoldService inventoryHoldService,
+                                 ExecutorService virtualThreadExecutor) {
+        this.orderItemRepository = orderItemRepository;
+        this.productCatalogService = productCatalogService;
+        this.inventoryHoldService = inventoryHoldService;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    public CompletableFuture<List<OrderItem>> createOrderItems(Order order, List<CreateOrderItemRequest> itemRequests) {
+        Set<Long> productIds = itemRequests.stream()
+                .map(CreateOrderItemRequest::productId)
+                .collect(Collectors.toSet());
+        return productCatalogService.getProductsByIds(productIds)
+                .thenCompose(products -> holdBasket(order, itemRequests, products))
+                .thenApplyAsync(products -> persist(order, itemRequests, products), virtualThreadExecutor);
+    }
+
+    /**
+     * Sums requested quantities per product, so a product listed on several lines is reserved once.
+     */
+    static Map<Long, Integer> quantitiesByProduct(Collection<CreateOrderItemRequest> itemRequests) {
+        return itemRequests.stream()
+                .collect(Collectors.toMap(CreateOrderItemRequest::productId, CreateOrderItemRequest::quantity, Integer::sum));
+    }
+
+    private CompletableFuture<Map<Long, ProductResponse>> holdBasket(Order order, List<CreateOrderItemRequest> itemRequests,
+                                                                   Map<Long, ProductResponse> products) {
+        for (CreateOrderItemRequest itemRequest : itemRequests) {
+            if (!products.containsKey(itemRequest.productId())) {
+                throw new ResourceNotFoundException("Product not found with ID: " + itemRequest.productId());
+            }
+        }
+
+        Map<Long, Integer> quantities = quantitiesByProduct(itemRequests);
+        return inventoryHoldService.placeHolds(order.getId(), quantities).thenApply(result -> {
+            if (!result.isSuccessful()) {
+                throw toException(result, quantities, products);
+            }
+            return products;
+        });
+    }
+
+    private RuntimeException toException(InventoryBatchResult result, Map<Long, Integer> quantities,
+                                         Map<Long, ProductResponse> products) {
+        Long productId = result.failedProductIds().get(0);
+        if (result.outcomes().get(productId) == Outcome.NOT_FOUND) {
+            return new ResourceNotFoundException("Inventory not found for product ID: " + productId);
+        }
+        return new InsufficientStockException(products.get(productId).name(), quantities.get(productId));
+    }
+
+    private List<OrderItem> persist(Order order, List<CreateOrderItemRequest> itemRequests, Map<Long, ProductResponse> products) {
+        List<OrderItem> orderItems = itemRequests.stream()
+                .map(itemRequest -> {
+                    ProductResponse product = products.get(itemRequest.productId());
+                    var orderItem = new OrderItem(product.id(), itemRequest.quantity(), product.price());
+                    orderItem.setOrder(order);
+                    return orderItem;
+                })
+                .toList();
+        try {
+            return orderItemRepository.saveAll(orderItems);
+        } catch (RuntimeException ex) {
+            log.warn("Releasing inventory holds for failed order {}", order.getId());
+            // Waited for, so a retry of the order never has its new holds released by this call
+            inventoryHoldService.releaseHolds(order.getId())
+                    .exceptionally(releaseEx -> {
+                        // The sweeper returns the stock once the holds expire
+                        log.error("Failed to release inventory holds for order {}", order.getId(), releaseEx);
+                        ex.addSuppressed(releaseEx);
+                        return null;
+                    })
+                    .join();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.order.dto.OrderExportFormat;
+import com.ecommerce.orderprocessing.order.dto.OrderExportLine;
+import com.ecommerce.orderprocessing.order.repository.OrderExportRow;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the orders of a date range to an output stream with constant memory.
+ * <p>
+ * Rows come from a forward-only cursor ({@link OrderRepository#streamExportRows}) and are written as
+ * they arrive; only the items of the order being written are held at a time. Writes block while the
+ * client is behind, which in turn stops the cursor from fetching, so a slow download slows the query
+ * down instead of buffering rows. The output is flushed every {@code app.orders.export.flush-every}
+ * orders. Concurrent exports are capped by {@code orderExportBulkhead}; a request over the cap is
+ * rejected before anything is written, and the output is only opened once the export is admitted, so
+ * a rejected request can still be answered with an error response.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    private static final String CSV_HEADER =
+            "order_id,customer_id,status,total_amount,payment_id,created_at,product_id,quantity,unit_price,subtotal";
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Bulkhead orderExportBulkhead;
+    private final ObjectMapper objectMapper;
+    private final int flushEvery;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("orderExportBulkhead") Bulkhead orderExportBulkhead,
+                              ObjectMapper objectMapper,
+                              @Value("${app.orders.export.flush-every:200}") int flushEvery) {
+        if (flushEvery <= 0) {
+            throw new IllegalArgumentException("app.orders.export.flush-every must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The PostgreSQL driver only uses a server-side cursor inside a transaction
+        this.transactionTemplate.setReadOnly(true);
+        this.orderExportBulkhead = orderExportBulkhead;
+        this.objectMapper = objectMapper;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Writes every order created in {@code [from, to)}, oldest first, to the stream {@code output}
+     * opens. It is opened only after the range is validated and the export admitted.
+     *
+     * @return the number of orders written
+     */
+    public long export(LocalDateTime from, LocalDateTime to, OrderExportFormat format, ExportOutput output) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Export range start must be before its end");
+        }
+        return orderExportBulkhead.call(() -> transactionTemplate.execute(status -> {
+            try (Stream<OrderExportRow> rows = orderRepository.streamExportRows(from, to)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output.open(), StandardCharsets.UTF_8));
+                long orders = format == OrderExportFormat.CSV
+                        ? writeCsv(rows.iterator(), writer)
+                        : writeNdjson(rows.iterator(), writer);
+                writer.flush();
+                log.info("Exported {} orders created between {} and {} as {}", orders, from, to, format);
+                return orders;
+            } catch (IOException ex) {
+                // Most likely the client went away; the stream is closed and the cursor with it
+                throw new UncheckedIOException("Order export aborted", ex);
+            }
+        }));
+    }
+
+    private long writeNdjson(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        long orders = 0;
+        OrderExportRow current = null;
+        List<OrderExportLine.Item> items = new ArrayList<>();
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (current != null && !current.orderId().equals(row.orderId())) {
+                writeLine(current, items, writer);
+                items.clear();
+                flushPeriodically(++orders, writer);
+            }
+            current = row;
+            if (row.productId() != null) {
+                items.add(new OrderExportLine.Item(row.productId(), row.quantity(), row.unitPrice(), row.subtotal()));
+            }
+        }
+        if (current != null) {
+            writeLine(current, items, writer);
+            orders++;
+        }
+        return orders;
+    }
+
+    private void writeLine(OrderExportRow order, List<OrderExportLine.Item> items, Writer writer) throws IOException {
+        OrderExportLine line = new OrderExportLine(order.orderId(), order.customerId(), order.status().name(),
+                order.totalAmount(), order.paymentId(), order.createdAt(), List.copyOf(items));
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private long writeCsv(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long orders = 0;
+        Long currentOrderId = null;
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (!row.orderId().equals(currentOrderId)) {
+                if (currentOrderId != null) {
+                    flushPeriodically(orders, writer);
+                }
+                currentOrderId = row.orderId();
+                orders++;
+            }
+            writer.write(String.join(",",
+                    csv(row.orderId()), csv(row.customerId()), csv(row.status()), csv(row.totalAmount()),
+                    csv(row.paymentId()), csv(row.createdAt()), csv(row.productId()), csv(row.quantity()),
+                    csv(row.unitPrice()), csv(row.subtotal())));
+            writer.write('\n');
+        }
+        return orders;
+    }
+
+    private void flushPeriodically(long ordersWritten, Writer writer) throws IOException {
+        if (ordersWritten % flushEvery == 0) {
+            writer.flush();
+        }
+    }
+
+    private static String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Where an export is written, e.g. an HTTP response whose headers are set when it is opened.
+     */
+    @FunctionalInterface
+    public interface ExportOutput {
+
+        OutputStream open() throws IOException;
+    }
+}
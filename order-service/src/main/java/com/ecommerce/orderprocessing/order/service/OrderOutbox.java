@@ -0,0 +1,55 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes order events to the {@code order_outbox} table, one entry per consumer that accepts the
+ * event, so each consumer is retried on its own and a slow or failing one never holds back the others.
+ * Must be called inside the transaction that changes the order.
+ */
+@Service
+public class OrderOutbox {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final List<OrderEventConsumer> consumers;
+    private final ObjectMapper objectMapper;
+
+    public OrderOutbox(OrderOutboxRepository orderOutboxRepository, List<OrderEventConsumer> consumers,
+                       ObjectMapper objectMapper) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.consumers = consumers;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderStatusChangedEvent event) {
+        List<OrderEventConsumer> accepting = consumers.stream()
+                .filter(consumer -> consumer.accepts(event))
+                .toList();
+        if (accepting.isEmpty()) {
+            return;
+        }
+        String payload = serialize(event);
+        orderOutboxRepository.saveAll(accepting.stream()
+                .map(consumer -> new OrderOutboxEntry(event.orderId(), consumer.name(), OrderStatusChangedEvent.TYPE, payload))
+                .toList());
+    }
+
+    private String serialize(OrderStatusChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize event for order " + event.orderId(), ex);
+        }
+    }
+}
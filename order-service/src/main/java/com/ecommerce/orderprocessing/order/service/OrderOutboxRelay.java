@@ -0,0 +1,177 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers order outbox entries to their consumers.
+ * <p>
+ * Each run claims a batch of due entries with {@code FOR UPDATE SKIP LOCKED}, starts every delivery
+ * in the batch at once and waits for all of them up to the handler timeout, then marks the
+ * delivered entries done in one statement. A failed or timed-out delivery is retried with
+ * exponential backoff and marked failed once its attempts run out. Batches repeat while full, one
+ * transaction each, so several instances can relay side by side without delivering an entry twice
+ * concurrently.
+ */
+@Slf4j
+@Service
+public class OrderOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final Map<String, OrderEventConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration handlerTimeout;
+    private final Duration retention;
+
+    public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository,
+                            List<OrderEventConsumer> consumers,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.orders.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.orders.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${app.orders.outbox.retry-backoff:5s}") Duration retryBackoff,
+                            @Value("${app.orders.outbox.max-retry-backoff:10m}") Duration maxRetryBackoff,
+                            @Value("${app.orders.outbox.handler-timeout:30s}") Duration handlerTimeout,
+                            @Value("${app.orders.outbox.retention:7d}") Duration retention) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.consumers = consumers.stream()
+                .collect(Collectors.toMap(OrderEventConsumer::name, Function.identity()));
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.handlerTimeout = handlerTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * Delivers due entries, one batch per transaction, until none are left.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        int total = 0;
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+            total += relayed;
+        } while (relayed == batchSize);
+        if (total > 0) {
+            log.debug("Relayed {} order outbox entries", total);
+        }
+    }
+
+    /**
+     * Deletes delivered entries older than the retention period. Failed entries are kept for
+     * inspection.
+     */
+    @Scheduled(cron = "${app.orders.outbox.cleanup-cron:0 0 4 * * *}")
+    public void purgeDelivered() {
+        Integer deleted = transactionTemplate.execute(status ->
+                orderOutboxRepository.deleteDoneBefore(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} delivered order outbox entries", deleted);
+        }
+    }
+
+    private int relayBatch() {
+        List<OrderOutboxEntry> due = orderOutboxRepository.lockDueEntries(LocalDateTime.now(), batchSize);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<OrderOutboxEntry, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        for (OrderOutboxEntry entry : due) {
+            deliveries.put(entry, deliver(entry).orTimeout(handlerTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        CompletableFuture.allOf(deliveries.values().toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>();
+        deliveries.forEach((entry, delivery) -> {
+            Throwable failure = delivery.handle((result, ex) -> ex).join();
+            if (failure == null) {
+                delivered.add(entry.getId());
+            } else {
+                retryOrFail(entry, unwrap(failure), now);
+            }
+        });
+        if (!delivered.isEmpty()) {
+            orderOutboxRepository.markDone(delivered, now);
+        }
+        return due.size();
+    }
+
+    private CompletableFuture<Void> deliver(OrderOutboxEntry entry) {
+        OrderEventConsumer consumer = consumers.get(entry.getConsumer());
+        if (consumer == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No consumer named " + entry.getConsumer()));
+        }
+        try {
+            return consumer.handle(objectMapper.readValue(entry.getPayload(), OrderStatusChangedEvent.class));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void retryOrFail(OrderOutboxEntry entry, Throwable failure, LocalDateTime now) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(describe(failure));
+        if (attempts >= maxAttempts) {
+            entry.setStatus(OutboxStatus.FAILED);
+            entry.setProcessedAt(now);
+            log.error("Giving up on outbox entry {} for order {} ({}) after {} attempts",
+                    entry.getId(), entry.getOrderId(), entry.getConsumer(), attempts, failure);
+            return;
+        }
+        entry.setAvailableAt(now.plus(backoff(attempts)));
+        log.warn("Outbox entry {} for order {} ({}) failed attempt {}: {}",
+                entry.getId(), entry.getOrderId(), entry.getConsumer(), attempts, failure.toString());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static String describe(Throwable failure) {
+        String description = failure.toString();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+}
@@ -1,27 +1,44 @@
 package com.ecommerce.orderprocessing.order.service;
 
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateRequest;
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateResponse;
 import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
 import com.ecommerce.orderprocessing.order.dto.OrderResponse;
 import com.ecommerce.orderprocessing.order.dto.UpdateOrderStatusRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
 import org.springframework.data.domain.Pageable;
 
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public interface OrderService {
     CompletableFuture<OrderResponse> createOrder(CreateOrderRequest request);
 
+    /**
+     * Creates the order for a queued submission. A submission that already has an order, because an
+     * earlier attempt got part of the way, resumes that order rather than creating a second one.
+     */
+    CompletableFuture<OrderResponse> createOrder(CreateOrderRequest request, UUID submissionId);
+
     CompletableFuture<OrderResponse> getOrder(Long orderId);
 
     CompletableFuture<PagedResponse<OrderResponse>> getCustomerOrders(Long customerId, Pageable pageable);
 
+    CompletableFuture<CursorPagedResponse<OrderResponse>> getCustomerOrders(Long customerId, CursorPageRequest pageRequest);
+
     CompletableFuture<OrderResponse> updateOrderStatus(Long orderId, UpdateOrderStatusRequest request);
 
+    CompletableFuture<BulkStatusUpdateResponse> updateOrderStatuses(BulkStatusUpdateRequest request);
+
     CompletableFuture<PaymentResponse> processOrderPayment(PaymentRequest paymentRequest);
 
     CompletableFuture<OrderResponse> cancelOrder(Long orderId, String reason);
 
     CompletableFuture<PagedResponse<OrderResponse>> getAllOrders(Pageable pageable);
+
+    CompletableFuture<CursorPagedResponse<OrderResponse>> getAllOrders(CursorPageRequest pageRequest);
 }
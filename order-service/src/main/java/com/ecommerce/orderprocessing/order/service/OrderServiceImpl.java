@@ -1,255 +1,600 @@
 package com.ecommerce.orderprocessing.order.service;
 
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
 import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
 import com.ecommerce.orderprocessing.order.domain.entity.Order;
 import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
 import com.ecommerce.orderprocessing.order.dto.*;
+import com.ecommerce.orderprocessing.order.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
 import com.ecommerce.orderprocessing.order.exception.InvalidOrderStateException;
-import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderIdAndStatus;
 import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderTransition;
+import com.ecommerce.orderprocessing.payment.dto.AuthorizationRequest;
+import com.ecommerce.orderprocessing.payment.dto.AuthorizationResponse;
 import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.concurrent.Futures;
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
+import com.ecommerce.orderprocessing.common.pagination.KeysetCursor;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
 import com.ecommerce.orderprocessing.payment.dto.RefundRequest;
+import com.ecommerce.orderprocessing.payment.dto.VoidRequest;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
 import com.ecommerce.orderprocessing.product.ProductResponse;
-import com.ecommerce.orderprocessing.inventory.service.InventoryService;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
 import com.ecommerce.orderprocessing.payment.service.PaymentService;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
 import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
-import com.ecommerce.orderprocessing.user.dto.UserResponse;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import com.ecommerce.orderprocessing.user.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final OrderCreationPipeline orderCreationPipeline;
     private final ProductCatalogService productCatalogService;
-    private final InventoryService inventoryService;
+    private final InventoryHoldService inventoryHoldService;
     private final PaymentService paymentService;
     private final UserService userService;
+    private final SalesAggregateService salesAggregateService;
+    private final OrderOutbox orderOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Bulkhead databaseBulkhead;
     private final ExecutorService virtualThreadExecutor;
+    private final boolean captureOnShip;
 
-    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+    public OrderServiceImpl(OrderRepository orderRepository, OrderCreationPipeline orderCreationPipeline,
                             ProductCatalogService productCatalogService,
-                            InventoryService inventoryService, PaymentService paymentService,
+                            InventoryHoldService inventoryHoldService,
+                            PaymentService paymentService,
                             UserService userService,
-                            ExecutorService virtualThreadExecutor) {
+                            SalesAggregateService salesAggregateService,
+                            OrderOutbox orderOutbox,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Qualifier("databaseBulkhead") Bulkhead databaseBulkhead,
+                            ExecutorService virtualThreadExecutor,
+                            @Value("${app.orders.payment.capture-on-ship:false}") boolean captureOnShip) {
         this.orderRepository = orderRepository;
-        this.orderItemRepository = orderItemRepository;
+        this.orderCreationPipeline = orderCreationPipeline;
         this.productCatalogService = productCatalogService;
-        this.inventoryService = inventoryService;
+        this.inventoryHoldService = inventoryHoldService;
         this.paymentService = paymentService;
         this.userService = userService;
+        this.salesAggregateService = salesAggregateService;
+        this.orderOutbox = orderOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.databaseBulkhead = databaseBulkhead;
         this.virtualThreadExecutor = virtualThreadExecutor;
+        this.captureOnShip = captureOnShip;
     }
 
     @Override
     @Transactional
     public CompletableFuture<OrderResponse> createOrder(CreateOrderRequest request) {
-        return CompletableFuture.supplyAsync(() -> {
+        return createOrder(request, null);
+    }
+
+    @Override
+    public CompletableFuture<OrderResponse> createOrder(CreateOrderRequest request, UUID submissionId) {
+        CompletableFuture<Order> existingOrder = submissionId == null ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() ->
+                        orderRepository.findWithItemsBySubmissionId(submissionId).orElse(null)), virtualThreadExecutor);
+
+        return Futures.compose(existingOrder, existing -> existing != null
+                ? resumeOrder(existing, request)
+                : startOrder(request, submissionId));
+    }
+
+    private CompletableFuture<OrderResponse> startOrder(CreateOrderRequest request, UUID submissionId) {
+        CompletableFuture<Order> savedOrder = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> {
             var order = new Order();
             order.setCustomerId(request.customerId());
             order.setStatus(OrderStatus.PENDING);
+            order.setSubmissionId(submissionId);
+            return orderRepository.save(order);
+        }), virtualThreadExecutor);
 
-            var savedOrder = orderRepository.save(order);
+        return Futures.compose(savedOrder, order -> buildOrder(order, request));
+    }
 
-            List<OrderItem> orderItems = request.orderItems().stream()
-                    .map(itemRequest -> createOrderItem(itemRequest, savedOrder).join())
-                    .collect(Collectors.toList());
+    /**
+     * Picks up an order left behind by an earlier attempt of the same submission from where that
+     * attempt stopped.
+     */
+    private CompletableFuture<OrderResponse> resumeOrder(Order order, CreateOrderRequest request) {
+        List<OrderItem> orderItems = order.getOrderItems();
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return toOrderResponse(order, orderItems);
+        }
+        if (orderItems.isEmpty()) {
+            // Stopped before its items were saved: return any stock it still holds and build them again
+            return Futures.compose(inventoryHoldService.releaseHolds(order.getId()),
+                    released -> buildOrder(order, request));
+        }
+        if (order.isCreationComplete()) {
+            return toOrderResponse(order, orderItems);
+        }
+        return completeOrder(order, orderItems);
+    }
 
-            BigDecimal totalAmount = orderItems.stream()
-                    .map(OrderItem::getSubtotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private CompletableFuture<OrderResponse> buildOrder(Order order, CreateOrderRequest request) {
+        return Futures.compose(orderCreationPipeline.createOrderItems(order, request.orderItems()),
+                orderItems -> completeOrder(order, orderItems));
+    }
 
-            savedOrder.setTotalAmount(totalAmount);
-            orderRepository.save(savedOrder);
+    private CompletableFuture<OrderResponse> completeOrder(Order order, List<OrderItem> orderItems) {
+        BigDecimal totalAmount = totalAmount(orderItems);
 
-            return toOrderResponse(savedOrder, orderItems);
-        }, virtualThreadExecutor);
+        Order current = databaseBulkhead.call(() -> transactionTemplate.execute(status -> {
+            if (orderRepository.completeCreation(order.getId(), totalAmount, LocalDateTime.now()) == 0) {
+                // Cancelled while its items were being created: report that instead of overwriting it
+                return orderRepository.findWithItemsById(order.getId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+            }
+            order.setTotalAmount(totalAmount);
+            order.setCreationComplete(true);
+            salesAggregateService.recordOrder(order, orderItems);
+            return order;
+        }));
+        if (current == order) {
+            eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), order.getCustomerId(),
+                    quantitiesByProduct(orderItems), order.getCreatedAt()));
+        }
+
+        return toOrderResponse(current, orderItems);
+    }
+
+    private static BigDecimal totalAmount(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     @Override
     public CompletableFuture<OrderResponse> getOrder(Long orderId) {
-        return CompletableFuture.supplyAsync(() -> {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-            return toOrderResponse(order, order.getOrderItems());
-        }, virtualThreadExecutor);
+        return Futures.compose(findOrder(orderId), order -> toOrderResponse(order, order.getOrderItems()));
     }
 
     @Override
     public CompletableFuture<PagedResponse<OrderResponse>> getCustomerOrders(Long customerId, Pageable pageable) {
-        return CompletableFuture.supplyAsync(() -> {
-            var orderPage = orderRepository.findByCustomerId(customerId, pageable);
-
-            List<OrderResponse> orderResponses = orderPage.getContent().stream()
-                    .map(order -> toOrderResponse(order, order.getOrderItems()))
-                    .collect(Collectors.toList());
-
-            return new PagedResponse<>(
-                    orderResponses,
-                    orderPage.getNumber(),
-                    orderPage.getSize(),
-                    orderPage.getTotalElements(),
-                    orderPage.getTotalPages(),
-                    orderPage.isFirst(),
-                    orderPage.isLast(),
-                    orderPage.hasNext(),
-                    orderPage.hasPrevious()
-            );
-        }, virtualThreadExecutor);
+        CompletableFuture<Page<Order>> orderPage = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() ->
+                withItems(orderRepository.findIdsByCustomerId(customerId, pageable))), virtualThreadExecutor);
+        return Futures.compose(orderPage, this::toPagedResponse);
+    }
+
+    @Override
+    public CompletableFuture<CursorPagedResponse<OrderResponse>> getCustomerOrders(Long customerId, CursorPageRequest pageRequest) {
+        KeysetCursor after = pageRequest.after();
+        return listByCursor(pageRequest,
+                limit -> after == null
+                        ? orderRepository.findIdsByCustomerIdNewestFirst(customerId, limit)
+                        : orderRepository.findIdsByCustomerIdNewestFirstBefore(customerId, after.createdAt(), after.id(), limit),
+                () -> orderRepository.countByCustomerId(customerId));
     }
 
     @Override
     @Transactional
     public CompletableFuture<OrderResponse> updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
-        return CompletableFuture.supplyAsync(() -> {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-            OrderStatus newStatus = OrderStatus.valueOf(request.status());
-
-            if (!order.canTransitionTo(newStatus)) {
-                throw new InvalidOrderStateException(order.getStatus().toString(), newStatus.toString());
-            }
-
-            order.updateStatus(newStatus);
-            if (request.notes() != null) {
-                order.setNotes(request.notes());
-            }
+        CompletableFuture<Order> updatedOrder = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> transactionTemplate.execute(status ->
+                transition(orderId, OrderStatus.valueOf(request.status()), request.notes(), null))), virtualThreadExecutor);
+        return Futures.compose(updatedOrder, order -> toOrderResponse(order, order.getOrderItems()));
+    }
 
-            order = orderRepository.save(order);
-            return toOrderResponse(order, order.getOrderItems());
-        }, virtualThreadExecutor);
+    /**
+     * Moves many orders to one status in a single set-based update, for fulfilment waves. Each
+     * order is checked against the transition table as in {@link #updateOrderStatus}; orders that
+     * cannot move are reported rather than failing the batch, and no order is rendered.
+     */
+    @Override
+    public CompletableFuture<BulkStatusUpdateResponse> updateOrderStatuses(BulkStatusUpdateRequest request) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> transactionTemplate.execute(status ->
+                transitionAll(List.copyOf(new LinkedHashSet<>(request.orderIds())), OrderStatus.valueOf(request.status()),
+                        request.notes()))), virtualThreadExecutor);
     }
 
+    /**
+     * Pays for a pending order. With {@code app.orders.payment.capture-on-ship} the payment is only
+     * authorized here, and {@link PaymentCaptureConsumer} captures it once the order ships; the
+     * response then has status AUTHORIZED and the authorization id as its transaction id. Otherwise,
+     * the default, the order is charged in one step.
+     */
     @Override
     @Transactional
     public CompletableFuture<PaymentResponse> processOrderPayment(PaymentRequest paymentRequest) {
-        return CompletableFuture.supplyAsync(() -> {
-            Order order = orderRepository.findById(paymentRequest.orderId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
+        CompletableFuture<Order> pendingOrder = findOrder(paymentRequest.orderId()).thenApply(order -> {
             if (order.getStatus() != OrderStatus.PENDING) {
                 throw new InvalidOrderStateException(order.getStatus().toString(), "PAID");
             }
+            // The amount comes from the client, and an authorization is later captured for the order total
+            if (paymentRequest.amount() == null || paymentRequest.amount().compareTo(order.getTotalAmount()) != 0) {
+                throw new BadRequestException(String.format("Payment amount %s does not match the order total %s",
+                        paymentRequest.amount(), order.getTotalAmount()));
+            }
+            return order;
+        });
+
+        // Make the stock deduction permanent before charging, so an expired hold is never paid for
+        return Futures.compose(pendingOrder, order -> Futures.compose(
+                inventoryHoldService.commitHolds(order.getId(), quantitiesByProduct(order.getOrderItems())),
+                committed -> (captureOnShip ? authorizeOrder(order, paymentRequest) : chargeOrder(order, paymentRequest))
+                        .handle((paymentResponse, ex) -> ex == null
+                                ? CompletableFuture.completedFuture(paymentResponse)
+                                : reinstateUnpaidHolds(order.getId(), committed)
+                                        .thenCompose(ignored -> CompletableFuture.<PaymentResponse>failedFuture(ex)))
+                        .thenCompose(Function.identity())));
+    }
 
-            return paymentService.processPayment(paymentRequest).thenApply(paymentResponse -> {
-                if ("SUCCESS".equals(paymentResponse.status())) {
-                    order.setPaymentId(paymentResponse.paymentId());
-                    order.updateStatus(OrderStatus.PAID);
-                    orderRepository.save(order);
-                } else {
-                    throw new PaymentProcessingException(String.format("Payment failed for order %s: %s",
-                            paymentResponse.paymentId(), paymentResponse.message()));
-                }
-                return paymentResponse;
-            }).join();
-        }, virtualThreadExecutor);
+    /**
+     * Gives the holds a failed payment committed a fresh hold window, to retry payment or to expire,
+     * unless the order was paid after all. A cancelled order gets them back too: its cancellation
+     * found no live holds to release, so expiring them is what returns the stock.
+     */
+    private CompletableFuture<Void> reinstateUnpaidHolds(Long orderId, List<Long> holdIds) {
+        if (holdIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> orderRepository.findStatusesByIdIn(List.of(orderId))),
+                        virtualThreadExecutor)
+                .thenCompose(orders -> orders.stream().allMatch(o -> o.status() == OrderStatus.PENDING || o.status() == OrderStatus.CANCELLED)
+                        ? inventoryHoldService.reinstateHolds(holdIds)
+                        : CompletableFuture.completedFuture(null))
+                .exceptionally(ex -> {
+                    log.error("Could not reinstate holds {} of order {} after a failed payment", holdIds, orderId, ex);
+                    return null;
+                });
     }
 
+    /**
+     * Cancels the order in one transaction. The refund and the stock release are recorded in the
+     * order outbox with the status change and carried out by the outbox relay, so a slow or failing
+     * gateway never blocks the cancellation and is retried until it succeeds.
+     */
     @Override
     @Transactional
     public CompletableFuture<OrderResponse> cancelOrder(Long orderId, String reason) {
-        return CompletableFuture.supplyAsync(() -> {
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        CompletableFuture<Order> cancelledOrder = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> transactionTemplate.execute(status ->
+                transition(orderId, OrderStatus.CANCELLED, reason, null))), virtualThreadExecutor);
+        return Futures.compose(cancelledOrder, order -> toOrderResponse(order, order.getOrderItems()));
+    }
 
-            if (!order.canTransitionTo(OrderStatus.CANCELLED)) {
-                throw new InvalidOrderStateException(order.getStatus().toString(), "CANCELLED");
+    @Override
+    public CompletableFuture<PagedResponse<OrderResponse>> getAllOrders(Pageable pageable) {
+        CompletableFuture<Page<Order>> orderPage = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() ->
+                withItems(orderRepository.findAllIds(pageable))), virtualThreadExecutor);
+        return Futures.compose(orderPage, this::toPagedResponse);
+    }
+
+    @Override
+    public CompletableFuture<CursorPagedResponse<OrderResponse>> getAllOrders(CursorPageRequest pageRequest) {
+        KeysetCursor after = pageRequest.after();
+        return listByCursor(pageRequest,
+                limit -> after == null
+                        ? orderRepository.findIdsNewestFirst(limit)
+                        : orderRepository.findIdsNewestFirstBefore(after.createdAt(), after.id(), limit),
+                orderRepository::count);
+    }
+
+    private CompletableFuture<Order> findOrder(Long orderId) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"))), virtualThreadExecutor);
+    }
+
+    /**
+     * Loads the orders of an id page with their items in one query, so rendering the page touches
+     * no lazy collections: two bounded queries per page however many orders it holds.
+     */
+    private Page<Order> withItems(Page<Long> idPage) {
+        return new PageImpl<>(withItems(idPage.getContent()), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private List<Order> withItems(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Order> ordersById = orderRepository.findWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        // Keep the page's sort order; skip orders deleted between the two queries
+        return orderIds.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Reads one keyset page: one row past the page size tells whether another page follows, and the
+     * total is only counted on request.
+     */
+    private CompletableFuture<CursorPagedResponse<OrderResponse>> listByCursor(CursorPageRequest pageRequest,
+                                                                               Function<Limit, List<Long>> idQuery,
+                                                                               Supplier<Long> countQuery) {
+        int size = pageRequest.size();
+        CompletableFuture<List<Order>> orders = CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() ->
+                withItems(idQuery.apply(Limit.of(size + 1)))), virtualThreadExecutor);
+        CompletableFuture<Long> total = pageRequest.includeTotal()
+                ? CompletableFuture.supplyAsync(() -> databaseBulkhead.call(countQuery), virtualThreadExecutor)
+                : CompletableFuture.completedFuture(null);
+
+        return Futures.compose(orders, slice -> {
+            boolean hasNext = slice.size() > size;
+            List<Order> page = hasNext ? slice.subList(0, size) : slice;
+            String nextCursor = hasNext
+                    ? new KeysetCursor(page.get(size - 1).getCreatedAt(), page.get(size - 1).getId()).encode()
+                    : null;
+            return Futures.combine(toOrderResponses(page), total, (orderResponses, totalElements) ->
+                    new CursorPagedResponse<>(orderResponses, size, nextCursor, hasNext, totalElements));
+        });
+    }
+
+    /**
+     * Charges the order under the key of its current payment attempt. A charge that timed out may
+     * still have gone through, so only a decline moves the order to a new attempt: retrying after
+     * a timeout replays the same charge at the gateway instead of making a second one.
+     */
+    private CompletableFuture<PaymentResponse> chargeOrder(Order order, PaymentRequest paymentRequest) {
+        PaymentRequest charge = paymentRequest.withIdempotencyKey(
+                "charge-order-" + order.getId() + "-" + order.getPaymentAttempt());
+        // The gateway completes on its own threads; hop back onto ours before touching the database
+        return paymentService.processPayment(charge).thenApplyAsync(paymentResponse -> {
+            if (!"SUCCESS".equals(paymentResponse.status())) {
+                throw declined(order, String.format("Payment failed for order %s: %s",
+                        paymentResponse.paymentId(), paymentResponse.message()));
             }
+            try {
+                Order paidOrder = databaseBulkhead.call(() -> transactionTemplate.execute(status ->
+                        transition(order.getId(), OrderStatus.PAID, null, paymentResponse.paymentId())));
+                order.setStatus(paidOrder.getStatus());
+                order.setPaymentId(paidOrder.getPaymentId());
+            } catch (InvalidOrderStateException ex) {
+                // Cancelled, or paid by another attempt, while the charge was in flight. Either way this
+                // charge is not the order's payment, and nothing else will refund it
+                refundLostCharge(order, paymentResponse);
+                throw ex;
+            }
+            return paymentResponse;
+        }, virtualThreadExecutor);
+    }
 
-            if (order.getStatus() == OrderStatus.PAID) {
-                // Construct RefundRequest with necessary details
-                RefundRequest refundRequest = new RefundRequest(
-                        order.getPaymentId(),
-                        order.getTotalAmount(),
-                        reason, // Use the cancellation reason as refund reason
-                        UUID.randomUUID().toString() // Generate a unique idempotency key
-                );
-                paymentService.refundPayment(refundRequest).join();
+    /**
+     * Authorizes the payment under the key of the order's current payment attempt, like
+     * {@link #chargeOrder}: a declined attempt is never answered again, and one that timed out is
+     * replayed rather than authorized twice.
+     */
+    private CompletableFuture<PaymentResponse> authorizeOrder(Order order, PaymentRequest paymentRequest) {
+        AuthorizationRequest authorizationRequest = new AuthorizationRequest(order.getId(), paymentRequest.paymentMethod(),
+                paymentRequest.amount(), paymentRequest.currency(), String.valueOf(order.getCustomerId()), null,
+                "authorize-order-" + order.getId() + "-" + order.getPaymentAttempt());
+        return paymentService.authorizePayment(authorizationRequest).thenApplyAsync(authorization -> {
+            if (!"AUTHORIZED".equals(authorization.status())) {
+                throw declined(order, String.format("Payment authorization declined for order %s: %s",
+                        order.getId(), authorization.message()));
             }
+            try {
+                Order paidOrder = databaseBulkhead.call(() -> transactionTemplate.execute(status -> {
+                    Order authorizedOrder = transition(order.getId(), OrderStatus.PAID, null, null);
+                    orderRepository.recordAuthorization(order.getId(), authorization.authorizationId());
+                    return authorizedOrder;
+                }));
+                order.setStatus(paidOrder.getStatus());
+                order.setAuthorizationId(authorization.authorizationId());
+                order.setCaptureStatus(CaptureStatus.AUTHORIZED);
+            } catch (InvalidOrderStateException ex) {
+                // Cancelled, or paid by another attempt, while the authorization was in flight. The
+                // authorization was created for this attempt alone, so voiding it touches no other
+                voidLostAuthorization(order, authorization);
+                throw ex;
+            }
+            return new PaymentResponse(authorization.authorizationId(), order.getId(), authorization.status(),
+                    authorization.amount(), authorization.currency(), paymentRequest.paymentMethod(),
+                    authorization.authorizedAt(), authorization.authorizationId(), authorization.message());
+        }, virtualThreadExecutor);
+    }
 
-            if (order.getStatus() == OrderStatus.PENDING || order.getStatus() == OrderStatus.PAID) {
-                order.getOrderItems().forEach(orderItem -> {
-                    inventoryService.releaseInventory(orderItem.getProductId(), orderItem.getQuantity());
-                });
+    /**
+     * Moves the order to its next payment attempt, whose key the gateway has not seen. If that
+     * fails, a retry replays this decline until the attempt is moved on.
+     */
+    private PaymentProcessingException declined(Order order, String message) {
+        try {
+            databaseBulkhead.call(() -> orderRepository.advancePaymentAttempt(order.getId(), order.getPaymentAttempt()));
+        } catch (RuntimeException ex) {
+            log.error("Could not move order {} past declined payment attempt {}", order.getId(), order.getPaymentAttempt(), ex);
+        }
+        return new PaymentProcessingException(message);
+    }
+
+    private void refundLostCharge(Order order, PaymentResponse paymentResponse) {
+        RefundRequest refundRequest = new RefundRequest(paymentResponse.paymentId(), paymentResponse.amount(),
+                "Order cancelled or paid by another attempt during payment", "refund-" + paymentResponse.paymentId());
+        paymentService.refundPayment(refundRequest).whenComplete((refundResponse, ex) -> {
+            if (ex != null || !"SUCCESS".equals(refundResponse.status())) {
+                log.error("Could not refund payment {} of order {} that was no longer payable; refund it manually",
+                        paymentResponse.paymentId(), order.getId(), ex);
+            }
+        });
+    }
+
+    private void voidLostAuthorization(Order order, AuthorizationResponse authorization) {
+        VoidRequest voidRequest = new VoidRequest(authorization.authorizationId(), "Order cancelled during payment",
+                "void-" + authorization.authorizationId());
+        paymentService.voidPayment(voidRequest).whenComplete((voidResponse, ex) -> {
+            if (ex != null || !"VOIDED".equals(voidResponse.status())) {
+                log.error("Could not void authorization {} of order {} cancelled during payment; void it manually",
+                        authorization.authorizationId(), order.getId(), ex);
             }
+        });
+    }
 
-            order.updateStatus(OrderStatus.CANCELLED);
-            order.setNotes(reason);
-            order = orderRepository.save(order);
+    /**
+     * Applies a status transition as a compare-and-set on the order's current status, so of several
+     * concurrent transitions from the same status exactly one wins and records its side effects. A
+     * loser re-reads the order and re-checks its transition against the status that won; the state
+     * machine has no cycles, so this settles within a few rounds. Call inside a transaction.
+     *
+     * @param notes     replaces the order's notes unless null
+     * @param paymentId set on the order unless null
+     */
+    private Order transition(Long orderId, OrderStatus newStatus, String notes, String paymentId) {
+        for (int round = 0; round < OrderStatus.values().length; round++) {
+            Order order = orderRepository.findWithItemsById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+            OrderStatus previousStatus = order.getStatus();
+            if (!previousStatus.canTransitionTo(newStatus)) {
+                throw new InvalidOrderStateException(previousStatus.toString(), newStatus.toString());
+            }
+            if (orderRepository.compareAndSetStatus(orderId, previousStatus, newStatus, notes, paymentId, LocalDateTime.now()) == 1) {
+                order.updateStatus(newStatus);
+                if (notes != null) {
+                    order.setNotes(notes);
+                }
+                if (paymentId != null) {
+                    order.setPaymentId(paymentId);
+                }
+                recordStatusChange(order, previousStatus);
+                return order;
+            }
+        }
+        throw new IllegalStateException("Order " + orderId + " kept changing status while moving to " + newStatus);
+    }
 
-            return toOrderResponse(order, order.getOrderItems());
-        }, virtualThreadExecutor);
+    private BulkStatusUpdateResponse transitionAll(List<Long> orderIds, OrderStatus newStatus, String notes) {
+        List<String> fromStatuses = Arrays.stream(OrderStatus.values())
+                .filter(from -> from.canTransitionTo(newStatus))
+                .map(OrderStatus::name)
+                .toList();
+        Map<Long, OrderStatus> moved = fromStatuses.isEmpty() ? Map.of() : orderRepository
+                .transitionAll(orderIds, fromStatuses, newStatus.name(), notes, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(OrderTransition::getId, row -> OrderStatus.valueOf(row.getPreviousStatus())));
+        if (!moved.isEmpty()) {
+            // Sales totals and outbox events need the items: one query for the whole wave
+            for (Order order : orderRepository.findWithItemsByIdIn(moved.keySet())) {
+                recordStatusChange(order, moved.get(order.getId()));
+            }
+        }
+
+        List<Long> notMoved = orderIds.stream().filter(id -> !moved.containsKey(id)).toList();
+        Map<Long, OrderStatus> currentStatuses = notMoved.isEmpty() ? Map.of() : orderRepository.findStatusesByIdIn(notMoved).stream()
+                .collect(Collectors.toMap(OrderIdAndStatus::id, OrderIdAndStatus::status));
+        List<BulkStatusUpdateResponse.Result> results = orderIds.stream()
+                .map(orderId -> {
+                    OrderStatus previousStatus = moved.get(orderId);
+                    if (previousStatus != null) {
+                        return new BulkStatusUpdateResponse.Result(orderId, true, previousStatus.name(), null);
+                    }
+                    OrderStatus currentStatus = currentStatuses.get(orderId);
+                    String error = currentStatus == null
+                            ? "Order not found"
+                            : new InvalidOrderStateException(currentStatus.name(), newStatus.name()).getMessage();
+                    return new BulkStatusUpdateResponse.Result(orderId, false, null, error);
+                })
+                .toList();
+        return new BulkStatusUpdateResponse(newStatus.name(), moved.size(), orderIds.size() - moved.size(), results);
     }
 
-    @Override
-    public CompletableFuture<PagedResponse<OrderResponse>> getAllOrders(Pageable pageable) {
-        return CompletableFuture.supplyAsync(() -> {
-            var orderPage = orderRepository.findAll(pageable);
-
-            List<OrderResponse> orderResponses = orderPage.getContent().stream()
-                    .map(order -> toOrderResponse(order, order.getOrderItems()))
-                    .collect(Collectors.toList());
-
-            return new PagedResponse<>(
-                    orderResponses,
-                    orderPage.getNumber(),
-                    orderPage.getSize(),
-                    orderPage.getTotalElements(),
-                    orderPage.getTotalPages(),
-                    orderPage.isFirst(),
-                    orderPage.isLast(),
-                    orderPage.hasNext(),
-                    orderPage.hasPrevious()
-            );
-        }, virtualThreadExecutor);
+    /**
+     * Keeps the sales totals in step and records the change in the order outbox. Call inside the
+     * transaction that saves the order.
+     */
+    private void recordStatusChange(Order order, OrderStatus previousStatus) {
+        salesAggregateService.onStatusChange(order, previousStatus);
+        orderOutbox.append(new OrderStatusChangedEvent(order.getId(), order.getCustomerId(), previousStatus,
+                order.getStatus(), order.getPaymentId(), order.getAuthorizationId(), order.getTotalAmount(),
+                quantitiesByProduct(order.getOrderItems()), order.getNotes(), LocalDateTime.now()));
     }
 
-    private CompletableFuture<OrderItem> createOrderItem(CreateOrderItemRequest itemRequest, Order order) {
-        return CompletableFuture.supplyAsync(() -> {
-            ProductResponse productResponse = productCatalogService.getProductById(itemRequest.productId()).join();
+    private Map<Long, Integer> quantitiesByProduct(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum));
+    }
 
-            inventoryService.reserveInventory(productResponse.id(), itemRequest.quantity()).join();
+    private CompletableFuture<PagedResponse<OrderResponse>> toPagedResponse(Page<Order> orderPage) {
+        return toOrderResponses(orderPage.getContent()).thenApply(orderResponses -> new PagedResponse<>(
+                orderResponses,
+                orderPage.getNumber(),
+                orderPage.getSize(),
+                orderPage.getTotalElements(),
+                orderPage.getTotalPages(),
+                orderPage.isFirst(),
+                orderPage.isLast(),
+                orderPage.hasNext(),
+                orderPage.hasPrevious()
+        ));
+    }
 
-            var orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProductId(productResponse.id());
-            orderItem.setQuantity(itemRequest.quantity());
-            orderItem.setUnitPrice(productResponse.price());
+    private CompletableFuture<List<OrderResponse>> toOrderResponses(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        CompletableFuture<Map<Long, ProductResponse>> products = loadProducts(orders.stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .toList());
+        CompletableFuture<Map<Long, CustomerSummary>> customers = userService.getCustomerSummaries(orders.stream()
+                .map(Order::getCustomerId)
+                .collect(Collectors.toSet()));
+        return Futures.combine(products, customers, (productsById, customersById) -> orders.stream()
+                .map(order -> toOrderResponse(order, order.getOrderItems(), productsById, customersById))
+                .collect(Collectors.toList()));
+    }
 
-            return orderItemRepository.save(orderItem);
-        }, virtualThreadExecutor);
+    private CompletableFuture<OrderResponse> toOrderResponse(Order order, List<OrderItem> orderItems) {
+        return Futures.combine(loadProducts(orderItems), userService.getCustomerSummaries(Set.of(order.getCustomerId())),
+                (products, customers) -> toOrderResponse(order, orderItems, products, customers));
     }
 
-    private OrderResponse toOrderResponse(Order order, List<OrderItem> orderItems) {
+    private OrderResponse toOrderResponse(Order order, List<OrderItem> orderItems, Map<Long, ProductResponse> products,
+                                          Map<Long, CustomerSummary> customers) {
         List<OrderItemResponse> itemResponses = orderItems.stream()
-                .map(this::toOrderItemResponse)
+                .map(orderItem -> toOrderItemResponse(orderItem, products))
                 .collect(Collectors.toList());
 
-        // Fetch customer details using UserService
-        UserResponse userResponse = userService.getUserProfile(order.getCustomerId()).join();
+        CustomerSummary customer = customers.get(order.getCustomerId());
+        if (customer == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
         return new OrderResponse(
                 order.getId(),
-                userResponse.id(),
-                userResponse.firstName() + " " + userResponse.lastName(),
-                userResponse.email(),
+                customer.id(),
+                customer.fullName(),
+                customer.email(),
                 order.getStatus().toString(),
                 order.getTotalAmount(),
                 order.getShippingAddress(),
@@ -261,8 +606,21 @@ public class OrderServiceImpl implements OrderService {
         );
     }
 
-    private OrderItemResponse toOrderItemResponse(OrderItem orderItem) {
-        ProductResponse productResponse = productCatalogService.getProductById(orderItem.getProductId()).join();
+    private CompletableFuture<Map<Long, ProductResponse>> loadProducts(List<OrderItem> orderItems) {
+        Set<Long> productIds = orderItems.stream()
+                .map(OrderItem::getProductId)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        return productCatalogService.getProductsByIds(productIds);
+    }
+
+    private OrderItemResponse toOrderItemResponse(OrderItem orderItem, Map<Long, ProductResponse> products) {
+        ProductResponse productResponse = products.get(orderItem.getProductId());
+        if (productResponse == null) {
+            throw new ResourceNotFoundException("Product not found with ID: " + orderItem.getProductId());
+        }
         return new OrderItemResponse(
                 orderItem.getId(),
                 productResponse.id(),
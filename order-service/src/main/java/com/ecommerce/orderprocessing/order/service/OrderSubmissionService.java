@@ -0,0 +1,114 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.concurrent.Futures;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderSubmissionResponse;
+import com.ecommerce.orderprocessing.order.repository.OrderSubmissionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Asynchronous order intake: accepts a {@link CreateOrderRequest} by storing it, and reports on it
+ * while the {@link OrderSubmissionWorker} creates the order.
+ * <p>
+ * Accepting a submission is one insert, so a spike of orders costs a queue of rows rather than a
+ * request per order held open for the whole create pipeline. Once
+ * {@code app.orders.intake.max-pending} submissions are queued or in progress, new ones are
+ * rejected with a {@link BulkheadFullException} until the backlog drains.
+ */
+@Service
+public class OrderSubmissionService {
+
+    private static final Set<SubmissionStatus> PENDING = EnumSet.of(SubmissionStatus.QUEUED, SubmissionStatus.PROCESSING);
+
+    private final OrderSubmissionRepository orderSubmissionRepository;
+    private final OrderSubmissionWorker orderSubmissionWorker;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Bulkhead databaseBulkhead;
+    private final ExecutorService virtualThreadExecutor;
+    private final int maxPending;
+    private final Duration maxWait;
+
+    public OrderSubmissionService(OrderSubmissionRepository orderSubmissionRepository,
+                                  OrderSubmissionWorker orderSubmissionWorker,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("databaseBulkhead") Bulkhead databaseBulkhead,
+                                  ExecutorService virtualThreadExecutor,
+                                  @Value("${app.orders.intake.max-pending:10000}") int maxPending,
+                                  @Value("${app.orders.intake.max-wait:20s}") Duration maxWait) {
+        this.orderSubmissionRepository = orderSubmissionRepository;
+        this.orderSubmissionWorker = orderSubmissionWorker;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.databaseBulkhead = databaseBulkhead;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.maxPending = maxPending;
+        this.maxWait = maxWait;
+    }
+
+    public CompletableFuture<OrderSubmissionResponse> submit(CreateOrderRequest request) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> transactionTemplate.execute(status -> {
+            if (orderSubmissionRepository.countByStatusIn(PENDING) >= maxPending) {
+                throw new BulkheadFullException("order-intake", maxPending);
+            }
+            return orderSubmissionRepository.save(new OrderSubmission(request.customerId(), serialize(request)));
+        })), virtualThreadExecutor).thenApply(submission -> {
+            orderSubmissionWorker.wake();
+            return toResponse(submission);
+        });
+    }
+
+    /**
+     * The submission's current state. With a positive {@code wait}, an unfinished submission is
+     * held until it finishes or the wait (capped at {@code app.orders.intake.max-wait}) runs out,
+     * without occupying a thread meanwhile.
+     */
+    public CompletableFuture<OrderSubmissionResponse> getSubmission(UUID trackingId, Duration wait) {
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        if (timeout.isNegative() || timeout.isZero()) {
+            return findSubmission(trackingId).thenApply(this::toResponse);
+        }
+        // Register before reading, so a submission that finishes in between is not missed
+        CompletableFuture<Void> finished = orderSubmissionWorker.awaitFinished(trackingId, timeout);
+        return Futures.compose(findSubmission(trackingId), submission -> submission.getStatus().isFinished()
+                ? CompletableFuture.completedFuture(toResponse(submission))
+                : Futures.compose(finished, ignored -> findSubmission(trackingId)).thenApply(this::toResponse));
+    }
+
+    private CompletableFuture<OrderSubmission> findSubmission(UUID trackingId) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> orderSubmissionRepository.findById(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order submission not found"))), virtualThreadExecutor);
+    }
+
+    private OrderSubmissionResponse toResponse(OrderSubmission submission) {
+        return new OrderSubmissionResponse(submission.getId(), submission.getStatus().name(), submission.getOrderId(),
+                submission.getError(), submission.getCreatedAt(), submission.getCompletedAt());
+    }
+
+    private String serialize(CreateOrderRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order submission for customer " + request.customerId(), ex);
+        }
+    }
+}
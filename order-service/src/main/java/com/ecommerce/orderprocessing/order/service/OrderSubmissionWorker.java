@@ -0,0 +1,244 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderResponse;
+import com.ecommerce.orderprocessing.order.repository.OrderSubmissionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the orders queued in {@code order_submissions}.
+ * <p>
+ * At most {@code app.orders.intake.max-concurrent} submissions are in the create pipeline per
+ * instance. Free slots are filled by claiming that many queued submissions with
+ * {@code FOR UPDATE SKIP LOCKED}, so instances share the queue without taking the same submission.
+ * The queue is drained when a submission arrives, when one finishes and on every poll.
+ * <p>
+ * A submission claimed by an instance that stops before finishing it is queued again once the
+ * claim times out, so a submission may run more than once; it fails for good once its attempts run
+ * out. A full database bulkhead puts the submission back in the queue instead of failing it, to be
+ * claimed again after {@code app.orders.intake.retry-backoff}, doubled for every attempt made. Every
+ * attempt works on the order keyed by the submission id, so a retry resumes the order an earlier
+ * attempt started instead of creating another one.
+ */
+@Slf4j
+@Service
+public class OrderSubmissionWorker {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OrderSubmissionRepository orderSubmissionRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+    private final Semaphore slots;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final Map<UUID, Waiters> waiters = new ConcurrentHashMap<>();
+
+    public OrderSubmissionWorker(OrderSubmissionRepository orderSubmissionRepository,
+                                 OrderService orderService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 ExecutorService virtualThreadExecutor,
+                                 @Value("${app.orders.intake.max-concurrent:32}") int maxConcurrent,
+                                 @Value("${app.orders.intake.max-attempts:3}") int maxAttempts,
+                                 @Value("${app.orders.intake.claim-timeout:5m}") Duration claimTimeout,
+                                 @Value("${app.orders.intake.retry-backoff:1s}") Duration retryBackoff,
+                                 @Value("${app.orders.intake.retention:1d}") Duration retention) {
+        this.orderSubmissionRepository = orderSubmissionRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+    }
+
+    /**
+     * Queues stale claims again and picks up anything the event-driven drains missed.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.intake.poll-interval-ms:1000}")
+    public void poll() {
+        LocalDateTime claimedBefore = LocalDateTime.now().minus(claimTimeout);
+        transactionTemplate.executeWithoutResult(status -> {
+            int requeued = orderSubmissionRepository.requeueStale(claimedBefore, maxAttempts);
+            int failed = orderSubmissionRepository.failStale(claimedBefore, maxAttempts,
+                    "Not finished within " + claimTimeout + " after " + maxAttempts + " attempts", LocalDateTime.now());
+            if (requeued > 0 || failed > 0) {
+                log.warn("Recovered stale order submissions: {} queued again, {} failed", requeued, failed);
+            }
+        });
+        drain();
+    }
+
+    /**
+     * Deletes finished submissions older than the retention period.
+     */
+    @Scheduled(cron = "${app.orders.intake.cleanup-cron:0 15 4 * * *}")
+    public void purgeFinished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                orderSubmissionRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} finished order submissions", deleted);
+        }
+    }
+
+    /**
+     * Drains the queue in the background, so a new submission starts without waiting for the poll.
+     */
+    public void wake() {
+        virtualThreadExecutor.execute(this::drainQuietly);
+    }
+
+    /**
+     * Completes when this instance finishes the submission, or with {@code null} after
+     * {@code timeout}. A submission finished by another instance is only seen at the timeout, so
+     * callers re-read it either way.
+     */
+    public CompletableFuture<Void> awaitFinished(UUID submissionId, Duration timeout) {
+        Waiters registered = waiters.compute(submissionId, (id, current) -> {
+            Waiters next = current == null ? new Waiters() : current;
+            next.count++;
+            return next;
+        });
+        return registered.finished.copy()
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, ex) -> waiters.computeIfPresent(submissionId, (id, current) ->
+                        current != registered || --current.count > 0 ? current : null));
+    }
+
+    void drain() {
+        while (true) {
+            int free = slots.drainPermits();
+            if (free == 0) {
+                return;
+            }
+            List<OrderSubmission> claimed;
+            try {
+                claimed = transactionTemplate.execute(status -> claim(free));
+            } catch (RuntimeException ex) {
+                slots.release(free);
+                throw ex;
+            }
+            slots.release(free - claimed.size());
+            claimed.forEach(this::process);
+            if (claimed.size() < free) {
+                return;
+            }
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            log.warn("Could not drain the order submission queue; the next poll will retry", ex);
+        }
+    }
+
+    private List<OrderSubmission> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderSubmission> queued = orderSubmissionRepository.lockQueued(limit, now);
+        for (OrderSubmission submission : queued) {
+            submission.setStatus(SubmissionStatus.PROCESSING);
+            submission.setAttempts(submission.getAttempts() + 1);
+            submission.setClaimedAt(now);
+        }
+        return queued;
+    }
+
+    private void process(OrderSubmission submission) {
+        CompletableFuture<OrderResponse> created;
+        try {
+            created = orderService.createOrder(objectMapper.readValue(submission.getPayload(), CreateOrderRequest.class),
+                    submission.getId());
+        } catch (Exception ex) {
+            created = CompletableFuture.failedFuture(ex);
+        }
+        created.whenComplete((order, ex) -> {
+            try {
+                finish(submission, order, ex == null ? null : unwrap(ex));
+            } catch (RuntimeException finishFailure) {
+                // The claim times out and the submission is queued again
+                log.error("Could not record the outcome of order submission {}", submission.getId(), finishFailure);
+            } finally {
+                slots.release();
+                wake();
+            }
+        });
+    }
+
+    private void finish(OrderSubmission submission, OrderResponse order, Throwable failure) {
+        UUID id = submission.getId();
+        if (failure instanceof BulkheadFullException && submission.getAttempts() < maxAttempts) {
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(submission.getAttempts()));
+            transactionTemplate.executeWithoutResult(status -> orderSubmissionRepository.requeue(id, nextAttemptAt));
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (failure == null) {
+                orderSubmissionRepository.finish(id, SubmissionStatus.COMPLETED, order.id(), null, now);
+            } else {
+                orderSubmissionRepository.finish(id, SubmissionStatus.FAILED, null, describe(failure), now);
+            }
+        });
+        if (failure != null) {
+            log.warn("Order submission {} failed after {} attempt(s): {}", id, submission.getAttempts(), failure.toString());
+        }
+        Waiters finished = waiters.remove(id);
+        if (finished != null) {
+            finished.finished.complete(null);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        return retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static String describe(Throwable failure) {
+        String description = failure.getMessage() != null ? failure.getMessage() : failure.toString();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    /**
+     * Long-poll requests waiting on one submission. {@code count} is only changed inside
+     * {@link ConcurrentHashMap#compute}, which serializes updates per key.
+     */
+    private static final class Waiters {
+
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private int count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.payment.dto.CaptureRequest;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Captures the authorization of an order once it ships, and records the capture as the order's
+ * payment. Shipping waves are relayed in outbox batches, so their captures run concurrently and off
+ * the request path. The idempotency key is derived from the order id, so a delivery retried after
+ * a gateway error is recognised instead of capturing twice. A declined capture is final: the gateway
+ * would replay the decline for the same key, so it is recorded as {@link CaptureStatus#CAPTURE_FAILED}
+ * rather than retried.
+ */
+@Slf4j
+@Service
+public class PaymentCaptureConsumer implements OrderEventConsumer {
+
+    private final PaymentService paymentService;
+    private final OrderRepository orderRepository;
+    private final ExecutorService virtualThreadExecutor;
+
+    public PaymentCaptureConsumer(PaymentService paymentService, OrderRepository orderRepository,
+                                  ExecutorService virtualThreadExecutor) {
+        this.paymentService = paymentService;
+        this.orderRepository = orderRepository;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    @Override
+    public String name() {
+        return "payment-capture";
+    }
+
+    @Override
+    public boolean accepts(OrderStatusChangedEvent event) {
+        return event.status() == OrderStatus.SHIPPED && event.authorizationId() != null;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(OrderStatusChangedEvent event) {
+        CaptureRequest captureRequest = new CaptureRequest(
+                event.authorizationId(),
+                event.totalAmount(),
+                "capture-order-" + event.orderId()
+        );
+        // The gateway completes on its own threads; hop back onto ours before touching the database
+        return paymentService.capturePayment(captureRequest).thenAcceptAsync(captureResponse -> {
+            if (!"CAPTURED".equals(captureResponse.status())) {
+                log.error("Capture of authorization {} for shipped order {} was declined: {}; the order needs manual attention",
+                        event.authorizationId(), event.orderId(), captureResponse.message());
+                orderRepository.settleAuthorization(event.orderId(), event.authorizationId(), CaptureStatus.CAPTURE_FAILED,
+                        null, LocalDateTime.now());
+                return;
+            }
+            orderRepository.settleAuthorization(event.orderId(), event.authorizationId(), CaptureStatus.CAPTURED,
+                    captureResponse.captureId(), LocalDateTime.now());
+        }, virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,415 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.order.domain.entity.PaymentMismatch;
+import com.ecommerce.orderprocessing.order.domain.entity.ReconciliationRun;
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.MismatchType;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus;
+import com.ecommerce.orderprocessing.order.dto.PaymentMismatchResponse;
+import com.ecommerce.orderprocessing.order.dto.ReconciliationRunResponse;
+import com.ecommerce.orderprocessing.order.repository.OrderPaymentRef;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.order.repository.PaymentMismatchRepository;
+import com.ecommerce.orderprocessing.order.repository.ReconciliationRunRepository;
+import com.ecommerce.orderprocessing.payment.dto.PaymentStatusResponse;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the orders the gateway holds money for against the gateway and reports the ones it disagrees
+ * with. A charged or captured order's payment should be settled, and an order paid by authorization
+ * only should still be authorized. An order whose capture or void the gateway declined is reported
+ * without asking the gateway again.
+ * <p>
+ * A run reads the orders' payment references in keyset pages of {@code app.orders.reconciliation.page-size},
+ * in order id order, and looks each page up at the gateway with at most
+ * {@code app.orders.reconciliation.max-concurrent} lookups in flight, so a run over millions of
+ * orders holds one page in memory and leaves most of the gateway's capacity to live traffic. A page's
+ * mismatches and the run's checkpoint are saved in one transaction: an interrupted run is resumed
+ * after its last finished page and never reports an order twice.
+ * <p>
+ * The gateway shedding load (a full limit or an open breaker) pauses the page and retries the shed
+ * lookups after {@code app.orders.reconciliation.backoff}; once its attempts run out the run is interrupted, to be
+ * resumed later. Any other failed lookup is reported as a {@link MismatchType#LOOKUP_FAILED} mismatch
+ * so the run can move on.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationService {
+
+    private static final String SETTLED = "SUCCESS";
+    private static final String AUTHORIZED = "AUTHORIZED";
+    private static final Set<OrderStatus> RECONCILED_STATUSES =
+            EnumSet.of(OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OrderRepository orderRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final PaymentMismatchRepository paymentMismatchRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+    private final int pageSize;
+    private final int maxConcurrent;
+    private final Duration backoff;
+    private final int maxPageAttempts;
+    private final Duration staleAfter;
+
+    public PaymentReconciliationService(OrderRepository orderRepository,
+                                        ReconciliationRunRepository reconciliationRunRepository,
+                                        PaymentMismatchRepository paymentMismatchRepository,
+                                        PaymentService paymentService,
+                                        PlatformTransactionManager transactionManager,
+                                        ExecutorService virtualThreadExecutor,
+                                        @Value("${app.orders.reconciliation.page-size:500}") int pageSize,
+                                        @Value("${app.orders.reconciliation.max-concurrent:8}") int maxConcurrent,
+                                        @Value("${app.orders.reconciliation.backoff:5s}") Duration backoff,
+                                        @Value("${app.orders.reconciliation.max-page-attempts:5}") int maxPageAttempts,
+                                        @Value("${app.orders.reconciliation.stale-after:5m}") Duration staleAfter) {
+        this.orderRepository = orderRepository;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.paymentMismatchRepository = paymentMismatchRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.pageSize = pageSize;
+        this.maxConcurrent = maxConcurrent;
+        this.backoff = backoff;
+        this.maxPageAttempts = maxPageAttempts;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Starts a new run in the background, unless one is already running. Runs whose worker stopped
+     * are marked interrupted first; of several concurrent starts, the unique running slot lets one win.
+     *
+     * @throws BadRequestException if a run is in progress
+     */
+    public ReconciliationRunResponse start() {
+        UUID claimToken = UUID.randomUUID();
+        ReconciliationRun run;
+        try {
+            run = transactionTemplate.execute(status -> {
+                reconciliationRunRepository.interruptStale(LocalDateTime.now().minus(staleAfter));
+                return reconciliationRunRepository.saveAndFlush(new ReconciliationRun(claimToken));
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw new BadRequestException("A payment reconciliation run is already in progress");
+        }
+        log.info("Starting payment reconciliation run {}", run.getId());
+        launch(run.getId(), claimToken);
+        return toResponse(run);
+    }
+
+    /**
+     * Continues an interrupted run, or one whose worker has stopped, from its checkpoint.
+     *
+     * @throws BadRequestException if the run is completed or still running, or another run is running
+     */
+    public ReconciliationRunResponse resume(Long runId) {
+        UUID claimToken = UUID.randomUUID();
+        ReconciliationRun run;
+        try {
+            run = transactionTemplate.execute(status -> {
+                reconciliationRunRepository.interruptStale(LocalDateTime.now().minus(staleAfter));
+                ReconciliationRun existing = reconciliationRunRepository.findById(runId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found"));
+                if (reconciliationRunRepository.claim(runId, claimToken, LocalDateTime.now(),
+                        LocalDateTime.now().minus(staleAfter)) == 0) {
+                    throw new BadRequestException("Reconciliation run " + runId + " is " + existing.getStatus()
+                            + " and cannot be resumed");
+                }
+                return reconciliationRunRepository.findById(runId).orElseThrow();
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw new BadRequestException("Another payment reconciliation run is in progress");
+        }
+        log.info("Resuming payment reconciliation run {} after order {}", runId, run.getLastOrderId());
+        launch(runId, claimToken);
+        return toResponse(run);
+    }
+
+    /**
+     * Resumes the latest run if it was interrupted, and starts a new one otherwise. Disabled unless
+     * {@code app.orders.reconciliation.cron} is set.
+     */
+    @Scheduled(cron = "${app.orders.reconciliation.cron:-}")
+    public void reconcileOnSchedule() {
+        Optional<ReconciliationRun> latest = reconciliationRunRepository.findFirstByOrderByIdDesc();
+        try {
+            if (latest.isEmpty() || latest.get().getStatus() == ReconciliationStatus.COMPLETED) {
+                start();
+            } else {
+                resume(latest.get().getId());
+            }
+        } catch (BadRequestException ex) {
+            log.info("Skipping scheduled payment reconciliation: {}", ex.getMessage());
+        }
+    }
+
+    public ReconciliationRunResponse getRun(Long runId) {
+        return reconciliationRunRepository.findById(runId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found"));
+    }
+
+    public PagedResponse<PaymentMismatchResponse> getMismatches(Long runId, int page, int size) {
+        if (!reconciliationRunRepository.existsById(runId)) {
+            throw new ResourceNotFoundException("Reconciliation run not found");
+        }
+        Page<PaymentMismatch> mismatches = paymentMismatchRepository.findByRunId(runId,
+                PageRequest.of(page, size, Sort.by("id")));
+        return new PagedResponse<>(mismatches.map(this::toResponse).getContent(), mismatches.getNumber(),
+                mismatches.getSize(), mismatches.getTotalElements(), mismatches.getTotalPages());
+    }
+
+    private void launch(Long runId, UUID claimToken) {
+        virtualThreadExecutor.execute(() -> reconcile(runId, claimToken));
+    }
+
+    /**
+     * Works through the orders from the run's checkpoint to the end, then marks it completed,
+     * or interrupted if anything stops it on the way.
+     */
+    void reconcile(Long runId, UUID claimToken) {
+        try {
+            ReconciliationRun run = reconciliationRunRepository.findById(runId).orElseThrow();
+            long lastOrderId = run.getLastOrderId() != null ? run.getLastOrderId() : 0L;
+            List<OrderPaymentRef> page;
+            do {
+                page = orderRepository.findPaymentRefsAfter(RECONCILED_STATUSES, lastOrderId, Limit.of(pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<PaymentMismatch> mismatches = check(runId, page);
+                saveCheckpoint(runId, claimToken, page, mismatches);
+                lastOrderId = page.getLast().orderId();
+            } while (page.size() == pageSize);
+            finish(runId, claimToken, ReconciliationStatus.COMPLETED, null);
+            log.info("Payment reconciliation run {} completed", runId);
+        } catch (ClaimLostException ex) {
+            log.warn("Payment reconciliation run {} was taken over by another worker; stopping", runId);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            finishQuietly(runId, claimToken, "Interrupted");
+        } catch (RuntimeException ex) {
+            log.error("Payment reconciliation run {} interrupted; resume it to continue", runId, ex);
+            finishQuietly(runId, claimToken, describe(unwrap(ex)));
+        }
+    }
+
+    /**
+     * Looks a page up at the gateway, retrying it while the gateway sheds load, and returns the
+     * orders it disagrees with.
+     */
+    private List<PaymentMismatch> check(Long runId, List<OrderPaymentRef> page) throws InterruptedException {
+        List<PaymentMismatch> mismatches = new ArrayList<>();
+        List<OrderPaymentRef> toLookUp = new ArrayList<>();
+        for (OrderPaymentRef order : page) {
+            MismatchType declined = declined(order);
+            if (declined != null) {
+                mismatches.add(new PaymentMismatch(runId, order.orderId(), order.authorizationId(), declined,
+                        null, "The gateway declined to settle this authorization"));
+            } else {
+                toLookUp.add(order);
+            }
+        }
+
+        Map<OrderPaymentRef, CompletableFuture<PaymentStatusResponse>> lookups = lookUp(toLookUp);
+        for (int attempt = 1; ; attempt++) {
+            // Only the shed lookups are repeated; the answers already in are kept
+            List<OrderPaymentRef> shed = lookups.entrySet().stream()
+                    .filter(lookup -> isLoadShedding(failureOf(lookup.getValue())))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (shed.isEmpty()) {
+                break;
+            }
+            Throwable failure = failureOf(lookups.get(shed.getFirst()));
+            if (attempt >= maxPageAttempts) {
+                throw (RuntimeException) failure;
+            }
+            log.warn("Payment gateway is shedding load ({}); retrying {} reconciliation lookups in {}",
+                    failure.getMessage(), shed.size(), backoff);
+            Thread.sleep(backoff);
+            lookups.putAll(lookUp(shed));
+        }
+
+        lookups.forEach((order, lookup) -> {
+            PaymentMismatch mismatch = lookup.handle((response, ex) -> compare(runId, order, response, unwrap(ex))).join();
+            if (mismatch != null) {
+                mismatches.add(mismatch);
+            }
+        });
+        return mismatches;
+    }
+
+    private Map<OrderPaymentRef, CompletableFuture<PaymentStatusResponse>> lookUp(List<OrderPaymentRef> page)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(maxConcurrent);
+        Map<OrderPaymentRef, CompletableFuture<PaymentStatusResponse>> lookups = new LinkedHashMap<>();
+        for (OrderPaymentRef order : page) {
+            permits.acquire();
+            CompletableFuture<PaymentStatusResponse> lookup;
+            try {
+                lookup = paymentService.getPaymentStatus(reference(order));
+            } catch (RuntimeException ex) {
+                lookup = CompletableFuture.failedFuture(ex);
+            }
+            lookup.whenComplete((response, ex) -> permits.release());
+            lookups.put(order, lookup);
+        }
+        CompletableFuture.allOf(lookups.values().toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+        return lookups;
+    }
+
+    private static PaymentMismatch compare(Long runId, OrderPaymentRef order, PaymentStatusResponse response,
+                                           Throwable failure) {
+        if (failure != null) {
+            return new PaymentMismatch(runId, order.orderId(), reference(order), MismatchType.LOOKUP_FAILED,
+                    null, describe(failure));
+        }
+        if (response == null) {
+            return new PaymentMismatch(runId, order.orderId(), reference(order), MismatchType.MISSING_AT_GATEWAY,
+                    null, "The gateway has no record of this payment");
+        }
+        if (!expectedStatus(order).equals(response.status())) {
+            return new PaymentMismatch(runId, order.orderId(), reference(order), MismatchType.STATUS_MISMATCH,
+                    response.status(), response.detailedStatus());
+        }
+        return null;
+    }
+
+    /**
+     * The gateway id to look the order up by: the charge or capture once there is one, and the
+     * authorization until then.
+     */
+    private static String reference(OrderPaymentRef order) {
+        return order.paymentId() != null ? order.paymentId() : order.authorizationId();
+    }
+
+    private static String expectedStatus(OrderPaymentRef order) {
+        return order.captureStatus() == CaptureStatus.AUTHORIZED ? AUTHORIZED : SETTLED;
+    }
+
+    private static MismatchType declined(OrderPaymentRef order) {
+        if (order.captureStatus() == CaptureStatus.CAPTURE_FAILED) {
+            return MismatchType.CAPTURE_FAILED;
+        }
+        if (order.captureStatus() == CaptureStatus.VOID_FAILED) {
+            return MismatchType.VOID_FAILED;
+        }
+        return null;
+    }
+
+    /**
+     * Saves the page's mismatches and moves the checkpoint past it. Orders whose status or payment
+     * changed while the page was being checked are dropped: a refund, capture or void since then is
+     * expected to show, and the next run checks them again.
+     */
+    private void saveCheckpoint(Long runId, UUID claimToken, List<OrderPaymentRef> page,
+                                List<PaymentMismatch> mismatches) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<PaymentMismatch> unchanged = mismatches;
+            if (!mismatches.isEmpty()) {
+                Set<OrderPaymentRef> current = new HashSet<>(orderRepository.findPaymentRefsByIdIn(
+                        mismatches.stream().map(PaymentMismatch::getOrderId).toList()));
+                Set<Long> unchangedIds = page.stream()
+                        .filter(current::contains)
+                        .map(OrderPaymentRef::orderId)
+                        .collect(Collectors.toSet());
+                unchanged = mismatches.stream().filter(mismatch -> unchangedIds.contains(mismatch.getOrderId())).toList();
+            }
+            OrderPaymentRef last = page.getLast();
+            if (reconciliationRunRepository.checkpoint(runId, claimToken, reference(last), last.orderId(), page.size(),
+                    unchanged.size(), LocalDateTime.now()) == 0) {
+                throw new ClaimLostException();
+            }
+            paymentMismatchRepository.saveAll(unchanged);
+        });
+    }
+
+    private void finish(Long runId, UUID claimToken, ReconciliationStatus status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> reconciliationRunRepository.finish(runId, claimToken, status, error,
+                now, status == ReconciliationStatus.COMPLETED ? now : null));
+    }
+
+    private void finishQuietly(Long runId, UUID claimToken, String error) {
+        try {
+            finish(runId, claimToken, ReconciliationStatus.INTERRUPTED, error);
+        } catch (RuntimeException ex) {
+            // The heartbeat goes stale and the run can be resumed all the same
+            log.error("Could not mark payment reconciliation run {} interrupted", runId, ex);
+        }
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> lookup) {
+        return unwrap(lookup.handle((response, ex) -> ex).join());
+    }
+
+    private static boolean isLoadShedding(Throwable failure) {
+        return failure instanceof BulkheadFullException || failure instanceof CircuitBreakerOpenException;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static String describe(Throwable failure) {
+        String description = failure.getMessage() != null ? failure.getMessage() : failure.toString();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    private ReconciliationRunResponse toResponse(ReconciliationRun run) {
+        return new ReconciliationRunResponse(run.getId(), run.getStatus().name(), run.getCheckedOrders(),
+                run.getMismatches(), run.getLastPaymentId(), run.getStartedAt(), run.getHeartbeatAt(),
+                run.getCompletedAt(), run.getError());
+    }
+
+    private PaymentMismatchResponse toResponse(PaymentMismatch mismatch) {
+        return new PaymentMismatchResponse(mismatch.getOrderId(), mismatch.getPaymentId(), mismatch.getType().name(),
+                mismatch.getGatewayStatus(), mismatch.getDetail(), mismatch.getDetectedAt());
+    }
+
+    /**
+     * The run was claimed by another worker, most likely after this one missed its heartbeat.
+     */
+    private static final class ClaimLostException extends RuntimeException {
+    }
+}
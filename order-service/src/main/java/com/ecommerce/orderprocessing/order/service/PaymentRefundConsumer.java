@@ -0,0 +1,56 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.payment.dto.RefundRequest;
+import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Refunds a paid order once it is cancelled. The idempotency key is derived from the payment id, so
+ * a redelivered event is recognised by the gateway instead of refunding twice; a declined refund
+ * fails the delivery and is retried.
+ */
+@Service
+public class PaymentRefundConsumer implements OrderEventConsumer {
+
+    private static final String DEFAULT_REASON = "Order cancelled";
+
+    private final PaymentService paymentService;
+
+    public PaymentRefundConsumer(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
+    @Override
+    public String name() {
+        return "payment-refund";
+    }
+
+    @Override
+    public boolean accepts(OrderStatusChangedEvent event) {
+        return event.status() == OrderStatus.CANCELLED
+                && event.previousStatus() == OrderStatus.PAID
+                && event.paymentId() != null;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(OrderStatusChangedEvent event) {
+        RefundRequest refundRequest = new RefundRequest(
+                event.paymentId(),
+                event.totalAmount(),
+                event.notes() != null ? event.notes() : DEFAULT_REASON,
+                "refund-" + event.paymentId()
+        );
+        return paymentService.refundPayment(refundRequest).thenAccept(refundResponse -> {
+            if (!"SUCCESS".equals(refundResponse.status())) {
+                throw new PaymentProcessingException(String.format("Refund declined for order %s: %s",
+                        event.orderId(), refundResponse.message()));
+            }
+        });
+    }
+}
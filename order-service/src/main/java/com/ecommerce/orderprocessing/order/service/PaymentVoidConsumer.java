@@ -0,0 +1,71 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.payment.dto.VoidRequest;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Voids the authorization of an order cancelled before it shipped, releasing the customer's funds
+ * without a refund. Only shipped orders are captured and those cannot be cancelled, so a cancelled
+ * order's authorization is never captured. The idempotency key is derived from the authorization,
+ * so a delivery retried after a gateway error is recognised instead of voiding twice. A declined void
+ * is final, like a declined capture, and is recorded as {@link CaptureStatus#VOID_FAILED}.
+ */
+@Slf4j
+@Service
+public class PaymentVoidConsumer implements OrderEventConsumer {
+
+    private static final String DEFAULT_REASON = "Order cancelled";
+
+    private final PaymentService paymentService;
+    private final OrderRepository orderRepository;
+    private final ExecutorService virtualThreadExecutor;
+
+    public PaymentVoidConsumer(PaymentService paymentService, OrderRepository orderRepository,
+                               ExecutorService virtualThreadExecutor) {
+        this.paymentService = paymentService;
+        this.orderRepository = orderRepository;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    @Override
+    public String name() {
+        return "payment-void";
+    }
+
+    @Override
+    public boolean accepts(OrderStatusChangedEvent event) {
+        return event.status() == OrderStatus.CANCELLED && event.authorizationId() != null;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(OrderStatusChangedEvent event) {
+        VoidRequest voidRequest = new VoidRequest(
+                event.authorizationId(),
+                event.notes() != null ? event.notes() : DEFAULT_REASON,
+                "void-" + event.authorizationId()
+        );
+        // The gateway completes on its own threads; hop back onto ours before touching the database
+        return paymentService.voidPayment(voidRequest).thenAcceptAsync(voidResponse -> {
+            if (!"VOIDED".equals(voidResponse.status())) {
+                log.error("Void of authorization {} for cancelled order {} was declined: {}; the order needs manual attention",
+                        event.authorizationId(), event.orderId(), voidResponse.message());
+                orderRepository.settleAuthorization(event.orderId(), event.authorizationId(), CaptureStatus.VOID_FAILED,
+                        null, LocalDateTime.now());
+                return;
+            }
+            orderRepository.settleAuthorization(event.orderId(), event.authorizationId(), CaptureStatus.VOIDED, null,
+                    LocalDateTime.now());
+        }, virtualThreadExecutor);
+    }
+}
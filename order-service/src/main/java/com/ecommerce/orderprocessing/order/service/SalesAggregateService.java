@@ -0,0 +1,190 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.entity.ProductSales;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.repository.BestSellingProduct;
+import com.ecommerce.orderprocessing.order.repository.DailySalesRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
+import com.ecommerce.orderprocessing.order.repository.ProductSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Incrementally maintained sales totals per product and per day, so best-seller and revenue
+ * queries read O(products) or O(days) rows instead of grouping every order line.
+ * <p>
+ * An order counts towards the totals from the completion of its creation unless it is cancelled.
+ * Callers record an order once its items are saved and its creation completed, and report every status change, in the same transaction as the order write, so
+ * the totals move with the order. A scheduled rebuild recomputes both tables from
+ * {@code order_items} to repair any drift; it runs at repeatable read and simply retries when an
+ * order commits concurrently, so it never overwrites a newer increment with an older total.
+ */
+@Slf4j
+@Service
+public class SalesAggregateService {
+
+    private final ProductSalesRepository productSalesRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate rebuildTransaction;
+    private final Bulkhead databaseBulkhead;
+    private final ExecutorService virtualThreadExecutor;
+    private final int rebuildAttempts;
+
+    public SalesAggregateService(ProductSalesRepository productSalesRepository,
+                                 DailySalesRepository dailySalesRepository,
+                                 OrderItemRepository orderItemRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("databaseBulkhead") Bulkhead databaseBulkhead,
+                                 ExecutorService virtualThreadExecutor,
+                                 @Value("${app.orders.sales-aggregates.rebuild-attempts:3}") int rebuildAttempts) {
+        this.productSalesRepository = productSalesRepository;
+        this.dailySalesRepository = dailySalesRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.databaseBulkhead = databaseBulkhead;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.rebuildAttempts = rebuildAttempts;
+    }
+
+    /**
+     * Adds a newly created order's items to the totals.
+     */
+    @Transactional
+    public void recordOrder(Order order, Collection<OrderItem> orderItems) {
+        if (counts(order.getStatus())) {
+            apply(order.getCreatedAt().toLocalDate(), orderItems, 1);
+        }
+    }
+
+    /**
+     * Adjusts the totals after {@code order} moved from {@code previousStatus} to its current status.
+     * An order cancelled before its creation completed was never recorded, so there is nothing to adjust.
+     */
+    @Transactional
+    public void onStatusChange(Order order, OrderStatus previousStatus) {
+        if (!order.isCreationComplete()) {
+            return;
+        }
+        boolean counted = counts(previousStatus);
+        if (counted != counts(order.getStatus())) {
+            apply(order.getCreatedAt().toLocalDate(), order.getOrderItems(), counted ? -1 : 1);
+        }
+    }
+
+    public CompletableFuture<List<BestSellingProduct>> getBestSellingProducts(int limit) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() ->
+                productSalesRepository.findBestSelling(PageRequest.of(0, limit))), virtualThreadExecutor);
+    }
+
+    public CompletableFuture<BigDecimal> getTotalRevenueForProduct(Long productId) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> productSalesRepository.findById(productId)
+                .map(ProductSales::getRevenue)
+                .orElse(BigDecimal.ZERO)), virtualThreadExecutor);
+    }
+
+    /**
+     * Revenue of the orders created in {@code [from, to)}. Whole days are summed from the daily
+     * totals; only the partial days at either end are read from the order lines.
+     */
+    public CompletableFuture<BigDecimal> getTotalRevenueForPeriod(LocalDateTime from, LocalDateTime to) {
+        return CompletableFuture.supplyAsync(() -> databaseBulkhead.call(() -> revenueForPeriod(from, to)),
+                virtualThreadExecutor);
+    }
+
+    /**
+     * Recomputes both aggregates from {@code order_items}.
+     */
+    @Scheduled(cron = "${app.orders.sales-aggregates.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        for (int attempt = 1; attempt <= rebuildAttempts; attempt++) {
+            try {
+                int[] changed = rebuildTransaction.execute(status -> new int[] {
+                        productSalesRepository.rebuildFromOrderItems() + productSalesRepository.clearProductsWithoutSales(),
+                        dailySalesRepository.rebuildFromOrderItems() + dailySalesRepository.clearDaysWithoutSales()
+                });
+                if (changed[0] > 0 || changed[1] > 0) {
+                    log.warn("Sales aggregate rebuild corrected {} product rows and {} day rows", changed[0], changed[1]);
+                }
+                return;
+            } catch (ConcurrencyFailureException ex) {
+                log.info("Sales aggregate rebuild attempt {} conflicted with a concurrent order", attempt);
+            }
+        }
+        log.warn("Sales aggregate rebuild gave up after {} attempts; retrying on the next run", rebuildAttempts);
+    }
+
+    private BigDecimal revenueForPeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return BigDecimal.ZERO;
+        }
+        LocalDate firstWholeDay = from.toLocalTime().equals(LocalTime.MIDNIGHT) ? from.toLocalDate() : from.toLocalDate().plusDays(1);
+        LocalDate endOfWholeDays = to.toLocalDate();
+        if (!firstWholeDay.isBefore(endOfWholeDays)) {
+            // Less than one whole day: the order lines of at most two days
+            return orderItemRepository.getRevenueOfLiveOrdersBetween(from, to);
+        }
+        BigDecimal revenue = dailySalesRepository.getRevenueForDays(firstWholeDay, endOfWholeDays);
+        if (from.isBefore(firstWholeDay.atStartOfDay())) {
+            revenue = revenue.add(orderItemRepository.getRevenueOfLiveOrdersBetween(from, firstWholeDay.atStartOfDay()));
+        }
+        if (endOfWholeDays.atStartOfDay().isBefore(to)) {
+            revenue = revenue.add(orderItemRepository.getRevenueOfLiveOrdersBetween(endOfWholeDays.atStartOfDay(), to));
+        }
+        return revenue;
+    }
+
+    private void apply(LocalDate salesDate, Collection<OrderItem> orderItems, int sign) {
+        if (orderItems.isEmpty()) {
+            return;
+        }
+        // Sorted by product id so concurrent orders lock shared product rows in the same order
+        Map<Long, Long> quantities = new TreeMap<>();
+        Map<Long, BigDecimal> revenues = new TreeMap<>();
+        for (OrderItem orderItem : orderItems) {
+            quantities.merge(orderItem.getProductId(), (long) orderItem.getQuantity(), Long::sum);
+            revenues.merge(orderItem.getProductId(), orderItem.getSubtotal(), BigDecimal::add);
+        }
+        long totalQuantity = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            BigDecimal revenue = revenues.get(entry.getKey());
+            productSalesRepository.addSales(entry.getKey(), sign * entry.getValue(), signed(revenue, sign));
+            totalQuantity += entry.getValue();
+            totalRevenue = totalRevenue.add(revenue);
+        }
+        dailySalesRepository.addSales(salesDate, sign, sign * totalQuantity, signed(totalRevenue, sign));
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+
+    private static boolean counts(OrderStatus status) {
+        return status != OrderStatus.CANCELLED;
+    }
+}
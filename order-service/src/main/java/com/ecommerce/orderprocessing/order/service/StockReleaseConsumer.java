@@ -0,0 +1,58 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
+import com.ecommerce.orderprocessing.inventory.service.InventoryService;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Returns the stock of a cancelled order that had not shipped yet: the live holds of a pending
+ * order, the committed holds of a paid one. Holds are marked released as their stock is returned,
+ * so a redelivered event releases nothing twice. Orders placed before holds existed return their
+ * stock directly, which is not repeatable.
+ */
+@Slf4j
+@Service
+public class StockReleaseConsumer implements OrderEventConsumer {
+
+    private final InventoryHoldService inventoryHoldService;
+    private final InventoryService inventoryService;
+
+    public StockReleaseConsumer(InventoryHoldService inventoryHoldService, InventoryService inventoryService) {
+        this.inventoryHoldService = inventoryHoldService;
+        this.inventoryService = inventoryService;
+    }
+
+    @Override
+    public String name() {
+        return "stock-release";
+    }
+
+    @Override
+    public boolean accepts(OrderStatusChangedEvent event) {
+        return event.status() == OrderStatus.CANCELLED
+                && (event.previousStatus() == OrderStatus.PENDING || event.previousStatus() == OrderStatus.PAID);
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(OrderStatusChangedEvent event) {
+        CompletableFuture<Boolean> releasedByHolds = event.previousStatus() == OrderStatus.PENDING
+                ? inventoryHoldService.releaseHolds(event.orderId())
+                : inventoryHoldService.releaseCommittedHolds(event.orderId());
+        return releasedByHolds.thenCompose(tracked -> {
+            if (tracked || event.quantities().isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return inventoryService.releaseAll(event.quantities()).thenAccept(result -> {
+                if (!result.isSuccessful()) {
+                    log.warn("Could not release stock for products {} of cancelled order {}", result.failedProductIds(), event.orderId());
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.sketch.SlidingWindowHeavyHitters;
+import com.ecommerce.orderprocessing.order.dto.TrendingProduct;
+import com.ecommerce.orderprocessing.order.dto.TrendingWindow;
+import com.ecommerce.orderprocessing.order.event.OrderCreatedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Trending now" best-sellers: units ordered per product over the last 5 minutes, hour and day,
+ * counted in memory from {@link OrderCreatedEvent}s.
+ * <p>
+ * Each window is a {@link SlidingWindowHeavyHitters}, so memory is fixed by the sketch settings
+ * whatever the catalog size, and recording an order is a handful of atomic adds on the calling
+ * thread. The counts are approximate, start empty on every restart and are per instance; the
+ * {@code product_sales} aggregate remains the exact, all-time figure.
+ */
+@Service
+public class TrendingProductsService {
+
+    private final Map<TrendingWindow, SlidingWindowHeavyHitters> windows = new EnumMap<>(TrendingWindow.class);
+
+    @Autowired
+    public TrendingProductsService(@Value("${app.analytics.trending.sketch-depth:4}") int depth,
+                                   @Value("${app.analytics.trending.sketch-width:2048}") int width,
+                                   @Value("${app.analytics.trending.candidates-per-bucket:256}") int candidatesPerBucket) {
+        this(depth, width, candidatesPerBucket, Clock.systemUTC());
+    }
+
+    TrendingProductsService(int depth, int width, int candidatesPerBucket, Clock clock) {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new SlidingWindowHeavyHitters(window.getLength(), window.getBuckets(),
+                    depth, width, candidatesPerBucket, clock));
+        }
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        event.quantities().forEach((productId, quantity) -> {
+            for (SlidingWindowHeavyHitters sketch : windows.values()) {
+                sketch.add(productId, quantity);
+            }
+        });
+    }
+
+    public List<TrendingProduct> getTrendingProducts(TrendingWindow window, int limit) {
+        return windows.get(window).topK(limit).stream()
+                .map(hitter -> new TrendingProduct(hitter.key(), hitter.count()))
+                .toList();
+    }
+}
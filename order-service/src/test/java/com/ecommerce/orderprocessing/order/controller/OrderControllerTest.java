@@ -4,6 +4,8 @@ import com.ecommerce.orderprocessing.common.dto.PagedResponse;
 import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
 import com.ecommerce.orderprocessing.order.dto.OrderItemResponse;
 import com.ecommerce.orderprocessing.order.dto.OrderResponse;
+import com.ecommerce.orderprocessing.order.service.IdempotencyService;
+import com.ecommerce.orderprocessing.order.service.OrderExportService;
 import com.ecommerce.orderprocessing.order.service.OrderService;
 import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
@@ -40,13 +42,15 @@ import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(OrderController.class)
-@Import({OrderModelAssembler.class, PaymentModelAssembler.class, ProductController.class, UserController.class})
+@Import({OrderModelAssembler.class, PaymentModelAssembler.class, ProductController.class, UserController.class, IdempotencyService.class})
 class OrderControllerTest {
 
     @Autowired
@@ -58,6 +62,9 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderExportService orderExportService;
+
     // Mocks for cross-module link building
     @MockitoBean
     private ProductCatalogService productCatalogService;
@@ -103,6 +110,40 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$._links.self.href", endsWith("/api/orders/1")));
     }
 
+    @Test
+    void createOrder_retriedWithTheSameIdempotencyKey_shouldCreateTheOrderOnce() throws Exception {
+        setupAs("CUSTOMER", 1L);
+        CreateOrderRequest request = new CreateOrderRequest(1L, "Address", Collections.emptyList(), "Notes");
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(CompletableFuture.completedFuture(pendingOrder));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/orders")
+                            .header(IdempotencyService.HEADER, "checkout-7f3a")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", is(1)));
+        }
+
+        verify(orderService, times(1)).createOrder(any(CreateOrderRequest.class));
+    }
+
+    @Test
+    void createOrder_withAnIdempotencyKeyAlreadyUsedForAnotherOrder_shouldBeRejected() throws Exception {
+        setupAs("CUSTOMER", 1L);
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(CompletableFuture.completedFuture(pendingOrder));
+        mockMvc.perform(post("/api/orders")
+                .header(IdempotencyService.HEADER, "checkout-7f3a")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, "Address", Collections.emptyList(), "Notes"))));
+
+        mockMvc.perform(post("/api/orders")
+                        .header(IdempotencyService.HEADER, "checkout-7f3a")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, "Other address", Collections.emptyList(), "Notes"))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getOrder_asCustomerForOwnOrder_shouldReturnOrderWithLinks() throws Exception {
         setupAs("CUSTOMER", 1L);
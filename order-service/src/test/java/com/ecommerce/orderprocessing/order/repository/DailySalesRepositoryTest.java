@@ -0,0 +1,62 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.order.domain.entity.DailySales;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class DailySalesRepositoryTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Test
+    void getRevenueForDays_shouldSumOnlyDaysInRange() {
+        // Given
+        dailySalesRepository.addSales(LocalDate.of(2024, 5, 1), 1, 2, new BigDecimal("20.00"));
+        dailySalesRepository.addSales(LocalDate.of(2024, 5, 2), 1, 1, new BigDecimal("5.00"));
+        dailySalesRepository.addSales(LocalDate.of(2024, 5, 2), 1, 1, new BigDecimal("7.00"));
+        dailySalesRepository.addSales(LocalDate.of(2024, 5, 3), 1, 1, new BigDecimal("100.00"));
+
+        // When
+        BigDecimal revenue = dailySalesRepository.getRevenueForDays(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 3));
+
+        // Then
+        assertThat(revenue).isEqualByComparingTo("32.00");
+    }
+
+    @Test
+    void rebuildFromOrderItems_shouldGroupOrdersByCreationDay() {
+        // Given
+        Order order = new Order(1L, "Address 1");
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 2, 23, 59));
+        order.addOrderItem(new OrderItem(1L, 2, BigDecimal.TEN));
+        order.addOrderItem(new OrderItem(2L, 1, BigDecimal.ONE));
+        entityManager.persist(order);
+        entityManager.flush();
+
+        // When
+        dailySalesRepository.rebuildFromOrderItems();
+        entityManager.clear();
+
+        // Then
+        DailySales day = dailySalesRepository.findById(LocalDate.of(2024, 5, 2)).orElseThrow();
+        assertThat(day.getOrderCount()).isEqualTo(1);
+        assertThat(day.getQuantitySold()).isEqualTo(3);
+        assertThat(day.getRevenue()).isEqualByComparingTo("21.00");
+    }
+}
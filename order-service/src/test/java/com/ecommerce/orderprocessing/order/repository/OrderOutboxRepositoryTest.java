@@ -0,0 +1,110 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without the usual per-test transaction: each relay below opens its own, as it would in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxRepositoryTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void lockDueEntries_shouldOnlyClaimPendingEntriesThatAreDue() {
+        // Given
+        OrderOutboxEntry due = entry(1L);
+        OrderOutboxEntry later = entry(2L);
+        later.setAvailableAt(LocalDateTime.now().plusMinutes(5));
+        OrderOutboxEntry failed = entry(3L);
+        failed.setStatus(OutboxStatus.FAILED);
+        orderOutboxRepository.saveAll(List.of(due, later, failed));
+
+        // When
+        List<OrderOutboxEntry> claimed = transactionTemplate.execute(status ->
+                orderOutboxRepository.lockDueEntries(LocalDateTime.now(), 10));
+
+        // Then
+        assertThat(claimed).extracting(OrderOutboxEntry::getOrderId).containsExactly(1L);
+    }
+
+    @Test
+    void lockDueEntries_shouldSkipEntriesClaimedByAnotherRelay() {
+        // Given
+        orderOutboxRepository.saveAll(List.of(entry(1L), entry(2L), entry(3L)));
+
+        // When
+        List<List<Long>> claims = transactionTemplate.execute(status -> {
+            List<Long> first = orderIds(orderOutboxRepository.lockDueEntries(LocalDateTime.now(), 2));
+            // A second relay, in its own transaction, while the first still holds its rows
+            List<Long> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(inner ->
+                    orderIds(orderOutboxRepository.lockDueEntries(LocalDateTime.now(), 2)))).join();
+            return List.of(first, second);
+        });
+
+        // Then
+        assertThat(claims.get(0)).containsExactly(1L, 2L);
+        assertThat(claims.get(1)).containsExactly(3L);
+    }
+
+    @Test
+    void markDone_shouldCompleteTheBatchAndDeleteDoneBeforeShouldPurgeIt() {
+        // Given
+        List<OrderOutboxEntry> entries = orderOutboxRepository.saveAll(List.of(entry(1L), entry(2L)));
+        LocalDateTime processedAt = LocalDateTime.now().minusDays(8);
+
+        // When
+        Integer marked = transactionTemplate.execute(status ->
+                orderOutboxRepository.markDone(List.of(entries.get(0).getId()), processedAt));
+
+        // Then
+        assertThat(marked).isEqualTo(1);
+        assertThat(orderOutboxRepository.findById(entries.get(0).getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(transactionTemplate.execute(status -> orderOutboxRepository.deleteDoneBefore(LocalDateTime.now().minusDays(7))))
+                .isEqualTo(1);
+        assertThat(orderOutboxRepository.findAll()).extracting(OrderOutboxEntry::getOrderId).containsExactly(2L);
+    }
+
+    private OrderOutboxEntry entry(Long orderId) {
+        return new OrderOutboxEntry(orderId, "stock-release", OrderStatusChangedEvent.TYPE, "{}");
+    }
+
+    private List<Long> orderIds(List<OrderOutboxEntry> entries) {
+        return entries.stream().map(OrderOutboxEntry::getOrderId).toList();
+    }
+}
@@ -2,19 +2,27 @@ package com.ecommerce.orderprocessing.order.repository;
 
 
 import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
 import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import jakarta.persistence.PersistenceUnitUtil;
 import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class OrderRepositoryTest extends AbstractContainerBaseTest {
@@ -155,4 +163,211 @@ class OrderRepositoryTest extends AbstractContainerBaseTest {
         assertThat(stats).extracting("status").contains(OrderStatus.PENDING, OrderStatus.PAID);
         assertThat(stats).extracting("count").contains(2L, 1L);
     }
+
+    @Test
+    void findPaymentRefsAfter_shouldPageThroughChargedAndAuthorizedOrdersInIdOrder() {
+        // Given
+        Order charged = paidOrder("pay_a");
+        Order authorized = paidOrder(null);
+        authorized.setAuthorizationId("auth_b");
+        authorized.setCaptureStatus(CaptureStatus.AUTHORIZED);
+        Order shipped = paidOrder("cap_c");
+        shipped.setStatus(OrderStatus.SHIPPED);
+        Order voidFailed = paidOrder(null);
+        voidFailed.setStatus(OrderStatus.CANCELLED);
+        voidFailed.setAuthorizationId("auth_d");
+        voidFailed.setCaptureStatus(CaptureStatus.VOID_FAILED);
+        Order refunded = paidOrder("pay_e");
+        refunded.setStatus(OrderStatus.CANCELLED);
+        Order pending = new Order(1L, "Pending");
+        entityManager.persist(pending);
+        paidOrder(null);
+        entityManager.flush();
+        List<OrderStatus> statuses = List.of(OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.SHIPPED,
+                OrderStatus.DELIVERED);
+
+        // When
+        List<OrderPaymentRef> firstPage = orderRepository.findPaymentRefsAfter(statuses, 0L, Limit.of(2));
+        List<OrderPaymentRef> secondPage = orderRepository.findPaymentRefsAfter(statuses,
+                firstPage.getLast().orderId(), Limit.of(3));
+
+        // Then
+        assertThat(firstPage).containsExactly(
+                new OrderPaymentRef(charged.getId(), OrderStatus.PAID, "pay_a", null, null),
+                new OrderPaymentRef(authorized.getId(), OrderStatus.PAID, null, "auth_b", CaptureStatus.AUTHORIZED));
+        assertThat(secondPage).containsExactly(
+                new OrderPaymentRef(shipped.getId(), OrderStatus.SHIPPED, "cap_c", null, null),
+                new OrderPaymentRef(voidFailed.getId(), OrderStatus.CANCELLED, null, "auth_d", CaptureStatus.VOID_FAILED));
+    }
+
+    @Test
+    void findIdsByCustomerId_shouldPageOverIdsOnly() {
+        // Given
+        Long customerId = 1L;
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(new Order(customerId, "Address " + i));
+        }
+        entityManager.persistAndFlush(new Order(2L, "Other customer"));
+
+        // When
+        Page<Long> firstPage = orderRepository.findIdsByCustomerId(customerId, PageRequest.of(0, 2, Sort.by("id")));
+
+        // Then
+        assertThat(firstPage.getContent()).hasSize(2).isSorted();
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+        assertThat(firstPage.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void findWithItemsByIdIn_shouldLoadItemsWithOrders() {
+        // Given
+        Order order = new Order(1L, "Address 1");
+        order.addOrderItem(new OrderItem(10L, 2, BigDecimal.TEN));
+        order.addOrderItem(new OrderItem(11L, 1, BigDecimal.ONE));
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Order> orders = orderRepository.findWithItemsByIdIn(List.of(order.getId()));
+
+        // Then
+        assertThat(orders).hasSize(1);
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertThat(persistenceUnitUtil.isLoaded(orders.get(0), "orderItems")).isTrue();
+        assertThat(orders.get(0).getOrderItems()).extracting(OrderItem::getProductId).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void streamExportRows_shouldReturnOneRowPerItemAndKeepOrdersWithoutItems() {
+        // Given
+        Order withItems = new Order(1L, "Address 1");
+        withItems.addOrderItem(new OrderItem(10L, 2, BigDecimal.TEN));
+        withItems.addOrderItem(new OrderItem(11L, 1, BigDecimal.ONE));
+        entityManager.persist(withItems);
+        Order withoutItems = new Order(2L, "Address 2");
+        entityManager.persist(withoutItems);
+        entityManager.flush();
+        entityManager.clear();
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        List<OrderExportRow> rows;
+        try (Stream<OrderExportRow> stream = orderRepository.streamExportRows(now.minusHours(1), now.plusHours(1))) {
+            rows = stream.toList();
+        }
+
+        // Then
+        assertThat(rows).hasSize(3);
+        assertThat(rows).filteredOn(row -> row.orderId().equals(withItems.getId()))
+                .extracting(OrderExportRow::productId).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(rows).filteredOn(row -> row.orderId().equals(withoutItems.getId()))
+                .singleElement().satisfies(row -> assertThat(row.productId()).isNull());
+        assertThat(rows.get(0).orderId()).isEqualTo(rows.get(1).orderId());
+    }
+
+    @Test
+    void compareAndSetStatus_shouldOnlyApplyFromTheExpectedStatus() {
+        // Given
+        Order order = new Order(1L, "Address 1");
+        order.setStatus(OrderStatus.PAID);
+        order.setNotes("Leave at the door");
+        entityManager.persistAndFlush(order);
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        int fromPending = orderRepository.compareAndSetStatus(order.getId(), OrderStatus.PENDING, OrderStatus.CANCELLED, "Too late", null, now);
+        int fromPaid = orderRepository.compareAndSetStatus(order.getId(), OrderStatus.PAID, OrderStatus.PROCESSING, null, null, now);
+
+        // Then
+        assertThat(fromPending).isZero();
+        assertThat(fromPaid).isEqualTo(1);
+        Order updated = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(updated.getNotes()).isEqualTo("Leave at the door");
+    }
+
+    @Test
+    void completeCreation_shouldNotOverwriteACancelledOrder() {
+        // Given
+        Order pending = new Order(1L, "Address 1");
+        Order cancelled = new Order(1L, "Address 2");
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        cancelled.setNotes("Changed my mind");
+        entityManager.persist(pending);
+        entityManager.persistAndFlush(cancelled);
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        int completed = orderRepository.completeCreation(pending.getId(), new BigDecimal("20.00"), now);
+        int skipped = orderRepository.completeCreation(cancelled.getId(), new BigDecimal("20.00"), now);
+
+        // Then
+        assertThat(completed).isEqualTo(1);
+        assertThat(skipped).isZero();
+        Order completedOrder = orderRepository.findById(pending.getId()).orElseThrow();
+        assertThat(completedOrder.getTotalAmount()).isEqualByComparingTo("20.00");
+        assertThat(completedOrder.isCreationComplete()).isTrue();
+        Order unchanged = orderRepository.findById(cancelled.getId()).orElseThrow();
+        assertThat(unchanged.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(unchanged.isCreationComplete()).isFalse();
+        assertThat(unchanged.getNotes()).isEqualTo("Changed my mind");
+    }
+
+    @Test
+    void settleAuthorization_shouldSettleARecordedAuthorizationOnlyOnce() {
+        // Given
+        Order order = paidOrder(null);
+        entityManager.flush();
+        orderRepository.recordAuthorization(order.getId(), "auth_1");
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        int wrongAuthorization = orderRepository.settleAuthorization(order.getId(), "auth_2", CaptureStatus.CAPTURED, "cap_2", now);
+        int captured = orderRepository.settleAuthorization(order.getId(), "auth_1", CaptureStatus.CAPTURED, "cap_1", now);
+        int voidedAfterCapture = orderRepository.settleAuthorization(order.getId(), "auth_1", CaptureStatus.VOIDED, null, now);
+        entityManager.clear();
+
+        // Then
+        assertThat(wrongAuthorization).isZero();
+        assertThat(captured).isEqualTo(1);
+        assertThat(voidedAfterCapture).isZero();
+        Order settled = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(settled.getAuthorizationId()).isEqualTo("auth_1");
+        assertThat(settled.getCaptureStatus()).isEqualTo(CaptureStatus.CAPTURED);
+        assertThat(settled.getPaymentId()).isEqualTo("cap_1");
+    }
+
+    @Test
+    void transitionAll_shouldMoveOnlyOrdersInAnAllowedStatusAndReturnWhereTheyCameFrom() {
+        // Given
+        Order paid = new Order(1L, "Address 1");
+        paid.setStatus(OrderStatus.PAID);
+        paid.setNotes("Leave at the door");
+        entityManager.persist(paid);
+        Order pending = new Order(1L, "Address 2");
+        entityManager.persist(pending);
+        entityManager.flush();
+
+        // When
+        List<OrderTransition> moved = orderRepository.transitionAll(List.of(paid.getId(), pending.getId(), -1L),
+                List.of(OrderStatus.PAID.name()), OrderStatus.PROCESSING.name(), null, LocalDateTime.now());
+        entityManager.clear();
+
+        // Then
+        assertThat(moved).extracting(OrderTransition::getId, OrderTransition::getPreviousStatus)
+                .containsExactly(tuple(paid.getId(), "PAID"));
+        Order processing = orderRepository.findById(paid.getId()).orElseThrow();
+        assertThat(processing.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(processing.getNotes()).isEqualTo("Leave at the door");
+        assertThat(orderRepository.findStatusesByIdIn(List.of(pending.getId())))
+                .containsExactly(new OrderIdAndStatus(pending.getId(), OrderStatus.PENDING));
+    }
+
+    private Order paidOrder(String paymentId) {
+        Order order = new Order(1L, "Address");
+        order.setStatus(OrderStatus.PAID);
+        order.setPaymentId(paymentId);
+        return entityManager.persist(order);
+    }
 }
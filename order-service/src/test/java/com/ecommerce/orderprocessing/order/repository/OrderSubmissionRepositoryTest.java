@@ -0,0 +1,142 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without the usual per-test transaction: each worker below opens its own, as it would in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderSubmissionRepositoryTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private OrderSubmissionRepository orderSubmissionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderSubmissionRepository.deleteAll();
+    }
+
+    @Test
+    void lockQueued_shouldSkipSubmissionsClaimedByAnotherWorker() {
+        // Given
+        orderSubmissionRepository.saveAll(List.of(submission(1L), submission(2L), submission(3L)));
+        OrderSubmission processing = submission(4L);
+        processing.setStatus(SubmissionStatus.PROCESSING);
+        orderSubmissionRepository.save(processing);
+
+        // When
+        List<List<Long>> claims = transactionTemplate.execute(status -> {
+            List<Long> first = customerIds(orderSubmissionRepository.lockQueued(2, LocalDateTime.now()));
+            // A second worker, in its own transaction, while the first still holds its rows
+            List<Long> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(inner ->
+                    customerIds(orderSubmissionRepository.lockQueued(2, LocalDateTime.now())))).join();
+            return List.of(first, second);
+        });
+
+        // Then
+        assertThat(claims.get(0)).hasSize(2);
+        assertThat(claims.get(1)).hasSize(1).doesNotContainAnyElementsOf(claims.get(0)).doesNotContain(4L);
+    }
+
+    @Test
+    void lockQueued_shouldSkipSubmissionsBackingOff() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        OrderSubmission due = submission(1L);
+        due.setNextAttemptAt(now.minusSeconds(1));
+        OrderSubmission backingOff = submission(2L);
+        backingOff.setNextAttemptAt(now.plusSeconds(30));
+        orderSubmissionRepository.saveAll(List.of(due, backingOff, submission(3L)));
+
+        // When
+        List<Long> claimed = transactionTemplate.execute(status -> customerIds(orderSubmissionRepository.lockQueued(10, now)));
+
+        // Then
+        assertThat(claimed).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void requeue_shouldQueueAClaimedSubmissionUntilItsNextAttempt() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        OrderSubmission claimed = orderSubmissionRepository.save(claimed(1L, 1, now));
+
+        // When
+        Integer requeued = transactionTemplate.execute(status -> orderSubmissionRepository.requeue(claimed.getId(), now.plusSeconds(5)));
+
+        // Then
+        assertThat(requeued).isEqualTo(1);
+        OrderSubmission updated = orderSubmissionRepository.findById(claimed.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(SubmissionStatus.QUEUED);
+        assertThat(updated.getClaimedAt()).isNull();
+        assertThat(updated.getNextAttemptAt()).isAfter(now);
+        assertThat(transactionTemplate.execute(status -> orderSubmissionRepository.lockQueued(10, now))).isEmpty();
+    }
+
+    @Test
+    void requeueStaleAndFailStale_shouldRecoverOnlyClaimsOlderThanTheCutoff() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        OrderSubmission stale = claimed(1L, 1, now.minusMinutes(10));
+        OrderSubmission exhausted = claimed(2L, 3, now.minusMinutes(10));
+        OrderSubmission fresh = claimed(3L, 1, now);
+        orderSubmissionRepository.saveAll(List.of(stale, exhausted, fresh));
+
+        // When
+        LocalDateTime cutoff = now.minusMinutes(5);
+        Integer requeued = transactionTemplate.execute(status -> orderSubmissionRepository.requeueStale(cutoff, 3));
+        Integer failed = transactionTemplate.execute(status -> orderSubmissionRepository.failStale(cutoff, 3, "Timed out", now));
+
+        // Then
+        assertThat(requeued).isEqualTo(1);
+        assertThat(failed).isEqualTo(1);
+        assertThat(orderSubmissionRepository.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo(SubmissionStatus.QUEUED);
+        assertThat(orderSubmissionRepository.findById(exhausted.getId()).orElseThrow().getError()).isEqualTo("Timed out");
+        assertThat(orderSubmissionRepository.findById(fresh.getId()).orElseThrow().getStatus()).isEqualTo(SubmissionStatus.PROCESSING);
+        assertThat(orderSubmissionRepository.countByStatusIn(List.of(SubmissionStatus.QUEUED, SubmissionStatus.PROCESSING))).isEqualTo(2);
+    }
+
+    private OrderSubmission submission(Long customerId) {
+        return new OrderSubmission(customerId, "{}");
+    }
+
+    private OrderSubmission claimed(Long customerId, int attempts, LocalDateTime claimedAt) {
+        OrderSubmission submission = submission(customerId);
+        submission.setStatus(SubmissionStatus.PROCESSING);
+        submission.setAttempts(attempts);
+        submission.setClaimedAt(claimedAt);
+        return submission;
+    }
+
+    private List<Long> customerIds(List<OrderSubmission> submissions) {
+        return submissions.stream().map(OrderSubmission::getCustomerId).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.entity.ProductSales;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ProductSalesRepositoryTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Test
+    void addSales_shouldCreateRowOnFirstSaleAndAccumulateAfterwards() {
+        // When
+        productSalesRepository.addSales(1L, 2, new BigDecimal("20.00"));
+        productSalesRepository.addSales(1L, 3, new BigDecimal("30.00"));
+        productSalesRepository.addSales(1L, -1, new BigDecimal("-10.00"));
+        entityManager.clear();
+
+        // Then
+        ProductSales productSales = productSalesRepository.findById(1L).orElseThrow();
+        assertThat(productSales.getQuantitySold()).isEqualTo(4);
+        assertThat(productSales.getRevenue()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void findBestSelling_shouldOrderByQuantityAndSkipProductsWithoutSales() {
+        // Given
+        productSalesRepository.addSales(1L, 2, new BigDecimal("20.00"));
+        productSalesRepository.addSales(2L, 5, new BigDecimal("5.00"));
+        productSalesRepository.addSales(3L, 0, BigDecimal.ZERO);
+
+        // When
+        List<BestSellingProduct> bestSellers = productSalesRepository.findBestSelling(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(bestSellers).extracting(BestSellingProduct::productId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rebuildFromOrderItems_shouldRepairDriftAndIgnoreCancelledOrders() {
+        // Given
+        Order paid = new Order(1L, "Address 1");
+        paid.addOrderItem(new OrderItem(1L, 2, BigDecimal.TEN));
+        paid.setStatus(OrderStatus.PAID);
+        entityManager.persist(paid);
+        Order cancelled = new Order(1L, "Address 1");
+        cancelled.addOrderItem(new OrderItem(1L, 5, BigDecimal.TEN));
+        cancelled.addOrderItem(new OrderItem(2L, 1, BigDecimal.ONE));
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        entityManager.persist(cancelled);
+        entityManager.flush();
+        productSalesRepository.addSales(1L, 99, new BigDecimal("990.00"));
+        productSalesRepository.addSales(2L, 1, BigDecimal.ONE);
+
+        // When
+        int corrected = productSalesRepository.rebuildFromOrderItems() + productSalesRepository.clearProductsWithoutSales();
+        entityManager.clear();
+
+        // Then
+        assertThat(corrected).isEqualTo(2);
+        assertThat(productSalesRepository.findById(1L).orElseThrow().getQuantitySold()).isEqualTo(2);
+        assertThat(productSalesRepository.findById(1L).orElseThrow().getRevenue()).isEqualByComparingTo("20.00");
+        assertThat(productSalesRepository.findById(2L).orElseThrow().getQuantitySold()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.orderprocessing.order.repository;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.order.domain.entity.ReconciliationRun;
+import com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs without the usual per-test transaction: each claim below commits or fails on its own, as it would in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReconciliationRunRepositoryTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationRunRepository.deleteAll();
+    }
+
+    @Test
+    void saveAndFlush_whileAnotherRunIsRunning_shouldViolateTheRunningSlot() {
+        // Given
+        reconciliationRunRepository.saveAndFlush(new ReconciliationRun(UUID.randomUUID()));
+
+        // When / Then
+        assertThatThrownBy(() -> reconciliationRunRepository.saveAndFlush(new ReconciliationRun(UUID.randomUUID())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(reconciliationRunRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void finish_shouldFreeTheRunningSlotForTheNextRun() {
+        // Given
+        UUID claimToken = UUID.randomUUID();
+        ReconciliationRun finished = reconciliationRunRepository.saveAndFlush(new ReconciliationRun(claimToken));
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> reconciliationRunRepository.finish(finished.getId(), claimToken,
+                ReconciliationStatus.COMPLETED, null, now, now));
+
+        // When
+        ReconciliationRun next = reconciliationRunRepository.saveAndFlush(new ReconciliationRun(UUID.randomUUID()));
+
+        // Then
+        assertThat(reconciliationRunRepository.findById(finished.getId()).orElseThrow().getActive()).isNull();
+        assertThat(next.getActive()).isTrue();
+    }
+
+    @Test
+    void interruptStale_shouldOnlyFreeTheSlotOfARunWithoutHeartbeats() {
+        // Given
+        ReconciliationRun stale = new ReconciliationRun(UUID.randomUUID());
+        stale.setHeartbeatAt(LocalDateTime.now().minusMinutes(10));
+        reconciliationRunRepository.saveAndFlush(stale);
+
+        // When
+        int live = transactionTemplate.execute(status ->
+                reconciliationRunRepository.interruptStale(LocalDateTime.now().minusMinutes(20)));
+        int interrupted = transactionTemplate.execute(status ->
+                reconciliationRunRepository.interruptStale(LocalDateTime.now().minusMinutes(5)));
+
+        // Then
+        assertThat(live).isZero();
+        assertThat(interrupted).isEqualTo(1);
+        ReconciliationRun run = reconciliationRunRepository.findById(stale.getId()).orElseThrow();
+        assertThat(run.getStatus()).isEqualTo(ReconciliationStatus.INTERRUPTED);
+        assertThat(run.getActive()).isNull();
+        assertThat(reconciliationRunRepository.saveAndFlush(new ReconciliationRun(UUID.randomUUID())).getActive()).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(JsonMapper.builder().findAndAddModules().build(),
+            100, Duration.ofHours(24));
+
+    @Test
+    void execute_withConcurrentDuplicates_shouldRunOnceAndGiveEveryCallerTheResult() throws Exception {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> first = idempotencyService.execute("create-order", "alice", "key-1", "request", () -> {
+            runs.incrementAndGet();
+            return inFlight;
+        });
+        CompletableFuture<String> duplicate = idempotencyService.execute("create-order", "alice", "key-1", "request", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture("second run");
+        });
+        inFlight.complete("order 1");
+
+        // Then
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(first.get()).isEqualTo("order 1");
+        assertThat(duplicate.get()).isEqualTo("order 1");
+    }
+
+    @Test
+    void execute_afterAFailure_shouldRunAgainUnderTheSameKey() throws Exception {
+        // Given
+        CompletableFuture<String> failed = idempotencyService.execute("pay-order", "alice", "key-1", "request",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("gateway down")));
+
+        // When
+        CompletableFuture<String> retried = idempotencyService.execute("pay-order", "alice", "key-1", "request",
+                () -> CompletableFuture.completedFuture("paid"));
+
+        // Then
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(retried.get()).isEqualTo("paid");
+    }
+
+    @Test
+    void execute_shouldScopeKeysToTheOperationAndCaller() throws Exception {
+        // Given
+        idempotencyService.execute("create-order", "alice", "key-1", "request", () -> CompletableFuture.completedFuture("alice's order"));
+
+        // When
+        CompletableFuture<String> otherCaller = idempotencyService.execute("create-order", "bob", "key-1", "request",
+                () -> CompletableFuture.completedFuture("bob's order"));
+        CompletableFuture<String> otherOperation = idempotencyService.execute("cancel-order", "alice", "key-1", "request",
+                () -> CompletableFuture.completedFuture("cancelled"));
+
+        // Then
+        assertThat(otherCaller.get()).isEqualTo("bob's order");
+        assertThat(otherOperation.get()).isEqualTo("cancelled");
+    }
+
+    @Test
+    void execute_withAKeyReusedForADifferentRequest_shouldReject() {
+        // Given
+        idempotencyService.execute("create-order", "alice", "key-1", "request", () -> CompletableFuture.completedFuture("order 1"));
+
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("create-order", "alice", "key-1", "another request",
+                () -> CompletableFuture.completedFuture("order 2")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void execute_shouldTellRequestsApartByTheirContent() throws Exception {
+        // Given
+        CreateOrderRequest request = new CreateOrderRequest(1L, "123 Main St", List.of(new CreateOrderItemRequest(7L, 2)), "notes");
+        idempotencyService.execute("create-order", "alice", "key-1", request, () -> CompletableFuture.completedFuture("order 1"));
+
+        // When
+        CompletableFuture<String> replayed = idempotencyService.execute("create-order", "alice", "key-1",
+                new CreateOrderRequest(1L, "123 Main St", List.of(new CreateOrderItemRequest(7L, 2)), "notes"),
+                () -> CompletableFuture.completedFuture("order 2"));
+
+        // Then
+        assertThat(replayed.get()).isEqualTo("order 1");
+        assertThatThrownBy(() -> idempotencyService.execute("create-order", "alice", "key-1",
+                new CreateOrderRequest(1L, "123 Main St", List.of(new CreateOrderItemRequest(7L, 3)), "notes"),
+                () -> CompletableFuture.completedFuture("order 3")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void execute_shouldNotDependOnMapOrder() throws Exception {
+        // Given
+        idempotencyService.execute("create-order", "alice", "key-1", Map.of("a", 1, "b", 2, "c", 3),
+                () -> CompletableFuture.completedFuture("order 1"));
+
+        // When
+        CompletableFuture<String> replayed = idempotencyService.execute("create-order", "alice", "key-1",
+                Map.of("c", 3, "b", 2, "a", 1), () -> CompletableFuture.completedFuture("order 2"));
+
+        // Then
+        assertThat(replayed.get()).isEqualTo("order 1");
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult.Outcome;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
+import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
+import com.ecommerce.orderprocessing.product.ProductResponse;
+import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCreationPipelineTest {
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductCatalogService productCatalogService;
+
+    @Mock
+    private InventoryHoldService inventoryHoldService;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private OrderCreationPipeline pipeline;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new OrderCreationPipeline(orderItemRepository, productCatalogService, inventoryHoldService, virtualThreadExecutor);
+
+        order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+    }
+
+    @Test
+    void createOrderItems_shouldReserveWholeBasketOnceAndSaveInOneBatch() throws Exception {
+        // Given
+        when(productCatalogService.getProductsByIds(Set.of(1L, 2L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, product(1L, BigDecimal.TEN), 2L, product(2L, BigDecimal.ONE))));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2, 2L, 3))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED, 2L, Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<OrderItem> orderItems = pipeline.createOrderItems(order,
+                List.of(new CreateOrderItemRequest(1L, 2), new CreateOrderItemRequest(2L, 3))).get();
+
+        // Then
+        assertThat(orderItems).extracting(OrderItem::getProductId).containsExactly(1L, 2L);
+        assertThat(orderItems).extracting(OrderItem::getSubtotal).containsExactly(BigDecimal.valueOf(20), BigDecimal.valueOf(3));
+        assertThat(orderItems).allMatch(item -> item.getOrder() == order);
+        verify(inventoryHoldService, times(1)).placeHolds(1L, Map.of(1L, 2, 2L, 3));
+        verify(orderItemRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createOrderItems_withRepeatedProduct_shouldReserveSummedQuantity() throws Exception {
+        // Given
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, product(1L, BigDecimal.TEN))));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 5))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<OrderItem> orderItems = pipeline.createOrderItems(order,
+                List.of(new CreateOrderItemRequest(1L, 2), new CreateOrderItemRequest(1L, 3))).get();
+
+        // Then
+        assertThat(orderItems).hasSize(2);
+        verify(inventoryHoldService, times(1)).placeHolds(1L, Map.of(1L, 5));
+    }
+
+    @Test
+    void createOrderItems_whenBasketRejected_shouldFailWithoutSaving() {
+        // Given
+        when(productCatalogService.getProductsByIds(Set.of(1L, 2L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, product(1L, BigDecimal.TEN), 2L, product(2L, BigDecimal.ONE))));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2, 2L, 3))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED, 2L, Outcome.INSUFFICIENT_STOCK))));
+
+        // When
+        CompletableFuture<List<OrderItem>> future = pipeline.createOrderItems(order,
+                List.of(new CreateOrderItemRequest(1L, 2), new CreateOrderItemRequest(2L, 3)));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InsufficientStockException.class);
+        verify(inventoryHoldService, never()).releaseHolds(1L);
+        verify(orderItemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createOrderItems_whenSaveFails_shouldReleaseHolds() {
+        // Given
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, product(1L, BigDecimal.TEN))));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("constraint"));
+        when(inventoryHoldService.releaseHolds(1L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        // When
+        CompletableFuture<List<OrderItem>> future = pipeline.createOrderItems(order, List.of(new CreateOrderItemRequest(1L, 2)));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(inventoryHoldService, times(1)).releaseHolds(1L);
+    }
+
+    @Test
+    void createOrderItems_whenProductMissing_shouldNotReserveAnything() {
+        // Given
+        when(productCatalogService.getProductsByIds(Set.of(1L, 2L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, product(1L, BigDecimal.TEN))));
+
+        // When
+        CompletableFuture<List<OrderItem>> future = pipeline.createOrderItems(order,
+                List.of(new CreateOrderItemRequest(1L, 2), new CreateOrderItemRequest(2L, 3)));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(inventoryHoldService, orderItemRepository);
+    }
+
+    private ProductResponse product(Long id, BigDecimal price) {
+        return new ProductResponse(id, "Product " + id, "Description", price, true, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
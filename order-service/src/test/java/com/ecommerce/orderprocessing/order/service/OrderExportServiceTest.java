@@ -0,0 +1,162 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.dto.OrderExportFormat;
+import com.ecommerce.orderprocessing.order.repository.OrderExportRow;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Bulkhead orderExportBulkhead = new Bulkhead("order-export", 1, Duration.ZERO);
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportService(orderRepository, transactionManager, orderExportBulkhead,
+                JsonMapper.builder().findAndAddModules().build(), 1);
+    }
+
+    @Test
+    void export_asNdjson_shouldWriteOneLinePerOrderWithItsItems() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(orderRepository.streamExportRows(FROM, TO)).thenReturn(Stream.of(
+                        row(1L, 10L, 2, "5.00"),
+                        row(1L, 11L, 1, "7.50"),
+                        row(2L, null, null, null))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long exported = orderExportService.export(FROM, TO, OrderExportFormat.NDJSON, () -> out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"orderId\":1,").contains("\"createdAt\":\"2024-05-02T10:15:00\"")
+                .contains("{\"productId\":10,\"quantity\":2,\"unitPrice\":5.00,\"subtotal\":10.00}")
+                .contains("{\"productId\":11,\"quantity\":1,\"unitPrice\":7.50,\"subtotal\":7.50}");
+        assertThat(lines[1]).startsWith("{\"orderId\":2,").endsWith("\"items\":[]}");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void export_asCsv_shouldWriteOneLinePerItemAndQuoteFields() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(orderRepository.streamExportRows(FROM, TO)).thenReturn(Stream.of(
+                new OrderExportRow(1L, 5L, OrderStatus.PAID, new BigDecimal("10.00"), "pay,\"1\"",
+                        LocalDateTime.of(2024, 5, 2, 10, 15), 10L, 2, new BigDecimal("5.00"), new BigDecimal("10.00")),
+                row(2L, null, null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long exported = orderExportService.export(FROM, TO, OrderExportFormat.CSV, () -> out);
+
+        // Then
+        assertThat(exported).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "order_id,customer_id,status,total_amount,payment_id,created_at,product_id,quantity,unit_price,subtotal",
+                "1,5,PAID,10.00,\"pay,\"\"1\"\"\",2024-05-02T10:15,10,2,5.00,10.00",
+                "2,5,PENDING,10.00,,2024-05-02T10:15,,,,");
+    }
+
+    @Test
+    void export_whenAnotherExportIsRunning_shouldRejectWithoutQuerying() throws Exception {
+        // Given
+        AtomicBoolean opened = new AtomicBoolean();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> orderExportBulkhead.call(() -> {
+                holding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When / Then
+            assertThatThrownBy(() -> orderExportService.export(FROM, TO, OrderExportFormat.NDJSON, () -> {
+                opened.set(true);
+                return new ByteArrayOutputStream();
+            })).isInstanceOf(BulkheadFullException.class);
+            verifyNoInteractions(orderRepository);
+            assertThat(opened).isFalse();
+
+            release.countDown();
+        }
+    }
+
+    @Test
+    void export_withEmptyRange_shouldFail() {
+        AtomicBoolean opened = new AtomicBoolean();
+
+        assertThatThrownBy(() -> orderExportService.export(TO, FROM, OrderExportFormat.NDJSON, () -> {
+            opened.set(true);
+            return new ByteArrayOutputStream();
+        })).isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(orderRepository);
+        assertThat(opened).isFalse();
+    }
+
+    @Test
+    void constructor_withNonPositiveFlushEvery_shouldFail() {
+        assertThatThrownBy(() -> new OrderExportService(orderRepository, transactionManager, orderExportBulkhead,
+                JsonMapper.builder().findAndAddModules().build(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private OrderExportRow row(Long orderId, Long productId, Integer quantity, String unitPrice) {
+        BigDecimal price = unitPrice == null ? null : new BigDecimal(unitPrice);
+        return new OrderExportRow(orderId, 5L, orderId == 1L ? OrderStatus.PAID : OrderStatus.PENDING,
+                new BigDecimal("10.00"), null, LocalDateTime.of(2024, 5, 2, 10, 15),
+                productId, quantity, price, price == null ? null : price.multiply(BigDecimal.valueOf(quantity)));
+    }
+}
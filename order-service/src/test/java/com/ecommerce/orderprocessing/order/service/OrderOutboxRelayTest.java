@@ -0,0 +1,135 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OutboxStatus;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    private static final OrderStatusChangedEvent CANCELLED = new OrderStatusChangedEvent(10L, 1L, OrderStatus.PENDING,
+            OrderStatus.CANCELLED, null, null, new BigDecimal("20.00"), Map.of(5L, 2), "Changed my mind",
+            LocalDateTime.of(2024, 5, 2, 10, 15));
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private OrderEventConsumer consumer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        when(consumer.name()).thenReturn("stock-release");
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderOutboxRelay = new OrderOutboxRelay(orderOutboxRepository, List.of(consumer), objectMapper, transactionManager,
+                2, 3, Duration.ofSeconds(5), Duration.ofMinutes(10), Duration.ofMillis(200), Duration.ofDays(7));
+    }
+
+    @Test
+    void relay_shouldDeliverFullBatchesUntilNoneRemainAndMarkThemDone() throws Exception {
+        // Given
+        when(orderOutboxRepository.lockDueEntries(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(entry(1L, 0), entry(2L, 0)))
+                .thenReturn(List.of(entry(3L, 0)))
+                .thenReturn(List.of());
+        when(consumer.handle(CANCELLED)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        orderOutboxRelay.relay();
+
+        // Then
+        verify(orderOutboxRepository).markDone(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(orderOutboxRepository).markDone(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relay_whenConsumerFails_shouldRescheduleTheEntryWithBackoff() throws Exception {
+        // Given
+        OrderOutboxEntry entry = entry(1L, 1);
+        when(orderOutboxRepository.lockDueEntries(any(LocalDateTime.class), eq(2))).thenReturn(List.of(entry));
+        when(consumer.handle(CANCELLED)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("inventory down")));
+
+        // When
+        orderOutboxRelay.relay();
+
+        // Then
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(entry.getLastError()).contains("inventory down");
+        assertThat(entry.getAvailableAt()).isAfter(LocalDateTime.now().plusSeconds(8));
+        verify(orderOutboxRepository, never()).markDone(anyList(), any());
+    }
+
+    @Test
+    void relay_whenConsumerTimesOut_shouldRescheduleTheEntry() throws Exception {
+        // Given
+        OrderOutboxEntry entry = entry(1L, 0);
+        when(orderOutboxRepository.lockDueEntries(any(LocalDateTime.class), eq(2))).thenReturn(List.of(entry));
+        when(consumer.handle(CANCELLED)).thenReturn(new CompletableFuture<>());
+
+        // When
+        orderOutboxRelay.relay();
+
+        // Then
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).contains("TimeoutException");
+    }
+
+    @Test
+    void relay_whenAttemptsRunOut_shouldMarkTheEntryFailed() throws Exception {
+        // Given
+        OrderOutboxEntry entry = entry(1L, 2);
+        when(orderOutboxRepository.lockDueEntries(any(LocalDateTime.class), eq(2))).thenReturn(List.of(entry));
+        when(consumer.handle(CANCELLED)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("inventory down")));
+
+        // When
+        orderOutboxRelay.relay();
+
+        // Then
+        assertThat(entry.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        assertThat(entry.getProcessedAt()).isNotNull();
+    }
+
+    private OrderOutboxEntry entry(Long id, int attempts) throws Exception {
+        OrderOutboxEntry entry = new OrderOutboxEntry(CANCELLED.orderId(), "stock-release", OrderStatusChangedEvent.TYPE,
+                objectMapper.writeValueAsString(CANCELLED));
+        entry.setId(id);
+        entry.setAttempts(attempts);
+        return entry;
+    }
+}
@@ -2,48 +2,87 @@ package com.ecommerce.orderprocessing.order.service;
 
 import com.ecommerce.orderprocessing.order.domain.entity.Order;
 import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
 import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateRequest;
+import com.ecommerce.orderprocessing.order.dto.BulkStatusUpdateResponse;
 import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
 import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderIdAndStatus;
 import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
 import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderTransition;
+import com.ecommerce.orderprocessing.payment.dto.AuthorizationRequest;
+import com.ecommerce.orderprocessing.payment.dto.AuthorizationResponse;
 import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
 import com.ecommerce.orderprocessing.order.dto.UpdateOrderStatusRequest;
 import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
+import com.ecommerce.orderprocessing.payment.dto.RefundRequest;
+import com.ecommerce.orderprocessing.payment.dto.RefundResponse;
+import com.ecommerce.orderprocessing.payment.dto.VoidRequest;
+import com.ecommerce.orderprocessing.payment.dto.VoidResponse;
 import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
 import com.ecommerce.orderprocessing.order.dto.OrderResponse;
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.dto.PagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
+import com.ecommerce.orderprocessing.common.pagination.KeysetCursor;
 import com.ecommerce.orderprocessing.order.exception.InvalidOrderStateException;
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
 import com.ecommerce.orderprocessing.product.ProductResponse;
-import com.ecommerce.orderprocessing.inventory.service.InventoryService;
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
 import com.ecommerce.orderprocessing.payment.service.PaymentService;
 import com.ecommerce.orderprocessing.user.service.UserService;
-import com.ecommerce.orderprocessing.user.dto.UserResponse;
-import com.ecommerce.orderprocessing.payment.dto.RefundRequest;
-import com.ecommerce.orderprocessing.payment.dto.RefundResponse;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -58,7 +97,7 @@ class OrderServiceImplTest {
     private ProductCatalogService productCatalogService;
 
     @Mock
-    private InventoryService inventoryService;
+    private InventoryHoldService inventoryHoldService;
 
     @Mock
     private PaymentService paymentService;
@@ -66,13 +105,33 @@ class OrderServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SalesAggregateService salesAggregateService;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     private OrderServiceImpl orderServiceImpl;
 
     @BeforeEach
     void setUp() {
-        orderServiceImpl = new OrderServiceImpl(orderRepository, orderItemRepository, productCatalogService, inventoryService, paymentService, userService, virtualThreadExecutor);
+        orderServiceImpl = newOrderService(false);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private OrderServiceImpl newOrderService(boolean captureOnShip) {
+        OrderCreationPipeline orderCreationPipeline = new OrderCreationPipeline(orderItemRepository, productCatalogService, inventoryHoldService, virtualThreadExecutor);
+        return new OrderServiceImpl(orderRepository, orderCreationPipeline, productCatalogService, inventoryHoldService, paymentService, userService,
+                salesAggregateService, orderOutbox, transactionManager, eventPublisher, new Bulkhead("database", 10, Duration.ofSeconds(1)), virtualThreadExecutor,
+                captureOnShip);
     }
 
     @Test
@@ -81,7 +140,7 @@ class OrderServiceImplTest {
         CreateOrderItemRequest itemRequest = new CreateOrderItemRequest(1L, 2);
         CreateOrderRequest orderRequest = new CreateOrderRequest(1L, "123 Main St", Collections.singletonList(itemRequest), "notes");
 
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
         ProductResponse productResponse = new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now());
 
         Order order = new Order();
@@ -95,7 +154,7 @@ class OrderServiceImplTest {
 
         order.setOrderItems(Collections.singletonList(orderItem));
 
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
             if (savedOrder.getId() == null) {
@@ -103,15 +162,18 @@ class OrderServiceImplTest {
             }
             return savedOrder;
         });
-        when(productCatalogService.getProductById(1L)).thenReturn(CompletableFuture.completedFuture(productResponse));
-        when(inventoryService.reserveInventory(1L, 2)).thenReturn(CompletableFuture.completedFuture(null));
-        when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(invocation -> {
-            OrderItem savedOrderItem = invocation.getArgument(0);
-            if (savedOrderItem.getId() == null) {
-                savedOrderItem.setId(1L);
-            }
-            savedOrderItem.calculateSubtotal();
-            return savedOrderItem;
+        when(orderRepository.completeCreation(eq(1L), eq(BigDecimal.valueOf(20)), any(LocalDateTime.class))).thenReturn(1);
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, productResponse)));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, InventoryBatchResult.Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrderItem> savedOrderItems = invocation.getArgument(0);
+            savedOrderItems.forEach(savedOrderItem -> {
+                if (savedOrderItem.getId() == null) {
+                    savedOrderItem.setId(1L);
+                }
+            });
+            return savedOrderItems;
         });
 
         // When
@@ -127,13 +189,139 @@ class OrderServiceImplTest {
         assertEquals(1, orderResponse.orderItems().size());
         assertEquals(1L, orderResponse.orderItems().get(0).productId());
         assertEquals(BigDecimal.valueOf(20), orderResponse.totalAmount());
+        verify(salesAggregateService).recordOrder(any(Order.class), anyList());
+        verify(eventPublisher).publishEvent(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void createOrder_whenCancelledWhileItemsAreCreated_shouldKeepTheCancellation() throws Exception {
+        // Given
+        CreateOrderItemRequest itemRequest = new CreateOrderItemRequest(1L, 2);
+        CreateOrderRequest orderRequest = new CreateOrderRequest(1L, "123 Main St", Collections.singletonList(itemRequest), "notes");
+
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
+        ProductResponse productResponse = new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now());
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+
+        OrderItem orderItem = new OrderItem(1L, 2, BigDecimal.TEN);
+        orderItem.setId(1L);
+        orderItem.setOrder(order);
+
+        order.setOrderItems(Collections.singletonList(orderItem));
+        Order cancelled = new Order();
+        cancelled.setId(1L);
+        cancelled.setCustomerId(1L);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            if (savedOrder.getId() == null) {
+                savedOrder.setId(1L);
+            }
+            return savedOrder;
+        });
+        when(orderRepository.completeCreation(eq(1L), eq(BigDecimal.valueOf(20)), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(cancelled));
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, productResponse)));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, InventoryBatchResult.Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrderItem> savedOrderItems = invocation.getArgument(0);
+            savedOrderItems.forEach(savedOrderItem -> {
+                if (savedOrderItem.getId() == null) {
+                    savedOrderItem.setId(1L);
+                }
+            });
+            return savedOrderItems;
+        });
+
+        // When
+        CompletableFuture<OrderResponse> future = orderServiceImpl.createOrder(orderRequest);
+        OrderResponse orderResponse = future.get();
+
+        // Then
+        assertEquals(OrderStatus.CANCELLED.toString(), orderResponse.status());
+        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(salesAggregateService, never()).recordOrder(any(Order.class), anyList());
+        verify(eventPublisher, never()).publishEvent(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void createOrder_whenAnEarlierAttemptSavedTheItems_shouldCompleteThatOrder() throws Exception {
+        // Given
+        UUID submissionId = UUID.randomUUID();
+        CreateOrderRequest orderRequest = new CreateOrderRequest(1L, "123 Main St", List.of(new CreateOrderItemRequest(1L, 2)), "notes");
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setSubmissionId(submissionId);
+        OrderItem orderItem = new OrderItem(1L, 2, BigDecimal.TEN);
+        orderItem.setOrder(order);
+        order.setOrderItems(List.of(orderItem));
+
+        when(orderRepository.findWithItemsBySubmissionId(submissionId)).thenReturn(Optional.of(order));
+        when(orderRepository.completeCreation(eq(1L), eq(BigDecimal.valueOf(20)), any(LocalDateTime.class))).thenReturn(1);
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L,
+                new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now()))));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, new CustomerSummary(1L, "Test", "Customer", "test@test.com"))));
+
+        // When
+        OrderResponse orderResponse = orderServiceImpl.createOrder(orderRequest, submissionId).get();
+
+        // Then
+        assertEquals(1L, orderResponse.id());
+        assertEquals(BigDecimal.valueOf(20), orderResponse.totalAmount());
+        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(inventoryHoldService, orderItemRepository);
+        verify(salesAggregateService).recordOrder(order, List.of(orderItem));
+        verify(eventPublisher).publishEvent(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void createOrder_whenAnEarlierAttemptStoppedBeforeTheItems_shouldReleaseItsHoldsAndBuildThem() throws Exception {
+        // Given
+        UUID submissionId = UUID.randomUUID();
+        CreateOrderRequest orderRequest = new CreateOrderRequest(1L, "123 Main St", List.of(new CreateOrderItemRequest(1L, 2)), "notes");
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setSubmissionId(submissionId);
+        order.setOrderItems(new ArrayList<>());
+
+        when(orderRepository.findWithItemsBySubmissionId(submissionId)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.releaseHolds(1L)).thenReturn(CompletableFuture.completedFuture(true));
+        when(inventoryHoldService.placeHolds(1L, Map.of(1L, 2))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, InventoryBatchResult.Outcome.APPLIED))));
+        when(orderItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.completeCreation(eq(1L), eq(BigDecimal.valueOf(20)), any(LocalDateTime.class))).thenReturn(1);
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L,
+                new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now()))));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, new CustomerSummary(1L, "Test", "Customer", "test@test.com"))));
+
+        // When
+        OrderResponse orderResponse = orderServiceImpl.createOrder(orderRequest, submissionId).get();
+
+        // Then
+        assertEquals(1L, orderResponse.id());
+        assertEquals(1, orderResponse.orderItems().size());
+        InOrder holds = inOrder(inventoryHoldService);
+        holds.verify(inventoryHoldService).releaseHolds(1L);
+        holds.verify(inventoryHoldService).placeHolds(1L, Map.of(1L, 2));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
     void getOrder_shouldReturnOrderSuccessfully() throws Exception {
         // Given
         Long orderId = 1L;
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(orderId);
@@ -141,8 +329,8 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
         order.setOrderItems(Collections.emptyList());
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.getOrder(orderId);
@@ -158,7 +346,7 @@ class OrderServiceImplTest {
     void getOrder_whenOrderNotFound_shouldThrowException() {
         // Given
         Long orderId = 1L;
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.empty());
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.getOrder(orderId);
@@ -179,7 +367,7 @@ class OrderServiceImplTest {
         // Given
         Long customerId = 1L;
         Pageable pageable = Pageable.ofSize(10);
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(1L);
@@ -187,10 +375,9 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
         order.setOrderItems(Collections.emptyList());
 
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(order), pageable, 1);
-
-        when(orderRepository.findByCustomerId(customerId, pageable)).thenReturn(orderPage);
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findIdsByCustomerId(customerId, pageable)).thenReturn(new PageImpl<>(List.of(1L), pageable, 1));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+        when(userService.getCustomerSummaries(Set.of(customerId))).thenReturn(CompletableFuture.completedFuture(Map.of(customerId, customerSummary)));
 
         // When
         CompletableFuture<PagedResponse<OrderResponse>> future = orderServiceImpl.getCustomerOrders(customerId, pageable);
@@ -207,7 +394,16 @@ class OrderServiceImplTest {
         // Given
         Long customerId = 1L;
         Pageable pageable = Pageable.ofSize(10);
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("User not found")));
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(customerId);
+        order.setStatus(OrderStatus.PENDING);
+        order.setOrderItems(Collections.emptyList());
+
+        when(orderRepository.findIdsByCustomerId(customerId, pageable)).thenReturn(new PageImpl<>(List.of(1L), pageable, 1));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+        when(userService.getCustomerSummaries(Set.of(customerId))).thenReturn(CompletableFuture.completedFuture(Map.of()));
 
         // When
         CompletableFuture<PagedResponse<OrderResponse>> future = orderServiceImpl.getCustomerOrders(customerId, pageable);
@@ -228,7 +424,7 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.PAID.toString(), "Payment received");
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(orderId);
@@ -236,9 +432,9 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
         order.setOrderItems(Collections.emptyList());
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.compareAndSetStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.PAID), eq("Payment received"), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.updateOrderStatus(orderId, request);
@@ -255,7 +451,7 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.PAID.toString(), null);
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.empty());
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.updateOrderStatus(orderId, request);
@@ -276,15 +472,15 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.SHIPPED.toString(), null);
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(orderId);
         order.setCustomerId(1L);
         order.setStatus(OrderStatus.PENDING);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.updateOrderStatus(orderId, request);
@@ -293,22 +489,71 @@ class OrderServiceImplTest {
         assertThatThrownBy(future::get).hasCauseInstanceOf(InvalidOrderStateException.class);
     }
 
+    @Test
+    void updateOrderStatuses_shouldReportTheOutcomeForEachOrder() throws Exception {
+        // Given: order 1 is paid, order 2 is still pending and order 3 does not exist
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest(List.of(1L, 2L, 3L, 1L), OrderStatus.PROCESSING.toString(), "Wave 12");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setOrderItems(Collections.emptyList());
+
+        when(orderRepository.transitionAll(eq(List.of(1L, 2L, 3L)), eq(List.of(OrderStatus.PAID.name())), eq(OrderStatus.PROCESSING.name()),
+                eq("Wave 12"), any(LocalDateTime.class))).thenReturn(List.of(transition(1L, OrderStatus.PAID)));
+        when(orderRepository.findWithItemsByIdIn(Set.of(1L))).thenReturn(List.of(order));
+        when(orderRepository.findStatusesByIdIn(List.of(2L, 3L))).thenReturn(List.of(new OrderIdAndStatus(2L, OrderStatus.PENDING)));
+
+        // When
+        BulkStatusUpdateResponse response = orderServiceImpl.updateOrderStatuses(request).get();
+
+        // Then
+        assertEquals(1, response.updated());
+        assertEquals(2, response.failed());
+        assertEquals(List.of(
+                new BulkStatusUpdateResponse.Result(1L, true, "PAID", null),
+                new BulkStatusUpdateResponse.Result(2L, false, null, "Invalid state transition from PENDING to PROCESSING"),
+                new BulkStatusUpdateResponse.Result(3L, false, null, "Order not found")), response.results());
+        verify(salesAggregateService).onStatusChange(order, OrderStatus.PAID);
+        verify(orderOutbox).append(any(OrderStatusChangedEvent.class));
+        verifyNoInteractions(userService, productCatalogService);
+    }
+
+    @Test
+    void updateOrderStatuses_toAStatusNothingCanReach_shouldNotUpdateAnyOrder() throws Exception {
+        // Given
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest(List.of(1L), OrderStatus.PENDING.toString(), null);
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PAID)));
+
+        // When
+        BulkStatusUpdateResponse response = orderServiceImpl.updateOrderStatuses(request).get();
+
+        // Then
+        assertEquals(0, response.updated());
+        assertEquals("Invalid state transition from PAID to PENDING", response.results().get(0).error());
+        verify(orderRepository, never()).transitionAll(anyList(), anyList(), any(), any(), any());
+        verifyNoInteractions(salesAggregateService, orderOutbox);
+    }
+
     @Test
     void processOrderPayment_shouldProcessPaymentSuccessfully() throws Exception {
         // Given
         PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
         PaymentResponse paymentResponse = new PaymentResponse("payment-1", "SUCCESS", BigDecimal.TEN, "USD", "card", LocalDateTime.now(), "trx-1", "Payment successful");
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(1L);
         order.setCustomerId(1L);
         order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(paymentService.processPayment(paymentRequest)).thenReturn(CompletableFuture.completedFuture(paymentResponse));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(paymentService.processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"))).thenReturn(CompletableFuture.completedFuture(paymentResponse));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatus.PENDING), eq(OrderStatus.PAID), isNull(), eq("payment-1"), any(LocalDateTime.class))).thenReturn(1);
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
@@ -319,13 +564,14 @@ class OrderServiceImplTest {
         assertEquals("SUCCESS", response.status());
         assertEquals(OrderStatus.PAID, order.getStatus());
         assertEquals("payment-1", order.getPaymentId());
+        verify(orderOutbox).append(any(OrderStatusChangedEvent.class));
     }
 
     @Test
     void processOrderPayment_whenOrderNotFound_shouldThrowException() {
         // Given
         PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         // When
         CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
@@ -345,15 +591,15 @@ class OrderServiceImplTest {
     void processOrderPayment_whenInvalidOrderStatus_shouldThrowException() {
         // Given
         PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(1L);
         order.setCustomerId(1L);
         order.setStatus(OrderStatus.PAID);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
@@ -362,27 +608,278 @@ class OrderServiceImplTest {
         assertThatThrownBy(future::get).hasCauseInstanceOf(InvalidOrderStateException.class);
     }
 
+    @Test
+    void processOrderPayment_whenAmountDiffersFromTheOrderTotal_shouldThrowException() {
+        // Given
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.ONE, "123", "name", "12", "2025", "123");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+
+        // When
+        CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(BadRequestException.class);
+        verifyNoInteractions(paymentService, inventoryHoldService);
+    }
+
     @Test
     void processOrderPayment_whenPaymentFails_shouldThrowException() {
         // Given
         PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
         PaymentResponse paymentResponse = new PaymentResponse("payment-1", "FAILED", BigDecimal.TEN, "USD", "card", LocalDateTime.now(), "trx-1", "Payment failed");
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(1L);
         order.setCustomerId(1L);
         order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(paymentService.processPayment(paymentRequest)).thenReturn(CompletableFuture.completedFuture(paymentResponse));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PENDING)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"))).thenReturn(CompletableFuture.completedFuture(paymentResponse));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
 
         // Then
         assertThatThrownBy(future::get).hasCauseInstanceOf(PaymentProcessingException.class);
+        verify(inventoryHoldService).reinstateHolds(List.of(100L));
+        verify(orderRepository).advancePaymentAttempt(1L, 0);
+    }
+
+    @Test
+    void processOrderPayment_whenRetriedAfterATimeout_shouldChargeUnderTheSameKey() {
+        // Given
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PENDING)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"))).thenReturn(
+                CompletableFuture.failedFuture(new ExternalServiceException("PaymentGateway", "processPayment timed out after 5000 ms")));
+
+        // When
+        CompletableFuture<PaymentResponse> first = orderServiceImpl.processOrderPayment(paymentRequest);
+        CompletableFuture<PaymentResponse> retry = orderServiceImpl.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(first::get).hasCauseInstanceOf(ExternalServiceException.class);
+        assertThatThrownBy(retry::get).hasCauseInstanceOf(ExternalServiceException.class);
+        verify(paymentService, times(2)).processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"));
+        verify(orderRepository, never()).advancePaymentAttempt(any(), anyInt());
+    }
+
+    @Test
+    void processOrderPayment_whenTheOrderWasPaidAfterAll_shouldNotReinstateTheHolds() {
+        // Given
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+        PaymentResponse paymentResponse = new PaymentResponse("payment-1", "FAILED", BigDecimal.TEN, "USD", "card", LocalDateTime.now(), "trx-1", "Payment failed");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(paymentService.processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"))).thenReturn(CompletableFuture.completedFuture(paymentResponse));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PAID)));
+
+        // When
+        CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(PaymentProcessingException.class);
+        verify(inventoryHoldService, never()).reinstateHolds(any());
+    }
+
+    @Test
+    void processOrderPayment_whenOrderCancelledDuringPayment_shouldRefundTheCharge() {
+        // Given
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+        PaymentResponse paymentResponse = new PaymentResponse("payment-1", 1L, "SUCCESS", BigDecimal.TEN, "USD", "card", LocalDateTime.now(), "trx-1", "Payment successful");
+
+        Order pending = new Order();
+        pending.setId(1L);
+        pending.setCustomerId(1L);
+        pending.setStatus(OrderStatus.PENDING);
+        pending.setTotalAmount(BigDecimal.TEN);
+        Order cancelled = new Order();
+        cancelled.setId(1L);
+        cancelled.setCustomerId(1L);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        RefundRequest refundRequest = new RefundRequest("payment-1", BigDecimal.TEN, "Order cancelled or paid by another attempt during payment", "refund-payment-1");
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(pending), Optional.of(pending), Optional.of(cancelled));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatus.PENDING), eq(OrderStatus.PAID), isNull(), eq("payment-1"), any(LocalDateTime.class))).thenReturn(0);
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.CANCELLED)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.processPayment(paymentRequest.withIdempotencyKey("charge-order-1-0"))).thenReturn(CompletableFuture.completedFuture(paymentResponse));
+        when(paymentService.refundPayment(refundRequest)).thenReturn(CompletableFuture.completedFuture(
+                new RefundResponse("refund-1", "payment-1", "SUCCESS", BigDecimal.TEN, "USD", LocalDateTime.now(), "Refund successful")));
+
+        // When
+        CompletableFuture<PaymentResponse> future = orderServiceImpl.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InvalidOrderStateException.class);
+        verify(paymentService).refundPayment(refundRequest);
+        verify(orderOutbox, never()).append(any());
+    }
+
+    @Test
+    void processOrderPayment_whenCapturingOnShip_shouldOnlyAuthorize() throws Exception {
+        // Given
+        OrderServiceImpl authorizingService = newOrderService(true);
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(paymentService.authorizePayment(any(AuthorizationRequest.class))).thenReturn(CompletableFuture.completedFuture(authorization("AUTHORIZED")));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatus.PENDING), eq(OrderStatus.PAID), isNull(), isNull(), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        PaymentResponse response = authorizingService.processOrderPayment(paymentRequest).get();
+
+        // Then
+        assertEquals("AUTHORIZED", response.status());
+        assertEquals("auth-1", response.paymentId());
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        assertEquals("auth-1", order.getAuthorizationId());
+        assertEquals(CaptureStatus.AUTHORIZED, order.getCaptureStatus());
+        assertNull(order.getPaymentId());
+        verify(orderRepository).recordAuthorization(1L, "auth-1");
+        verify(paymentService, never()).processPayment(any());
+        verify(orderOutbox).append(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void processOrderPayment_whenAuthorizationIsDeclined_shouldReinstateTheHolds() {
+        // Given
+        OrderServiceImpl authorizingService = newOrderService(true);
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PENDING)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.authorizePayment(any(AuthorizationRequest.class))).thenReturn(CompletableFuture.completedFuture(authorization("DECLINED")));
+
+        // When
+        CompletableFuture<PaymentResponse> future = authorizingService.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(PaymentProcessingException.class);
+        verify(inventoryHoldService).reinstateHolds(List.of(100L));
+        verify(orderRepository, never()).recordAuthorization(any(), any());
+    }
+
+    @Test
+    void processOrderPayment_whenRetriedAfterADecline_shouldAuthorizeUnderANewKey() {
+        // Given
+        OrderServiceImpl authorizingService = newOrderService(true);
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+        Order declinedOnce = new Order();
+        declinedOnce.setId(1L);
+        declinedOnce.setCustomerId(1L);
+        declinedOnce.setStatus(OrderStatus.PENDING);
+        declinedOnce.setTotalAmount(BigDecimal.TEN);
+        declinedOnce.setPaymentAttempt(1);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order), Optional.of(declinedOnce));
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.PENDING)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.authorizePayment(any(AuthorizationRequest.class))).thenReturn(CompletableFuture.completedFuture(authorization("DECLINED")));
+
+        // When
+        CompletableFuture<PaymentResponse> first = authorizingService.processOrderPayment(paymentRequest);
+        first.exceptionally(ex -> null).join();
+        CompletableFuture<PaymentResponse> retry = authorizingService.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(first::get).hasCauseInstanceOf(PaymentProcessingException.class);
+        assertThatThrownBy(retry::get).hasCauseInstanceOf(PaymentProcessingException.class);
+        ArgumentCaptor<AuthorizationRequest> requests = ArgumentCaptor.forClass(AuthorizationRequest.class);
+        verify(paymentService, times(2)).authorizePayment(requests.capture());
+        List<String> keys = requests.getAllValues().stream().map(AuthorizationRequest::idempotencyKey).toList();
+        assertEquals(List.of("authorize-order-1-0", "authorize-order-1-1"), keys);
+        verify(orderRepository).advancePaymentAttempt(1L, 0);
+        verify(orderRepository).advancePaymentAttempt(1L, 1);
+    }
+
+    @Test
+    void processOrderPayment_whenOrderCancelledDuringAuthorization_shouldVoidIt() {
+        // Given
+        OrderServiceImpl authorizingService = newOrderService(true);
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "card", BigDecimal.TEN, "123", "name", "12", "2025", "123");
+
+        Order pending = new Order();
+        pending.setId(1L);
+        pending.setCustomerId(1L);
+        pending.setStatus(OrderStatus.PENDING);
+        pending.setTotalAmount(BigDecimal.TEN);
+        Order cancelled = new Order();
+        cancelled.setId(1L);
+        cancelled.setCustomerId(1L);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        VoidRequest voidRequest = new VoidRequest("auth-1", "Order cancelled during payment", "void-auth-1");
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(pending), Optional.of(pending), Optional.of(cancelled));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatus.PENDING), eq(OrderStatus.PAID), isNull(), isNull(), any(LocalDateTime.class))).thenReturn(0);
+        when(inventoryHoldService.commitHolds(1L, Map.of())).thenReturn(CompletableFuture.completedFuture(List.of(100L)));
+        when(orderRepository.findStatusesByIdIn(List.of(1L))).thenReturn(List.of(new OrderIdAndStatus(1L, OrderStatus.CANCELLED)));
+        when(inventoryHoldService.reinstateHolds(List.of(100L))).thenReturn(CompletableFuture.completedFuture(null));
+        when(paymentService.authorizePayment(any(AuthorizationRequest.class))).thenReturn(CompletableFuture.completedFuture(authorization("AUTHORIZED")));
+        when(paymentService.voidPayment(voidRequest)).thenReturn(CompletableFuture.completedFuture(
+                new VoidResponse("auth-1", "VOIDED", LocalDateTime.now(), "Authorization voided")));
+
+        // When
+        CompletableFuture<PaymentResponse> future = authorizingService.processOrderPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InvalidOrderStateException.class);
+        verify(paymentService).voidPayment(voidRequest);
+        verify(orderRepository, never()).recordAuthorization(any(), any());
+        verify(orderOutbox, never()).append(any());
     }
 
     @Test
@@ -390,7 +887,7 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         String reason = "No longer needed";
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
         ProductResponse productResponse = new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now());
 
         OrderItem orderItem = new OrderItem(1L, 2, BigDecimal.TEN);
@@ -401,12 +898,10 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
         order.setOrderItems(Collections.singletonList(orderItem));
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(inventoryService.releaseInventory(1L, 2)).thenReturn(CompletableFuture.completedFuture(null));
-        when(paymentService.refundPayment(any(RefundRequest.class))).thenReturn(CompletableFuture.completedFuture(new RefundResponse("refund-1", order.getPaymentId(), "SUCCESS", order.getTotalAmount(), "USD", LocalDateTime.now(), "Refund successful")));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
-        when(productCatalogService.getProductById(1L)).thenReturn(CompletableFuture.completedFuture(productResponse));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.compareAndSetStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.CANCELLED), eq(reason), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, productResponse)));
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.cancelOrder(orderId, reason);
@@ -416,6 +911,72 @@ class OrderServiceImplTest {
         assertNotNull(orderResponse);
         assertEquals(OrderStatus.CANCELLED.toString(), orderResponse.status());
         assertEquals(reason, orderResponse.notes());
+        verify(salesAggregateService).onStatusChange(order, OrderStatus.PENDING);
+        ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(orderOutbox).append(event.capture());
+        assertEquals(OrderStatus.PENDING, event.getValue().previousStatus());
+        assertEquals(OrderStatus.CANCELLED, event.getValue().status());
+        assertEquals(Map.of(1L, 2), event.getValue().quantities());
+        assertEquals(reason, event.getValue().notes());
+        verifyNoInteractions(inventoryHoldService, paymentService);
+    }
+
+    @Test
+    void cancelOrder_whenPaid_shouldLeaveTheRefundToTheOutbox() throws Exception {
+        // Given
+        Long orderId = 1L;
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
+        ProductResponse productResponse = new ProductResponse(1L, "Test Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now());
+
+        Order order = new Order();
+        order.setId(orderId);
+        order.setCustomerId(1L);
+        order.setStatus(OrderStatus.PAID);
+        order.setPaymentId("payment-1");
+        order.setTotalAmount(new BigDecimal("30.00"));
+        order.setOrderItems(List.of(new OrderItem(1L, 2, BigDecimal.TEN), new OrderItem(1L, 1, BigDecimal.TEN)));
+
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.compareAndSetStatus(eq(orderId), eq(OrderStatus.PAID), eq(OrderStatus.CANCELLED), eq("Changed my mind"), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
+        when(productCatalogService.getProductsByIds(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, productResponse)));
+
+        // When
+        OrderResponse orderResponse = orderServiceImpl.cancelOrder(orderId, "Changed my mind").get();
+
+        // Then
+        assertEquals(OrderStatus.CANCELLED.toString(), orderResponse.status());
+        ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(orderOutbox).append(event.capture());
+        assertEquals(OrderStatus.PAID, event.getValue().previousStatus());
+        assertEquals("payment-1", event.getValue().paymentId());
+        assertEquals(new BigDecimal("30.00"), event.getValue().totalAmount());
+        assertEquals(Map.of(1L, 3), event.getValue().quantities());
+        verify(paymentService, never()).refundPayment(any());
+    }
+
+    @Test
+    void cancelOrder_whenAnotherTransitionWins_shouldRecheckAgainstTheWinningStatus() {
+        // Given
+        Order processing = new Order();
+        processing.setId(1L);
+        processing.setCustomerId(1L);
+        processing.setStatus(OrderStatus.PROCESSING);
+        Order shipped = new Order();
+        shipped.setId(1L);
+        shipped.setCustomerId(1L);
+        shipped.setStatus(OrderStatus.SHIPPED);
+
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(processing), Optional.of(shipped));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatus.PROCESSING), eq(OrderStatus.CANCELLED), eq("Too slow"), isNull(), any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        CompletableFuture<OrderResponse> future = orderServiceImpl.cancelOrder(1L, "Too slow");
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(InvalidOrderStateException.class);
+        verify(salesAggregateService, never()).onStatusChange(any(), any());
+        verify(orderOutbox, never()).append(any());
     }
 
     @Test
@@ -423,7 +984,7 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         String reason = "No longer needed";
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.empty());
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.cancelOrder(orderId, reason);
@@ -444,15 +1005,15 @@ class OrderServiceImplTest {
         // Given
         Long orderId = 1L;
         String reason = "No longer needed";
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(orderId);
         order.setCustomerId(1L);
         order.setStatus(OrderStatus.SHIPPED);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<OrderResponse> future = orderServiceImpl.cancelOrder(orderId, reason);
@@ -465,7 +1026,7 @@ class OrderServiceImplTest {
     void getAllOrders_shouldReturnPagedResponse() throws Exception {
         // Given
         Pageable pageable = Pageable.ofSize(10);
-        UserResponse userResponse = new UserResponse(1L, "Test", "Customer", "test@test.com", "1234567890", null, "ROLE_CUSTOMER", true, LocalDateTime.now());
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
 
         Order order = new Order();
         order.setId(1L);
@@ -473,10 +1034,9 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
         order.setOrderItems(Collections.emptyList());
 
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(order), pageable, 1);
-
-        when(orderRepository.findAll(pageable)).thenReturn(orderPage);
-        when(userService.getUserProfile(1L)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(orderRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of(1L), pageable, 1));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
 
         // When
         CompletableFuture<PagedResponse<OrderResponse>> future = orderServiceImpl.getAllOrders(pageable);
@@ -487,4 +1047,102 @@ class OrderServiceImplTest {
         assertEquals(1, pagedResponse.content().size());
         assertEquals(1L, pagedResponse.totalElements());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllOrders_shouldKeepIdPageOrder() throws Exception {
+        // Given
+        Pageable pageable = Pageable.ofSize(10);
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
+
+        Order first = new Order();
+        first.setId(2L);
+        first.setCustomerId(1L);
+        first.setStatus(OrderStatus.PENDING);
+        Order second = new Order();
+        second.setId(1L);
+        second.setCustomerId(1L);
+        second.setStatus(OrderStatus.PAID);
+
+        when(orderRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 2));
+        when(orderRepository.findWithItemsByIdIn(List.of(2L, 1L))).thenReturn(List.of(second, first));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
+
+        // When
+        PagedResponse<OrderResponse> pagedResponse = orderServiceImpl.getAllOrders(pageable).get();
+
+        // Then
+        assertEquals(List.of(2L, 1L), pagedResponse.content().stream().map(OrderResponse::id).toList());
+    }
+
+    @Test
+    void getAllOrdersByCursor_shouldProbeOneExtraRowForNextCursor() throws Exception {
+        // Given
+        CustomerSummary customerSummary = new CustomerSummary(1L, "Test", "Customer", "test@test.com");
+        LocalDateTime now = LocalDateTime.now();
+        Order newest = new Order();
+        newest.setId(3L);
+        newest.setCustomerId(1L);
+        newest.setStatus(OrderStatus.PENDING);
+        newest.setCreatedAt(now);
+        Order middle = new Order();
+        middle.setId(2L);
+        middle.setCustomerId(1L);
+        middle.setStatus(OrderStatus.PENDING);
+        middle.setCreatedAt(now.minusMinutes(1));
+        Order oldest = new Order();
+        oldest.setId(1L);
+        oldest.setCustomerId(1L);
+        oldest.setStatus(OrderStatus.PENDING);
+        oldest.setCreatedAt(now.minusMinutes(2));
+
+        when(orderRepository.findIdsNewestFirst(Limit.of(3))).thenReturn(List.of(3L, 2L, 1L));
+        when(orderRepository.findWithItemsByIdIn(List.of(3L, 2L, 1L))).thenReturn(List.of(oldest, middle, newest));
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(Map.of(1L, customerSummary)));
+
+        // When
+        CursorPagedResponse<OrderResponse> page = orderServiceImpl.getAllOrders(CursorPageRequest.of(null, 2, false)).get();
+
+        // Then
+        assertEquals(List.of(3L, 2L), page.content().stream().map(OrderResponse::id).toList());
+        assertTrue(page.hasNext());
+        assertNull(page.totalElements());
+        assertEquals(new KeysetCursor(middle.getCreatedAt(), 2L), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getCustomerOrdersByCursor_onLastPage_shouldSeekAfterCursorAndCount() throws Exception {
+        // Given
+        KeysetCursor after = new KeysetCursor(LocalDateTime.now(), 5L);
+        when(orderRepository.findIdsByCustomerIdNewestFirstBefore(1L, after.createdAt(), 5L, Limit.of(11)))
+                .thenReturn(List.of());
+        when(orderRepository.countByCustomerId(1L)).thenReturn(5L);
+
+        // When
+        CursorPagedResponse<OrderResponse> page = orderServiceImpl
+                .getCustomerOrders(1L, CursorPageRequest.of(after.encode(), 10, true)).get();
+
+        // Then
+        assertTrue(page.content().isEmpty());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        assertEquals(5L, page.totalElements());
+    }
+
+    private static OrderTransition transition(Long id, OrderStatus previousStatus) {
+        return new OrderTransition() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPreviousStatus() {
+                return previousStatus.name();
+            }
+        };
+    }
+
+    private AuthorizationResponse authorization(String status) {
+        return new AuthorizationResponse("auth-1", status, BigDecimal.TEN, "USD", LocalDateTime.now(), status);
+    }
+}
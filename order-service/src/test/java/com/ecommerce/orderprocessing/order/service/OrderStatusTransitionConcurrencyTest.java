@@ -0,0 +1,200 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.AbstractContainerBaseTest;
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
+import com.ecommerce.orderprocessing.inventory.service.InventoryService;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderOutboxEntry;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.dto.UpdateOrderStatusRequest;
+import com.ecommerce.orderprocessing.order.event.OrderEventConsumer;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.exception.InvalidOrderStateException;
+import com.ecommerce.orderprocessing.order.repository.OrderOutboxRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import com.ecommerce.orderprocessing.product.ProductResponse;
+import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
+import com.ecommerce.orderprocessing.user.service.UserService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many clients changing one order's status at once: every transition must be applied at most
+ * once, so a paid order is refunded and its stock returned exactly once however often it is cancelled.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusTransitionConcurrencyTest extends AbstractContainerBaseTest {
+
+    private static final int CLIENTS = 200;
+
+    /** Accepts every event, so the outbox holds one row per applied transition. */
+    private static final OrderEventConsumer AUDIT = new OrderEventConsumer() {
+        @Override
+        public String name() {
+            return "audit";
+        }
+
+        @Override
+        public boolean accepts(OrderStatusChangedEvent event) {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<Void> handle(OrderStatusChangedEvent event) {
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SalesAggregateService salesAggregateService = mock(SalesAggregateService.class);
+
+    private OrderServiceImpl orderService;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = mock(UserService.class);
+        ProductCatalogService productCatalogService = mock(ProductCatalogService.class);
+        when(userService.getCustomerSummaries(Set.of(1L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(1L, new CustomerSummary(1L, "Test", "Customer", "test@test.com"))));
+        when(productCatalogService.getProductsByIds(Set.of(7L))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(7L, new ProductResponse(7L, "Product", "Description", BigDecimal.TEN, true, LocalDateTime.now(), LocalDateTime.now()))));
+
+        OrderOutbox orderOutbox = new OrderOutbox(orderOutboxRepository, List.of(
+                new PaymentRefundConsumer(mock(PaymentService.class)),
+                new StockReleaseConsumer(mock(InventoryHoldService.class), mock(InventoryService.class)),
+                AUDIT), JsonMapper.builder().findAndAddModules().build());
+        orderService = new OrderServiceImpl(orderRepository, mock(OrderCreationPipeline.class), productCatalogService,
+                mock(InventoryHoldService.class), mock(PaymentService.class), userService, salesAggregateService, orderOutbox,
+                transactionManager, mock(ApplicationEventPublisher.class), new Bulkhead("database", 10, Duration.ofSeconds(30)),
+                virtualThreadExecutor, false);
+
+        order = new Order(1L, "Address 1");
+        order.addOrderItem(new OrderItem(7L, 2, BigDecimal.TEN));
+        order.setStatus(OrderStatus.PAID);
+        order.setPaymentId("payment-1");
+        order = orderRepository.saveAndFlush(order);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderOutboxRepository.deleteAll();
+        orderRepository.deleteAll();
+        virtualThreadExecutor.shutdown();
+    }
+
+    @Test
+    void cancelOrder_fromManyClientsAtOnce_shouldCancelAndRecordTheRefundOnce() {
+        // When
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        race(CLIENTS, i -> () -> orderService.cancelOrder(order.getId(), "Changed my mind"), cancelled, rejected);
+
+        // Then
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(CLIENTS - 1);
+        assertThat(orderRepository.findById(order.getId())).get().extracting(Order::getStatus).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(outboxRows("payment-refund")).isEqualTo(1);
+        assertThat(outboxRows("stock-release")).isEqualTo(1);
+        verify(salesAggregateService, times(1)).onStatusChange(any(), eq(OrderStatus.PAID));
+    }
+
+    @Test
+    void cancelAndProcess_racingOnAPaidOrder_shouldApplyEachTransitionAtMostOnce() {
+        // When: half the clients cancel, half move the order on to PROCESSING
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        race(CLIENTS, i -> i % 2 == 0
+                ? () -> orderService.cancelOrder(order.getId(), "Changed my mind")
+                : () -> orderService.updateOrderStatus(order.getId(), new UpdateOrderStatusRequest("PROCESSING", null)),
+                applied, rejected);
+
+        // Then: either PAID -> CANCELLED, or PAID -> PROCESSING -> CANCELLED
+        List<OrderOutboxEntry> transitions = orderOutboxRepository.findAll().stream()
+                .filter(entry -> entry.getConsumer().equals("audit"))
+                .toList();
+        assertThat(orderRepository.findById(order.getId())).get().extracting(Order::getStatus).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(transitions).hasSize(applied.get()).hasSizeBetween(1, 2);
+        assertThat(rejected.get()).isEqualTo(CLIENTS - applied.get());
+        assertThat(outboxRows("payment-refund")).isEqualTo(applied.get() == 1 ? 1 : 0);
+    }
+
+    private void race(int clients, IntFunction<Supplier<CompletableFuture<?>>> calls,
+                      AtomicInteger applied, AtomicInteger rejected) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Supplier<CompletableFuture<?>> call = calls.apply(i);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    call.get().join();
+                    applied.incrementAndGet();
+                } catch (CompletionException ex) {
+                    if (ex.getCause() instanceof InvalidOrderStateException) {
+                        rejected.incrementAndGet();
+                    } else {
+                        throw ex;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+            }, virtualThreadExecutor));
+        }
+        start.countDown();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private long outboxRows(String consumer) {
+        return orderOutboxRepository.findAll().stream()
+                .filter(entry -> entry.getConsumer().equals(consumer))
+                .count();
+    }
+}
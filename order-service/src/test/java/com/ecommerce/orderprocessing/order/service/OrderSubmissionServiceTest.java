@@ -0,0 +1,140 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderSubmissionResponse;
+import com.ecommerce.orderprocessing.order.repository.OrderSubmissionRepository;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSubmissionServiceTest {
+
+    private static final CreateOrderRequest REQUEST = new CreateOrderRequest(1L, "123 Main St",
+            List.of(new CreateOrderItemRequest(7L, 2)), "notes");
+
+    @Mock
+    private OrderSubmissionRepository orderSubmissionRepository;
+
+    @Mock
+    private OrderSubmissionWorker orderSubmissionWorker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private OrderSubmissionService orderSubmissionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderSubmissionService = new OrderSubmissionService(orderSubmissionRepository, orderSubmissionWorker,
+                JsonMapper.builder().findAndAddModules().build(), transactionManager,
+                new Bulkhead("database", 10, Duration.ofSeconds(1)), virtualThreadExecutor, 2, Duration.ofSeconds(20));
+    }
+
+    @Test
+    void submit_shouldStoreTheRequestAndWakeTheWorker() throws Exception {
+        // Given
+        UUID trackingId = UUID.randomUUID();
+        when(orderSubmissionRepository.countByStatusIn(any())).thenReturn(1L);
+        when(orderSubmissionRepository.save(any(OrderSubmission.class))).thenAnswer(invocation -> {
+            OrderSubmission submission = invocation.getArgument(0);
+            submission.setId(trackingId);
+            return submission;
+        });
+
+        // When
+        OrderSubmissionResponse response = orderSubmissionService.submit(REQUEST).get();
+
+        // Then
+        assertThat(response.trackingId()).isEqualTo(trackingId);
+        assertThat(response.status()).isEqualTo("QUEUED");
+        verify(orderSubmissionWorker).wake();
+    }
+
+    @Test
+    void submit_whenTheBacklogIsFull_shouldRejectTheRequest() {
+        // Given
+        when(orderSubmissionRepository.countByStatusIn(any())).thenReturn(2L);
+
+        // When
+        CompletableFuture<OrderSubmissionResponse> future = orderSubmissionService.submit(REQUEST);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(BulkheadFullException.class);
+        verify(orderSubmissionRepository, never()).save(any());
+        verify(orderSubmissionWorker, never()).wake();
+    }
+
+    @Test
+    void getSubmission_withWait_shouldAnswerOnceTheWorkerFinishesIt() throws Exception {
+        // Given
+        UUID trackingId = UUID.randomUUID();
+        OrderSubmission queued = submission(trackingId, SubmissionStatus.QUEUED, null);
+        OrderSubmission completed = submission(trackingId, SubmissionStatus.COMPLETED, 42L);
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        when(orderSubmissionWorker.awaitFinished(trackingId, Duration.ofSeconds(20))).thenReturn(finished);
+        when(orderSubmissionRepository.findById(trackingId)).thenReturn(Optional.of(queued), Optional.of(completed));
+
+        // When: a minute is asked for, capped at the configured 20 seconds
+        CompletableFuture<OrderSubmissionResponse> future = orderSubmissionService.getSubmission(trackingId, Duration.ofMinutes(1));
+        Thread.sleep(100);
+        boolean answeredEarly = future.isDone();
+        finished.complete(null);
+
+        // Then
+        assertThat(answeredEarly).isFalse();
+        assertThat(future.get().status()).isEqualTo("COMPLETED");
+        assertThat(future.get().orderId()).isEqualTo(42L);
+    }
+
+    @Test
+    void getSubmission_whenUnknown_shouldThrowNotFound() {
+        // Given
+        UUID trackingId = UUID.randomUUID();
+        when(orderSubmissionRepository.findById(trackingId)).thenReturn(Optional.empty());
+
+        // When
+        CompletableFuture<OrderSubmissionResponse> future = orderSubmissionService.getSubmission(trackingId, Duration.ZERO);
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private OrderSubmission submission(UUID id, SubmissionStatus status, Long orderId) {
+        OrderSubmission submission = new OrderSubmission(1L, "{}");
+        submission.setId(id);
+        submission.setStatus(status);
+        submission.setOrderId(orderId);
+        return submission;
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderSubmission;
+import com.ecommerce.orderprocessing.order.domain.enumeration.SubmissionStatus;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderItemRequest;
+import com.ecommerce.orderprocessing.order.dto.CreateOrderRequest;
+import com.ecommerce.orderprocessing.order.dto.OrderResponse;
+import com.ecommerce.orderprocessing.order.repository.OrderSubmissionRepository;
+import com.ecommerce.orderprocessing.inventory.exception.InsufficientStockException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSubmissionWorkerTest {
+
+    private static final CreateOrderRequest REQUEST = new CreateOrderRequest(1L, "123 Main St",
+            List.of(new CreateOrderItemRequest(7L, 2)), "notes");
+
+    @Mock
+    private OrderSubmissionRepository orderSubmissionRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Never runs the drains scheduled by wake(), so each test drives the queue itself
+    @Mock
+    private ExecutorService virtualThreadExecutor;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private OrderSubmissionWorker orderSubmissionWorker;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderSubmissionWorker = new OrderSubmissionWorker(orderSubmissionRepository, orderService, objectMapper,
+                transactionManager, virtualThreadExecutor, 2, 3, Duration.ofMinutes(5), Duration.ofSeconds(1), Duration.ofDays(1));
+    }
+
+    @Test
+    void drain_shouldClaimQueuedSubmissionsAndRecordTheCreatedOrder() {
+        // Given
+        OrderSubmission submission = submission(0);
+        when(orderSubmissionRepository.lockQueued(eq(2), any(LocalDateTime.class))).thenReturn(List.of(submission));
+        when(orderService.createOrder(REQUEST, submission.getId())).thenReturn(CompletableFuture.completedFuture(order(42L)));
+        CompletableFuture<Void> finished = orderSubmissionWorker.awaitFinished(submission.getId(), Duration.ofMinutes(1));
+
+        // When
+        orderSubmissionWorker.drain();
+
+        // Then
+        assertThat(submission.getStatus()).isEqualTo(SubmissionStatus.PROCESSING);
+        assertThat(submission.getAttempts()).isEqualTo(1);
+        assertThat(submission.getClaimedAt()).isNotNull();
+        verify(orderSubmissionRepository).finish(eq(submission.getId()), eq(SubmissionStatus.COMPLETED), eq(42L), isNull(),
+                any(LocalDateTime.class));
+        assertThat(finished).isCompleted();
+    }
+
+    @Test
+    void drain_whenTheOrderCannotBeCreated_shouldRecordWhy() {
+        // Given
+        OrderSubmission submission = submission(0);
+        when(orderSubmissionRepository.lockQueued(eq(2), any(LocalDateTime.class))).thenReturn(List.of(submission));
+        when(orderService.createOrder(REQUEST, submission.getId())).thenReturn(CompletableFuture.failedFuture(
+                new InsufficientStockException("Product", 2, 0)));
+
+        // When
+        orderSubmissionWorker.drain();
+
+        // Then
+        verify(orderSubmissionRepository).finish(eq(submission.getId()), eq(SubmissionStatus.FAILED), isNull(),
+                eq("Insufficient stock for product 'Product'. Requested: 2, Available: 0"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void drain_whenTheDatabaseBulkheadIsFull_shouldQueueTheSubmissionAgainAfterABackoff() {
+        // Given: the second attempt, which backs off twice as long as the first
+        OrderSubmission submission = submission(1);
+        LocalDateTime before = LocalDateTime.now();
+        when(orderSubmissionRepository.lockQueued(eq(2), any(LocalDateTime.class))).thenReturn(List.of(submission));
+        when(orderService.createOrder(REQUEST, submission.getId())).thenReturn(CompletableFuture.failedFuture(new BulkheadFullException("database", 50)));
+
+        // When
+        orderSubmissionWorker.drain();
+
+        // Then
+        verify(orderSubmissionRepository).requeue(eq(submission.getId()),
+                argThat(nextAttemptAt -> !nextAttemptAt.isBefore(before.plusSeconds(2))));
+        verify(orderSubmissionRepository, never()).finish(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void drain_whenEverySlotIsBusy_shouldNotClaimMore() {
+        // Given: two slots, both taken by orders still being created
+        when(orderSubmissionRepository.lockQueued(eq(2), any(LocalDateTime.class))).thenReturn(List.of(submission(0), submission(0)));
+        when(orderService.createOrder(eq(REQUEST), any(UUID.class))).thenReturn(new CompletableFuture<>());
+        orderSubmissionWorker.drain();
+
+        // When
+        orderSubmissionWorker.drain();
+
+        // Then: no more submissions are claimed while both slots are held
+        verify(orderSubmissionRepository).lockQueued(eq(2), any(LocalDateTime.class));
+        verify(orderSubmissionRepository, never()).lockQueued(eq(1), any(LocalDateTime.class));
+    }
+
+    @Test
+    void poll_shouldRequeueStaleClaimsAndFailExhaustedOnes() {
+        // Given
+        when(orderSubmissionRepository.requeueStale(any(LocalDateTime.class), eq(3))).thenReturn(1);
+        when(orderSubmissionRepository.failStale(any(LocalDateTime.class), eq(3), anyString(), any(LocalDateTime.class))).thenReturn(1);
+        when(orderSubmissionRepository.lockQueued(anyInt(), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // When
+        orderSubmissionWorker.poll();
+
+        // Then
+        verify(orderSubmissionRepository).lockQueued(eq(2), any(LocalDateTime.class));
+    }
+
+    private OrderSubmission submission(int attempts) {
+        try {
+            OrderSubmission submission = new OrderSubmission(REQUEST.customerId(), objectMapper.writeValueAsString(REQUEST));
+            submission.setId(UUID.randomUUID());
+            submission.setAttempts(attempts);
+            return submission;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private OrderResponse order(Long id) {
+        return new OrderResponse(id, 1L, "Customer", "customer@example.com", "PENDING", BigDecimal.TEN, "123 Main St",
+                null, "notes", LocalDateTime.now(), LocalDateTime.now(), List.of());
+    }
+}
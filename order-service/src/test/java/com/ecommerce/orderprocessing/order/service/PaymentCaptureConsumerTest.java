@@ -0,0 +1,89 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.payment.dto.CaptureRequest;
+import com.ecommerce.orderprocessing.payment.dto.CaptureResponse;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentCaptureConsumerTest {
+
+    private static final CaptureRequest CAPTURE = new CaptureRequest("auth-1", new BigDecimal("30.00"), "capture-order-10");
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private PaymentCaptureConsumer paymentCaptureConsumer;
+
+    @BeforeEach
+    void setUp() {
+        paymentCaptureConsumer = new PaymentCaptureConsumer(paymentService, orderRepository,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeShipmentsOfAuthorizedOrders() {
+        assertThat(paymentCaptureConsumer.accepts(event(OrderStatus.SHIPPED, "auth-1"))).isTrue();
+        assertThat(paymentCaptureConsumer.accepts(event(OrderStatus.SHIPPED, null))).isFalse();
+        assertThat(paymentCaptureConsumer.accepts(event(OrderStatus.CANCELLED, "auth-1"))).isFalse();
+    }
+
+    @Test
+    void handle_shouldCaptureAndRecordTheCaptureAsThePayment() throws Exception {
+        // Given
+        when(paymentService.capturePayment(CAPTURE)).thenReturn(CompletableFuture.completedFuture(captureResponse("CAPTURED")));
+
+        // When
+        paymentCaptureConsumer.handle(event(OrderStatus.SHIPPED, "auth-1")).get();
+
+        // Then
+        verify(orderRepository).settleAuthorization(eq(10L), eq("auth-1"), eq(CaptureStatus.CAPTURED), eq("capture-1"),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void handle_whenCaptureIsDeclined_shouldRecordTheFailureInsteadOfRetrying() throws Exception {
+        // Given
+        when(paymentService.capturePayment(CAPTURE)).thenReturn(CompletableFuture.completedFuture(captureResponse("FAILED")));
+
+        // When
+        paymentCaptureConsumer.handle(event(OrderStatus.SHIPPED, "auth-1")).get();
+
+        // Then
+        verify(orderRepository).settleAuthorization(eq(10L), eq("auth-1"), eq(CaptureStatus.CAPTURE_FAILED), isNull(),
+                any(LocalDateTime.class));
+    }
+
+    private OrderStatusChangedEvent event(OrderStatus status, String authorizationId) {
+        return new OrderStatusChangedEvent(10L, 1L, OrderStatus.PROCESSING, status, null, authorizationId,
+                new BigDecimal("30.00"), Map.of(1L, 3), null, LocalDateTime.now());
+    }
+
+    private CaptureResponse captureResponse(String status) {
+        return new CaptureResponse("capture-1", "auth-1", status, new BigDecimal("30.00"), "USD", LocalDateTime.now(), status);
+    }
+}
@@ -0,0 +1,333 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
+import com.ecommerce.orderprocessing.order.domain.entity.PaymentMismatch;
+import com.ecommerce.orderprocessing.order.domain.entity.ReconciliationRun;
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.MismatchType;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.ReconciliationStatus;
+import com.ecommerce.orderprocessing.order.repository.OrderPaymentRef;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.order.repository.PaymentMismatchRepository;
+import com.ecommerce.orderprocessing.order.repository.ReconciliationRunRepository;
+import com.ecommerce.orderprocessing.payment.dto.PaymentStatusResponse;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceTest {
+
+    private static final Long RUN_ID = 7L;
+    private static final UUID CLAIM = UUID.randomUUID();
+    private static final Set<OrderStatus> RECONCILED =
+            EnumSet.of(OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Mock
+    private PaymentMismatchRepository paymentMismatchRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Never runs the launched runs, so each test drives reconcile() itself
+    @Mock
+    private ExecutorService virtualThreadExecutor;
+
+    @Captor
+    private ArgumentCaptor<List<PaymentMismatch>> savedMismatches;
+
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        paymentReconciliationService = new PaymentReconciliationService(orderRepository, reconciliationRunRepository,
+                paymentMismatchRepository, paymentService, transactionManager, virtualThreadExecutor,
+                2, 4, Duration.ofMillis(1), 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void reconcile_shouldReportTheOrdersTheGatewayDisagreesWithAndCheckpointEveryPage() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a"), charged(2L, "pay_b")));
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 2L, Limit.of(2)))
+                .thenReturn(List.of(charged(3L, "pay_c")));
+        when(paymentService.getPaymentStatus("pay_a")).thenReturn(status("pay_a", "SUCCESS"));
+        when(paymentService.getPaymentStatus("pay_b")).thenReturn(status("pay_b", "FAILED"));
+        when(paymentService.getPaymentStatus("pay_c")).thenReturn(CompletableFuture.completedFuture(null));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(2L))).thenReturn(List.of(charged(2L, "pay_b")));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(3L))).thenReturn(List.of(charged(3L, "pay_c")));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), anyString(), anyLong(), anyLong(), anyLong(),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(reconciliationRunRepository).checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_b"), eq(2L), eq(2L), eq(1L),
+                any(LocalDateTime.class));
+        verify(reconciliationRunRepository).checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_c"), eq(3L), eq(1L), eq(1L),
+                any(LocalDateTime.class));
+        verify(paymentMismatchRepository, times(2)).saveAll(savedMismatches.capture());
+        assertThat(savedMismatches.getAllValues().stream().flatMap(List::stream).toList())
+                .extracting(PaymentMismatch::getOrderId, PaymentMismatch::getType, PaymentMismatch::getGatewayStatus)
+                .containsExactly(tuple(2L, MismatchType.STATUS_MISMATCH, "FAILED"),
+                        tuple(3L, MismatchType.MISSING_AT_GATEWAY, null));
+        verify(reconciliationRunRepository).finish(eq(RUN_ID), eq(CLAIM), eq(ReconciliationStatus.COMPLETED), isNull(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_shouldExpectAuthorizationsToBeOpenAndReportDeclinedCapturesWithoutALookup() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        OrderPaymentRef captureFailed = new OrderPaymentRef(2L, OrderStatus.SHIPPED, null, "auth_b", CaptureStatus.CAPTURE_FAILED);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(authorized(1L, "auth_a"), captureFailed));
+        when(paymentService.getPaymentStatus("auth_a")).thenReturn(status("auth_a", "AUTHORIZED"));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(2L))).thenReturn(List.of(captureFailed));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), eq("auth_b"), eq(2L), eq(2L), eq(1L),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 2L, Limit.of(2))).thenReturn(List.of());
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentService, never()).getPaymentStatus("auth_b");
+        verify(paymentMismatchRepository).saveAll(savedMismatches.capture());
+        assertThat(savedMismatches.getValue()).singleElement()
+                .extracting(PaymentMismatch::getOrderId, PaymentMismatch::getPaymentId, PaymentMismatch::getType)
+                .containsExactly(2L, "auth_b", MismatchType.CAPTURE_FAILED);
+    }
+
+    @Test
+    void reconcile_whenResumed_shouldContinueAfterTheCheckpoint() {
+        // Given
+        givenTransactions();
+        givenRun("pay_b", 2L);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 2L, Limit.of(2))).thenReturn(List.of());
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentService, never()).getPaymentStatus(anyString());
+        verify(reconciliationRunRepository).finish(eq(RUN_ID), eq(CLAIM), eq(ReconciliationStatus.COMPLETED), isNull(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_whenAnOrderChangedDuringTheCheck_shouldNotReportIt() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a")));
+        when(paymentService.getPaymentStatus("pay_a")).thenReturn(status("pay_a", "REFUNDED"));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(1L))).thenReturn(List.of(
+                new OrderPaymentRef(1L, OrderStatus.CANCELLED, "pay_a", null, null)));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_a"), eq(1L), eq(1L), eq(0L),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentMismatchRepository).saveAll(savedMismatches.capture());
+        assertThat(savedMismatches.getValue()).isEmpty();
+    }
+
+    @Test
+    void reconcile_whenALookupFails_shouldReportItAndMoveOn() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a")));
+        when(paymentService.getPaymentStatus("pay_a")).thenReturn(CompletableFuture.failedFuture(
+                new ExternalServiceException("PaymentGateway", "Simulated gateway error")));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(1L))).thenReturn(List.of(charged(1L, "pay_a")));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_a"), eq(1L), eq(1L), eq(1L),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentMismatchRepository).saveAll(savedMismatches.capture());
+        assertThat(savedMismatches.getValue()).singleElement()
+                .extracting(PaymentMismatch::getType)
+                .isEqualTo(MismatchType.LOOKUP_FAILED);
+        verify(reconciliationRunRepository).finish(eq(RUN_ID), eq(CLAIM), eq(ReconciliationStatus.COMPLETED), isNull(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_whenTheGatewayShedsSomeLookups_shouldRetryOnlyThose() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a"), charged(2L, "pay_b")));
+        when(paymentService.getPaymentStatus("pay_a")).thenReturn(status("pay_a", "SUCCESS"));
+        when(paymentService.getPaymentStatus("pay_b"))
+                .thenReturn(CompletableFuture.failedFuture(new CircuitBreakerOpenException("payment-gateway")))
+                .thenReturn(status("pay_b", "FAILED"));
+        when(orderRepository.findPaymentRefsByIdIn(List.of(2L))).thenReturn(List.of(charged(2L, "pay_b")));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_b"), eq(2L), eq(2L), eq(1L),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentService, times(1)).getPaymentStatus("pay_a");
+        verify(paymentService, times(2)).getPaymentStatus("pay_b");
+        verify(paymentMismatchRepository).saveAll(savedMismatches.capture());
+        assertThat(savedMismatches.getValue()).singleElement()
+                .extracting(PaymentMismatch::getOrderId, PaymentMismatch::getType)
+                .containsExactly(2L, MismatchType.STATUS_MISMATCH);
+        verify(reconciliationRunRepository).finish(eq(RUN_ID), eq(CLAIM), eq(ReconciliationStatus.COMPLETED), isNull(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_whenTheGatewayKeepsSheddingLoad_shouldInterruptTheRunWithoutMovingTheCheckpoint() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a")));
+        when(paymentService.getPaymentStatus("pay_a")).thenReturn(CompletableFuture.failedFuture(
+                new CircuitBreakerOpenException("payment-gateway")));
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentService, times(2)).getPaymentStatus("pay_a");
+        verify(reconciliationRunRepository, never()).checkpoint(any(), any(), any(), any(), anyLong(), anyLong(), any());
+        verify(reconciliationRunRepository).finish(eq(RUN_ID), eq(CLAIM), eq(ReconciliationStatus.INTERRUPTED), anyString(),
+                any(LocalDateTime.class), isNull());
+    }
+
+    @Test
+    void reconcile_whenAnotherWorkerClaimedTheRun_shouldStopWithoutFinishingIt() {
+        // Given
+        givenTransactions();
+        givenRun(null, null);
+        when(orderRepository.findPaymentRefsAfter(RECONCILED, 0L, Limit.of(2)))
+                .thenReturn(List.of(charged(1L, "pay_a"), charged(2L, "pay_b")));
+        when(paymentService.getPaymentStatus(anyString())).thenReturn(status("pay_a", "SUCCESS"));
+        when(reconciliationRunRepository.checkpoint(eq(RUN_ID), eq(CLAIM), eq("pay_b"), eq(2L), eq(2L), eq(0L),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        paymentReconciliationService.reconcile(RUN_ID, CLAIM);
+
+        // Then
+        verify(paymentMismatchRepository, never()).saveAll(any());
+        verify(reconciliationRunRepository, never()).finish(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void start_whenARunIsInProgress_shouldRefuse() {
+        // Given
+        givenTransactions();
+        when(reconciliationRunRepository.saveAndFlush(any(ReconciliationRun.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        // When / Then
+        assertThatThrownBy(() -> paymentReconciliationService.start())
+                .isInstanceOf(BadRequestException.class);
+        verify(reconciliationRunRepository).interruptStale(any(LocalDateTime.class));
+        verify(virtualThreadExecutor, never()).execute(any());
+    }
+
+    @Test
+    void resume_whenAnotherRunIsInProgress_shouldRefuse() {
+        // Given
+        givenTransactions();
+        givenRun("pay_b", 2L);
+        when(reconciliationRunRepository.claim(eq(RUN_ID), any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        // When / Then
+        assertThatThrownBy(() -> paymentReconciliationService.resume(RUN_ID))
+                .isInstanceOf(BadRequestException.class);
+        verify(virtualThreadExecutor, never()).execute(any());
+    }
+
+    private void givenTransactions() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private void givenRun(String lastPaymentId, Long lastOrderId) {
+        ReconciliationRun run = new ReconciliationRun(CLAIM);
+        run.setId(RUN_ID);
+        run.setLastPaymentId(lastPaymentId);
+        run.setLastOrderId(lastOrderId);
+        when(reconciliationRunRepository.findById(RUN_ID)).thenReturn(Optional.of(run));
+    }
+
+    private static OrderPaymentRef charged(Long orderId, String paymentId) {
+        return new OrderPaymentRef(orderId, OrderStatus.PAID, paymentId, null, null);
+    }
+
+    private static OrderPaymentRef authorized(Long orderId, String authorizationId) {
+        return new OrderPaymentRef(orderId, OrderStatus.PAID, null, authorizationId, CaptureStatus.AUTHORIZED);
+    }
+
+    private static CompletableFuture<PaymentStatusResponse> status(String paymentId, String status) {
+        return CompletableFuture.completedFuture(new PaymentStatusResponse(paymentId, status, status.toLowerCase(),
+                LocalDateTime.now(), null));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.payment.dto.RefundRequest;
+import com.ecommerce.orderprocessing.payment.dto.RefundResponse;
+import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRefundConsumerTest {
+
+    private static final RefundRequest REFUND = new RefundRequest("payment-1", new BigDecimal("30.00"), "Changed my mind",
+            "refund-payment-1");
+
+    @Mock
+    private PaymentService paymentService;
+
+    private PaymentRefundConsumer paymentRefundConsumer;
+
+    @BeforeEach
+    void setUp() {
+        paymentRefundConsumer = new PaymentRefundConsumer(paymentService);
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeCancellationsOfPaidOrders() {
+        assertThat(paymentRefundConsumer.accepts(event(OrderStatus.PAID, "payment-1"))).isTrue();
+        assertThat(paymentRefundConsumer.accepts(event(OrderStatus.PENDING, null))).isFalse();
+        assertThat(paymentRefundConsumer.accepts(event(OrderStatus.PAID, null))).isFalse();
+    }
+
+    @Test
+    void handle_shouldRefundWithAKeyDerivedFromTheOrder() throws Exception {
+        // Given
+        when(paymentService.refundPayment(REFUND)).thenReturn(CompletableFuture.completedFuture(refundResponse("SUCCESS")));
+
+        // When
+        paymentRefundConsumer.handle(event(OrderStatus.PAID, "payment-1")).get();
+
+        // Then
+        verify(paymentService).refundPayment(REFUND);
+    }
+
+    @Test
+    void handle_whenRefundIsDeclined_shouldFailSoTheRelayRetries() {
+        // Given
+        when(paymentService.refundPayment(REFUND)).thenReturn(CompletableFuture.completedFuture(refundResponse("FAILED")));
+
+        // When
+        CompletableFuture<Void> future = paymentRefundConsumer.handle(event(OrderStatus.PAID, "payment-1"));
+
+        // Then
+        assertThatThrownBy(future::get).hasCauseInstanceOf(PaymentProcessingException.class);
+    }
+
+    private OrderStatusChangedEvent event(OrderStatus previousStatus, String paymentId) {
+        return new OrderStatusChangedEvent(10L, 1L, previousStatus, OrderStatus.CANCELLED, paymentId, null,
+                new BigDecimal("30.00"), Map.of(1L, 3), "Changed my mind", LocalDateTime.now());
+    }
+
+    private RefundResponse refundResponse(String status) {
+        return new RefundResponse("refund-1", "payment-1", status, new BigDecimal("30.00"), "USD", LocalDateTime.now(), status);
+    }
+}
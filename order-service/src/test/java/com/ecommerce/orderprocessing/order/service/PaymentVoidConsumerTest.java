@@ -0,0 +1,89 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.order.domain.enumeration.CaptureStatus;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.order.repository.OrderRepository;
+import com.ecommerce.orderprocessing.payment.dto.VoidRequest;
+import com.ecommerce.orderprocessing.payment.dto.VoidResponse;
+import com.ecommerce.orderprocessing.payment.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentVoidConsumerTest {
+
+    private static final VoidRequest VOID = new VoidRequest("auth-1", "Changed my mind", "void-auth-1");
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private PaymentVoidConsumer paymentVoidConsumer;
+
+    @BeforeEach
+    void setUp() {
+        paymentVoidConsumer = new PaymentVoidConsumer(paymentService, orderRepository,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeCancellationsOfAuthorizedOrders() {
+        assertThat(paymentVoidConsumer.accepts(event(OrderStatus.CANCELLED, "auth-1"))).isTrue();
+        assertThat(paymentVoidConsumer.accepts(event(OrderStatus.CANCELLED, null))).isFalse();
+        assertThat(paymentVoidConsumer.accepts(event(OrderStatus.PROCESSING, "auth-1"))).isFalse();
+    }
+
+    @Test
+    void handle_shouldVoidWithAKeyDerivedFromTheOrder() throws Exception {
+        // Given
+        when(paymentService.voidPayment(VOID)).thenReturn(CompletableFuture.completedFuture(voidResponse("VOIDED")));
+
+        // When
+        paymentVoidConsumer.handle(event(OrderStatus.CANCELLED, "auth-1")).get();
+
+        // Then
+        verify(orderRepository).settleAuthorization(eq(10L), eq("auth-1"), eq(CaptureStatus.VOIDED), isNull(),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void handle_whenVoidIsDeclined_shouldRecordTheFailureInsteadOfRetrying() throws Exception {
+        // Given
+        when(paymentService.voidPayment(VOID)).thenReturn(CompletableFuture.completedFuture(voidResponse("FAILED")));
+
+        // When
+        paymentVoidConsumer.handle(event(OrderStatus.CANCELLED, "auth-1")).get();
+
+        // Then
+        verify(orderRepository).settleAuthorization(eq(10L), eq("auth-1"), eq(CaptureStatus.VOID_FAILED), isNull(),
+                any(LocalDateTime.class));
+    }
+
+    private OrderStatusChangedEvent event(OrderStatus status, String authorizationId) {
+        return new OrderStatusChangedEvent(10L, 1L, OrderStatus.PAID, status, null, authorizationId,
+                new BigDecimal("30.00"), Map.of(1L, 3), "Changed my mind", LocalDateTime.now());
+    }
+
+    private VoidResponse voidResponse(String status) {
+        return new VoidResponse("auth-1", status, LocalDateTime.now(), status);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.order.domain.entity.Order;
+import com.ecommerce.orderprocessing.order.domain.entity.OrderItem;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.repository.DailySalesRepository;
+import com.ecommerce.orderprocessing.order.repository.OrderItemRepository;
+import com.ecommerce.orderprocessing.order.repository.ProductSalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAggregateServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 2, 10, 15);
+
+    @Mock
+    private ProductSalesRepository productSalesRepository;
+
+    @Mock
+    private DailySalesRepository dailySalesRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private SalesAggregateService salesAggregateService;
+
+    @BeforeEach
+    void setUp() {
+        salesAggregateService = new SalesAggregateService(productSalesRepository, dailySalesRepository, orderItemRepository,
+                transactionManager, new Bulkhead("database", 10, Duration.ofSeconds(1)), virtualThreadExecutor, 3);
+    }
+
+    @Test
+    void recordOrder_shouldAddItemsPerProductInIdOrderAndToTheOrderDay() {
+        // Given
+        Order order = order(OrderStatus.PENDING,
+                new OrderItem(20L, 1, new BigDecimal("7.50")),
+                new OrderItem(10L, 2, new BigDecimal("5.00")),
+                new OrderItem(20L, 3, new BigDecimal("7.50")));
+
+        // When
+        salesAggregateService.recordOrder(order, order.getOrderItems());
+
+        // Then
+        InOrder inOrder = inOrder(productSalesRepository);
+        inOrder.verify(productSalesRepository).addSales(10L, 2, new BigDecimal("10.00"));
+        inOrder.verify(productSalesRepository).addSales(20L, 4, new BigDecimal("30.00"));
+        verify(dailySalesRepository).addSales(LocalDate.of(2024, 5, 2), 1, 6, new BigDecimal("40.00"));
+    }
+
+    @Test
+    void onStatusChange_toCancelled_shouldSubtractTheOrder() {
+        // Given
+        Order order = order(OrderStatus.PAID, new OrderItem(10L, 2, new BigDecimal("5.00")));
+        order.updateStatus(OrderStatus.CANCELLED);
+
+        // When
+        salesAggregateService.onStatusChange(order, OrderStatus.PAID);
+
+        // Then
+        verify(productSalesRepository).addSales(10L, -2, new BigDecimal("-10.00"));
+        verify(dailySalesRepository).addSales(LocalDate.of(2024, 5, 2), -1, -2, new BigDecimal("-10.00"));
+    }
+
+    @Test
+    void onStatusChange_betweenCountedStatuses_shouldLeaveTotalsAlone() {
+        // Given
+        Order order = order(OrderStatus.PENDING, new OrderItem(10L, 2, new BigDecimal("5.00")));
+        order.updateStatus(OrderStatus.PAID);
+
+        // When
+        salesAggregateService.onStatusChange(order, OrderStatus.PENDING);
+
+        // Then
+        verifyNoInteractions(productSalesRepository, dailySalesRepository);
+    }
+
+    @Test
+    void onStatusChange_whenCancelledBeforeCreationCompleted_shouldLeaveTotalsAlone() {
+        // Given: the items were saved, but the order was cancelled before its creation completed
+        Order order = order(OrderStatus.PENDING, new OrderItem(10L, 2, new BigDecimal("5.00")));
+        order.setCreationComplete(false);
+        order.updateStatus(OrderStatus.CANCELLED);
+
+        // When
+        salesAggregateService.onStatusChange(order, OrderStatus.PENDING);
+
+        // Then
+        verifyNoInteractions(productSalesRepository, dailySalesRepository);
+    }
+
+    @Test
+    void getTotalRevenueForPeriod_shouldUseDailyTotalsForWholeDaysAndOrderLinesForTheEdges() throws Exception {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 18, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 31, 6, 0);
+        when(dailySalesRepository.getRevenueForDays(LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 31)))
+                .thenReturn(new BigDecimal("1000.00"));
+        when(orderItemRepository.getRevenueOfLiveOrdersBetween(from, LocalDateTime.of(2024, 5, 2, 0, 0)))
+                .thenReturn(new BigDecimal("20.00"));
+        when(orderItemRepository.getRevenueOfLiveOrdersBetween(LocalDateTime.of(2024, 5, 31, 0, 0), to))
+                .thenReturn(new BigDecimal("3.00"));
+
+        // When
+        BigDecimal revenue = salesAggregateService.getTotalRevenueForPeriod(from, to).get();
+
+        // Then
+        assertThat(revenue).isEqualByComparingTo("1023.00");
+    }
+
+    @Test
+    void getTotalRevenueForPeriod_onDayBoundaries_shouldOnlyReadDailyTotals() throws Exception {
+        // Given
+        when(dailySalesRepository.getRevenueForDays(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 6, 1)))
+                .thenReturn(new BigDecimal("1000.00"));
+
+        // When
+        BigDecimal revenue = salesAggregateService.getTotalRevenueForPeriod(
+                LocalDateTime.of(2024, 5, 1, 0, 0), LocalDateTime.of(2024, 6, 1, 0, 0)).get();
+
+        // Then
+        assertThat(revenue).isEqualByComparingTo("1000.00");
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    @Test
+    void rebuild_whenConcurrentOrderConflicts_shouldRetry() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productSalesRepository.rebuildFromOrderItems())
+                .thenThrow(new CannotAcquireLockException("could not serialize access"))
+                .thenReturn(1);
+
+        // When
+        salesAggregateService.rebuild();
+
+        // Then
+        verify(productSalesRepository, times(2)).rebuildFromOrderItems();
+        verify(dailySalesRepository).rebuildFromOrderItems();
+        verify(productSalesRepository, never()).addSales(any(), anyLong(), any());
+    }
+
+    private Order order(OrderStatus status, OrderItem... items) {
+        Order order = new Order(1L, "Address 1");
+        order.setId(1L);
+        order.setStatus(status);
+        order.setCreatedAt(CREATED_AT);
+        order.setOrderItems(List.of(items));
+        order.setCreationComplete(true);
+        return order;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.inventory.dto.InventoryBatchResult;
+import com.ecommerce.orderprocessing.inventory.service.InventoryHoldService;
+import com.ecommerce.orderprocessing.inventory.service.InventoryService;
+import com.ecommerce.orderprocessing.order.domain.enumeration.OrderStatus;
+import com.ecommerce.orderprocessing.order.event.OrderStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReleaseConsumerTest {
+
+    @Mock
+    private InventoryHoldService inventoryHoldService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private StockReleaseConsumer stockReleaseConsumer;
+
+    @BeforeEach
+    void setUp() {
+        stockReleaseConsumer = new StockReleaseConsumer(inventoryHoldService, inventoryService);
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeCancellationsOfUnshippedOrders() {
+        assertThat(stockReleaseConsumer.accepts(event(OrderStatus.PENDING, OrderStatus.CANCELLED))).isTrue();
+        assertThat(stockReleaseConsumer.accepts(event(OrderStatus.PAID, OrderStatus.CANCELLED))).isTrue();
+        assertThat(stockReleaseConsumer.accepts(event(OrderStatus.PROCESSING, OrderStatus.CANCELLED))).isFalse();
+        assertThat(stockReleaseConsumer.accepts(event(OrderStatus.PENDING, OrderStatus.PAID))).isFalse();
+    }
+
+    @Test
+    void handle_forCancelledPendingOrder_shouldReleaseItsHolds() throws Exception {
+        // Given
+        when(inventoryHoldService.releaseHolds(10L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        // When
+        stockReleaseConsumer.handle(event(OrderStatus.PENDING, OrderStatus.CANCELLED)).get();
+
+        // Then
+        verify(inventoryHoldService, never()).releaseCommittedHolds(any());
+        verify(inventoryService, never()).releaseAll(any());
+    }
+
+    @Test
+    void handle_forCancelledPaidOrder_shouldReleaseItsCommittedHolds() throws Exception {
+        // Given
+        when(inventoryHoldService.releaseCommittedHolds(10L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        // When
+        stockReleaseConsumer.handle(event(OrderStatus.PAID, OrderStatus.CANCELLED)).get();
+
+        // Then
+        verify(inventoryHoldService, never()).releaseHolds(any());
+        verify(inventoryService, never()).releaseAll(any());
+    }
+
+    @Test
+    void handle_forOrderWithoutHolds_shouldReleaseStockDirectly() throws Exception {
+        // Given
+        when(inventoryHoldService.releaseHolds(10L)).thenReturn(CompletableFuture.completedFuture(false));
+        when(inventoryService.releaseAll(Map.of(1L, 3))).thenReturn(CompletableFuture.completedFuture(
+                new InventoryBatchResult(Map.of(1L, InventoryBatchResult.Outcome.APPLIED))));
+
+        // When
+        stockReleaseConsumer.handle(event(OrderStatus.PENDING, OrderStatus.CANCELLED)).get();
+
+        // Then
+        verify(inventoryService).releaseAll(Map.of(1L, 3));
+    }
+
+    private OrderStatusChangedEvent event(OrderStatus previousStatus, OrderStatus status) {
+        return new OrderStatusChangedEvent(10L, 1L, previousStatus, status, null, null, new BigDecimal("30.00"),
+                Map.of(1L, 3), null, LocalDateTime.now());
+    }
+}
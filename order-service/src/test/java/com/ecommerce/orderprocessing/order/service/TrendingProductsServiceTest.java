@@ -0,0 +1,47 @@
+package com.ecommerce.orderprocessing.order.service;
+
+import com.ecommerce.orderprocessing.common.exception.BadRequestException;
+import com.ecommerce.orderprocessing.order.dto.TrendingProduct;
+import com.ecommerce.orderprocessing.order.dto.TrendingWindow;
+import com.ecommerce.orderprocessing.order.event.OrderCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrendingProductsServiceTest {
+
+    private final TrendingProductsService trendingProductsService = new TrendingProductsService(4, 1024, 64,
+            Clock.fixed(Instant.parse("2024-05-01T10:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void onOrderCreated_shouldCountUnitsInEveryWindow() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        trendingProductsService.onOrderCreated(new OrderCreatedEvent(1L, 1L, Map.of(10L, 2, 11L, 5), now));
+        trendingProductsService.onOrderCreated(new OrderCreatedEvent(2L, 2L, Map.of(10L, 1), now));
+
+        // Then
+        for (TrendingWindow window : TrendingWindow.values()) {
+            assertThat(trendingProductsService.getTrendingProducts(window, 10))
+                    .containsExactly(new TrendingProduct(11L, 5), new TrendingProduct(10L, 3));
+        }
+        assertThat(trendingProductsService.getTrendingProducts(TrendingWindow.ONE_HOUR, 1))
+                .isEqualTo(List.of(new TrendingProduct(11L, 5)));
+    }
+
+    @Test
+    void fromLabel_shouldRejectUnknownWindows() {
+        assertThat(TrendingWindow.fromLabel("24H")).isEqualTo(TrendingWindow.ONE_DAY);
+        assertThatThrownBy(() -> TrendingWindow.fromLabel("7d")).isInstanceOf(BadRequestException.class);
+    }
+}
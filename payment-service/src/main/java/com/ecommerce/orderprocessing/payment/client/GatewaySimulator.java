@@ -0,0 +1,183 @@
+package com.ecommerce.orderprocessing.payment.client;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how each call to the mock gateway behaves: how long it takes, whether it fails, and
+ * whether the gateway declines it.
+ * <p>
+ * Every operation has a {@link Profile}: a latency distribution with occasional spikes, plus error,
+ * timeout and decline rates. On top of that, periodic brownout windows slow every call down and
+ * make more of them fail, the way a gateway under its own incident does.
+ * <p>
+ * Outcomes are reproducible. The n-th call of an operation always draws from a random generator
+ * seeded with the seed, the operation and n. A run with the same seed and the same number of calls
+ * per operation therefore sees the same outcomes, however the calls interleave across threads.
+ * Brownouts are the exception: they follow the clock.
+ */
+public class GatewaySimulator {
+
+    public enum Distribution {
+        FIXED, NORMAL, LOG_NORMAL
+    }
+
+    public enum Failure {
+        NONE, ERROR, TIMEOUT
+    }
+
+    /**
+     * @param median       median latency
+     * @param spread       coefficient of variation for {@code NORMAL}, sigma of the underlying
+     *                     normal for {@code LOG_NORMAL}; ignored for {@code FIXED}
+     * @param spikeRate    share of calls that take at least {@code spikeLatency}; 0.01 shapes the p99
+     * @param errorRate    share of calls that fail with a gateway error
+     * @param timeoutRate  share of calls that hang for the simulator's timeout latency, then fail
+     * @param declineRate  share of the remaining calls the gateway declines
+     */
+    public record Profile(Distribution distribution, Duration median, double spread, double spikeRate,
+                          Duration spikeLatency, double errorRate, double timeoutRate, double declineRate) {
+
+        public static Profile fixed(Duration latency, double declineRate) {
+            return new Profile(Distribution.FIXED, latency, 0, 0, latency, 0, 0, declineRate);
+        }
+    }
+
+    /**
+     * For {@code length} at the end of every {@code every}, latencies are multiplied by
+     * {@code latencyFactor} and {@code errorRate} is added to each operation's error rate. A zero
+     * {@code every} disables brownouts.
+     */
+    public record Brownout(Duration every, Duration length, double latencyFactor, double errorRate) {
+
+        public static final Brownout NONE = new Brownout(Duration.ZERO, Duration.ZERO, 1, 0);
+
+        boolean isActive(long elapsedMillis) {
+            long period = every.toMillis();
+            return period > 0 && elapsedMillis % period >= period - length.toMillis();
+        }
+    }
+
+    public record Outcome(Duration latency, Failure failure, boolean declined) {}
+
+    /** The latencies and decline rates the mock has always had. */
+    static final Map<String, Profile> DEFAULT_PROFILES = defaultProfiles();
+
+    private static final String PREFIX = "app.payment.mock.";
+
+    private final long seed;
+    private final Map<String, Profile> profiles;
+    private final Map<String, AtomicLong> calls = new HashMap<>();
+    private final Duration timeoutLatency;
+    private final Brownout brownout;
+    private final Clock clock;
+    private final long startMillis;
+
+    public GatewaySimulator(long seed, Map<String, Profile> profiles, Duration timeoutLatency, Brownout brownout,
+                            Clock clock) {
+        // Scrambled, so that neighbouring seeds do not replay each other's calls one step apart
+        this.seed = new SplittableRandom(seed).nextLong();
+        this.profiles = Map.copyOf(profiles);
+        this.timeoutLatency = timeoutLatency;
+        this.brownout = brownout;
+        this.clock = clock;
+        this.startMillis = clock.millis();
+        this.profiles.keySet().forEach(operation -> calls.put(operation, new AtomicLong()));
+    }
+
+    /**
+     * A simulator with the default profiles, no brownouts and no failures beyond declines.
+     */
+    public static GatewaySimulator withDefaults(long seed) {
+        return new GatewaySimulator(seed, DEFAULT_PROFILES, Duration.ofSeconds(30), Brownout.NONE, Clock.systemUTC());
+    }
+
+    /**
+     * Reads {@code app.payment.mock.*}: {@code seed}, {@code timeout-latency}, {@code brownout.*},
+     * and {@code operations.<operation>.*} for any profile setting to override, e.g.
+     * {@code operations.process-payment.distribution: log-normal}.
+     */
+    public static GatewaySimulator fromEnvironment(Environment environment) {
+        Map<String, Profile> profiles = new LinkedHashMap<>();
+        DEFAULT_PROFILES.forEach((operation, defaults) -> {
+            String prefix = PREFIX + "operations." + operation + ".";
+            profiles.put(operation, new Profile(
+                    environment.getProperty(prefix + "distribution", Distribution.class, defaults.distribution()),
+                    environment.getProperty(prefix + "median", Duration.class, defaults.median()),
+                    environment.getProperty(prefix + "spread", Double.class, defaults.spread()),
+                    environment.getProperty(prefix + "spike-rate", Double.class, defaults.spikeRate()),
+                    environment.getProperty(prefix + "spike-latency", Duration.class, defaults.spikeLatency()),
+                    environment.getProperty(prefix + "error-rate", Double.class, defaults.errorRate()),
+                    environment.getProperty(prefix + "timeout-rate", Double.class, defaults.timeoutRate()),
+                    environment.getProperty(prefix + "decline-rate", Double.class, defaults.declineRate())));
+        });
+        Brownout brownout = new Brownout(
+                environment.getProperty(PREFIX + "brownout.every", Duration.class, Duration.ZERO),
+                environment.getProperty(PREFIX + "brownout.length", Duration.class, Duration.ZERO),
+                environment.getProperty(PREFIX + "brownout.latency-factor", Double.class, 1.0),
+                environment.getProperty(PREFIX + "brownout.error-rate", Double.class, 0.0));
+        return new GatewaySimulator(environment.getProperty(PREFIX + "seed", Long.class, 42L), profiles,
+                environment.getProperty(PREFIX + "timeout-latency", Duration.class, Duration.ofSeconds(30)),
+                brownout, Clock.systemUTC());
+    }
+
+    /**
+     * Draws the outcome of the next call of {@code operation}.
+     */
+    public Outcome next(String operation) {
+        Profile profile = profiles.get(operation);
+        if (profile == null) {
+            throw new IllegalArgumentException("No simulation profile for operation " + operation);
+        }
+        long call = calls.get(operation).getAndIncrement();
+        SplittableRandom random = new SplittableRandom(seed + operation.hashCode() * 0x9E3779B97F4A7C15L + call);
+        // Always draw the same four numbers, so changing one rate leaves the call's other draws as they were
+        double failureDraw = random.nextDouble();
+        double spikeDraw = random.nextDouble();
+        double gaussian = random.nextGaussian();
+        double declineDraw = random.nextDouble();
+
+        boolean brownedOut = brownout.isActive(clock.millis() - startMillis);
+        double errorRate = profile.errorRate() + (brownedOut ? brownout.errorRate() : 0);
+        Failure failure = failureDraw < profile.timeoutRate() ? Failure.TIMEOUT
+                : failureDraw < profile.timeoutRate() + errorRate ? Failure.ERROR
+                : Failure.NONE;
+        if (failure == Failure.TIMEOUT) {
+            return new Outcome(timeoutLatency, failure, false);
+        }
+
+        double millis = switch (profile.distribution()) {
+            case FIXED -> profile.median().toMillis();
+            case NORMAL -> Math.max(0, profile.median().toMillis() * (1 + profile.spread() * gaussian));
+            case LOG_NORMAL -> profile.median().toMillis() * Math.exp(profile.spread() * gaussian);
+        };
+        if (spikeDraw < profile.spikeRate()) {
+            millis = Math.max(millis, profile.spikeLatency().toMillis());
+        }
+        if (brownedOut) {
+            millis *= brownout.latencyFactor();
+        }
+        return new Outcome(Duration.ofMillis(Math.round(millis)), failure,
+                failure == Failure.NONE && declineDraw < profile.declineRate());
+    }
+
+    private static Map<String, Profile> defaultProfiles() {
+        return Map.of(
+                "process-payment", Profile.fixed(Duration.ofMillis(100), 0.1),
+                "refund-payment", Profile.fixed(Duration.ofMillis(100), 0),
+                "get-payment-status", Profile.fixed(Duration.ofMillis(50), 0),
+                "authorize-payment", Profile.fixed(Duration.ofMillis(100), 0.1),
+                "capture-payment", Profile.fixed(Duration.ofMillis(100), 0.1),
+                "void-payment", Profile.fixed(Duration.ofMillis(100), 0.1),
+                "create-customer", Profile.fixed(Duration.ofMillis(50), 0),
+                "add-payment-method", Profile.fixed(Duration.ofMillis(50), 0),
+                "list-transactions", Profile.fixed(Duration.ofMillis(150), 0));
+    }
+}
@@ -3,6 +3,8 @@ package com.ecommerce.orderprocessing.payment.client;
 import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
 import com.ecommerce.orderprocessing.payment.dto.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -12,14 +14,26 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
+/**
+ * Stands in for a real gateway. Latency, errors, timeouts and declines come from a
+ * {@link GatewaySimulator} configured under {@code app.payment.mock}, so load tests can be rerun with
+ * the same gateway behaviour.
+ */
 @Slf4j
 @Service("mock")
 public class MockPaymentGatewayClient implements PaymentGatewayClient {
 
     private final ExecutorService virtualThreadExecutor;
+    private final GatewaySimulator simulator;
 
-    public MockPaymentGatewayClient(ExecutorService virtualThreadExecutor) {
+    @Autowired
+    public MockPaymentGatewayClient(ExecutorService virtualThreadExecutor, Environment environment) {
+        this(virtualThreadExecutor, GatewaySimulator.fromEnvironment(environment));
+    }
+
+    MockPaymentGatewayClient(ExecutorService virtualThreadExecutor, GatewaySimulator simulator) {
         this.virtualThreadExecutor = virtualThreadExecutor;
+        this.simulator = simulator;
     }
 
     @Override
@@ -27,8 +41,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Calling (mock) payment gateway for order: {}", paymentRequest.orderId());
             try {
-                Thread.sleep(100);
-                boolean paymentSuccess = Math.random() < 0.9;
+                boolean paymentSuccess = simulate("process-payment");
                 String status = paymentSuccess ? "SUCCESS" : "FAILED";
                 String message = paymentSuccess ? "Payment processed successfully" : "Insufficient funds";
 
@@ -55,15 +68,15 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Processing (mock) refund for payment: {}", request.paymentId());
             try {
-                Thread.sleep(100);
+                boolean success = simulate("refund-payment");
                 return new RefundResponse(
                         "ref_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16),
                         request.paymentId(),
-                        "SUCCESS",
+                        success ? "SUCCESS" : "FAILED",
                         request.amount(),
                         "USD",
                         LocalDateTime.now(),
-                        "Refund processed successfully"
+                        success ? "Refund processed successfully" : "Refund declined"
                 );
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -77,7 +90,17 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.debug("Getting (mock) payment status for: {}", transactionId);
             try {
-                Thread.sleep(50);
+                simulate("get-payment-status");
+                // An authorization stays open until it is captured, which gives it a capture id of its own
+                if (transactionId.startsWith("auth_")) {
+                    return new PaymentStatusResponse(
+                            transactionId,
+                            "AUTHORIZED",
+                            "Payment authorized",
+                            LocalDateTime.now(),
+                            "Payment authorized and awaiting capture"
+                    );
+                }
                 return new PaymentStatusResponse(
                         transactionId,
                         "SUCCESS",
@@ -97,8 +120,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Authorizing (mock) payment for order: {}", request.orderId());
             try {
-                Thread.sleep(100);
-                boolean success = Math.random() < 0.9;
+                boolean success = simulate("authorize-payment");
                 String status = success ? "AUTHORIZED" : "DECLINED";
                 String message = success ? "Authorization successful" : "Authorization declined";
                 return new AuthorizationResponse(
@@ -121,8 +143,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Capturing (mock) payment for authorization: {}", request.authorizationId());
             try {
-                Thread.sleep(100);
-                boolean success = Math.random() < 0.9;
+                boolean success = simulate("capture-payment");
                 String status = success ? "CAPTURED" : "FAILED";
                 String message = success ? "Capture successful" : "Capture failed";
                 return new CaptureResponse(
@@ -146,8 +167,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Voiding (mock) authorization: {}", request.authorizationId());
             try {
-                Thread.sleep(100);
-                boolean success = Math.random() < 0.9;
+                boolean success = simulate("void-payment");
                 String status = success ? "VOIDED" : "FAILED";
                 String message = success ? "Void successful" : "Void failed";
                 return new VoidResponse(
@@ -168,7 +188,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Creating (mock) customer: {}", request.email());
             try {
-                Thread.sleep(50);
+                simulate("create-customer");
                 return new CustomerResponse(
                         request.customerId(),
                         "cus_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16),
@@ -188,7 +208,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Adding (mock) payment method for customer: {}", request.customerId());
             try {
-                Thread.sleep(50);
+                simulate("add-payment-method");
                 return new PaymentMethodResponse(
                         "pm_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16),
                         request.customerId(),
@@ -212,7 +232,7 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Listing (mock) transactions for customer: {}", request.customerId());
             try {
-                Thread.sleep(150);
+                simulate("list-transactions");
                 // Return a mock list of transactions
                 return List.of(
                         new Transaction("txn_1", "pay_1", "CHARGE", "SUCCESS", new BigDecimal("100.00"), "USD", LocalDateTime.now().minusDays(5), "Order #123"),
@@ -224,4 +244,20 @@ public class MockPaymentGatewayClient implements PaymentGatewayClient {
             }
         }, virtualThreadExecutor);
     }
+
+    /**
+     * Waits out the simulated latency, then fails the call if the simulator says so. Returns whether
+     * the gateway approved it.
+     */
+    private boolean simulate(String operation) throws InterruptedException {
+        GatewaySimulator.Outcome outcome = simulator.next(operation);
+        Thread.sleep(outcome.latency());
+        if (outcome.failure() == GatewaySimulator.Failure.ERROR) {
+            throw new ExternalServiceException("PaymentGateway", "Simulated gateway error on " + operation);
+        }
+        if (outcome.failure() == GatewaySimulator.Failure.TIMEOUT) {
+            throw new ExternalServiceException("PaymentGateway", "Simulated timeout on " + operation);
+        }
+        return !outcome.declined();
+    }
 }
@@ -0,0 +1,108 @@
+package com.ecommerce.orderprocessing.payment.client;
+
+import com.ecommerce.orderprocessing.common.concurrent.AdaptiveConcurrencyLimit;
+import com.ecommerce.orderprocessing.common.concurrent.CircuitBreaker;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
+import com.ecommerce.orderprocessing.payment.dto.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Decorates the configured gateway client so that a slow or failing gateway costs callers a bounded
+ * wait instead of an unbounded one.
+ * <p>
+ * Every call passes the circuit breaker, then the adaptive concurrency limit, and gets a deadline:
+ * {@code readTimeout} for status and transaction lookups, {@code timeout} for everything else. A
+ * call past its deadline fails with {@link ExternalServiceException}; the breaker counts it as a
+ * failure and the limit backs off. The gateway may still complete a timed-out call, so a timed-out
+ * charge is not known to have failed and is never retried here.
+ */
+public class ResilientPaymentGatewayClient implements PaymentGatewayClient {
+
+    private static final String SERVICE_NAME = "PaymentGateway";
+
+    private final PaymentGatewayClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Duration timeout;
+    private final Duration readTimeout;
+
+    public ResilientPaymentGatewayClient(PaymentGatewayClient delegate, CircuitBreaker circuitBreaker,
+                                         AdaptiveConcurrencyLimit concurrencyLimit, Duration timeout, Duration readTimeout) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimit = concurrencyLimit;
+        this.timeout = timeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResponse> processPayment(PaymentRequest paymentRequest) {
+        return guard("processPayment", timeout, () -> delegate.processPayment(paymentRequest));
+    }
+
+    @Override
+    public CompletableFuture<RefundResponse> refundPayment(RefundRequest request) {
+        return guard("refundPayment", timeout, () -> delegate.refundPayment(request));
+    }
+
+    @Override
+    public CompletableFuture<PaymentStatusResponse> getPaymentStatus(String transactionId) {
+        return guard("getPaymentStatus", readTimeout, () -> delegate.getPaymentStatus(transactionId));
+    }
+
+    @Override
+    public CompletableFuture<AuthorizationResponse> authorizePayment(AuthorizationRequest request) {
+        return guard("authorizePayment", timeout, () -> delegate.authorizePayment(request));
+    }
+
+    @Override
+    public CompletableFuture<CaptureResponse> capturePayment(CaptureRequest request) {
+        return guard("capturePayment", timeout, () -> delegate.capturePayment(request));
+    }
+
+    @Override
+    public CompletableFuture<VoidResponse> voidPayment(VoidRequest request) {
+        return guard("voidPayment", timeout, () -> delegate.voidPayment(request));
+    }
+
+    @Override
+    public CompletableFuture<CustomerResponse> createCustomer(CreateCustomerRequest request) {
+        return guard("createCustomer", timeout, () -> delegate.createCustomer(request));
+    }
+
+    @Override
+    public CompletableFuture<PaymentMethodResponse> addPaymentMethod(AddPaymentMethodRequest request) {
+        return guard("addPaymentMethod", timeout, () -> delegate.addPaymentMethod(request));
+    }
+
+    @Override
+    public CompletableFuture<List<Transaction>> listTransactions(ListTransactionsRequest request) {
+        return guard("listTransactions", readTimeout, () -> delegate.listTransactions(request));
+    }
+
+    private <T> CompletableFuture<T> guard(String operation, Duration deadline, Supplier<CompletableFuture<T>> call) {
+        // The breaker and the limit must both see the raw TimeoutException, so translate it last
+        return circuitBreaker.callAsync(() -> concurrencyLimit.callAsync(() ->
+                        call.get().orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)))
+                .handle((result, ex) -> {
+                    if (ex == null) {
+                        return result;
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        throw new ExternalServiceException(SERVICE_NAME,
+                                String.format("%s timed out after %d ms", operation, deadline.toMillis()));
+                    }
+                    throw ex instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(cause);
+                });
+    }
+}
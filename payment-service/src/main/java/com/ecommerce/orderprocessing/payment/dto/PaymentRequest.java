@@ -28,8 +28,19 @@ public record PaymentRequest(
         String cardHolderName,
         String expiryMonth,
         String expiryYear,
-        String cvv
+        String cvv,
+
+        // Set by the caller of the gateway, not the client; a retry under the same key charges once
+        String idempotencyKey
 ) {
+    public PaymentRequest(Long orderId, String paymentMethod, BigDecimal amount, String currency,
+                          String cardNumber, String cardHolderName, String expiryMonth,
+                          String expiryYear, String cvv) {
+        this(orderId, paymentMethod, amount, currency,
+                cardNumber, cardHolderName, expiryMonth,
+                expiryYear, cvv, null);
+    }
+
     // Custom constructor to set default currency
     public PaymentRequest(Long orderId, String paymentMethod, BigDecimal amount,
                           String cardNumber, String cardHolderName, String expiryMonth,
@@ -38,5 +49,11 @@ public record PaymentRequest(
                 cardNumber, cardHolderName, expiryMonth,
                 expiryYear, cvv);
     }
+
+    public PaymentRequest withIdempotencyKey(String idempotencyKey) {
+        return new PaymentRequest(orderId, paymentMethod, amount, currency,
+                cardNumber, cardHolderName, expiryMonth,
+                expiryYear, cvv, idempotencyKey);
+    }
 }
 
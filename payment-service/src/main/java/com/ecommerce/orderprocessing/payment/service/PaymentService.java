@@ -1,35 +1,64 @@
 package com.ecommerce.orderprocessing.payment.service;
 
+import com.ecommerce.orderprocessing.common.concurrent.AdaptiveConcurrencyLimit;
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.concurrent.CircuitBreaker;
+import com.ecommerce.orderprocessing.common.concurrent.HedgingRetryPolicy;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
 import com.ecommerce.orderprocessing.payment.client.PaymentGatewayClient;
+import com.ecommerce.orderprocessing.payment.client.ResilientPaymentGatewayClient;
 import com.ecommerce.orderprocessing.payment.dto.*;
 import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
 public class PaymentService {
 
     private final PaymentGatewayClient paymentGatewayClient;
+    private final Bulkhead paymentGatewayBulkhead;
+    private final HedgingRetryPolicy paymentGatewayReadPolicy;
 
+    @Autowired
     public PaymentService(Map<String, PaymentGatewayClient> paymentGatewayClients,
-                          @Value("${app.payment.provider:mock}") String paymentProvider) {
-        this.paymentGatewayClient = paymentGatewayClients.get(paymentProvider);
+                          @Value("${app.payment.provider:mock}") String paymentProvider,
+                          @Qualifier("paymentGatewayBulkhead") Bulkhead paymentGatewayBulkhead,
+                          @Qualifier("paymentGatewayCircuitBreaker") CircuitBreaker paymentGatewayCircuitBreaker,
+                          @Qualifier("paymentGatewayConcurrencyLimit") AdaptiveConcurrencyLimit paymentGatewayConcurrencyLimit,
+                          @Value("${app.payment.gateway.timeout:5000}") Duration timeout,
+                          @Value("${app.payment.gateway.read-timeout:2000}") Duration readTimeout,
+                          @Qualifier("paymentGatewayReadPolicy") HedgingRetryPolicy paymentGatewayReadPolicy) {
+        this(new ResilientPaymentGatewayClient(paymentGatewayClients.get(paymentProvider), paymentGatewayCircuitBreaker,
+                paymentGatewayConcurrencyLimit, timeout, readTimeout), paymentGatewayBulkhead, paymentGatewayReadPolicy);
+    }
+
+    PaymentService(PaymentGatewayClient paymentGatewayClient, Bulkhead paymentGatewayBulkhead,
+                   HedgingRetryPolicy paymentGatewayReadPolicy) {
+        this.paymentGatewayClient = paymentGatewayClient;
+        this.paymentGatewayBulkhead = paymentGatewayBulkhead;
+        this.paymentGatewayReadPolicy = paymentGatewayReadPolicy;
     }
 
     public CompletableFuture<PaymentResponse> processPayment(PaymentRequest paymentRequest) {
         log.info("Processing payment for order: {} with amount: {}",
                 paymentRequest.orderId(), paymentRequest.amount());
-        return paymentGatewayClient.processPayment(paymentRequest)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.processPayment(paymentRequest))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Payment processing failed for order: {}", paymentRequest.orderId(), ex);
-                        throw new PaymentProcessingException("Payment gateway error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Payment gateway error: ");
                     }
                     if ("SUCCESS".equals(response.status())) {
                         log.info("Payment successful for order: {} - Payment ID: {}",
@@ -44,11 +73,11 @@ public class PaymentService {
 
     public CompletableFuture<RefundResponse> refundPayment(RefundRequest request) {
         log.info("Processing refund for payment: {} with amount: {}", request.paymentId(), request.amount());
-        return paymentGatewayClient.refundPayment(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.refundPayment(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Refund processing failed for payment: {}", request.paymentId(), ex);
-                        throw new PaymentProcessingException("Refund processing failed: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Refund processing failed: ");
                     }
                     if ("SUCCESS".equals(response.status())) {
                         log.info("Refund successful for payment: {} - Refund ID: {}",
@@ -63,11 +92,13 @@ public class PaymentService {
 
     public CompletableFuture<PaymentStatusResponse> getPaymentStatus(String transactionId) {
         log.debug("Getting payment status for transaction: {}", transactionId);
-        return paymentGatewayClient.getPaymentStatus(transactionId)
+        // An idempotent read: hedge it when slow and retry it when it fails
+        return paymentGatewayReadPolicy.call(() ->
+                        paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.getPaymentStatus(transactionId)))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Failed to get payment status for transaction: {}", transactionId, ex);
-                        throw new PaymentProcessingException("Failed to retrieve payment status: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Failed to retrieve payment status: ");
                     }
                     return response;
                 });
@@ -75,11 +106,11 @@ public class PaymentService {
 
     public CompletableFuture<AuthorizationResponse> authorizePayment(AuthorizationRequest request) {
         log.info("Authorizing payment for order: {} with amount: {}", request.orderId(), request.amount());
-        return paymentGatewayClient.authorizePayment(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.authorizePayment(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Authorization failed for order: {}", request.orderId(), ex);
-                        throw new PaymentProcessingException("Payment authorization error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Payment authorization error: ");
                     }
                     log.info("Authorization {} for order: {} - Auth ID: {}", response.status(), request.orderId(), response.authorizationId());
                     return response;
@@ -88,11 +119,11 @@ public class PaymentService {
 
     public CompletableFuture<CaptureResponse> capturePayment(CaptureRequest request) {
         log.info("Capturing payment for authorization: {} with amount: {}", request.authorizationId(), request.amount());
-        return paymentGatewayClient.capturePayment(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.capturePayment(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Capture failed for authorization: {}", request.authorizationId(), ex);
-                        throw new PaymentProcessingException("Payment capture error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Payment capture error: ");
                     }
                     log.info("Capture {} for authorization: {} - Capture ID: {}", response.status(), request.authorizationId(), response.captureId());
                     return response;
@@ -101,11 +132,11 @@ public class PaymentService {
 
     public CompletableFuture<VoidResponse> voidPayment(VoidRequest request) {
         log.info("Voiding authorization: {}", request.authorizationId());
-        return paymentGatewayClient.voidPayment(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.voidPayment(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Void failed for authorization: {}", request.authorizationId(), ex);
-                        throw new PaymentProcessingException("Payment void error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Payment void error: ");
                     }
                     log.info("Void {} for authorization: {}", response.status(), request.authorizationId());
                     return response;
@@ -114,11 +145,11 @@ public class PaymentService {
 
     public CompletableFuture<CustomerResponse> createCustomer(CreateCustomerRequest request) {
         log.info("Creating customer: {}", request.email());
-        return paymentGatewayClient.createCustomer(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.createCustomer(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Customer creation failed for email: {}", request.email(), ex);
-                        throw new PaymentProcessingException("Customer creation error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Customer creation error: ");
                     }
                     log.info("Customer created successfully for email: {} - Gateway Customer ID: {}", request.email(), response.gatewayCustomerId());
                     return response;
@@ -127,11 +158,11 @@ public class PaymentService {
 
     public CompletableFuture<PaymentMethodResponse> addPaymentMethod(AddPaymentMethodRequest request) {
         log.info("Adding payment method for customer: {}", request.customerId());
-        return paymentGatewayClient.addPaymentMethod(request)
+        return paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.addPaymentMethod(request))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Adding payment method failed for customer: {}", request.customerId(), ex);
-                        throw new PaymentProcessingException("Add payment method error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "Add payment method error: ");
                     }
                     log.info("Payment method added successfully for customer: {} - Payment Method ID: {}", request.customerId(), response.paymentMethodId());
                     return response;
@@ -140,14 +171,26 @@ public class PaymentService {
 
     public CompletableFuture<List<Transaction>> listTransactions(ListTransactionsRequest request) {
         log.info("Listing transactions for customer: {}", request.customerId());
-        return paymentGatewayClient.listTransactions(request)
+        return paymentGatewayReadPolicy.call(() ->
+                        paymentGatewayBulkhead.callAsync(() -> paymentGatewayClient.listTransactions(request)))
                 .handle((response, ex) -> {
                     if (ex != null) {
                         log.error("Listing transactions failed for customer: {}", request.customerId(), ex);
-                        throw new PaymentProcessingException("List transactions error: " + ex.getMessage());
+                        throw gatewayFailure(ex, "List transactions error: ");
                     }
                     log.info("Successfully listed {} transactions for customer: {}", response != null ? response.size() : 0, request.customerId());
                     return response;
                 });
     }
+
+    // A full bulkhead, an open breaker or a timeout means the gateway is unavailable, not that the
+    // payment failed; keep them 503s
+    private RuntimeException gatewayFailure(Throwable ex, String message) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof BulkheadFullException || cause instanceof CircuitBreakerOpenException
+                || cause instanceof ExternalServiceException) {
+            return (RuntimeException) cause;
+        }
+        return new PaymentProcessingException(message + ex.getMessage());
+    }
 }
@@ -0,0 +1,175 @@
+package com.ecommerce.orderprocessing.payment.client;
+
+import com.ecommerce.orderprocessing.payment.client.GatewaySimulator.Brownout;
+import com.ecommerce.orderprocessing.payment.client.GatewaySimulator.Distribution;
+import com.ecommerce.orderprocessing.payment.client.GatewaySimulator.Failure;
+import com.ecommerce.orderprocessing.payment.client.GatewaySimulator.Outcome;
+import com.ecommerce.orderprocessing.payment.client.GatewaySimulator.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GatewaySimulatorTest {
+
+    private static final int CALLS = 20_000;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void next_withTheSameSeed_shouldReplayTheSameOutcomesWhateverTheThreadInterleaving() throws Exception {
+        // Given
+        Profile profile = new Profile(Distribution.LOG_NORMAL, Duration.ofMillis(100), 0.5, 0.01,
+                Duration.ofSeconds(2), 0.02, 0.01, 0.1);
+        List<Outcome> expected = draw(simulator(7L, profile, Brownout.NONE), 1_000);
+        GatewaySimulator concurrent = simulator(7L, profile, Brownout.NONE);
+
+        // When
+        List<Outcome> drawn = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Callable<Outcome>> calls = IntStream.range(0, 1_000)
+                    .<Callable<Outcome>>mapToObj(i -> () -> concurrent.next("process-payment"))
+                    .toList();
+            for (Future<Outcome> outcome : executor.invokeAll(calls)) {
+                drawn.add(outcome.get());
+            }
+        }
+
+        // Then
+        assertThat(drawn).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(draw(simulator(7L, profile, Brownout.NONE), 1_000)).isEqualTo(expected);
+        assertThat(draw(simulator(8L, profile, Brownout.NONE), 1_000)).isNotEqualTo(expected);
+    }
+
+    @Test
+    void next_withLogNormalLatencyAndSpikes_shouldMatchTheConfiguredMedianAndTail() {
+        // Given
+        GatewaySimulator simulator = simulator(1L, new Profile(Distribution.LOG_NORMAL, Duration.ofMillis(100), 0.5,
+                0.01, Duration.ofSeconds(2), 0, 0, 0), Brownout.NONE);
+
+        // When
+        long[] latencies = draw(simulator, CALLS).stream().mapToLong(outcome -> outcome.latency().toMillis()).sorted().toArray();
+
+        // Then
+        assertThat(latencies[CALLS / 2]).isBetween(95L, 105L);
+        assertThat(latencies[CALLS * 98 / 100]).isBetween(250L, 400L);
+        assertThat(latencies[CALLS * 995 / 1000]).isGreaterThanOrEqualTo(2_000L);
+    }
+
+    @Test
+    void next_withNormalLatency_shouldNeverGoNegative() {
+        // Given: a spread this wide would put a sixth of the draws below zero
+        GatewaySimulator simulator = simulator(1L, new Profile(Distribution.NORMAL, Duration.ofMillis(50), 1.0,
+                0, Duration.ZERO, 0, 0, 0), Brownout.NONE);
+
+        // When
+        List<Outcome> outcomes = draw(simulator, CALLS);
+
+        // Then
+        assertThat(outcomes).allMatch(outcome -> !outcome.latency().isNegative());
+        assertThat(outcomes.stream().mapToLong(outcome -> outcome.latency().toMillis()).average().orElseThrow())
+                .isCloseTo(54, within(3.0));
+    }
+
+    @Test
+    void next_shouldFailTimeOutAndDeclineAtTheConfiguredRates() {
+        // Given
+        GatewaySimulator simulator = simulator(1L, new Profile(Distribution.FIXED, Duration.ofMillis(100), 0,
+                0, Duration.ZERO, 0.05, 0.02, 0.1), Brownout.NONE);
+
+        // When
+        List<Outcome> outcomes = draw(simulator, CALLS);
+
+        // Then
+        assertThat(share(outcomes, outcome -> outcome.failure() == Failure.ERROR)).isCloseTo(0.05, within(0.01));
+        assertThat(share(outcomes, outcome -> outcome.failure() == Failure.TIMEOUT)).isCloseTo(0.02, within(0.01));
+        assertThat(share(outcomes, Outcome::declined)).isCloseTo(0.93 * 0.1, within(0.01));
+        assertThat(outcomes).filteredOn(outcome -> outcome.failure() == Failure.TIMEOUT)
+                .allMatch(outcome -> outcome.latency().equals(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void next_duringABrownoutWindow_shouldSlowDownAndFailMore() {
+        // Given: a 1 minute brownout at the end of every 10 minutes
+        GatewaySimulator simulator = simulator(1L, Profile.fixed(Duration.ofMillis(100), 0),
+                new Brownout(Duration.ofMinutes(10), Duration.ofMinutes(1), 5, 0.5));
+
+        // When
+        List<Outcome> before = draw(simulator, 1_000);
+        clock.advance(Duration.ofMinutes(9).plusSeconds(30));
+        List<Outcome> during = draw(simulator, 1_000);
+        clock.advance(Duration.ofMinutes(1));
+        List<Outcome> after = draw(simulator, 1_000);
+
+        // Then
+        assertThat(before).allMatch(outcome -> outcome.latency().equals(Duration.ofMillis(100)) && outcome.failure() == Failure.NONE);
+        assertThat(during).allMatch(outcome -> outcome.latency().equals(Duration.ofMillis(500)));
+        assertThat(share(during, outcome -> outcome.failure() == Failure.ERROR)).isCloseTo(0.5, within(0.05));
+        assertThat(after).allMatch(outcome -> outcome.latency().equals(Duration.ofMillis(100)) && outcome.failure() == Failure.NONE);
+    }
+
+    @Test
+    void next_forAnUnknownOperation_shouldThrow() {
+        GatewaySimulator simulator = GatewaySimulator.withDefaults(1L);
+
+        assertThatThrownBy(() -> simulator.next("teleport-payment"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("teleport-payment");
+    }
+
+    private GatewaySimulator simulator(long seed, Profile profile, Brownout brownout) {
+        return new GatewaySimulator(seed, Map.of("process-payment", profile), Duration.ofSeconds(30), brownout, clock);
+    }
+
+    private static List<Outcome> draw(GatewaySimulator simulator, int calls) {
+        List<Outcome> outcomes = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            outcomes.add(simulator.next("process-payment"));
+        }
+        return outcomes;
+    }
+
+    private static double share(List<Outcome> outcomes, Predicate<Outcome> matching) {
+        return (double) outcomes.stream().filter(matching).count() / outcomes.size();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
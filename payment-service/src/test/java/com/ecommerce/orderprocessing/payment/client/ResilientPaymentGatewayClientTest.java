@@ -0,0 +1,100 @@
+package com.ecommerce.orderprocessing.payment.client;
+
+import com.ecommerce.orderprocessing.common.concurrent.AdaptiveConcurrencyLimit;
+import com.ecommerce.orderprocessing.common.concurrent.CircuitBreaker;
+import com.ecommerce.orderprocessing.common.exception.BulkheadFullException;
+import com.ecommerce.orderprocessing.common.exception.CircuitBreakerOpenException;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
+import com.ecommerce.orderprocessing.payment.dto.PaymentRequest;
+import com.ecommerce.orderprocessing.payment.dto.PaymentResponse;
+import com.ecommerce.orderprocessing.payment.dto.PaymentStatusResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against {@link MockPaymentGatewayClient} with its default profiles, where calls take 50-100 ms,
+ * and sets deadlines either side of that latency.
+ */
+class ResilientPaymentGatewayClientTest {
+
+    private static final PaymentRequest PAYMENT_REQUEST =
+            new PaymentRequest(1L, "mock", BigDecimal.TEN, "USD", "123", "name", "12", "2025", "123");
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MockPaymentGatewayClient gateway = new MockPaymentGatewayClient(virtualThreadExecutor,
+            GatewaySimulator.withDefaults(42));
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("payment-gateway", 4, 4, 0.5,
+            Duration.ofMinutes(1), 1, ex -> !(ex instanceof BulkheadFullException));
+    private final AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit("payment-gateway", 10, 2, 20, 0.5,
+            ex -> ex instanceof TimeoutException);
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    void getPaymentStatus_withinDeadline_shouldReturnGatewayResponse() {
+        // Given
+        ResilientPaymentGatewayClient client = client(Duration.ofMillis(20), Duration.ofSeconds(2));
+
+        // When
+        PaymentStatusResponse response = client.getPaymentStatus("txn-1").join();
+
+        // Then
+        assertThat(response.status()).isEqualTo("SUCCESS");
+        assertThat(circuitBreaker.getSuccessCount()).isEqualTo(1);
+        assertThat(concurrencyLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void processPayment_pastDeadline_shouldFailAsServiceUnavailableAndLowerTheLimit() {
+        // Given
+        ResilientPaymentGatewayClient client = client(Duration.ofMillis(20), Duration.ofSeconds(2));
+
+        // When
+        CompletableFuture<PaymentResponse> future = client.processPayment(PAYMENT_REQUEST);
+
+        // Then
+        assertThatThrownBy(future::join)
+                .hasCauseInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("processPayment timed out after 20 ms");
+        assertThat(concurrencyLimit.getDropCount()).isEqualTo(1);
+        assertThat(concurrencyLimit.getLimit()).isEqualTo(5);
+        assertThat(circuitBreaker.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void processPayment_afterRepeatedTimeouts_shouldFailFastWithoutCallingTheGateway() {
+        // Given
+        ResilientPaymentGatewayClient client = client(Duration.ofMillis(20), Duration.ofSeconds(2));
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<PaymentResponse> timedOut = client.processPayment(PAYMENT_REQUEST);
+            assertThatThrownBy(timedOut::join).hasCauseInstanceOf(ExternalServiceException.class);
+        }
+
+        // When
+        long started = System.nanoTime();
+        CompletableFuture<PaymentResponse> future = client.processPayment(PAYMENT_REQUEST);
+
+        // Then
+        assertThatThrownBy(future::join).hasCauseInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(50));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getNotPermittedCount()).isEqualTo(1);
+    }
+
+    private ResilientPaymentGatewayClient client(Duration timeout, Duration readTimeout) {
+        return new ResilientPaymentGatewayClient(gateway, circuitBreaker, concurrencyLimit, timeout, readTimeout);
+    }
+}
@@ -1,5 +1,11 @@
 package com.ecommerce.orderprocessing.payment.service;
 
+import com.ecommerce.orderprocessing.common.concurrent.AdaptiveConcurrencyLimit;
+import com.ecommerce.orderprocessing.common.concurrent.Bulkhead;
+import com.ecommerce.orderprocessing.common.concurrent.CircuitBreaker;
+import com.ecommerce.orderprocessing.common.concurrent.HedgingRetryPolicy;
+import com.ecommerce.orderprocessing.common.concurrent.RetryBudget;
+import com.ecommerce.orderprocessing.common.exception.ExternalServiceException;
 import com.ecommerce.orderprocessing.payment.client.PaymentGatewayClient;
 import com.ecommerce.orderprocessing.payment.dto.*;
 import com.ecommerce.orderprocessing.payment.exception.PaymentProcessingException;
@@ -10,17 +16,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +53,13 @@ class PaymentServiceTest {
         paymentGatewayClients.put("stripe", stripePaymentGatewayClient);
 
         // Default provider is 'mock' as per application.properties
-        paymentService = new PaymentService(paymentGatewayClients, "mock");
+        paymentService = new PaymentService(paymentGatewayClients, "mock", new Bulkhead("payment-gateway", 10, Duration.ofMillis(100)),
+                new CircuitBreaker("payment-gateway", 10, 5, 0.5, Duration.ofSeconds(30), 2, ex -> true),
+                new AdaptiveConcurrencyLimit("payment-gateway", 5, 1, 10, 0.7, ex -> ex instanceof TimeoutException),
+                Duration.ofMillis(200), Duration.ofMillis(100),
+                new HedgingRetryPolicy("payment-gateway-reads", 3, Duration.ofMillis(1), Duration.ofMillis(10),
+                        Duration.ofSeconds(1), Duration.ofSeconds(1), new RetryBudget(0.2, 10),
+                        ex -> ex instanceof ExternalServiceException, Runnable::run));
     }
 
     @Test
@@ -75,6 +91,21 @@ class PaymentServiceTest {
         assertThatThrownBy(future::get).hasCauseInstanceOf(PaymentProcessingException.class);
     }
 
+    @Test
+    void processPayment_whenGatewayMissesDeadline_shouldFailAsServiceUnavailable() {
+        // Given
+        PaymentRequest paymentRequest = new PaymentRequest(1L, "mock", BigDecimal.TEN, "USD", "123", "name", "12", "2025", "123");
+        when(mockPaymentGatewayClient.processPayment(any(PaymentRequest.class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        CompletableFuture<PaymentResponse> future = paymentService.processPayment(paymentRequest);
+
+        // Then
+        assertThatThrownBy(future::get)
+                .hasCauseInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("processPayment timed out after 200 ms");
+    }
+
     @Test
     void refundPayment_shouldReturnRefundResponse() throws Exception {
         // Given
@@ -106,6 +137,22 @@ class PaymentServiceTest {
         assertThat(response.status()).isEqualTo("SUCCESS");
     }
 
+    @Test
+    void getPaymentStatus_whenGatewayFailsOnce_shouldRetryAndReturnTheRetriedResponse() throws Exception {
+        // Given
+        PaymentStatusResponse paymentStatusResponse = new PaymentStatusResponse("payment-1", "SUCCESS", "COMPLETED", LocalDateTime.now(), "Payment completed");
+        when(mockPaymentGatewayClient.getPaymentStatus("payment-1")).thenReturn(
+                CompletableFuture.failedFuture(new ExternalServiceException("PaymentGateway", "Service unavailable")),
+                CompletableFuture.completedFuture(paymentStatusResponse));
+
+        // When
+        PaymentStatusResponse response = paymentService.getPaymentStatus("payment-1").get();
+
+        // Then
+        assertThat(response.status()).isEqualTo("SUCCESS");
+        verify(mockPaymentGatewayClient, times(2)).getPaymentStatus("payment-1");
+    }
+
     @Test
     void authorizePayment_shouldReturnAuthorizationResponse() throws Exception {
         // Given
@@ -17,7 +17,8 @@ import java.util.Objects;
 @Entity
 @Table(name = "products", indexes = {
         @Index(name = "idx_product_name", columnList = "name"),
-        @Index(name = "idx_product_active", columnList = "is_active")
+        @Index(name = "idx_product_active", columnList = "is_active"),
+        @Index(name = "idx_product_created_at", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -0,0 +1,56 @@
+package com.ecommerce.orderprocessing.product.cache;
+
+import com.ecommerce.orderprocessing.common.cache.BoundedTtlCache;
+import com.ecommerce.orderprocessing.common.cache.BoundedTtlCacheMetrics;
+import com.ecommerce.orderprocessing.product.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.product.cache.type", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryProductCache implements ProductCache {
+
+    private static final String CACHE_NAME = "products";
+
+    private final BoundedTtlCache<Long, ProductResponse> cache;
+
+    public InMemoryProductCache(@Value("${app.product.cache.max-size:10000}") int maxSize,
+                                @Value("${app.product.cache.ttl:10m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.cache = BoundedTtlCacheMetrics.monitor(meterRegistry, new BoundedTtlCache<>(maxSize, ttl), CACHE_NAME);
+    }
+
+    @Override
+    public Optional<ProductResponse> get(Long productId) {
+        return Optional.ofNullable(cache.get(productId));
+    }
+
+    @Override
+    public Map<Long, ProductResponse> getAll(Collection<Long> productIds) {
+        return cache.getAll(productIds);
+    }
+
+    @Override
+    public long loadToken() {
+        return cache.generation();
+    }
+
+    @Override
+    public void putAll(Collection<ProductResponse> products, long loadToken) {
+        for (ProductResponse product : products) {
+            cache.putIfCurrent(product.id(), product, loadToken);
+        }
+    }
+
+    @Override
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.orderprocessing.product.cache;
+
+import com.ecommerce.orderprocessing.product.ProductResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache for catalog lookups. Implementations decide where entries live; the catalog
+ * service only relies on {@link #evict} being visible to subsequent reads once it returns.
+ */
+public interface ProductCache {
+
+    Optional<ProductResponse> get(Long productId);
+
+    /**
+     * Returns the cached products among {@code productIds}; missing ids are simply absent from the map.
+     */
+    Map<Long, ProductResponse> getAll(Collection<Long> productIds);
+
+    /**
+     * Token to pass back to {@link #putAll} so entries loaded before a concurrent eviction are dropped.
+     */
+    long loadToken();
+
+    void putAll(Collection<ProductResponse> products, long loadToken);
+
+    void evict(Long productId);
+}
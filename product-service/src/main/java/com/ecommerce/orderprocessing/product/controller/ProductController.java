@@ -1,5 +1,7 @@
 package com.ecommerce.orderprocessing.product.controller;
 
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
 import com.ecommerce.orderprocessing.product.ProductResponse;
 import com.ecommerce.orderprocessing.product.dto.ProductRequest;
 import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
@@ -48,6 +50,18 @@ public class ProductController {
                 });
     }
 
+    /**
+     * Keyset-paginated product listing, newest first: pass the returned {@code nextCursor} back as
+     * {@code cursor} to read the following page.
+     */
+    @GetMapping("/cursor")
+    public CompletableFuture<CursorPagedResponse<EntityModel<ProductResponse>>> getProductsByCursor(@RequestParam(required = false) String cursor,
+                                                                                                   @RequestParam(required = false) Integer size,
+                                                                                                   @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return productCatalogService.getProducts(CursorPageRequest.of(cursor, size, includeTotal))
+                .thenApply(page -> page.map(assembler::toModel));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_MANAGER')")
     public CompletableFuture<ResponseEntity<EntityModel<ProductResponse>>> createProduct(@RequestBody ProductRequest productRequest) {
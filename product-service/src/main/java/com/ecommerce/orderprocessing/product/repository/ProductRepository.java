@@ -2,6 +2,7 @@ package com.ecommerce.orderprocessing.product.repository;
 
 
 import com.ecommerce.orderprocessing.product.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,9 @@ import org.springframework.stereotype.Repository;
 
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -20,6 +24,11 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Upper bound on the number of ids bound into a single IN-list.
+     */
+    int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     List<Product> findByNameContainingIgnoreCase(String name);
 
     Page<Product> findByIsActiveTrue(Pageable pageable);
@@ -34,4 +43,41 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     );
 
     long countByIsActiveTrue();
+
+    /*
+     * Keyset listing, newest first; see OrderRepository for how the (created_at, id) seek works.
+     */
+
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findNewestFirst(Limit limit);
+
+    @Query("""
+        SELECT p FROM Product p
+        WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)
+        ORDER BY p.createdAt DESC, p.id DESC
+    """)
+    List<Product> findNewestFirstBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads all products for the given ids using one IN-list query per
+     * {@link #IN_CLAUSE_CHUNK_SIZE} ids. Ids that do not exist are skipped.
+     */
+    default List<Product> findAllByIdInChunks(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        if (distinctIds.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return findByIdIn(distinctIds);
+        }
+        List<Product> products = new ArrayList<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size());
+            products.addAll(findByIdIn(distinctIds.subList(from, to)));
+        }
+        return products;
+    }
 }
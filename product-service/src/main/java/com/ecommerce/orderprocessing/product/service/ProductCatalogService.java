@@ -1,14 +1,20 @@
 package com.ecommerce.orderprocessing.product.service;
 
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
 import com.ecommerce.orderprocessing.product.ProductResponse;
 import com.ecommerce.orderprocessing.product.dto.ProductRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface ProductCatalogService {
     CompletableFuture<ProductResponse> getProductById(Long productId);
+    CompletableFuture<Map<Long, ProductResponse>> getProductsByIds(Collection<Long> productIds);
     CompletableFuture<List<ProductResponse>> getAllProducts();
+    CompletableFuture<CursorPagedResponse<ProductResponse>> getProducts(CursorPageRequest pageRequest);
     CompletableFuture<ProductResponse> createProduct(ProductRequest productRequest);
     CompletableFuture<ProductResponse> updateProduct(Long productId, ProductRequest productRequest);
     CompletableFuture<Void> deleteProduct(Long productId);
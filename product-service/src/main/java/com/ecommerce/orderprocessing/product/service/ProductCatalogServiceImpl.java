@@ -1,15 +1,25 @@
 package com.ecommerce.orderprocessing.product.service;
 
+import com.ecommerce.orderprocessing.common.concurrent.Futures;
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
+import com.ecommerce.orderprocessing.common.pagination.KeysetCursor;
 import com.ecommerce.orderprocessing.product.Product;
+import com.ecommerce.orderprocessing.product.cache.ProductCache;
 import com.ecommerce.orderprocessing.product.dto.ProductRequest;
 import com.ecommerce.orderprocessing.product.repository.ProductRepository;
 import com.ecommerce.orderprocessing.product.ProductResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
@@ -20,19 +30,44 @@ import java.util.stream.Collectors;
 public class ProductCatalogServiceImpl implements ProductCatalogService {
 
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
     private final ExecutorService virtualThreadExecutor;
 
-    public ProductCatalogServiceImpl(ProductRepository productRepository, ExecutorService virtualThreadExecutor) {
+    public ProductCatalogServiceImpl(ProductRepository productRepository, ProductCache productCache,
+                                     ExecutorService virtualThreadExecutor) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
         this.virtualThreadExecutor = virtualThreadExecutor;
     }
 
     @Override
     public CompletableFuture<ProductResponse> getProductById(Long productId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> productCache.get(productId).orElseGet(() -> {
+            long loadToken = productCache.loadToken();
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
-            return toProductResponse(product);
+            ProductResponse productResponse = toProductResponse(product);
+            productCache.putAll(List.of(productResponse), loadToken);
+            return productResponse;
+        }), virtualThreadExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, ProductResponse>> getProductsByIds(Collection<Long> productIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Long, ProductResponse> products = new HashMap<>(productCache.getAll(productIds));
+            Set<Long> missing = productIds.stream()
+                    .filter(id -> !products.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missing.isEmpty()) {
+                long loadToken = productCache.loadToken();
+                List<ProductResponse> loaded = productRepository.findAllByIdInChunks(missing).stream()
+                        .map(this::toProductResponse)
+                        .toList();
+                productCache.putAll(loaded, loadToken);
+                loaded.forEach(product -> products.put(product.id(), product));
+            }
+            return products;
         }, virtualThreadExecutor);
     }
 
@@ -46,6 +81,32 @@ public class ProductCatalogServiceImpl implements ProductCatalogService {
         }, virtualThreadExecutor);
     }
 
+    @Override
+    public CompletableFuture<CursorPagedResponse<ProductResponse>> getProducts(CursorPageRequest pageRequest) {
+        int size = pageRequest.size();
+        CompletableFuture<Long> total = pageRequest.includeTotal()
+                ? CompletableFuture.supplyAsync(productRepository::count, virtualThreadExecutor)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<CursorPagedResponse<ProductResponse>> page = CompletableFuture.supplyAsync(() -> {
+            KeysetCursor after = pageRequest.after();
+            // One row past the page size tells whether another page follows
+            List<Product> slice = after == null
+                    ? productRepository.findNewestFirst(Limit.of(size + 1))
+                    : productRepository.findNewestFirstBefore(after.createdAt(), after.id(), Limit.of(size + 1));
+            boolean hasNext = slice.size() > size;
+            List<Product> rows = hasNext ? slice.subList(0, size) : slice;
+            String nextCursor = hasNext
+                    ? new KeysetCursor(rows.get(size - 1).getCreatedAt(), rows.get(size - 1).getId()).encode()
+                    : null;
+            List<ProductResponse> content = rows.stream()
+                    .map(this::toProductResponse)
+                    .toList();
+            return new CursorPagedResponse<>(content, size, nextCursor, hasNext, null);
+        }, virtualThreadExecutor);
+        return Futures.combine(page, total, (products, totalElements) -> new CursorPagedResponse<>(
+                products.content(), products.size(), products.nextCursor(), products.hasNext(), totalElements));
+    }
+
     @Override
     @Transactional
     public CompletableFuture<ProductResponse> createProduct(ProductRequest productRequest) {
@@ -70,6 +131,7 @@ public class ProductCatalogServiceImpl implements ProductCatalogService {
             product.setDescription(productRequest.description());
             product.setPrice(productRequest.price());
             Product updatedProduct = productRepository.save(product);
+            productCache.evict(productId);
             return toProductResponse(updatedProduct);
         }, virtualThreadExecutor);
     }
@@ -81,6 +143,7 @@ public class ProductCatalogServiceImpl implements ProductCatalogService {
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
             productRepository.delete(product);
+            productCache.evict(productId);
         }, virtualThreadExecutor);
     }
 
@@ -1,22 +1,33 @@
 package com.ecommerce.orderprocessing.product.service;
 
+import com.ecommerce.orderprocessing.common.dto.CursorPagedResponse;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.common.pagination.CursorPageRequest;
+import com.ecommerce.orderprocessing.common.pagination.KeysetCursor;
 import com.ecommerce.orderprocessing.product.Product;
 import com.ecommerce.orderprocessing.product.ProductResponse;
+import com.ecommerce.orderprocessing.product.cache.InMemoryProductCache;
+import com.ecommerce.orderprocessing.product.dto.ProductRequest;
 import com.ecommerce.orderprocessing.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -35,13 +46,16 @@ class ProductCatalogServiceImplTest {
     @InjectMocks
     private ProductCatalogServiceImpl productCatalogService;
 
+    private InMemoryProductCache productCache;
+
     private Product product1;
     private Product product2;
 
     @BeforeEach
     void setUp() {
         // Manually inject the real ExecutorService into the service under test
-        productCatalogService = new ProductCatalogServiceImpl(productRepository, virtualThreadExecutor);
+        productCache = new InMemoryProductCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        productCatalogService = new ProductCatalogServiceImpl(productRepository, productCache, virtualThreadExecutor);
 
         product1 = new Product();
         product1.setId(1L);
@@ -94,4 +108,79 @@ class ProductCatalogServiceImplTest {
         assertEquals(product2.getId(), responses.get(1).id());
         verify(productRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProductById_shouldServeRepeatedReadsFromCache() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+
+        productCatalogService.getProductById(1L).get();
+        ProductResponse response = productCatalogService.getProductById(1L).get();
+
+        assertEquals(product1.getName(), response.name());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getProductsByIds_shouldOnlyLoadIdsMissingFromCache() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.findAllByIdInChunks(Set.of(2L))).thenReturn(List.of(product2));
+        productCatalogService.getProductById(1L).get();
+
+        Map<Long, ProductResponse> responses = productCatalogService.getProductsByIds(Set.of(1L, 2L)).get();
+
+        assertEquals(Set.of(1L, 2L), responses.keySet());
+        verify(productRepository, times(1)).findAllByIdInChunks(Set.of(2L));
+    }
+
+    @Test
+    void updateProduct_shouldEvictCachedProduct() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.save(product1)).thenReturn(product1);
+        productCatalogService.getProductById(1L).get();
+
+        productCatalogService.updateProduct(1L, new ProductRequest("Laptop Pro", "Faster laptop", BigDecimal.valueOf(1500.00))).get();
+        ProductResponse response = productCatalogService.getProductById(1L).get();
+
+        assertEquals(BigDecimal.valueOf(1500.00), response.price());
+        verify(productRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void deleteProduct_shouldEvictCachedProduct() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1), Optional.of(product1), Optional.empty());
+        productCatalogService.getProductById(1L).get();
+
+        productCatalogService.deleteProduct(1L).get();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> productCatalogService.getProductById(1L).join());
+        assertInstanceOf(ResourceNotFoundException.class, ex.getCause());
+        verify(productRepository, times(1)).delete(product1);
+    }
+
+    @Test
+    void getProductsByCursor_shouldReturnNextCursorWhenMoreRowsExist() throws Exception {
+        when(productRepository.findNewestFirst(Limit.of(2))).thenReturn(List.of(product2, product1));
+        when(productRepository.count()).thenReturn(2L);
+
+        CursorPagedResponse<ProductResponse> page = productCatalogService.getProducts(CursorPageRequest.of(null, 1, true)).get();
+
+        assertEquals(List.of(2L), page.content().stream().map(ProductResponse::id).toList());
+        assertTrue(page.hasNext());
+        assertEquals(2L, page.totalElements());
+        assertEquals(new KeysetCursor(product2.getCreatedAt(), 2L), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getProductsByCursor_shouldSeekPastCursorOnLaterPages() throws Exception {
+        KeysetCursor after = new KeysetCursor(product2.getCreatedAt(), 2L);
+        when(productRepository.findNewestFirstBefore(after.createdAt(), 2L, Limit.of(2))).thenReturn(List.of(product1));
+
+        CursorPagedResponse<ProductResponse> page = productCatalogService.getProducts(CursorPageRequest.of(after.encode(), 1, false)).get();
+
+        assertEquals(List.of(1L), page.content().stream().map(ProductResponse::id).toList());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        assertNull(page.totalElements());
+        verify(productRepository, never()).count();
+    }
+}
@@ -18,7 +18,7 @@ public class ShoppingCartModelAssembler implements RepresentationModelAssembler<
     public EntityModel<ShoppingCartResponse> toModel(ShoppingCartResponse cart) {
         EntityModel<ShoppingCartResponse> cartModel = EntityModel.of(cart,
                 linkTo(methodOn(ShoppingCartController.class).getShoppingCart(cart.customerId(), null)).withSelfRel(),
-                linkTo(methodOn(OrderController.class).createOrder(null)).withRel("checkout"),
+                linkTo(methodOn(OrderController.class).createOrder(null, null, null)).withRel("checkout"),
                 linkTo(methodOn(ShoppingCartController.class).clearShoppingCart(cart.customerId(), null)).withRel("clear"),
                 linkTo(methodOn(ShoppingCartController.class).addItemToCart(cart.customerId(), null, null)).withRel("add-item")
         );
@@ -8,17 +8,20 @@ import com.ecommerce.orderprocessing.shoppingcart.dto.ShoppingCartResponse;
 import com.ecommerce.orderprocessing.shoppingcart.dto.UpdateCartItemRequest;
 import com.ecommerce.orderprocessing.shoppingcart.repository.CartItemRepository;
 import com.ecommerce.orderprocessing.shoppingcart.repository.ShoppingCartRepository;
+import com.ecommerce.orderprocessing.common.concurrent.Futures;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
 import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
 import com.ecommerce.orderprocessing.product.ProductResponse;
 import com.ecommerce.orderprocessing.user.service.UserService;
-import com.ecommerce.orderprocessing.user.dto.UserResponse;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
@@ -48,48 +51,23 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
 
     @Override
     public CompletableFuture<ShoppingCartResponse> getShoppingCart(Long customerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            ShoppingCart shoppingCart = shoppingCartRepository.findByCustomerId(customerId)
-                    .orElseGet(() -> createNewShoppingCart(customerId));
-            return toShoppingCartResponse(shoppingCart, customerId);
-        }, virtualThreadExecutor);
+        CompletableFuture<ShoppingCart> shoppingCart = CompletableFuture.supplyAsync(() ->
+                shoppingCartRepository.findByCustomerId(customerId)
+                        .orElseGet(() -> createNewShoppingCart(customerId)), virtualThreadExecutor);
+        return Futures.compose(shoppingCart, cart -> toShoppingCartResponse(cart, customerId));
     }
 
     @Override
     public CompletableFuture<ShoppingCartResponse> addItemToCart(Long customerId, AddCartItemRequest request) {
-        return CompletableFuture.supplyAsync(() -> {
-            ShoppingCart cart = shoppingCartRepository.findByCustomerId(customerId)
-                    .orElseGet(() -> createNewShoppingCart(customerId));
-
-            ProductResponse productResponse = productCatalogService.getProductById(request.productId()).join();
-
-            // Check if item already exists in cart
-            cart.getCartItems().stream()
-                    .filter(item -> item.getProductId().equals(productResponse.id()))
-                    .findFirst()
-                    .ifPresentOrElse(
-                            item -> {
-                                item.setQuantity(item.getQuantity() + request.quantity());
-                                cartItemRepository.save(item);
-                            },
-                            () -> {
-                                CartItem newItem = new CartItem();
-                                newItem.setShoppingCart(cart);
-                                newItem.setProductId(productResponse.id());
-                                newItem.setQuantity(request.quantity());
-                                newItem.setUnitPrice(productResponse.price());
-                                cartItemRepository.save(newItem);
-                                cart.addCartItem(newItem);
-                            }
-                    );
-
-            return toShoppingCartResponse(cart, customerId);
-        }, virtualThreadExecutor);
+        CompletableFuture<ShoppingCart> updatedCart = Futures.compose(productCatalogService.getProductById(request.productId()),
+                productResponse -> CompletableFuture.supplyAsync(
+                        () -> addToCart(customerId, productResponse, request.quantity()), virtualThreadExecutor));
+        return Futures.compose(updatedCart, cart -> toShoppingCartResponse(cart, customerId));
     }
 
     @Override
     public CompletableFuture<ShoppingCartResponse> updateItemQuantity(Long customerId, Long productId, UpdateCartItemRequest request) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<ShoppingCart> updatedCart = CompletableFuture.supplyAsync(() -> {
             ShoppingCart cart = shoppingCartRepository.findByCustomerId(customerId)
                     .orElseThrow(() -> new ResourceNotFoundException("Shopping cart not found"));
             CartItem itemToUpdate = cart.getCartItems().stream()
@@ -100,13 +78,14 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
             itemToUpdate.setQuantity(request.quantity());
             cartItemRepository.save(itemToUpdate);
 
-            return toShoppingCartResponse(cart, customerId);
+            return cart;
         }, virtualThreadExecutor);
+        return Futures.compose(updatedCart, cart -> toShoppingCartResponse(cart, customerId));
     }
 
     @Override
     public CompletableFuture<ShoppingCartResponse> removeItemFromCart(Long customerId, Long productId) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<ShoppingCart> updatedCart = CompletableFuture.supplyAsync(() -> {
             ShoppingCart cart = shoppingCartRepository.findByCustomerId(customerId)
                     .orElseThrow(() -> new ResourceNotFoundException("Shopping cart not found"));
 
@@ -118,8 +97,9 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
             cart.removeCartItem(itemToRemove);
             cartItemRepository.delete(itemToRemove);
 
-            return toShoppingCartResponse(cart, customerId);
+            return cart;
         }, virtualThreadExecutor);
+        return Futures.compose(updatedCart, cart -> toShoppingCartResponse(cart, customerId));
     }
 
     @Override
@@ -134,37 +114,74 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         }, virtualThreadExecutor);
     }
 
+    private ShoppingCart addToCart(Long customerId, ProductResponse productResponse, int quantity) {
+        ShoppingCart cart = shoppingCartRepository.findByCustomerId(customerId)
+                .orElseGet(() -> createNewShoppingCart(customerId));
+
+        // Check if item already exists in cart
+        cart.getCartItems().stream()
+                .filter(item -> item.getProductId().equals(productResponse.id()))
+                .findFirst()
+                .ifPresentOrElse(
+                        item -> {
+                            item.setQuantity(item.getQuantity() + quantity);
+                            cartItemRepository.save(item);
+                        },
+                        () -> {
+                            CartItem newItem = new CartItem();
+                            newItem.setShoppingCart(cart);
+                            newItem.setProductId(productResponse.id());
+                            newItem.setQuantity(quantity);
+                            newItem.setUnitPrice(productResponse.price());
+                            cartItemRepository.save(newItem);
+                            cart.addCartItem(newItem);
+                        }
+                );
+
+        return cart;
+    }
+
     private ShoppingCart createNewShoppingCart(Long customerId) {
         ShoppingCart shoppingCart = new ShoppingCart();
         shoppingCart.setCustomerId(customerId);
         return shoppingCartRepository.save(shoppingCart);
     }
 
-    private ShoppingCartResponse toShoppingCartResponse(ShoppingCart cart, Long customerId) {
-        UserResponse userResponse = userService.getUserProfile(customerId).join();
-
-        List<CartItemResponse> itemDtos = cart.getCartItems().stream()
-                .map(this::toCartItemResponse)
-                .collect(Collectors.toList());
-
-        BigDecimal totalAmount = itemDtos.stream()
-                .map(CartItemResponse::subtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return new ShoppingCartResponse(
-                cart.getId(),
-                userResponse.id(),
-                userResponse.firstName() + " " + userResponse.lastName(),
-                userResponse.email(),
-                itemDtos,
-                totalAmount,
-                cart.getCreatedAt(),
-                cart.getUpdatedAt()
-        );
+    private CompletableFuture<ShoppingCartResponse> toShoppingCartResponse(ShoppingCart cart, Long customerId) {
+        Set<Long> productIds = cart.getCartItems().stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        CompletableFuture<Map<Long, ProductResponse>> products = productIds.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : productCatalogService.getProductsByIds(productIds);
+
+        return Futures.combine(userService.getCustomerSummary(customerId), products, (customer, productsById) -> {
+            List<CartItemResponse> itemDtos = cart.getCartItems().stream()
+                    .map(item -> toCartItemResponse(item, productsById))
+                    .collect(Collectors.toList());
+
+            BigDecimal totalAmount = itemDtos.stream()
+                    .map(CartItemResponse::subtotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            return new ShoppingCartResponse(
+                    cart.getId(),
+                    customer.id(),
+                    customer.fullName(),
+                    customer.email(),
+                    itemDtos,
+                    totalAmount,
+                    cart.getCreatedAt(),
+                    cart.getUpdatedAt()
+            );
+        });
     }
 
-    private CartItemResponse toCartItemResponse(CartItem item) {
-        ProductResponse productResponse = productCatalogService.getProductById(item.getProductId()).join();
+    private CartItemResponse toCartItemResponse(CartItem item, Map<Long, ProductResponse> products) {
+        ProductResponse productResponse = products.get(item.getProductId());
+        if (productResponse == null) {
+            throw new ResourceNotFoundException("Product not found with ID: " + item.getProductId());
+        }
         return new CartItemResponse(
                 productResponse.id(),
                 productResponse.name(),
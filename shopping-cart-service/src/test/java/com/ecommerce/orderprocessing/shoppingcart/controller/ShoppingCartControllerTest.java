@@ -1,6 +1,8 @@
 package com.ecommerce.orderprocessing.shoppingcart.controller;
 
 import com.ecommerce.orderprocessing.order.controller.OrderController;
+import com.ecommerce.orderprocessing.order.service.IdempotencyService;
+import com.ecommerce.orderprocessing.order.service.OrderExportService;
 import com.ecommerce.orderprocessing.order.service.OrderService;
 import com.ecommerce.orderprocessing.product.controller.ProductController;
 import com.ecommerce.orderprocessing.product.service.ProductCatalogService;
@@ -63,6 +65,12 @@ class ShoppingCartControllerTest {
     @MockitoBean
     private OrderService orderService; // For OrderController links
 
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @MockitoBean
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
@@ -10,7 +10,7 @@ import com.ecommerce.orderprocessing.shoppingcart.dto.UpdateCartItemRequest;
 import com.ecommerce.orderprocessing.shoppingcart.repository.CartItemRepository;
 import com.ecommerce.orderprocessing.shoppingcart.repository.ShoppingCartRepository;
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
-import com.ecommerce.orderprocessing.user.dto.UserResponse;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import com.ecommerce.orderprocessing.user.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,7 +22,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -55,7 +57,7 @@ class ShoppingCartServiceImplTest {
     private Long productId = 101L;
     private BigDecimal productPrice = BigDecimal.valueOf(50.00);
     private ProductResponse productResponse;
-    private UserResponse userResponse;
+    private CustomerSummary customerSummary;
     private ShoppingCart shoppingCart;
     private CartItem cartItem;
 
@@ -71,7 +73,7 @@ class ShoppingCartServiceImplTest {
         );
 
         productResponse = new ProductResponse(productId, "Test Product", "Description", productPrice, true, LocalDateTime.now(), LocalDateTime.now());
-        userResponse = new UserResponse(customerId, "John", "Doe", "john.doe@example.com", "123-456-7890", "http://example.com/profile.jpg", "CUSTOMER", true, LocalDateTime.now());
+        customerSummary = new CustomerSummary(customerId, "John", "Doe", "john.doe@example.com");
 
         shoppingCart = new ShoppingCart();
         shoppingCart.setId(1L);
@@ -92,8 +94,8 @@ class ShoppingCartServiceImplTest {
     @Test
     void getShoppingCart_shouldReturnExistingCart() throws Exception {
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(shoppingCart));
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.completedFuture(userResponse));
-        when(productCatalogService.getProductById(productId)).thenReturn(CompletableFuture.completedFuture(productResponse));
+        when(userService.getCustomerSummary(customerId)).thenReturn(CompletableFuture.completedFuture(customerSummary));
+        when(productCatalogService.getProductsByIds(Set.of(productId))).thenReturn(CompletableFuture.completedFuture(Map.of(productId, productResponse)));
 
         ShoppingCartResponse response = shoppingCartService.getShoppingCart(customerId).get();
 
@@ -102,15 +104,15 @@ class ShoppingCartServiceImplTest {
         assertEquals(customerId, response.customerId());
         assertEquals(1, response.items().size());
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
-        verify(userService, times(1)).getUserProfile(customerId);
-        verify(productCatalogService, times(1)).getProductById(productId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
+        verify(productCatalogService, times(1)).getProductsByIds(Set.of(productId));
     }
 
     @Test
     void getShoppingCart_shouldCreateNewCartIfNotFound() throws Exception {
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.empty());
         when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(shoppingCart);
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(userService.getCustomerSummary(customerId)).thenReturn(CompletableFuture.completedFuture(customerSummary));
 
         ShoppingCartResponse response = shoppingCartService.getShoppingCart(customerId).get();
 
@@ -120,7 +122,7 @@ class ShoppingCartServiceImplTest {
         assertTrue(response.items().isEmpty());
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
         verify(shoppingCartRepository, times(1)).save(any(ShoppingCart.class));
-        verify(userService, times(1)).getUserProfile(customerId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
     }
 
     @Test
@@ -130,6 +132,8 @@ class ShoppingCartServiceImplTest {
 
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(shoppingCart));
         when(productCatalogService.getProductById(request.productId())).thenReturn(CompletableFuture.completedFuture(newProductResponse));
+        when(productCatalogService.getProductsByIds(Set.of(productId, request.productId()))).thenReturn(CompletableFuture.completedFuture(
+                Map.of(productId, productResponse, request.productId(), newProductResponse)));
         when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> {
             CartItem savedItem = invocation.getArgument(0);
             savedItem.setId(2L); // Simulate save operation setting an ID
@@ -144,7 +148,7 @@ class ShoppingCartServiceImplTest {
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
         verify(productCatalogService, times(1)).getProductById(request.productId());
         verify(cartItemRepository, times(1)).save(any(CartItem.class));
-        verify(userService, times(1)).getUserProfile(customerId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
     }
 
     @Test
@@ -153,6 +157,7 @@ class ShoppingCartServiceImplTest {
 
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(shoppingCart));
         when(productCatalogService.getProductById(request.productId())).thenReturn(CompletableFuture.completedFuture(productResponse));
+        when(productCatalogService.getProductsByIds(Set.of(productId))).thenReturn(CompletableFuture.completedFuture(Map.of(productId, productResponse)));
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
 
         ShoppingCartResponse response = shoppingCartService.addItemToCart(customerId, request).get();
@@ -164,7 +169,7 @@ class ShoppingCartServiceImplTest {
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
         verify(productCatalogService, times(1)).getProductById(request.productId());
         verify(cartItemRepository, times(1)).save(cartItem);
-        verify(userService, times(1)).getUserProfile(customerId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
     }
 
     @Test
@@ -173,8 +178,8 @@ class ShoppingCartServiceImplTest {
 
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(shoppingCart));
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.completedFuture(userResponse));
-        when(productCatalogService.getProductById(productId)).thenReturn(CompletableFuture.completedFuture(productResponse));
+        when(userService.getCustomerSummary(customerId)).thenReturn(CompletableFuture.completedFuture(customerSummary));
+        when(productCatalogService.getProductsByIds(Set.of(productId))).thenReturn(CompletableFuture.completedFuture(Map.of(productId, productResponse)));
 
         ShoppingCartResponse response = shoppingCartService.updateItemQuantity(customerId, productId, request).get();
 
@@ -184,8 +189,8 @@ class ShoppingCartServiceImplTest {
         assertEquals(5, cartItem.getQuantity());
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
         verify(cartItemRepository, times(1)).save(cartItem);
-        verify(userService, times(1)).getUserProfile(customerId);
-        verify(productCatalogService, times(1)).getProductById(productId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
+        verify(productCatalogService, times(1)).getProductsByIds(Set.of(productId));
     }
 
     @Test
@@ -211,7 +216,7 @@ class ShoppingCartServiceImplTest {
     void removeItemFromCart_shouldRemoveItem() throws Exception {
         when(shoppingCartRepository.findByCustomerId(customerId)).thenReturn(Optional.of(shoppingCart));
         doNothing().when(cartItemRepository).delete(any(CartItem.class));
-        when(userService.getUserProfile(customerId)).thenReturn(CompletableFuture.completedFuture(userResponse));
+        when(userService.getCustomerSummary(customerId)).thenReturn(CompletableFuture.completedFuture(customerSummary));
 
         ShoppingCartResponse response = shoppingCartService.removeItemFromCart(customerId, productId).get();
 
@@ -219,7 +224,7 @@ class ShoppingCartServiceImplTest {
         assertTrue(response.items().isEmpty());
         verify(shoppingCartRepository, times(1)).findByCustomerId(customerId);
         verify(cartItemRepository, times(1)).delete(cartItem);
-        verify(userService, times(1)).getUserProfile(customerId);
+        verify(userService, times(1)).getCustomerSummary(customerId);
     }
 
     @Test
@@ -0,0 +1,48 @@
+package com.ecommerce.orderprocessing.user.cache;
+
+import com.ecommerce.orderprocessing.common.cache.BoundedTtlCache;
+import com.ecommerce.orderprocessing.common.cache.BoundedTtlCacheMetrics;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Caches {@link CustomerSummary} by user id so order and cart rendering does not reload the same
+ * user row, and its roles, for every response.
+ */
+@Component
+public class CustomerSummaryCache {
+
+    private static final String CACHE_NAME = "customers";
+
+    private final BoundedTtlCache<Long, CustomerSummary> cache;
+
+    public CustomerSummaryCache(@Value("${app.user.customer-cache.max-size:10000}") int maxSize,
+                                @Value("${app.user.customer-cache.ttl:5m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.cache = BoundedTtlCacheMetrics.monitor(meterRegistry, new BoundedTtlCache<>(maxSize, ttl), CACHE_NAME);
+    }
+
+    public Map<Long, CustomerSummary> getAll(Collection<Long> userIds) {
+        return cache.getAll(userIds);
+    }
+
+    public long loadToken() {
+        return cache.generation();
+    }
+
+    public void putAll(Collection<CustomerSummary> customers, long loadToken) {
+        for (CustomerSummary customer : customers) {
+            cache.putIfCurrent(customer.id(), customer, loadToken);
+        }
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.orderprocessing.user.dto;
+
+/**
+ * Display data for a customer, as shown on orders and carts.
+ */
+public record CustomerSummary(
+        Long id,
+        String firstName,
+        String lastName,
+        String email
+) {
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
@@ -1,12 +1,14 @@
 package com.ecommerce.orderprocessing.user.repository;
 
 import com.ecommerce.orderprocessing.user.domain.entity.User;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByIsActiveTrue();
 
+    @Query("""
+        SELECT new com.ecommerce.orderprocessing.user.dto.CustomerSummary(u.id, u.firstName, u.lastName, u.email)
+        FROM User u
+        WHERE u.id IN :ids
+    """)
+    List<CustomerSummary> findCustomerSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT DISTINCT u FROM User u JOIN u.orders")
     List<User> findUsersWithOrders();
 }
\ No newline at end of file
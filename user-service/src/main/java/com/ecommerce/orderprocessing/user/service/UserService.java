@@ -1,9 +1,11 @@
 package com.ecommerce.orderprocessing.user.service;
 
+import com.ecommerce.orderprocessing.user.cache.CustomerSummaryCache;
 import com.ecommerce.orderprocessing.user.domain.entity.User;
 import com.ecommerce.orderprocessing.user.domain.entity.Address;
 import com.ecommerce.orderprocessing.user.dto.AddressRequest;
 import com.ecommerce.orderprocessing.user.dto.AddressResponse;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import com.ecommerce.orderprocessing.user.dto.UserResponse;
 import com.ecommerce.orderprocessing.user.domain.entity.Role;
 import com.ecommerce.orderprocessing.user.dto.ChangePasswordRequest;
@@ -15,7 +17,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
@@ -28,12 +34,15 @@ public class UserService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final PasswordEncoderService passwordEncoderService;
+    private final CustomerSummaryCache customerSummaryCache;
     private final ExecutorService virtualThreadExecutor;
 
-    public UserService(UserRepository userRepository, AddressRepository addressRepository, PasswordEncoderService passwordEncoderService, ExecutorService virtualThreadExecutor) {
+    public UserService(UserRepository userRepository, AddressRepository addressRepository, PasswordEncoderService passwordEncoderService,
+                       CustomerSummaryCache customerSummaryCache, ExecutorService virtualThreadExecutor) {
         this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.passwordEncoderService = passwordEncoderService;
+        this.customerSummaryCache = customerSummaryCache;
         this.virtualThreadExecutor = virtualThreadExecutor;
     }
 
@@ -45,6 +54,36 @@ public class UserService {
         }, virtualThreadExecutor);
     }
 
+    public CompletableFuture<CustomerSummary> getCustomerSummary(Long userId) {
+        return getCustomerSummaries(Set.of(userId)).thenApply(customers -> {
+            CustomerSummary customer = customers.get(userId);
+            if (customer == null) {
+                throw new ResourceNotFoundException("User not found");
+            }
+            return customer;
+        });
+    }
+
+    /**
+     * Resolves display data for the given users, reading through {@link CustomerSummaryCache}.
+     * Unknown ids are absent from the returned map.
+     */
+    public CompletableFuture<Map<Long, CustomerSummary>> getCustomerSummaries(Collection<Long> userIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Long, CustomerSummary> customers = new HashMap<>(customerSummaryCache.getAll(userIds));
+            Set<Long> missing = userIds.stream()
+                    .filter(id -> !customers.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missing.isEmpty()) {
+                long loadToken = customerSummaryCache.loadToken();
+                List<CustomerSummary> loaded = userRepository.findCustomerSummariesByIdIn(missing);
+                customerSummaryCache.putAll(loaded, loadToken);
+                loaded.forEach(customer -> customers.put(customer.id(), customer));
+            }
+            return customers;
+        }, virtualThreadExecutor);
+    }
+
     @Transactional
     public CompletableFuture<AddressResponse> addAddress(Long userId, AddressRequest addressRequest) {
         return CompletableFuture.supplyAsync(() -> {
@@ -107,6 +146,7 @@ public class UserService {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("User not found"));
             userRepository.delete(user);
+            customerSummaryCache.evict(userId);
         }, virtualThreadExecutor);
     }
 
@@ -145,6 +185,7 @@ public class UserService {
             }
 
             User updatedUser = userRepository.save(user);
+            customerSummaryCache.evict(userId);
             return convertToUserResponse(updatedUser);
         }, virtualThreadExecutor);
     }
@@ -1,13 +1,16 @@
 package com.ecommerce.orderprocessing.user.service;
 
 import com.ecommerce.orderprocessing.common.exception.ResourceNotFoundException;
+import com.ecommerce.orderprocessing.user.cache.CustomerSummaryCache;
 import com.ecommerce.orderprocessing.user.domain.entity.Address;
 import com.ecommerce.orderprocessing.user.domain.entity.User;
 import com.ecommerce.orderprocessing.user.dto.AddressRequest;
 import com.ecommerce.orderprocessing.user.dto.ChangePasswordRequest;
+import com.ecommerce.orderprocessing.user.dto.CustomerSummary;
 import com.ecommerce.orderprocessing.user.dto.UserProfileUpdateRequest;
 import com.ecommerce.orderprocessing.user.repository.AddressRepository;
 import com.ecommerce.orderprocessing.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -42,13 +49,16 @@ class UserServiceTest {
     @InjectMocks
     private UserService userService;
 
+    private CustomerSummaryCache customerSummaryCache;
+
     private User user;
     private Address address;
 
     @BeforeEach
     void setUp() {
         // Manually inject the real ExecutorService into the service under test
-        userService = new UserService(userRepository, addressRepository, passwordEncoderService, virtualThreadExecutor);
+        customerSummaryCache = new CustomerSummaryCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        userService = new UserService(userRepository, addressRepository, passwordEncoderService, customerSummaryCache, virtualThreadExecutor);
 
         user = new User("John", "Doe", "john.doe@example.com", "encodedPassword");
         user.setId(1L);
@@ -211,4 +221,39 @@ class UserServiceTest {
         assertEquals(user2.getEmail(), responses.get(1).email());
         verify(userRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCustomerSummaries_shouldLoadEachCustomerOnce() throws Exception {
+        CustomerSummary summary = new CustomerSummary(1L, "John", "Doe", "john.doe@example.com");
+        when(userRepository.findCustomerSummariesByIdIn(Set.of(1L))).thenReturn(List.of(summary));
+
+        userService.getCustomerSummaries(Set.of(1L)).get();
+        Map<Long, CustomerSummary> customers = userService.getCustomerSummaries(Set.of(1L)).get();
+
+        assertEquals(summary, customers.get(1L));
+        verify(userRepository, times(1)).findCustomerSummariesByIdIn(Set.of(1L));
+    }
+
+    @Test
+    void getCustomerSummary_shouldThrowExceptionWhenUserNotFound() {
+        when(userRepository.findCustomerSummariesByIdIn(Set.of(99L))).thenReturn(List.of());
+
+        Exception exception = assertThrows(Exception.class, () -> userService.getCustomerSummary(99L).get());
+        assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    void updateUserProfile_shouldEvictCachedCustomerSummary() throws Exception {
+        when(userRepository.findCustomerSummariesByIdIn(Set.of(1L))).thenReturn(
+                List.of(new CustomerSummary(1L, "John", "Doe", "john.doe@example.com")),
+                List.of(new CustomerSummary(1L, "Jane", "Doe", "john.doe@example.com")));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        userService.getCustomerSummary(1L).get();
+
+        userService.updateUserProfile(1L, new UserProfileUpdateRequest("Jane", null, null, null)).get();
+
+        assertEquals("Jane", userService.getCustomerSummary(1L).get().firstName());
+        verify(userRepository, times(2)).findCustomerSummariesByIdIn(Set.of(1L));
+    }
+}